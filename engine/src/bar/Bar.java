@@ -0,0 +1,141 @@
+package bar;
+
+import currency.Currency;
+import timestamp.TimeStamp;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+
+/**
+ * An <i>OHLCV</i> bar: the open, high, low, and close prices, and the volume
+ * of all the {@link transaction.Transaction}s of a {@link stock.Stock} in a
+ * single time interval.
+ * <p>annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.</p>
+ *
+ * @version 1.1
+ * @see BarInterval
+ */
+@XmlRootElement(name = "rse-bar") @XmlAccessorType(XmlAccessType.FIELD)
+public class Bar {
+
+    /**
+     * The {@code TimeStamp} of the start of the interval.
+     */
+    private String timeStamp;
+
+    /**
+     * The start of the interval in milliseconds of the day. calculated from
+     * the {@link #timeStamp}.
+     */
+    @XmlTransient private long start;
+
+    private long open;
+
+    private long high;
+
+    private long low;
+
+    private long close;
+
+    /**
+     * The total quantity of the {@link transaction.Transaction}s in the
+     * interval.
+     */
+    private long volume;
+
+    /**
+     * Opens a new {@code Bar} with its first {@link
+     * transaction.Transaction}.
+     *
+     * @param start    the start of the interval in milliseconds of the day.
+     * @param price    the price of the first {@link transaction.Transaction}.
+     * @param quantity the quantity of the first {@link
+     *                 transaction.Transaction}.
+     */
+    public Bar(long start, long price, long quantity) {
+        this.timeStamp = TimeStamp.fromMillisOfDay(start);
+        this.start = start;
+        this.open = price;
+        this.high = price;
+        this.low = price;
+        this.close = price;
+        this.volume = quantity;
+    }
+
+    /**
+     * Copy Constructor.
+     */
+    Bar(Bar bar) {
+        this.timeStamp = bar.timeStamp;
+        this.start = bar.start;
+        this.open = bar.open;
+        this.high = bar.high;
+        this.low = bar.low;
+        this.close = bar.close;
+        this.volume = bar.volume;
+    }
+
+    /**
+     * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
+     * load and save.
+     */
+    public Bar() {}
+
+    /**
+     * Aggregates another {@link transaction.Transaction} into this {@code
+     * Bar}.
+     */
+    void add(long price, long quantity) {
+        if (price > high) { high = price; }
+        if (price < low) { low = price; }
+        close = price;
+        volume += quantity;
+    }
+
+    /**
+     * Recalculates the {@link #start} from the {@link #timeStamp}, after an
+     * <tt>.xml</tt> load.
+     */
+    void calcStart() {
+        start = TimeStamp.toMillisOfDay(timeStamp);
+    }
+
+    public String getTimeStamp() {
+        return timeStamp;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getOpen() {
+        return open;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    @Override public String toString() {
+        return "Bar{" + "timeStamp='" + timeStamp + '\'' + ", open=" +
+                Currency.numberFormat.format(open) + ", high=" +
+                Currency.numberFormat.format(high) + ", low=" +
+                Currency.numberFormat.format(low) + ", close=" +
+                Currency.numberFormat.format(close) + ", volume=" + volume +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package bar;
+
+/**
+ * The time intervals of the {@link Bar}s, that are aggregated for each {@link
+ * stock.Stock}.
+ * <p>Each interval keeps a bounded number of its latest {@link Bar}s.</p>
+ *
+ * @version 1.0
+ */
+public enum BarInterval {
+    SECOND_1("1s", 1000L, 3600), MINUTE_1("1m", 60_000L, 1440),
+    MINUTE_5("5m", 300_000L, 288), HOUR_1("1h", 3_600_000L, 24);
+
+    /**
+     * The short name of the interval, as written in the <tt>.xml</tt> file.
+     */
+    private final String name;
+
+    /**
+     * The length of the interval in milliseconds.
+     */
+    private final long length;
+
+    /**
+     * The maximal number of {@link Bar}s kept for this interval.
+     */
+    private final int capacity;
+
+    BarInterval(String name, long length, int capacity) {
+        this.name = name;
+        this.length = length;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Finds the {@code BarInterval} with the given short name.
+     *
+     * @param name the short name of the interval. e.g. "1m".
+     * @return the {@code BarInterval}, or {@code null} if there is no such.
+     */
+    public static BarInterval fromName(String name) {
+        for (BarInterval i : values()) {
+            if (i.name.equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param millisOfDay a time, in milliseconds of the day.
+     * @return the start time of the {@link Bar} of this interval that
+     * contains {@code millisOfDay}.
+     */
+    public long getStart(long millisOfDay) {
+        return millisOfDay - (millisOfDay % length);
+    }
+
+    @Override public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,244 @@
+package bar;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The latest {@link Bar}s of a single {@link BarInterval}, kept in a bounded
+ * <i>ring buffer</i>, ordered by their start time.
+ * <ul>
+ *     <li>Adding a {@link transaction.Transaction} is {@code O(1)}: it either
+ *     updates the last {@link Bar}, or opens a new one that overwrites the
+ *     oldest.</li>
+ *     <li>A range query finds its first {@link Bar} by a binary search, in
+ *     {@code O(log n)}.</li>
+ * </ul>
+ * <p>annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file. The
+ * ring buffer is written as a plain list of {@link Bar}s, from the oldest to
+ * the newest.</p>
+ *
+ * @version 1.1
+ */
+@XmlRootElement(name = "rse-bar-series") @XmlAccessorType(XmlAccessType.FIELD)
+public class BarSeries {
+
+    /**
+     * Half a day, in milliseconds. A {@link transaction.Transaction} that is
+     * earlier than the last {@link Bar} by more than that, belongs to a new
+     * day.
+     */
+    private static final long HALF_A_DAY = 43_200_000L;
+
+    @XmlAttribute(name = "interval") private String intervalName;
+
+    @XmlTransient private BarInterval interval;
+
+    @XmlTransient private Bar[] ring;
+
+    /**
+     * The index of the oldest {@link Bar} in the {@link #ring}.
+     */
+    @XmlTransient private int head = 0;
+
+    @XmlTransient private int size = 0;
+
+    /**
+     * The {@link Bar}s from the oldest to the newest. used <i>only</i> while
+     * marshalling / unmarshalling.
+     */
+    @XmlElement(name = "rse-bar") private List<Bar> bars = null;
+
+    public BarSeries(BarInterval interval) {
+        this.interval = interval;
+        this.intervalName = interval.getName();
+        this.ring = new Bar[interval.getCapacity()];
+    }
+
+    /**
+     * Copy Constructor: only the newest {@link Bar} is ever changed, so the
+     * older {@link Bar}s are shared with the given series.
+     */
+    public BarSeries(BarSeries series) {
+        this.interval = series.interval;
+        this.intervalName = series.intervalName;
+        this.ring = series.ring.clone();
+        this.head = series.head;
+        this.size = series.size;
+        if (size > 0) {
+            int last = (head + size - 1) % ring.length;
+            ring[last] = new Bar(ring[last]);
+        }
+    }
+
+    /**
+     * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
+     * load and save.
+     */
+    public BarSeries() {}
+
+    public BarInterval getInterval() {
+        return interval;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index {@code 0} is the oldest {@link Bar}.
+     */
+    public Bar get(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + size);
+        }
+        return ring[(head + index) % ring.length];
+    }
+
+    /**
+     * @return the newest {@link Bar}, or {@code null} if there is none.
+     */
+    public Bar getLast() {
+        return (size == 0) ? null : get(size - 1);
+    }
+
+    /**
+     * Aggregates a {@link transaction.Transaction} into its {@link Bar}.
+     * <p>A {@link transaction.Transaction} that is a bit earlier than the
+     * newest {@link Bar} (e.g. by a clock adjustment) is aggregated into the
+     * newest {@link Bar}, to keep the {@link Bar}s ordered. A {@link
+     * transaction.Transaction} of a new day clears the series.</p>
+     *
+     * @param millisOfDay the time of the {@link transaction.Transaction}.
+     * @param price       the price of the {@link transaction.Transaction}.
+     * @param quantity    the quantity of the {@link transaction.Transaction}.
+     */
+    public void add(long millisOfDay, long price, long quantity) {
+        long start = interval.getStart(millisOfDay);
+        Bar last = getLast();
+        if (last != null) {
+            if (start == last.getStart()) {
+                last.add(price, quantity);
+                return;
+            } else if (start < last.getStart()) {
+                if (last.getStart() - start <= HALF_A_DAY) {
+                    last.add(price, quantity);
+                    return;
+                }
+
+                // a new day:
+                clear();
+            }
+        }
+
+        // open a new Bar, in place of the oldest if the ring is full:
+        Bar bar = new Bar(start, price, quantity);
+        if (size < ring.length) {
+            ring[(head + size) % ring.length] = bar;
+            ++size;
+        } else {
+            ring[head] = bar;
+            head = (head + 1) % ring.length;
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the {@link Bar}s that overlap a time range.
+     *
+     * @param fromMillisOfDay the start of the range (inclusive).
+     * @param toMillisOfDay   the end of the range (inclusive).
+     * @return the {@link Bar}s from the oldest to the newest.
+     */
+    public List<Bar> getBars(long fromMillisOfDay, long toMillisOfDay) {
+        if (fromMillisOfDay > toMillisOfDay) {
+            return Collections.emptyList();
+        }
+        List<Bar> result = new ArrayList<>();
+        for (int i = indexOfStart(interval.getStart(fromMillisOfDay));
+             (i < size) && (get(i).getStart() <= toMillisOfDay); i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * A binary search over the ring buffer.
+     *
+     * @return the index of the first {@link Bar} that starts at {@code start}
+     * or later. {@link #size} if there is none.
+     */
+    private int indexOfStart(long start) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle).getStart() < start) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Called by JAXB before marshalling: lays the ring buffer out as a list.
+     */
+    private void beforeMarshal(Marshaller marshaller) {
+        bars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bars.add(get(i));
+        }
+    }
+
+    /**
+     * Called by JAXB after marshalling.
+     */
+    private void afterMarshal(Marshaller marshaller) {
+        bars = null;
+    }
+
+    /**
+     * Called by JAXB after unmarshalling: refills the ring buffer from the
+     * list.
+     */
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        interval = BarInterval.fromName(intervalName);
+        if (interval == null) {
+
+            // unknown interval. ignore its Bars:
+            bars = null;
+            return;
+        }
+        ring = new Bar[interval.getCapacity()];
+        if (bars != null) {
+
+            // keep the newest Bars that fit in:
+            for (int i = Math.max(0, bars.size() - ring.length);
+                 i < bars.size(); i++) {
+                Bar bar = bars.get(i);
+                bar.calcStart();
+                ring[size++] = bar;
+            }
+            bars = null;
+        }
+    }
+
+}
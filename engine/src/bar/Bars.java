@@ -0,0 +1,114 @@
+package bar;
+
+import timestamp.TimeStamp;
+import transaction.Transaction;
+
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link Bar}s of a single {@link stock.Stock}: a {@link BarSeries} for
+ * each {@link BarInterval}.
+ * <p>
+ * Each new {@link Transaction} is streamed into all the intervals once. Thus,
+ * charts and statistics over time read the {@link Bar}s, and never re-scan the
+ * {@link Transaction}s.
+ * </p>
+ * <p>annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.</p>
+ *
+ * @version 1.1
+ */
+@XmlRootElement(name = "rse-bars") @XmlAccessorType(XmlAccessType.FIELD)
+public class Bars {
+
+    /**
+     * A {@link BarSeries} for each {@link BarInterval}, by the {@code
+     * ordinal} of the {@link BarInterval}.
+     */
+    @XmlElement(name = "rse-bar-series") private List<BarSeries> series;
+
+    public Bars() {
+        series = new ArrayList<>(BarInterval.values().length);
+        for (BarInterval i : BarInterval.values()) {
+            series.add(new BarSeries(i));
+        }
+    }
+
+    /**
+     * Copy Constructor: the copy is independent of the given {@code Bars}'
+     * later changes.
+     */
+    public Bars(Bars bars) {
+        series = new ArrayList<>(bars.series.size());
+        for (BarSeries i : bars.series) {
+            series.add(new BarSeries(i));
+        }
+    }
+
+    /**
+     * Aggregates a {@link Transaction} into the {@link Bar}s of all the
+     * {@link BarInterval}s.
+     *
+     * @param transaction the new {@link Transaction}.
+     */
+    public void add(Transaction transaction) {
+        long millisOfDay = TimeStamp.toMillisOfDay(transaction.getTimeStamp());
+        for (BarSeries i : series) {
+            i.add(millisOfDay, transaction.getPrice(),
+                    transaction.getQuantity());
+        }
+    }
+
+    public BarSeries getSeries(BarInterval interval) {
+        return series.get(interval.ordinal());
+    }
+
+    /**
+     * Gets the {@link Bar}s of an interval that overlap a time range, in
+     * {@code O(log n + k)}.
+     *
+     * @param interval the {@link BarInterval} of the {@link Bar}s.
+     * @param from     the start of the range (inclusive). of the format of
+     *                 {@link TimeStamp}.
+     * @param to       the end of the range (inclusive). of the format of
+     *                 {@link TimeStamp}.
+     * @return the {@link Bar}s from the oldest to the newest.
+     */
+    public List<Bar> getBars(BarInterval interval, String from, String to) {
+        return getSeries(interval).getBars(TimeStamp.toMillisOfDay(from),
+                TimeStamp.toMillisOfDay(to));
+    }
+
+    public boolean isEmpty() {
+        for (BarSeries i : series) {
+            if (i.size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called by JAXB after unmarshalling: drops unknown intervals, and adds
+     * the missing ones, so each {@link BarInterval} is in its place.
+     */
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        BarSeries[] byInterval = new BarSeries[BarInterval.values().length];
+        for (BarSeries i : series) {
+            if (i.getInterval() != null) {
+                byInterval[i.getInterval().ordinal()] = i;
+            }
+        }
+        series = new ArrayList<>(byInterval.length);
+        for (BarInterval i : BarInterval.values()) {
+            series.add((byInterval[i.ordinal()] != null) ?
+                    byInterval[i.ordinal()] : new BarSeries(i));
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package engine;
+
+import message.Message;
+import message.print.MessagePrint;
+import order.Order;
+import order.book.OrderBook;
+import stock.Stock;
+import timestamp.TimeStamp;
+import transaction.Transaction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The <i>call auctions</i> of a {@link MatchingEngine}.
+ * <p>During a call auction, the {@link Order}s of a {@link Stock} are
+ * accumulated in its data-base without being matched, and are then filled in
+ * a single batch at a single <i>clearing price</i>.</p>
+ *
+ * @version 1.0
+ * @see MatchingEngine#startCallAuction(Stock)
+ * @see MatchingEngine#uncrossCallAuction(Stock)
+ */
+final class CallAuction {
+
+    /**
+     * The engine of the {@link Stock}s, that records the fills.
+     */
+    private final MatchingEngine engine;
+
+    CallAuction(MatchingEngine engine) {
+        this.engine = engine;
+    }
+
+    void start(Stock stock) {
+        stock.setCallAuction(true);
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Message.Out.CallAuction.started(stock.getSymbol()));
+    }
+
+    /**
+     * @see MatchingEngine#uncrossCallAuction(Stock)
+     */
+    List<Transaction> uncross(Stock stock) {
+        List<Transaction> transactions = new ArrayList<>();
+        OrderBook buyOrders =
+                stock.getDataBase().getAwaitingBuyOrders().getCollection();
+        OrderBook sellOrders =
+                stock.getDataBase().getAwaitingSellOrders().getCollection();
+
+        // aggregate the quantities of each side by price levels:
+        TreeMap<Long, Long> buyLevels = aggregateLevels(buyOrders);
+        TreeMap<Long, Long> sellLevels = aggregateLevels(sellOrders);
+        TreeSet<Long> levels = new TreeSet<>(buyLevels.keySet());
+        levels.addAll(sellLevels.keySet());
+        long[] prices = new long[levels.size()];
+        int index = 0;
+        for (long i : levels) {
+            prices[index++] = i;
+        }
+
+        /*
+         * calculate the cumulative curves:
+         * demand[k] = 'Buy' quantity with desiredLimitPrice >= prices[k].
+         * supply[k] = 'Sell' quantity with desiredLimitPrice <= prices[k].
+         */
+        long[] demand = new long[prices.length];
+        long[] supply = new long[prices.length];
+        long cumulative = 0;
+        for (int k = prices.length - 1; k >= 0; --k) {
+            cumulative += buyLevels.getOrDefault(prices[k], 0L);
+            demand[k] = cumulative;
+        }
+        cumulative = 0;
+        for (int k = 0; k < prices.length; ++k) {
+            cumulative += sellLevels.getOrDefault(prices[k], 0L);
+            supply[k] = cumulative;
+        }
+
+        // find the clearing price:
+        long clearingPrice = stock.getPrice();
+        long volume = 0;
+        long imbalance = Long.MAX_VALUE;
+        for (int k = 0; k < prices.length; ++k) {
+            long kVolume = Math.min(demand[k], supply[k]);
+            long kImbalance = Math.abs(demand[k] - supply[k]);
+            if ((kVolume > volume) || ((kVolume == volume) && (kVolume > 0) &&
+                    ((kImbalance < imbalance) || ((kImbalance == imbalance) &&
+                            (Math.abs(prices[k] - stock.getPrice()) <
+                                    Math.abs(clearingPrice -
+                                            stock.getPrice())))))) {
+                clearingPrice = prices[k];
+                volume = kVolume;
+                imbalance = kImbalance;
+            }
+        }
+
+        if (volume > 0) {
+
+            // fill the crossing Orders at the clearing price:
+            String timeStamp = TimeStamp.getTimeStamp();
+            Iterator<Order> buyIt = buyOrders.iterator();
+            Iterator<Order> sellIt = sellOrders.iterator();
+            Order buyOrder = buyIt.next();
+            Order sellOrder = sellIt.next();
+            for (long remainder = volume; remainder > 0; ) {
+                long quantityOfTransaction = Math.min(remainder,
+                        Math.min(buyOrder.getQuantity(),
+                                sellOrder.getQuantity()));
+                Transaction transaction =
+                        new Transaction(stock, timeStamp, quantityOfTransaction,
+                                clearingPrice);
+                engine.addTransaction(stock, transaction, transactions);
+                engine.notifyFill(stock, buyOrder, transaction);
+                engine.notifyFill(stock, sellOrder, transaction);
+                remainder -= quantityOfTransaction;
+
+                if (engine.checkOppositeAlreadyPlacedOrderRemainder(stock,
+                        buyIt, buyOrder, transaction) && (remainder > 0)) {
+                    buyOrder = buyIt.next();
+                }
+                if (engine.checkOppositeAlreadyPlacedOrderRemainder(stock,
+                        sellIt, sellOrder, transaction) && (remainder > 0)) {
+                    sellOrder = sellIt.next();
+                }
+            }
+
+            // the replenished iceberg Orders wait for continuous matching:
+            engine.insertReplenishedOrders(stock);
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.CallAuction.uncrossed(stock.getSymbol(),
+                            clearingPrice, volume));
+        } else {
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.CallAuction.noCross(stock.getSymbol()));
+        }
+
+        // back to continuous matching:
+        stock.setCallAuction(false);
+        return transactions;
+    }
+
+    /**
+     * @param orders {@link Order}s of a single side.
+     * @return the total quantity of the {@link Order}s in each price level.
+     */
+    private static TreeMap<Long, Long> aggregateLevels(List<Order> orders) {
+        TreeMap<Long, Long> levels = new TreeMap<>();
+        for (Order i : orders) {
+            levels.merge(i.getDesiredLimitPrice(), i.getQuantity(), Long::sum);
+        }
+        return levels;
+    }
+
+    /**
+     * Places a {@code MKT} {@link Order} that arrived during a call auction
+     * in the {@link Stock}'s data-base, priced by {@link
+     * MatchingEngine#calcDesiredLimitPriceOfMKTOrder(Stock,
+     * order.OrderDirection)}.
+     *
+     * @param stock    the stock in a call auction.
+     * @param mktOrder the arrived {@code MKT} {@link Order}.
+     */
+    void placeMKTOrder(Stock stock, Order mktOrder) {
+        mktOrder.setDesiredLimitPrice(MatchingEngine
+                .calcDesiredLimitPriceOfMKTOrder(stock,
+                        mktOrder.getOrderDirection()));
+        engine.insertOrder(stock, mktOrder);
+    }
+
+}
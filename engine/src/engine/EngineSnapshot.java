@@ -0,0 +1,126 @@
+package engine;
+
+import load.Descriptor;
+import stock.Stock;
+import stock.Stocks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <b>A consistent point-in-time copy of the {@link MatchingEngine}'s {@link
+ * Stocks}, taken by <i>copy-on-write</i> of each {@link Stock}.</b>
+ * <p>
+ * Taking a snapshot copies nothing. From then on, each {@link Stock} is
+ * copied once, by the first of:
+ * </p>
+ * <ul>
+ *     <li>The {@link MatchingEngine}, right before it changes the {@link
+ *     Stock} for the first time since the snapshot was taken.</li>
+ *     <li>The thread that {@link #complete()}s the snapshot, e.g. a
+ *     background save.</li>
+ * </ul>
+ * <p>
+ * Each copy is made while holding its {@link Stock}'s monitor, so the
+ * {@link MatchingEngine} waits at most for the copy of a single {@link
+ * Stock}, and only if both threads reach that {@link Stock} at once. After
+ * {@link #complete()}, the copies are detached from the {@link
+ * MatchingEngine}, and may be saved at any length while the matching
+ * continues.
+ * </p>
+ *
+ * @version 1.2
+ * @see MatchingEngine#beginSnapshot()
+ */
+public class EngineSnapshot {
+
+    /**
+     * The engine of the live {@link Stock}s.
+     */
+    private final MatchingEngine engine;
+
+    /**
+     * The live {@link Stock}s, as they were when the snapshot was taken.
+     */
+    private final List<Stock> stocks;
+
+    /**
+     * The index of each live {@link Stock} in {@link #stocks}, by the dense
+     * id of the {@link Stock}, or {@code -1} for a {@link Stock} that is not
+     * part of the snapshot. never changed after construction.
+     */
+    private final int[] indexes;
+
+    /**
+     * The copies, by the indexes of their live {@link Stock}s.
+     */
+    private final AtomicReferenceArray<Stock> copies;
+
+    /**
+     * Takes a snapshot. must be called on the thread that calls the {@link
+     * MatchingEngine}, between its operations.
+     */
+    EngineSnapshot(MatchingEngine engine, List<Stock> stocks) {
+        this.engine = engine;
+        this.stocks = new ArrayList<>(stocks);
+        int maxId = -1;
+        for (Stock i : this.stocks) {
+            maxId = Math.max(maxId, i.getId());
+        }
+        indexes = new int[maxId + 1];
+        Arrays.fill(indexes, -1);
+        for (int i = 0; i < this.stocks.size(); i++) {
+            if (this.stocks.get(i).getId() >= 0) {
+                indexes[this.stocks.get(i).getId()] = i;
+            }
+        }
+        copies = new AtomicReferenceArray<>(this.stocks.size());
+    }
+
+    /**
+     * Copies the {@link Stock}, if it was not copied yet. called by the
+     * {@link MatchingEngine} before each change of a {@link Stock}.
+     *
+     * @param stock a live {@link Stock}. A {@link Stock} that is not part of
+     *              the snapshot is ignored.
+     */
+    void capture(Stock stock) {
+        int id = stock.getId();
+        int index = ((id >= 0) && (id < indexes.length)) ? indexes[id] : -1;
+        if ((index < 0) || (copies.get(index) != null)) {
+            return;
+        }
+        synchronized (stock) {
+            if (copies.get(index) == null) {
+                copies.set(index, new Stock(stock));
+            }
+        }
+    }
+
+    /**
+     * Copies all the {@link Stock}s that were not copied yet, and detaches
+     * the snapshot from the {@link MatchingEngine}. may be called on any
+     * thread.
+     *
+     * @return a {@link Descriptor} of the copies, ready to be saved.
+     */
+    public Descriptor complete() {
+        for (Stock i : stocks) {
+            capture(i);
+        }
+        engine.endSnapshot(this);
+
+        List<Stock> list = new ArrayList<>(stocks.size());
+        for (int i = 0; i < stocks.size(); i++) {
+            list.add(copies.get(i));
+        }
+        Stocks copiedStocks = new Stocks();
+        copiedStocks.setCollection(list);
+        Descriptor descriptor = new Descriptor();
+        descriptor.setStocks(copiedStocks);
+        return descriptor;
+    }
+
+}
@@ -0,0 +1,37 @@
+package engine;
+
+import order.Order;
+import stock.Stock;
+import transaction.Transaction;
+
+/**
+ * A consumer of the fills of the {@link Engine}'s {@link Order}s.
+ * <p>Called synchronously for both {@link Order}s of every {@link
+ * Transaction}, before their quantities are updated, so it must not
+ * block.</p>
+ * <p>Also notified of the awaiting {@link Order}s that expired, by {@link
+ * #onExpire(Stock, Order)}.</p>
+ *
+ * @version 1.1
+ * @see Engine#setFillListener(FillListener)
+ */
+@FunctionalInterface public interface FillListener {
+
+    /**
+     * @param stock       the stock of the {@link Transaction}.
+     * @param order       one of the two {@link Order}s of the {@link
+     *                    Transaction}. its {@code quantity} is still the
+     *                    quantity before the fill.
+     * @param transaction the newly made {@link Transaction}.
+     */
+    public void onFill(Stock stock, Order order, Transaction transaction);
+
+    /**
+     * Called after an awaiting {@link Order} expired, and was removed from
+     * the data-base. Does nothing by default.
+     *
+     * @param stock the stock of the {@link Order}.
+     * @param order the expired {@link Order}, of its remaining quantity.
+     */
+    public default void onExpire(Stock stock, Order order) {}
+}
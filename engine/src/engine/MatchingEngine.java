@@ -0,0 +1,1820 @@
+package engine;
+
+import engine.collection.EngineCollection;
+import engine.timer.TimerWheel;
+import load.AutoSave;
+import load.Descriptor;
+import marketdata.MarketDataPublisher;
+import metrics.EngineMetrics;
+import message.Message;
+import message.builder.err.BuildError;
+import message.print.MessagePrint;
+import order.Order;
+import order.OrderDirection;
+import order.OrderType;
+import order.TimeInForce;
+import order.StockOrder;
+import order.book.OrderBook;
+import order.book.TickArrayBook;
+import risk.PreTradeRisk;
+import stock.Quote;
+import stock.Stock;
+import stock.Stocks;
+import stock.database.StockDataBase;
+import timestamp.TimeStamp;
+import transaction.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A matching engine: a single, independent exchange.
+ * <ul>
+ * <li>Stores its {@link Stocks}, and their market data and metrics.</li>
+ * <li>Manages all commands given.</li>
+ * </ul>
+ * <p>Nothing is shared between instances, so several engines (e.g. venues,
+ * simulations or benchmarks) may run side by side, each on its own thread.
+ * Each engine keeps its own copies of the {@link Stocks} it is given, and
+ * {@link #fork()} starts a new engine from the current state of another.
+ * The program itself uses a single instance, through the static facade of
+ * {@link Engine}.</p>
+ * <p>The awaiting {@link Order}s of an expiring {@link TimeInForce} are
+ * scheduled on a {@link TimerWheel}, and are removed by {@link
+ * #expireOrders(int)} in bounded chunks, between the other operations.</p>
+ * <p>The expirations, the call auctions and the trigger of the Stop {@link
+ * Order}s are kept by collaborators of their own: {@link OrderExpiry},
+ * {@link CallAuction} and {@link StopTrigger}.</p>
+ *
+ * @version 1.7
+ * @see Engine#getDefault()
+ */
+public class MatchingEngine {
+
+    /**
+     * The stocks of this engine.
+     */
+    private Stocks stocks;
+
+    /**
+     * The {@link #stocks} by their dense ids (see {@link Stock#getId()}).
+     */
+    private Stock[] stocksById = new Stock[0];
+
+    /**
+     * The {@link #stocks} by the case in-sensitive keys of their {@code
+     * Symbol}s, to resolve a {@code Symbol} at the edge of the engine.
+     */
+    private final Map<String, Stock> stocksBySymbol = new HashMap<>();
+
+    /**
+     * The <i>price-protection band</i> of a {@code MKT} {@link Order}'s sweep,
+     * in percents of the {@link Stock}'s {@code price} when the sweep
+     * started.
+     * <p>A single sweep never makes a {@link Transaction} at a price that
+     * is worse for the {@code MKT} {@link Order} than this band: above it for
+     * a 'Buy', or below it for a 'Sell'.</p>
+     * <p>{@code 0} means that the band is disabled.</p>
+     */
+    private long mktPriceProtectionBand = 0;
+
+    /**
+     * The number of prices in the window of each {@link TickArrayBook}, that
+     * keeps the awaiting {@link Order}s of a side of a {@link Stock}'s book,
+     * around the {@link Stock}'s {@code price}.
+     * <p>{@code 0} means that each side of a book adapts its implementation
+     * to its depth and price spread, by {@link
+     * order.book.OrderBook#adapt(OrderDirection, long)}.</p>
+     */
+    private int tickBookWindow = 0;
+
+    /**
+     * The pre-trade risk stage, that every arriving {@link Order} must pass
+     * before it is calculated.
+     */
+    private final PreTradeRisk preTradeRisk = new PreTradeRisk();
+
+    /**
+     * The market-data publisher, that is updated on every change of the
+     * {@link Stock}s' data-bases.
+     */
+    private final MarketDataPublisher marketData =
+            new MarketDataPublisher();
+
+    /**
+     * The instrumentation of the hot path. registered as a JMX MBean.
+     */
+    private final EngineMetrics metrics = new EngineMetrics();
+
+    /**
+     * The consumer of the {@link Order}s' fills, or {@code null} if there is
+     * none.
+     */
+    private FillListener fillListener = null;
+
+    /**
+     * The snapshot in progress, whose {@link Stock}s are copied before they
+     * change, or {@code null} if there is none.
+     */
+    private final AtomicReference<EngineSnapshot> snapshot =
+            new AtomicReference<>();
+
+    /**
+     * The {@link Stock}s that were changed since the last {@link
+     * #takeModifiedStocks()}, in the order of their first change.
+     */
+    private final List<Stock> modifiedStocks = new ArrayList<>();
+
+    /**
+     * The iceberg {@link Order}s that were replenished during the current
+     * sweep. they were removed from the data-base, and are inserted back
+     * behind their price level once the sweep's iterator is done.
+     */
+    private final List<Order> replenishedOrders = new ArrayList<>();
+
+    /**
+     * The periodic autosave, or {@code null} if there is none. the threads
+     * that call the {@code MatchingEngine} let it take its checkpoints
+     * between their operations.
+     */
+    private AutoSave autoSave = null;
+
+    /**
+     * The expirations of the awaiting {@link Order}s of an expiring {@link
+     * TimeInForce}.
+     */
+    private final OrderExpiry expiry = new OrderExpiry(this);
+
+    /**
+     * The call auctions of the {@link #stocks}.
+     */
+    private final CallAuction callAuction = new CallAuction(this);
+
+    /**
+     * The trigger of the Stop {@link Order}s of the {@link #stocks}.
+     */
+    private final StopTrigger stopTrigger = new StopTrigger(this);
+
+    /**
+     * Creates an empty engine, with no {@link #stocks}. independent of any
+     * other {@code MatchingEngine} in the JVM.
+     */
+    public MatchingEngine() {}
+
+    /**
+     * this method checks whether there is an ambiguity in <i>symbol(s)</i> and
+     * <i>companyName(s)</i> in the stocks, and whether each of their
+     * data-bases is valid.
+     * <p>A {@link Stock} whose data-base is not loaded yet is checked when it
+     * is loaded.</p>
+     *
+     * @param collectionToCheck the collection to check.
+     * @throws IOException with an appropriate message in case of an invalid
+     *                     occurrence.
+     */
+    public static void checkValidStocks(
+            EngineCollection<List<Stock>, Stock> collectionToCheck)
+            throws IOException {
+
+        // get the collection:
+        List<Stock> list = collectionToCheck.getCollection();
+
+        checkStocksAmbiguity(list);
+        for (Stock i : list) {
+            if (i.isDataBaseLoaded()) {
+                checkValidStock(i);
+            }
+        }
+        // passed all checks, thus valid.
+    }
+
+    /**
+     * this method checks whether there is an ambiguity in <i>symbol(s)</i> and
+     * <i>companyName(s)</i> in the stocks, in a single pass.
+     *
+     * @param list the stocks to check.
+     * @throws IOException with an appropriate message in case of an
+     *                     ambiguity.
+     */
+    public static void checkStocksAmbiguity(List<Stock> list)
+            throws IOException {
+
+        // Key = case in-sensitive form, Value = the first occurrence:
+        Map<String, String> symbols = new HashMap<>(list.size() * 2);
+        Map<String, String> companyNames = new HashMap<>(list.size() * 2);
+        for (Stock i : list) {
+            String i_symbol = i.getSymbol();
+            String j_symbol = symbols.putIfAbsent(
+                    toCaseInsensitiveKey(i_symbol), i_symbol);
+            if (j_symbol != null) {
+
+                /*
+                 * found an equality of Strings between Symbols,
+                 * means this File is invalid:
+                 */
+                throw new IOException(Message.Err.XML.Load
+                        .stocksInvalid_SymbolsAmbiguity() + "'" + j_symbol +
+                        "' and '" + i_symbol + "'");
+            }
+            String i_companyName = i.getCompanyName();
+            String j_companyName = companyNames.putIfAbsent(
+                    toCaseInsensitiveKey(i_companyName), i_companyName);
+            if (j_companyName != null) {
+
+                /*
+                 * found an equality of Strings between companyNames,
+                 * means this File is invalid:
+                 */
+                throw new IOException(Message.Err.XML.Load
+                        .stocksInvalid_CompanyNameAmbiguity() + "'" +
+                        j_companyName + "' and '" + i_companyName + "'");
+            }
+        }
+    }
+
+    /**
+     * @return a key that is equal for {@code String}s that are {@link
+     * String#equalsIgnoreCase(String)}.
+     */
+    private static String toCaseInsensitiveKey(String string) {
+        return string.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * this method checks whether the data-base of a single stock is valid. may
+     * be called on any thread, for different stocks at once.
+     *
+     * @param stock the stock to check.
+     * @throws IOException with an appropriate message in case of an invalid
+     *                     occurrence.
+     */
+    public static void checkValidStock(Stock stock) throws IOException {
+
+        // check the timeStamps of the Transactions, while storing them:
+        try {
+            stock.getDataBase().getSuccessfullyFinishedTransactions()
+                    .getCollection().getTotalPeriod();
+        } catch (IllegalArgumentException e) {
+            throw new IOException(Message.Err.XML.Load
+                    .stocksInvalid_TransactionTimeStamp() + "'" +
+                    stock.getSymbol() + "'. " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param symbol the key to find the requested {@link Stock}: case
+     *               in-sensitive.
+     * @return the {@link Stock} that has the {@code Symbol} that was provided.
+     * @throws IOException <ul>
+     *                     <li>if we didn't find the {@link Stock} that has
+     *                     the given {@code Symbol}.</li>
+     *                     <li>if there are no {@link #stocks} at all.</li>
+     *                     </ul>
+     */
+    public Stock getStockBySymbol(String symbol) throws IOException {
+        if (stocks == null) {
+            throw new IOException(Message.Err.Stocks.printEmpty());
+        }
+        Stock stock = stocksBySymbol.get(toCaseInsensitiveKey(symbol));
+        if (stock == null) {
+            throw new IOException(Message.Err.Stocks.unFoundSymbol(symbol));
+        }
+        return prepareStock(stock);
+    }
+
+    /**
+     * @param id the dense id of the requested {@link Stock}, as in {@link
+     *           Stock#getId()}.
+     * @return the {@link Stock} that has the given id.
+     * @throws IOException <ul>
+     *                     <li>if there is no {@link Stock} with the given
+     *                     id.</li>
+     *                     <li>if there are no {@link #stocks} at all.</li>
+     *                     </ul>
+     */
+    public Stock getStockById(int id) throws IOException {
+        if (stocks == null) {
+            throw new IOException(Message.Err.Stocks.printEmpty());
+        }
+        if ((id < 0) || (id >= stocksById.length)) {
+            throw new IOException(Message.Err.Stocks.unFoundId(id));
+        }
+        return prepareStock(stocksById[id]);
+    }
+
+    /**
+     * The first use of a {@link Stock} loads its data-base, if it is lazy.
+     */
+    private Stock prepareStock(Stock stock) throws IOException {
+        try {
+            prepareDataBase(stock);
+        } catch (UncheckedIOException e) {
+            throw new IOException(e.getMessage());
+        }
+        return stock;
+    }
+
+    /**
+     * @return wrap to a {@link Descriptor} that contains all the fields of
+     * {@code this} class, such as:
+     * <ul>
+     *     <li>{@link #stocks} field.</li>
+     * </ul>
+     */
+    public Descriptor createDescriptor() {
+        Descriptor descriptor = new Descriptor();
+        descriptor.setStocks(stocks);
+        return descriptor;
+    }
+
+    /**
+     * Takes a point-in-time snapshot of the {@link #stocks}, to be {@link
+     * EngineSnapshot#complete()}d and saved on another thread, while the
+     * {@link Stock}s keep changing.
+     * <p>Must be called on the thread that calls the {@code
+     * MatchingEngine}, between its operations. A previous snapshot that was not completed yet is
+     * completed first.</p>
+     *
+     * @return the snapshot.
+     * @throws IOException if there are no {@link #stocks}.
+     */
+    public EngineSnapshot beginSnapshot() throws IOException {
+        return beginSnapshot(getStocks().getCollection());
+    }
+
+    /**
+     * Takes a point-in-time snapshot of some of the {@link #stocks}, as in
+     * {@link #beginSnapshot()}.
+     *
+     * @param stocksToCopy the {@link Stock}s of the snapshot.
+     * @return the snapshot.
+     */
+    public EngineSnapshot beginSnapshot(List<Stock> stocksToCopy) {
+        EngineSnapshot previous = snapshot.get();
+        if (previous != null) {
+            previous.complete();
+        }
+        EngineSnapshot newSnapshot = new EngineSnapshot(this, stocksToCopy);
+        snapshot.set(newSnapshot);
+        return newSnapshot;
+    }
+
+    /**
+     * Detaches a completed snapshot, if it is still in progress.
+     */
+    void endSnapshot(EngineSnapshot completedSnapshot) {
+        snapshot.compareAndSet(completedSnapshot, null);
+    }
+
+    /**
+     * Must be called before any change of a {@link Stock}, so a snapshot in
+     * progress copies it first.
+     */
+    void beforeChange(Stock stock) {
+        EngineSnapshot currentSnapshot = snapshot.get();
+        if (currentSnapshot != null) {
+            currentSnapshot.capture(stock);
+        }
+
+        // a lazily loaded Stock builds its depth before its first change:
+        prepareDataBase(stock);
+
+        // keep the books' implementation, and their window around the price:
+        stock.getDataBase().useBooks(stock.getPrice(), tickBookWindow);
+        if (!stock.isModified()) {
+            stock.setModified(true);
+            modifiedStocks.add(stock);
+        }
+    }
+
+    /**
+     * Builds the depth of the {@link Stock} (and loads its data-base, if it
+     * is lazy), and schedules the expirations of its awaiting {@link Order}s,
+     * on its first use.
+     */
+    private void prepareDataBase(Stock stock) {
+        marketData.getDepth(stock);
+        expiry.prepare(stock);
+    }
+
+    /**
+     * Must be called on the thread that calls the {@code MatchingEngine},
+     * between its operations.
+     *
+     * @return the {@link Stock}s that were changed since the previous call,
+     * in the order of their first change.
+     */
+    public List<Stock> takeModifiedStocks() {
+        List<Stock> list = new ArrayList<>(modifiedStocks);
+        for (Stock i : modifiedStocks) {
+            i.setModified(false);
+        }
+        modifiedStocks.clear();
+        return list;
+    }
+
+    public AutoSave getAutoSave() {
+        return autoSave;
+    }
+
+    /**
+     * @param autoSave the periodic autosave, or {@code null} to remove it.
+     */
+    public void setAutoSave(AutoSave autoSave) {
+        this.autoSave = autoSave;
+    }
+
+    /**
+     * This method checks if there are valid stocks loaded in the system.
+     *
+     * @return boolean: <ul>
+     * <li>true if the stocks are valid.</li>
+     * <li>else false.</li>
+     * </ul>
+     */
+    public boolean isStocks() {
+
+        // first of all check if there are Stocks available in the system:
+        try {
+            getStocks();
+            return true;
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return {@link #stocks} of the program.
+     * @throws IOException if the {@link #stocks} are {@code null} - means
+     *                     uninitialized.
+     */
+    public Stocks getStocks() throws IOException {
+        if (stocks != null) {
+            return stocks;
+        } else {
+            throw new IOException(Message.Err.Stocks.printEmpty());
+        }
+    }
+
+    /**
+     * Sets the {@link Stocks} of this engine. The engine keeps copies of the
+     * given {@link Stock}s (see {@link Stock#Stock(Stock)}), as it writes its
+     * own state into them: their dense ids, {@link stock.Quote}s, metrics and
+     * flags. Thus, the given {@link Stock}s are left as they are, and may be
+     * set to another engine too. The copies are read back by {@link
+     * #getStocks()}.
+     *
+     * @param stocks the {@link Stocks} to copy, or {@code null}.
+     */
+    public void setStocks(Stocks stocks) {
+        this.stocks = copyOf(stocks);
+
+        // give each Stock its dense id, and index it by its Symbol:
+        List<Stock> list = (this.stocks != null) ?
+                this.stocks.getCollection() : null;
+        stocksById = (list != null) ? list.toArray(new Stock[0]) :
+                new Stock[0];
+        stocksBySymbol.clear();
+        for (int i = 0; i < stocksById.length; i++) {
+            stocksById[i].setId(i);
+            if (stocksById[i].getSymbol() != null) {
+                stocksBySymbol.putIfAbsent(
+                        toCaseInsensitiveKey(stocksById[i].getSymbol()),
+                        stocksById[i]);
+            }
+        }
+        takeModifiedStocks();
+        marketData.reset(this.stocks);
+        metrics.reset(this.stocks);
+
+        /*
+         * the expirations start over. those of the loaded Stocks are scheduled
+         * now, and those of the lazy Stocks on their first use:
+         */
+        expiry.reset(stocksById.length);
+        for (Stock i : stocksById) {
+            if (i.isDataBaseLoaded()) {
+                prepareDataBase(i);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the given {@link Stocks}, each {@link Stock} by
+     * {@link Stock#Stock(Stock)}, or {@code null} if none were given.
+     */
+    private static Stocks copyOf(Stocks stocks) {
+        if (stocks == null) {
+            return null;
+        }
+        Stocks copiedStocks = new Stocks();
+        if (stocks.getCollection() != null) {
+            List<Stock> list = new ArrayList<>(stocks.getCollection().size());
+            for (Stock i : stocks.getCollection()) {
+                list.add(new Stock(i));
+            }
+            copiedStocks.setCollection(list);
+        }
+        return copiedStocks;
+    }
+
+    /**
+     * <b>Forks this engine:</b> a new, independent {@code MatchingEngine}
+     * that starts from copies of the {@link #stocks} as they are now, e.g.
+     * to simulate a what-if scenario from the live books.
+     * <p>The fork has the same price-protection band, tick-book window,
+     * session close and clock, and the call auctions in progress go on in it.
+     * It starts with no risk checks, listeners, autosave or snapshot, and
+     * with its metrics at zero.</p>
+     * <p>Must be called on the thread that calls this engine, between its
+     * operations.</p>
+     *
+     * @return the fork.
+     * @see #setStocks(Stocks)
+     */
+    public MatchingEngine fork() {
+        MatchingEngine fork = new MatchingEngine();
+        fork.mktPriceProtectionBand = mktPriceProtectionBand;
+        fork.tickBookWindow = tickBookWindow;
+        fork.expiry.setSessionCloseMillisOfDay(
+                expiry.getSessionCloseMillisOfDay());
+        fork.expiry.setClock(expiry.getClock());
+        fork.setStocks(stocks);
+        return fork;
+    }
+
+    /**
+     * @return the instrumentation of the hot path.
+     */
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the market-data publisher, to follow the changes of the {@link
+     * Stock}s' data-bases.
+     */
+    public MarketDataPublisher getMarketData() {
+        return marketData;
+    }
+
+    /**
+     * @param fillListener the consumer of the {@link Order}s' fills, or
+     *                     {@code null} to remove it.
+     */
+    public void setFillListener(FillListener fillListener) {
+        this.fillListener = fillListener;
+    }
+
+    /**
+     * Inserts an arrived {@link Order} into its sorted position, in the
+     * according 'awaiting orders' {@code Collection} of the {@link Stock}'s
+     * data-base.
+     *
+     * @param stock the stock of the {@link Order}.
+     * @param order the arrived {@link Order}.
+     */
+    public void insertOrder(Stock stock, Order order) {
+        beforeChange(stock);
+        long startNanos = System.nanoTime();
+        if (order.getOrderDirection() == OrderDirection.BUY) {
+            stock.getDataBase().getAwaitingBuyOrders().getCollection()
+                    .sortedInsert(order);
+        } else if (order.getOrderDirection() == OrderDirection.SELL) {
+            stock.getDataBase().getAwaitingSellOrders().getCollection()
+                    .sortedInsert(order);
+        }
+        marketData.onOrderAdded(stock, order);
+        expiry.schedule(stock, order);
+        stock.getMetrics().incrementOrders();
+        metrics.getOrderIntake().recordSince(startNanos);
+    }
+
+    /**
+     * @return the pre-trade risk stage, to plug {@link risk.RiskCheck}s into.
+     */
+    public PreTradeRisk getPreTradeRisk() {
+        return preTradeRisk;
+    }
+
+    /**
+     * Runs the pre-trade risk stage on an arriving {@link Order}. Must be
+     * called before the {@link Order} is inserted to the {@link Stock}'s
+     * data-base, or calculated.
+     *
+     * @param stock the stock the {@link Order} was placed on.
+     * @param order the arriving {@link Order}.
+     * @throws IOException with an appropriate message, if the {@link Order}
+     *                     is rejected.
+     */
+    public void checkPreTradeRisk(Stock stock, Order order)
+            throws IOException {
+        try {
+            preTradeRisk.check(stock, order);
+        } catch (IOException e) {
+            stock.getMetrics().incrementRejects();
+            throw e;
+        }
+    }
+
+    public long getMKTPriceProtectionBand() {
+        return mktPriceProtectionBand;
+    }
+
+    /**
+     * @param mktPriceProtectionBand the band in percents. {@code 0} disables
+     *                               the band.
+     * @throws IOException if the band given is negative.
+     * @see #mktPriceProtectionBand
+     */
+    public void setMKTPriceProtectionBand(long mktPriceProtectionBand)
+            throws IOException {
+        if (mktPriceProtectionBand < 0) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("non-negative number", "negative number"));
+        }
+        this.mktPriceProtectionBand = mktPriceProtectionBand;
+    }
+
+    public int getTickBookWindow() {
+        return tickBookWindow;
+    }
+
+    /**
+     * The books of each {@link Stock} are migrated before its next change.
+     *
+     * @param tickBookWindow the number of ticks. {@code 0} lets each side
+     *                       of a book adapt.
+     * @throws IOException if the number given is negative.
+     * @see #tickBookWindow
+     */
+    public void setTickBookWindow(int tickBookWindow) throws IOException {
+        if (tickBookWindow < 0) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("non-negative number", "negative number"));
+        }
+        this.tickBookWindow = tickBookWindow;
+    }
+
+    public long getSessionCloseMillisOfDay() {
+        return expiry.getSessionCloseMillisOfDay();
+    }
+
+    /**
+     * Applies to the {@link TimeInForce#DAY} {@link Order}s placed from now
+     * on.
+     *
+     * @param sessionCloseMillisOfDay the end of the session of each day, in
+     *                                milliseconds of the day.
+     * @throws IOException if the number given is not of a time of the day.
+     */
+    public void setSessionCloseMillisOfDay(long sessionCloseMillisOfDay)
+            throws IOException {
+        if ((sessionCloseMillisOfDay < 0) ||
+                (sessionCloseMillisOfDay >= TimeStamp.MILLIS_PER_DAY)) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("milliseconds of the day", "" +
+                            sessionCloseMillisOfDay));
+        }
+        expiry.setSessionCloseMillisOfDay(sessionCloseMillisOfDay);
+    }
+
+    /**
+     * @param clock the clock of the expirations, in milliseconds since the
+     *              epoch. e.g. a simulated clock of a replay.
+     */
+    public void setClock(LongSupplier clock) {
+        expiry.setClock(clock);
+    }
+
+    /**
+     * @return {@code true} if there are awaiting {@link Order}s that are
+     * scheduled to expire.
+     */
+    public boolean isExpiries() {
+        return expiry.isExpiries();
+    }
+
+    /**
+     * @return {@code true} if there are expired {@link Order}s that the last
+     * {@link #expireOrders(long, int)} left for the next calls.
+     */
+    public boolean isDueExpiries() {
+        return expiry.isDue();
+    }
+
+    /**
+     * Expires the due {@link Order}s by the clock of the expirations.
+     *
+     * @see #expireOrders(long, int)
+     * @see #setClock(LongSupplier)
+     */
+    public int expireOrders(int maxOrders) {
+        return expiry.expire(maxOrders);
+    }
+
+    /**
+     * <b>Removes the awaiting {@link Order}s whose {@link TimeInForce} is
+     * over.</b>
+     * <p>Takes {@code O(expired)}: only the due timers are visited, and no
+     * book is scanned for them. At most {@code maxOrders} {@link Order}s are
+     * removed by a single call, so a mass expiration (e.g. at the end of a
+     * session) is spread over the next calls, and the matching of the other
+     * {@link Stock}s goes on between them.</p>
+     * <p>The expired {@link Order}s are removed from each side of a {@link
+     * Stock} together, and are notified to {@link
+     * FillListener#onExpire(Stock, Order)}.</p>
+     *
+     * @param nowMillis the current time, in milliseconds since the epoch.
+     * @param maxOrders the maximal number of {@link Order}s to expire.
+     * @return the number of {@link Order}s expired.
+     */
+    public int expireOrders(long nowMillis, int maxOrders) {
+        return expiry.expire(nowMillis, maxOrders);
+    }
+
+    /**
+     * Notifies an expired {@link Order} to the {@link FillListener}, if any.
+     */
+    void notifyExpire(Stock stock, Order order) {
+        if (fillListener != null) {
+            fillListener.onExpire(stock, order);
+        }
+    }
+
+    /**
+     * <b>The {@code MatchingEngine}'s core method.</b>
+     * <p>
+     * This method checks a single {@link Stock} (by passing its {@code Symbol}
+     * as a parameter), reads all its {@link order.Order}(s) lists, and
+     * calculates whether it is possible to create a {@link
+     * transaction.Transaction} between two {@link order.Order}(s).
+     * </p>
+     *
+     * @param stock        the stock the user wishes to check.
+     * @param arrivedOrder place here the <i>last placed</i> {@link Order} of in
+     *                     the stock's data-base. this means, that on the
+     *                     calculation process of interaction between two
+     *                     opposite already placed orders, this <i>last
+     *                     placed</i> order would match the desiredLimitPrice
+     *                     placed in another <i>opposite already placed</i>
+     *                     order. thus means, the {@link transaction.Transaction}'s
+     *                     desiredLimitPrice would be determined by the
+     *                     <i>opposite already placed</i> order
+     *                     desiredLimitPrice.
+     * @return all the {@link Transaction}s made, in the order they were made.
+     * @see #checkForOppositeAlreadyPlacedOrders
+     * @see #makeATransaction
+     * @see #checkRemainders
+     * @see #checkOppositeAlreadyPlacedOrderRemainder
+     * @see #checkArrivedOrderRemainder
+     */
+    public List<Transaction> calcOrdersOfASingleStock(Stock stock,
+                                                      Order arrivedOrder) {
+        beforeChange(stock);
+        List<Transaction> transactions = new ArrayList<>();
+        calcOrdersOfASingleStock(stock, arrivedOrder, transactions);
+        stopTrigger.trigger(stock, transactions, 0);
+        return transactions;
+    }
+
+    void calcOrdersOfASingleStock(Stock stock, Order arrivedOrder,
+                                  List<Transaction> transactions) {
+
+        /*
+         * during a call auction, the arrived Order stays in the data-base
+         * without being matched, until the auction is uncrossed:
+         */
+        if (stock.isCallAuction()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+
+        // get the dataBase of this Stock:
+        StockDataBase dataBase = stock.getDataBase();
+
+        /*
+         * get the 'Buy' Orders Collection, and the 'Sell' Orders Collection,
+         * sorted by desiredLimitPrice/timeStamp priority:
+         *
+         * Orders are sorted with the highest desiredLimitPrice at the top (= first),
+         * and the lowest desiredLimitPrice at the bottom (= last).
+         * upon finding that prices are equal, they are sorted by timeStamp priority.
+         */
+        List<Order> buyOrders = dataBase.getAwaitingBuyOrders().getCollection();
+        List<Order> sellOrders =
+                dataBase.getAwaitingSellOrders().getCollection();
+
+        // if the arrived Order is a 'Buy' Order:
+        if (arrivedOrder.getOrderDirection() == OrderDirection.BUY) {
+            checkForOppositeAlreadyPlacedOrders(stock, sellOrders, buyOrders,
+                    arrivedOrder, transactions);
+
+            // if the arrived Order is a 'Sell' Order:
+        } else if (arrivedOrder.getOrderDirection() == OrderDirection.SELL) {
+            checkForOppositeAlreadyPlacedOrders(stock, buyOrders, sellOrders,
+                    arrivedOrder, transactions);
+        }
+        metrics.getMatching().recordSince(startNanos);
+    }
+
+    private void checkForOppositeAlreadyPlacedOrders(Stock stock,
+                                                     List<Order> oppositeAlreadyPlacedOrders,
+                                                     List<Order> arrivedOrderSide,
+                                                     Order arrivedOrder,
+                                                     List<Transaction> transactions) {
+
+        // only if the 'arrivedOrder' is in the data-base:
+        if (!arrivedOrderSide.contains(arrivedOrder)) {
+            return;
+        }
+
+        /*
+         * search the 'opposite already placed' Orders of this Stock
+         * (by descending desiredLimitPrice/timeStamp). the search starts over
+         * (from the best level, where it stopped) after iceberg Orders were
+         * replenished, as they may still be crossing:
+         */
+        boolean isPerformed = false;
+        do {
+            for (Iterator<Order> it = oppositeAlreadyPlacedOrders.iterator();
+                 it.hasNext(); ) {
+                Order oppositeAlreadyPlacedOrder = it.next();
+
+                /*
+                 * we found that there are no more matching 'opposite already
+                 * placed' Orders (as they are sorted, neither is any Order
+                 * after this one), so the 'arrived' Order stays as it is in
+                 * the data-base.
+                 */
+                if (!isCrossing(arrivedOrder, oppositeAlreadyPlacedOrder)) {
+                    break;
+                }
+
+                // stop once the 'arrivedOrder' was removed from the data-base:
+                if (makeTransactionAndCheckRemainders(stock, it, arrivedOrder,
+                        oppositeAlreadyPlacedOrder, transactions)) {
+                    isPerformed = true;
+                    break;
+                }
+            }
+        } while (insertReplenishedOrders(stock) && !isPerformed);
+    }
+
+    /**
+     * @return {@code true} if 'buy' >= 'sell' between the 'arrivedOrder' and
+     * the 'opposite already placed' {@link Order}.
+     */
+    private static boolean isCrossing(Order arrivedOrder,
+                                      Order oppositeAlreadyPlacedOrder) {
+
+        // the 'arrivedOrder' is a 'Sell' Order:
+        if (oppositeAlreadyPlacedOrder.getOrderDirection() ==
+                OrderDirection.BUY) {
+            return oppositeAlreadyPlacedOrder.getDesiredLimitPrice() >=
+                    arrivedOrder.getDesiredLimitPrice();
+        }
+
+        // the 'arrivedOrder' is a 'Buy' Order:
+        return oppositeAlreadyPlacedOrder.getDesiredLimitPrice() <=
+                arrivedOrder.getDesiredLimitPrice();
+    }
+
+    /**
+     * @return {@code true} if the 'arrivedOrder' was performed in its
+     * entirety, and was removed from the data-base.
+     */
+    private boolean makeTransactionAndCheckRemainders(Stock stock,
+                                                      Iterator<Order> it,
+                                                      Order arrivedOrder,
+                                                      Order oppositeAlreadyPlacedOrder,
+                                                      List<Transaction> transactions) {
+
+        Transaction transaction = makeATransaction(stock, arrivedOrder,
+                oppositeAlreadyPlacedOrder, transactions);
+
+        // check if there are remainders:
+        return checkRemainders(stock, it, arrivedOrder,
+                oppositeAlreadyPlacedOrder, transaction, transactions);
+    }
+
+    private Transaction makeATransaction(Stock stock, Order arrivedOrder,
+                                         Order oppositeAlreadyPlacedOrder,
+                                         List<Transaction> transactions) {
+
+        /*
+         * make a Transaction:
+         * its timeStamp is the arrivedOrder's timeStamp.
+         * its quantity is the minimum Quantity between the two Orders.
+         * its desiredLimitPrice is the 'opposite already placed' Order.
+         */
+
+        // calculate the Transaction's Quantity:
+        long quantityOfTransaction = Math.min(arrivedOrder.getQuantity(),
+                oppositeAlreadyPlacedOrder.getQuantity());
+
+        // create Transaction:
+        Transaction transaction =
+                new Transaction(stock, arrivedOrder.getTimeStamp(),
+                        quantityOfTransaction,
+                        oppositeAlreadyPlacedOrder.getDesiredLimitPrice());
+
+        // add Transaction:
+        addTransaction(stock, transaction, transactions);
+        notifyFill(stock, arrivedOrder, transaction);
+        notifyFill(stock, oppositeAlreadyPlacedOrder, transaction);
+
+        return transaction;
+    }
+
+    void notifyFill(Stock stock, Order order, Transaction transaction) {
+        if (fillListener != null) {
+            fillListener.onFill(stock, order, transaction);
+        }
+    }
+
+    /**
+     * Adds a newly made {@link Transaction} to the {@link Stock}'s data-base,
+     * and to the given {@code transactions}.
+     *
+     * @param stock        the stock of the {@link Transaction}.
+     * @param transaction  the newly made {@link Transaction}.
+     * @param transactions the {@link Transaction}s made by the current
+     *                     calculation.
+     */
+    void addTransaction(Stock stock, Transaction transaction,
+                        List<Transaction> transactions) {
+        long startNanos = System.nanoTime();
+        stock.getDataBase().getSuccessfullyFinishedTransactions()
+                .getCollection().addFirst(transaction);
+        stock.getDataBase().getBars().add(transaction);
+        transactions.add(transaction);
+        marketData.onTrade(stock, transaction);
+        stock.getMetrics().incrementFills();
+        metrics.getTransaction().recordSince(startNanos);
+
+        // don't even build the message, if it is suppressed:
+        if (!MessagePrint.isQuiet()) {
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.StockDataBase.newSuccessAdd(transaction));
+        }
+    }
+
+    /**
+     * @return {@code true} if the 'arrivedOrder' was performed in its
+     * entirety, and was removed from the data-base.
+     */
+    private boolean checkRemainders(Stock stock, Iterator<Order> it,
+                                    Order arrivedOrder,
+                                    Order oppositeAlreadyPlacedOrder,
+                                    Transaction transaction,
+                                    List<Transaction> transactions) {
+        while (true) {
+
+            // check if there is a remainder in the 'opposite already placed' Order:
+            boolean isOppositeRemoved =
+                    checkOppositeAlreadyPlacedOrderRemainder(stock, it,
+                            oppositeAlreadyPlacedOrder, transaction);
+
+            // check if there is a remainder in the arrivedOrder:
+            if (checkArrivedOrderRemainder(stock, arrivedOrder, transaction)) {
+                return true;
+            }
+            if (isOppositeRemoved) {
+                return false;
+            }
+
+            /*
+             * both Orders have a remainder: the 'arrived' iceberg Order was
+             * replenished, and takes the same Order again:
+             */
+            transaction = makeATransaction(stock, arrivedOrder,
+                    oppositeAlreadyPlacedOrder, transactions);
+        }
+    }
+
+    /**
+     * @return {@code true} if the 'opposite already placed' {@link Order} was
+     * performed in its entirety, and was removed from the data-base.
+     */
+    boolean checkOppositeAlreadyPlacedOrderRemainder(
+            Stock stock, Iterator<Order> it, Order oppositeAlreadyPlacedOrder,
+            Transaction transaction) {
+
+        // check if there is a remainder in the 'opposite already placed' Order:
+        long alreadyRemainderQuantity =
+                oppositeAlreadyPlacedOrder.getQuantity() -
+                        transaction.getQuantity();
+        if (alreadyRemainderQuantity > 0) {
+
+            /*
+             * there is a remainder in the oppositeAlreadyPlacedOrder,
+             * set the Quantity of it to the updated 'alreadyRemainderQuantity':
+             */
+            oppositeAlreadyPlacedOrder.setQuantity(alreadyRemainderQuantity);
+            marketData.onOrderReduced(stock, oppositeAlreadyPlacedOrder,
+                    transaction.getQuantity());
+            return false;
+        } else {
+
+            /*
+             * if the 'opposite already placed' Order's quantity remainder is no more than 0,
+             * remove the 'opposite already placed' Order from data-base:
+             */
+            it.remove();
+            marketData.onOrderRemoved(stock, oppositeAlreadyPlacedOrder,
+                    oppositeAlreadyPlacedOrder.getQuantity());
+
+            /*
+             * an iceberg Order shows its next peak, and is inserted back
+             * behind its level once the sweep is done:
+             */
+            if (oppositeAlreadyPlacedOrder.replenish()) {
+                replenishedOrders.add(oppositeAlreadyPlacedOrder);
+            } else {
+                expiry.cancel(oppositeAlreadyPlacedOrder);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Inserts the {@link #replenishedOrders} back to the {@link Stock}'s
+     * data-base. Must be called after the iterator of the sweep is done.
+     *
+     * @return {@code true} if any {@link Order} was inserted.
+     */
+    boolean insertReplenishedOrders(Stock stock) {
+        if (replenishedOrders.isEmpty()) {
+            return false;
+        }
+        for (Order i : replenishedOrders) {
+            getAwaitingOrders(stock, i.getOrderDirection()).sortedInsert(i);
+            marketData.onOrderAdded(stock, i);
+        }
+        replenishedOrders.clear();
+        return true;
+    }
+
+    /**
+     * @return the awaiting {@link Order}s of the given side of the {@link
+     * Stock}'s data-base.
+     */
+    static OrderBook getAwaitingOrders(Stock stock,
+                                       OrderDirection direction) {
+        return (direction == OrderDirection.BUY) ?
+                stock.getDataBase().getAwaitingBuyOrders().getCollection() :
+                stock.getDataBase().getAwaitingSellOrders().getCollection();
+    }
+
+    /**
+     * @return {@code true} if the 'arrivedOrder' was performed in its
+     * entirety, and was removed from the data-base.
+     */
+    private boolean checkArrivedOrderRemainder(Stock stock,
+                                               Order arrivedOrder,
+                                               Transaction transaction) {
+
+        // check if there is a remainder in the arrivedOrder:
+        long arrivedRemainderQuantity =
+                arrivedOrder.getQuantity() - transaction.getQuantity();
+        if (arrivedRemainderQuantity > 0) {
+
+            /*
+             * there is a remainder in the 'arrivedOrder',
+             * set the Quantity of the 'arrivedOrder'
+             * to the updated 'arrivedRemainderQuantity':
+             */
+            arrivedOrder.setQuantity(arrivedRemainderQuantity);
+            marketData.onOrderReduced(stock, arrivedOrder,
+                    transaction.getQuantity());
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    "The Order has a remainder:\n\t" + arrivedOrder);
+            return false;
+        } else if (arrivedOrder.getHiddenQuantity() > 0) {
+
+            /*
+             * the 'arrived' iceberg Order shows its next peak, and goes on.
+             * it is moved behind its level, as it loses its time priority:
+             */
+            OrderBook arrivedOrderSide =
+                    getAwaitingOrders(stock, arrivedOrder.getOrderDirection());
+            arrivedOrderSide.remove(arrivedOrder);
+            marketData.onOrderRemoved(stock, arrivedOrder,
+                    arrivedOrder.getQuantity());
+            arrivedOrder.replenish();
+            arrivedOrderSide.sortedInsert(arrivedOrder);
+            marketData.onOrderAdded(stock, arrivedOrder);
+            return false;
+        } else {
+
+            /*
+             * if the 'arrived' Order's quantity remainder is no more than 0,
+             * remove the 'arrived' Order from data-base:
+             */
+            checkArrivedOrderRemainder_RemoveArrivedOrder(stock, arrivedOrder);
+            return true;
+        }
+    }
+
+    private void checkArrivedOrderRemainder_RemoveArrivedOrder(
+            Stock stock, Order arrivedOrder) {
+        StockDataBase dataBase = stock.getDataBase();
+
+        /*
+         * if the 'arrived' Order's quantity remainder is no more than 0,
+         * remove the 'arrived' Order from data-base:
+         */
+        if (arrivedOrder.getOrderDirection() == OrderDirection.BUY) {
+            if (dataBase.getAwaitingBuyOrders().getCollection()
+                    .remove(arrivedOrder)) {
+                marketData.onOrderRemoved(stock, arrivedOrder,
+                        arrivedOrder.getQuantity());
+                expiry.cancel(arrivedOrder);
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        Message.Out.StockDataBase
+                                .printOrderPerformedInItsEntirety());
+            } else {
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        new BuildError().getMessage() +
+                                Message.Err.Order.removeFail());
+            }
+        } else if (arrivedOrder.getOrderDirection() == OrderDirection.SELL) {
+
+            if (dataBase.getAwaitingSellOrders().getCollection()
+                    .remove(arrivedOrder)) {
+                marketData.onOrderRemoved(stock, arrivedOrder,
+                        arrivedOrder.getQuantity());
+                expiry.cancel(arrivedOrder);
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        Message.Out.StockDataBase
+                                .printOrderPerformedInItsEntirety());
+            } else {
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        new BuildError().getMessage() +
+                                Message.Err.Order.removeFail());
+            }
+        }
+    }
+
+    /**
+     * <b>Executes a {@code MKT} {@link Order}.</b>
+     * <p>
+     * The {@code MKT} {@link Order} sweeps the <i>opposite already placed</i>
+     * {@link Order}s of the given {@link Stock}, level by level (by their
+     * desiredLimitPrice/timeStamp priority), in a single pass.
+     * </p>
+     * <ul>
+     *     <li>The {@code MKT} {@link Order} is never placed in its own side of
+     *     the {@link Stock}'s data-base, and its {@code desiredLimitPrice} is
+     *     never re-calculated during the sweep.</li>
+     *     <li>Each {@link Transaction}'s price is the <i>opposite already
+     *     placed</i> {@link Order}'s {@code desiredLimitPrice}.</li>
+     *     <li>The sweep stops at the first level that is outside the {@link
+     *     #mktPriceProtectionBand} (if enabled).</li>
+     *     <li>A remainder that could not be performed is cancelled.</li>
+     * </ul>
+     *
+     * @param stock    the stock of the {@code MKT} {@link Order}.
+     * @param mktOrder the arrived {@code MKT} {@link Order}. its {@code
+     *                 quantity} is updated to the cancelled remainder.
+     * @return the average price of all the {@link Transaction}s made by the
+     * sweep, or {@code 0} if no {@link Transaction} was made.
+     */
+    public double executeMKTOrder(Stock stock, Order mktOrder) {
+        beforeChange(stock);
+        List<Transaction> transactions = new ArrayList<>();
+        double averagePrice = executeMKTOrder(stock, mktOrder, transactions);
+        stopTrigger.trigger(stock, transactions, 0);
+        return averagePrice;
+    }
+
+    double executeMKTOrder(Stock stock, Order mktOrder,
+                           List<Transaction> transactions) {
+
+        /*
+         * during a call auction, the 'MKT' Order is priced, and is placed in
+         * the data-base to take part in the uncross:
+         */
+        if (stock.isCallAuction()) {
+            callAuction.placeMKTOrder(stock, mktOrder);
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        stock.getMetrics().incrementOrders();
+        long filledQuantity = mktOrder.getQuantity();
+        long filledPeriod = sweepOppositeAlreadyPlacedOrders(stock, mktOrder,
+                false, transactions);
+        filledQuantity -= mktOrder.getQuantity();
+
+        double averagePrice = (filledQuantity > 0) ?
+                ((double) filledPeriod / filledQuantity) : 0;
+        if (mktOrder.getQuantity() > 0) {
+            stock.getMetrics().incrementCancels();
+        }
+        metrics.getMatching().recordSince(startNanos);
+
+        // print the summary of the sweep:
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Message.Out.StockDataBase
+                        .printMKTOrderSummary(filledQuantity, averagePrice,
+                                mktOrder.getQuantity()));
+
+        return averagePrice;
+    }
+
+    /**
+     * Sweeps the <i>opposite already placed</i> {@link Order}s with an {@link
+     * Order} that is never placed in the data-base, until it is performed in
+     * its entirety, or until the first {@link Order} it may not take.
+     *
+     * @param stock     the stock of the {@link Order}.
+     * @param order     the sweeping {@link Order}. its {@code quantity} is
+     *                  updated to its remainder.
+     * @param isLimited {@code true} to take only the {@link Order}s that cross
+     *                  its {@code desiredLimitPrice}. else, it takes the
+     *                  {@link Order}s within the {@link
+     *                  #mktPriceProtectionBand} (if enabled).
+     * @return the total {@code Period} of the {@link Transaction}s made.
+     */
+    private long sweepOppositeAlreadyPlacedOrders(Stock stock, Order order,
+                                                  boolean isLimited,
+                                                  List<Transaction> transactions) {
+
+        // get the 'opposite already placed' Orders of the Order:
+        List<Order> oppositeAlreadyPlacedOrders = getAwaitingOrders(stock,
+                (order.getOrderDirection() == OrderDirection.BUY) ?
+                        OrderDirection.SELL : OrderDirection.BUY);
+
+        // the price the band of this sweep is around:
+        long referencePrice = stock.getPrice();
+        long filledPeriod = 0;
+
+        /*
+         * sweep the 'opposite already placed' Orders
+         * (by descending desiredLimitPrice/timeStamp priority). the sweep
+         * starts over after iceberg Orders were replenished:
+         */
+        do {
+            for (Iterator<Order> it = oppositeAlreadyPlacedOrders.iterator();
+                 it.hasNext() && (order.getQuantity() > 0); ) {
+                Order oppositeAlreadyPlacedOrder = it.next();
+
+                // stop at the first level the Order may not take:
+                if (isLimited ? !isCrossing(order, oppositeAlreadyPlacedOrder) :
+                        isOutsideBand(order.getOrderDirection(),
+                                oppositeAlreadyPlacedOrder
+                                        .getDesiredLimitPrice(),
+                                referencePrice)) {
+                    break;
+                }
+
+                Transaction transaction = makeATransaction(stock, order,
+                        oppositeAlreadyPlacedOrder, transactions);
+
+                // check if there is a remainder in the 'opposite already placed' Order:
+                checkOppositeAlreadyPlacedOrderRemainder(stock, it,
+                        oppositeAlreadyPlacedOrder, transaction);
+
+                // update the remainder of the Order:
+                order.setQuantity(
+                        order.getQuantity() - transaction.getQuantity());
+                filledPeriod += transaction.getPeriod();
+            }
+        } while (insertReplenishedOrders(stock) && (order.getQuantity() > 0));
+        return filledPeriod;
+    }
+
+    /**
+     * The band is one-sided: a 'Buy' sweep may take any price below the
+     * {@code referencePrice}, and a 'Sell' sweep any price above it. The
+     * prices are compared in percents without a division, so a small {@code
+     * price} is not truncated to a band of {@code 0}.
+     *
+     * @param direction      the direction of the sweeping {@link Order}.
+     * @param price          the price of an 'opposite already placed' {@link
+     *                       Order}.
+     * @param referencePrice the {@link Stock}'s {@code price} when the sweep
+     *                       started.
+     * @return {@code true} if the price is beyond the {@link
+     * #mktPriceProtectionBand} (if enabled).
+     */
+    private boolean isOutsideBand(OrderDirection direction, long price,
+                                  long referencePrice) {
+        if (mktPriceProtectionBand == 0) {
+            return false;
+        }
+        return (direction == OrderDirection.BUY) ?
+                (price * 100 > referencePrice * (100 + mktPriceProtectionBand)) :
+                (price * 100 < referencePrice * (100 - mktPriceProtectionBand));
+    }
+
+    /**
+     * <b>Executes a {@link OrderType#FOK} (<i>Fill-Or-Kill</i>) {@link
+     * Order}.</b>
+     * <p>
+     * The {@link Order} is performed in its entirety at once, at its {@code
+     * desiredLimitPrice} or better, or else it is cancelled without any
+     * {@link Transaction}. It is never placed in the data-base.
+     * </p>
+     * <p>
+     * The check takes the aggregated levels of the <i>opposite already
+     * placed</i> {@link Order}s, including the hidden reserve of the iceberg
+     * {@link Order}s, so it visits only the levels that the {@link Order}
+     * would take. During a call auction, the {@link Order} may not be
+     * performed at once, so it is cancelled.
+     * </p>
+     *
+     * @param stock    the stock of the {@code FOK} {@link Order}.
+     * @param fokOrder the arrived {@code FOK} {@link Order}.
+     * @return all the {@link Transaction}s made, including those of the
+     * triggered Stop {@link Order}s. empty if it was cancelled.
+     */
+    public List<Transaction> executeFOKOrder(Stock stock, Order fokOrder) {
+        beforeChange(stock);
+        List<Transaction> transactions = new ArrayList<>();
+        executeFOKOrder(stock, fokOrder, transactions);
+        stopTrigger.trigger(stock, transactions, 0);
+        return transactions;
+    }
+
+    private void executeFOKOrder(Stock stock, Order fokOrder,
+                                 List<Transaction> transactions) {
+        long startNanos = System.nanoTime();
+        stock.getMetrics().incrementOrders();
+        OrderDirection oppositeDirection =
+                (fokOrder.getOrderDirection() == OrderDirection.BUY) ?
+                        OrderDirection.SELL : OrderDirection.BUY;
+        if (stock.isCallAuction() || !marketData.getDepth(stock)
+                .isFillable(oppositeDirection, fokOrder.getDesiredLimitPrice(),
+                        fokOrder.getTotalQuantity())) {
+            stock.getMetrics().incrementCancels();
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.StockDataBase.printFOKOrderCancelled(
+                            fokOrder.getTotalQuantity()));
+        } else {
+
+            // the Order takes its hidden reserve too, as it is never shown:
+            fokOrder.setQuantity(fokOrder.getTotalQuantity());
+            fokOrder.setHiddenQuantity(0);
+            sweepOppositeAlreadyPlacedOrders(stock, fokOrder, true,
+                    transactions);
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.StockDataBase
+                            .printOrderPerformedInItsEntirety());
+        }
+        metrics.getMatching().recordSince(startNanos);
+    }
+
+    /**
+     * <b>Executes a batch of {@link Order}s.</b>
+     * <p>
+     * The {@link Order}s are grouped by their {@link Stock}, and each group is
+     * inserted and matched against its {@link Stock}'s data-base in a single
+     * pass, by arrival order:
+     * </p>
+     * <ul>
+     *     <li>A {@code MKT} {@link Order} sweeps the <i>opposite already
+     *     placed</i> {@link Order}s, as in {@link #executeMKTOrder(Stock,
+     *     Order)}.</li>
+     *     <li>A {@code FOK} {@link Order} is executed against all the
+     *     <i>opposite already placed</i> {@link Order}s, as in {@link
+     *     #executeFOKOrder(Stock, Order)}.</li>
+     *     <li>An {@link Order} that can't make a {@link Transaction} is
+     *     collected, and all the collected {@link Order}s of a side are
+     *     inserted to the data-base with a single sort, only when an arriving
+     *     {@link Order} may match them (or at the end of the group).</li>
+     *     <li>Any other {@link Order} is merged into its sorted position
+     *     (without re-sorting the data-base), and is calculated as in {@link
+     *     #calcOrdersOfASingleStock(Stock, Order)}.</li>
+     * </ul>
+     *
+     * <p>An {@link Order} that is rejected by the pre-trade risk stage is
+     * skipped.</p>
+     *
+     * @param stockOrders the {@link Order}s to execute, in arrival order.
+     * @return all the {@link Transaction}s made, in the arrival order of the
+     * {@link Order}s that made them.
+     * @throws IOException if one of the {@code Symbol}s given doesn't match a
+     *                     {@link Stock}. in this case, no {@link Order} is
+     *                     executed.
+     */
+    public List<Transaction> executeOrdersBatch(
+            List<StockOrder> stockOrders) throws IOException {
+
+        /*
+         * group the Orders by the ids of their Stocks, in the order of their
+         * first Orders. each Symbol is resolved only once:
+         */
+        Map<String, Stock> stockBySymbol = new HashMap<>();
+        List<List<Integer>> groupsById =
+                new ArrayList<>(Collections.nCopies(stocksById.length, null));
+        List<Stock> groupStocks = new ArrayList<>();
+        for (int i = 0; i < stockOrders.size(); ++i) {
+            String symbol = stockOrders.get(i).getSymbol();
+            Stock stock = stockBySymbol.get(symbol);
+            if (stock == null) {
+                stock = getStockBySymbol(symbol);
+                stockBySymbol.put(symbol, stock);
+            }
+            if (groupsById.get(stock.getId()) == null) {
+                groupsById.set(stock.getId(), new ArrayList<>());
+                groupStocks.add(stock);
+            }
+            groupsById.get(stock.getId()).add(i);
+        }
+
+        // execute each group, and collect the Transactions of each Order:
+        List<List<Transaction>> transactionsOfOrders =
+                new ArrayList<>(stockOrders.size());
+        for (int i = 0; i < stockOrders.size(); ++i) {
+            transactionsOfOrders.add(new ArrayList<>());
+        }
+        List<Transaction> triggeredTransactions = new ArrayList<>();
+        for (Stock stock : groupStocks) {
+            List<Integer> group = groupsById.get(stock.getId());
+            executeOrdersBatchOfASingleStock(stock, group, stockOrders,
+                    transactionsOfOrders);
+
+            // trigger the Stop Orders by the Transactions of this group:
+            List<Transaction> groupTransactions = new ArrayList<>();
+            for (int i : group) {
+                groupTransactions.addAll(transactionsOfOrders.get(i));
+            }
+            int fromIndex = groupTransactions.size();
+            stopTrigger.trigger(stock, groupTransactions, 0);
+            triggeredTransactions.addAll(groupTransactions
+                    .subList(fromIndex, groupTransactions.size()));
+        }
+
+        /*
+         * flatten the Transactions by the arrival order of their Orders,
+         * followed by the Transactions of the triggered Stop Orders:
+         */
+        List<Transaction> transactions = new ArrayList<>();
+        for (List<Transaction> i : transactionsOfOrders) {
+            transactions.addAll(i);
+        }
+        transactions.addAll(triggeredTransactions);
+        return transactions;
+    }
+
+    /**
+     * @param stockOrders the {@link Order}s to execute, in arrival order.
+     * @return all the {@link Transaction}s made, in the arrival order of the
+     * {@link Order}s that made them.
+     * @throws IOException if one of the {@code Symbol}s given doesn't match a
+     *                     {@link Stock}.
+     * @see #executeOrdersBatch(List)
+     */
+    public List<Transaction> executeOrdersBatch(
+            Stream<StockOrder> stockOrders) throws IOException {
+        return executeOrdersBatch(stockOrders.collect(Collectors.toList()));
+    }
+
+    private void executeOrdersBatchOfASingleStock(Stock stock,
+                                                  List<Integer> indexes,
+                                                  List<StockOrder> stockOrders,
+                                                  List<List<Transaction>> transactionsOfOrders) {
+        beforeChange(stock);
+        OrderBook buyOrders =
+                stock.getDataBase().getAwaitingBuyOrders().getCollection();
+        OrderBook sellOrders =
+                stock.getDataBase().getAwaitingSellOrders().getCollection();
+
+        // during a call auction, all Orders are inserted with a single sort:
+        if (stock.isCallAuction()) {
+            List<Order> pendingBuyOrders = new ArrayList<>();
+            List<Order> pendingSellOrders = new ArrayList<>();
+            for (int i : indexes) {
+                Order order = stockOrders.get(i).getOrder();
+                if (!isPassingPreTradeRisk(stock, order)) {
+                    continue;
+                }
+                if (order.getOrderType().isStop()) {
+                    stock.getDataBase().getStopOrders().add(order);
+                    continue;
+                }
+                if (order.getOrderType() == OrderType.FOK) {
+
+                    // cancelled, as it may not be performed at once:
+                    executeFOKOrder(stock, order, transactionsOfOrders.get(i));
+                    continue;
+                }
+                if (order.getOrderType() == OrderType.MKT) {
+                    order.setDesiredLimitPrice(calcDesiredLimitPriceOfMKTOrder(
+                            stock, order.getOrderDirection()));
+                }
+                if (order.getOrderDirection() == OrderDirection.BUY) {
+                    pendingBuyOrders.add(order);
+                } else if (order.getOrderDirection() == OrderDirection.SELL) {
+                    pendingSellOrders.add(order);
+                }
+            }
+            flushPendingOrders(stock, buyOrders, pendingBuyOrders);
+            flushPendingOrders(stock, sellOrders, pendingSellOrders);
+            return;
+        }
+
+        /*
+         * Orders that can't make a Transaction yet, waiting to be inserted
+         * to the data-base with a single sort:
+         */
+        List<Order> pendingBuyOrders = new ArrayList<>();
+        List<Order> pendingSellOrders = new ArrayList<>();
+
+        // the best desiredLimitPrice of each side of the pending Orders:
+        long pendingBestBuyPrice = Long.MIN_VALUE;
+        long pendingBestSellPrice = Long.MAX_VALUE;
+
+        for (int i : indexes) {
+            Order order = stockOrders.get(i).getOrder();
+            List<Transaction> transactions = transactionsOfOrders.get(i);
+            if (!isPassingPreTradeRisk(stock, order)) {
+                continue;
+            }
+            if (order.getOrderType().isStop()) {
+
+                // the Stop Order waits outside the data-base:
+                stock.getDataBase().getStopOrders().add(order);
+                continue;
+            }
+
+            if (order.getOrderType() == OrderType.FOK) {
+
+                // the 'FOK' Order must see all the opposite Orders:
+                if (order.getOrderDirection() == OrderDirection.BUY) {
+                    flushPendingOrders(stock, sellOrders, pendingSellOrders);
+                    pendingBestSellPrice = Long.MAX_VALUE;
+                } else {
+                    flushPendingOrders(stock, buyOrders, pendingBuyOrders);
+                    pendingBestBuyPrice = Long.MIN_VALUE;
+                }
+                executeFOKOrder(stock, order, transactions);
+            } else if (order.getOrderDirection() == OrderDirection.BUY) {
+                if (order.getOrderType() == OrderType.MKT) {
+
+                    // the 'MKT' Order may sweep the pending opposite Orders:
+                    flushPendingOrders(stock, sellOrders, pendingSellOrders);
+                    pendingBestSellPrice = Long.MAX_VALUE;
+                    executeMKTOrder(stock, order, transactions);
+                } else if ((pendingBestSellPrice <=
+                        order.getDesiredLimitPrice()) ||
+                        (!sellOrders.isEmpty() &&
+                                (sellOrders.get(0).getDesiredLimitPrice() <=
+                                        order.getDesiredLimitPrice()))) {
+
+                    // insert the Order, and calculate it:
+                    flushPendingOrders(stock, sellOrders, pendingSellOrders);
+                    pendingBestSellPrice = Long.MAX_VALUE;
+                    insertOrder(stock, order);
+                    calcOrdersOfASingleStock(stock, order, transactions);
+                } else {
+
+                    // the Order can't make a Transaction yet:
+                    pendingBuyOrders.add(order);
+                    pendingBestBuyPrice = Math.max(pendingBestBuyPrice,
+                            order.getDesiredLimitPrice());
+                }
+            } else if (order.getOrderDirection() == OrderDirection.SELL) {
+                if (order.getOrderType() == OrderType.MKT) {
+
+                    // the 'MKT' Order may sweep the pending opposite Orders:
+                    flushPendingOrders(stock, buyOrders, pendingBuyOrders);
+                    pendingBestBuyPrice = Long.MIN_VALUE;
+                    executeMKTOrder(stock, order, transactions);
+                } else if ((pendingBestBuyPrice >=
+                        order.getDesiredLimitPrice()) ||
+                        (!buyOrders.isEmpty() &&
+                                (buyOrders.get(0).getDesiredLimitPrice() >=
+                                        order.getDesiredLimitPrice()))) {
+
+                    // insert the Order, and calculate it:
+                    flushPendingOrders(stock, buyOrders, pendingBuyOrders);
+                    pendingBestBuyPrice = Long.MIN_VALUE;
+                    insertOrder(stock, order);
+                    calcOrdersOfASingleStock(stock, order, transactions);
+                } else {
+
+                    // the Order can't make a Transaction yet:
+                    pendingSellOrders.add(order);
+                    pendingBestSellPrice = Math.min(pendingBestSellPrice,
+                            order.getDesiredLimitPrice());
+                }
+            }
+        }
+
+        // insert the rest of the pending Orders:
+        flushPendingOrders(stock, buyOrders, pendingBuyOrders);
+        flushPendingOrders(stock, sellOrders, pendingSellOrders);
+    }
+
+    /**
+     * @param stock the stock the {@link Order} was placed on.
+     * @param order the arriving {@link Order}.
+     * @return {@code true} if the {@link Order} passed the pre-trade risk
+     * stage. else, prints the rejection message and returns {@code false}.
+     */
+    private boolean isPassingPreTradeRisk(Stock stock, Order order) {
+        try {
+            checkPreTradeRisk(stock, order);
+            return true;
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            return false;
+        }
+    }
+
+    private void flushPendingOrders(Stock stock, OrderBook orders,
+                                    List<Order> pendingOrders) {
+        if (!pendingOrders.isEmpty()) {
+            long startNanos = System.nanoTime();
+            orders.sortedAddAll(pendingOrders);
+            for (Order i : pendingOrders) {
+                marketData.onOrderAdded(stock, i);
+                expiry.schedule(stock, i);
+                stock.getMetrics().incrementOrders();
+            }
+
+            // record the amortized intake latency of each Order:
+            long nanosPerOrder =
+                    (System.nanoTime() - startNanos) / pendingOrders.size();
+            for (int i = 0; i < pendingOrders.size(); i++) {
+                metrics.getOrderIntake().record(nanosPerOrder);
+            }
+            pendingOrders.clear();
+        }
+    }
+
+    /**
+     * Starts a <i>call auction</i> of the given {@link Stock}.
+     * <p>From now on, arriving {@link Order}s are accumulated in the {@link
+     * Stock}'s data-base without being matched, until {@link
+     * #uncrossCallAuction(Stock)} is called.</p>
+     *
+     * @param stock the stock to start its call auction.
+     */
+    public void startCallAuction(Stock stock) {
+        beforeChange(stock);
+        callAuction.start(stock);
+    }
+
+    /**
+     * <b>Uncrosses the <i>call auction</i> of the given {@link Stock}.</b>
+     * <p>
+     * The method calculates the single <i>clearing price</i> that maximizes
+     * the executed volume, from the cumulative 'Buy' (= demand) and 'Sell' (=
+     * supply) quantities over all the price levels of the {@link Stock}'s
+     * data-base. Then, it fills all the crossing {@link Order}s in a single
+     * batch at that price, by their desiredLimitPrice/timeStamp priority.
+     * </p>
+     * <p>When several prices execute the same volume, the price with the
+     * lowest imbalance (= |demand - supply|) is chosen, then the price closest
+     * to the {@link Stock}'s current {@code price}, then the lowest price.</p>
+     * <p>Only the shown quantity of an iceberg {@link Order} takes part in the
+     * uncross. An iceberg {@link Order} whose peak was performed is
+     * replenished, and its next peak waits for continuous matching.</p>
+     * <p>At the end, the call auction is over, and the {@link Stock} is back
+     * to continuous matching.</p>
+     *
+     * @param stock the stock to uncross.
+     * @return all the {@link Transaction}s made, in the order they were made.
+     */
+    public List<Transaction> uncrossCallAuction(Stock stock) {
+        beforeChange(stock);
+        List<Transaction> transactions = callAuction.uncross(stock);
+        stopTrigger.trigger(stock, transactions, 0);
+        return transactions;
+    }
+
+    /**
+     * <b>Executes a single arrived {@link Order} of any {@link OrderType}.</b>
+     * <ul>
+     *     <li>The {@link Order} must pass the pre-trade risk stage first,
+     *     and only then it is announced.</li>
+     *     <li>A {@link OrderType#STP} or a {@link OrderType#STL} {@link Order}
+     *     is placed, as in {@link #placeStopOrder(Stock, Order)}.</li>
+     *     <li>A {@code MKT} {@link Order} is executed, as in {@link
+     *     #executeMKTOrder(Stock, Order)}.</li>
+     *     <li>A {@code FOK} {@link Order} is executed, as in {@link
+     *     #executeFOKOrder(Stock, Order)}.</li>
+     *     <li>A {@code LMT} {@link Order} is inserted and calculated, as in
+     *     {@link #calcOrdersOfASingleStock(Stock, Order)}.</li>
+     * </ul>
+     *
+     * @param stock the stock the {@link Order} was placed on.
+     * @param order the arrived {@link Order}.
+     * @return all the {@link Transaction}s made, including those of the
+     * triggered Stop {@link Order}s.
+     * @throws IOException with an appropriate message, if the {@link Order}
+     *                     is rejected by the pre-trade risk stage.
+     */
+    public List<Transaction> executeOrder(Stock stock, Order order)
+            throws IOException {
+        beforeChange(stock);
+        checkPreTradeRisk(stock, order);
+
+        // don't even build the message, if it is suppressed:
+        if (!MessagePrint.isQuiet()) {
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.StockDataBase.newSuccessAdd(order));
+        }
+        if (order.getOrderType().isStop()) {
+            return placeStopOrder(stock, order);
+        }
+        List<Transaction> transactions = new ArrayList<>();
+        if (order.getOrderType() == OrderType.MKT) {
+            executeMKTOrder(stock, order, transactions);
+        } else if (order.getOrderType() == OrderType.FOK) {
+            executeFOKOrder(stock, order, transactions);
+        } else {
+            insertOrder(stock, order);
+            calcOrdersOfASingleStock(stock, order, transactions);
+        }
+        stopTrigger.trigger(stock, transactions, 0);
+        return transactions;
+    }
+
+    /**
+     * Places a {@link OrderType#STP} or a {@link OrderType#STL} {@link Order}.
+     * <p>The {@link Order} waits outside the {@link Stock}'s awaiting orders,
+     * until the {@link Stock}'s {@code price} reaches its {@code stopPrice}
+     * (which may be immediately). Then, a {@link OrderType#STP} is executed as
+     * a {@code MKT} {@link Order}, and a {@link OrderType#STL} as a {@code LMT}
+     * {@link Order}, and their {@link Transaction}s may trigger more Stop
+     * {@link Order}s. Stop {@link Order}s are not triggered during a call
+     * auction.</p>
+     *
+     * @param stock     the stock of the {@link Order}.
+     * @param stopOrder the arrived {@link Order}.
+     * @return all the {@link Transaction}s made, if the {@link Order} was
+     * triggered immediately.
+     */
+    public List<Transaction> placeStopOrder(Stock stock,
+                                            Order stopOrder) {
+        beforeChange(stock);
+        List<Transaction> transactions = new ArrayList<>();
+        stock.getDataBase().getStopOrders().add(stopOrder);
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Message.Out.StockDataBase.printStopOrderPlaced());
+        stopTrigger.trigger(stock, transactions, 0);
+        return transactions;
+    }
+
+    /**
+     * <p>This method is calculating the <i>{@code desiredLimitPrice}</i> for
+     * the current {@code MKT} {@link Order}, based on its {@link
+     * OrderDirection}.</p>
+     *
+     * <p>The method searches if there are <i>opposite {@code Direction}
+     * already placed</i> {@link Order}s in the given {@link Stock}'s {@code
+     * data-base}.</p>
+     *
+     * <p>If there are such <i>opposite already placed</i> {@link Order}s, the
+     * method calculates the
+     * <i>{@code desiredLimitPrice}</i> of the {@code MKT} {@link Order} to be
+     * as the <tt>first</tt> <i>opposite already placed</i> {@link Order}'s
+     * <i>{@code desiredLimitPrice}</i>.</p>
+     *
+     * <p>If there are <tt>no</tt> such <i>opposite already placed</i> {@link
+     * Order}s, the method calculates the
+     * <i>{@code desiredLimitPrice}</i> of the {@code MKT} {@link Order} to be
+     * as the <i>current</i> <i>{@code price}</i> of the given {@link
+     * Stock}.</p>
+     *
+     * @param stock          the current {@link Stock} to deal with.
+     * @param orderDirection the current {@code MKT} {@link Order}'s {@code
+     *                       Direction}.
+     * @return the calculated <i>{@code desiredLimitPrice}</i> of the current
+     * {@code MKT} {@link Order}.
+     */
+    public static long calcDesiredLimitPriceOfMKTOrder(Stock stock,
+                                                       OrderDirection orderDirection) {
+
+        // read the top-of-book from the Stock's latest Quote:
+        Quote quote = stock.getQuote();
+        long desiredLimitPrice;
+        if ((orderDirection == OrderDirection.BUY) && quote.hasAsk()) {
+            desiredLimitPrice = quote.getAskPrice();
+        } else if ((orderDirection == OrderDirection.SELL) && quote.hasBid()) {
+            desiredLimitPrice = quote.getBidPrice();
+        } else {
+            desiredLimitPrice = quote.getLastPrice();
+        }
+
+        return desiredLimitPrice;
+    }
+
+}
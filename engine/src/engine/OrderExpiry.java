@@ -0,0 +1,262 @@
+package engine;
+
+import engine.timer.TimerWheel;
+import message.Message;
+import message.print.MessagePrint;
+import order.Order;
+import order.OrderDirection;
+import order.TimeInForce;
+import order.book.OrderBook;
+import stock.Stock;
+import timestamp.TimeStamp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * The expirations of the awaiting {@link Order}s of a {@link MatchingEngine},
+ * whose {@link TimeInForce} is expiring.
+ * <p>Each such {@link Order} is scheduled on a {@link TimerWheel} once it is
+ * placed in its {@link Stock}'s data-base (the {@link Order}s of a loaded
+ * {@link Stock}, on the first use of the {@link Stock}), and its expiration is
+ * cancelled once it leaves the data-base.</p>
+ *
+ * @version 1.0
+ * @see MatchingEngine#expireOrders(long, int)
+ */
+final class OrderExpiry {
+
+    /**
+     * The engine of the {@link Stock}s.
+     */
+    private final MatchingEngine engine;
+
+    /**
+     * The end of the session of each day, in milliseconds of the day. the
+     * {@link TimeInForce#DAY} {@link Order}s expire at it.
+     */
+    private long sessionCloseMillisOfDay = TimeStamp.MILLIS_PER_DAY - 1;
+
+    /**
+     * The clock of the expirations, in milliseconds since the epoch.
+     */
+    private LongSupplier clock = System::currentTimeMillis;
+
+    /**
+     * The expirations of the awaiting {@link Order}s, or {@code null} before
+     * the first one is scheduled.
+     */
+    private TimerWheel<Order> expiryWheel = null;
+
+    /**
+     * The scheduled expirations, by their {@link Order}s (by identity).
+     */
+    private final Map<Order, Expiry> expiries = new IdentityHashMap<>();
+
+    /**
+     * Index = id. {@code true} once the expirations of the {@link Stock}'s
+     * awaiting {@link Order}s were scheduled, on its first use.
+     */
+    private boolean[] isExpiryScheduled = new boolean[0];
+
+    OrderExpiry(MatchingEngine engine) {
+        this.engine = engine;
+    }
+
+    long getSessionCloseMillisOfDay() {
+        return sessionCloseMillisOfDay;
+    }
+
+    void setSessionCloseMillisOfDay(long sessionCloseMillisOfDay) {
+        this.sessionCloseMillisOfDay = sessionCloseMillisOfDay;
+    }
+
+    LongSupplier getClock() {
+        return clock;
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * The expirations start over, for new {@link Stock}s. those of each
+     * {@link Stock} are scheduled by {@link #prepare(Stock)}.
+     *
+     * @param stocksCount the number of the new {@link Stock}s.
+     */
+    void reset(int stocksCount) {
+        expiryWheel = null;
+        expiries.clear();
+        isExpiryScheduled = new boolean[stocksCount];
+    }
+
+    /**
+     * Schedules the expirations of the {@link Stock}'s awaiting {@link
+     * Order}s, on its first use.
+     */
+    void prepare(Stock stock) {
+        int id = stock.getId();
+        if ((id >= 0) && (id < isExpiryScheduled.length) &&
+                !isExpiryScheduled[id]) {
+            isExpiryScheduled[id] = true;
+            for (Order i : MatchingEngine.getAwaitingOrders(stock,
+                    OrderDirection.BUY)) {
+                schedule(stock, i);
+            }
+            for (Order i : MatchingEngine.getAwaitingOrders(stock,
+                    OrderDirection.SELL)) {
+                schedule(stock, i);
+            }
+        }
+    }
+
+    /**
+     * Schedules the expiration of an awaiting {@link Order}, if its {@link
+     * TimeInForce} is expiring.
+     * <p>A {@link TimeInForce#GTD} {@link Order} of an invalid {@code
+     * expireTimeStamp} is due at once.</p>
+     */
+    void schedule(Stock stock, Order order) {
+        if (!order.isExpiring() || expiries.containsKey(order)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long deadline;
+        if (order.getTimeInForce() == TimeInForce.DAY) {
+            deadline = TimeStamp.toEpochMillis(now, sessionCloseMillisOfDay);
+        } else {
+            try {
+                deadline = TimeStamp.toEpochMillis(now,
+                        TimeStamp.toMillisOfDay(order.getExpireTimeStamp()));
+            } catch (IllegalArgumentException e) {
+                deadline = now;
+            }
+        }
+        if (expiryWheel == null) {
+            expiryWheel = new TimerWheel<>(now);
+        }
+        expiries.put(order, new Expiry(stock,
+                expiryWheel.schedule(order, deadline)));
+    }
+
+    /**
+     * Cancels the expiration of an {@link Order} that left the data-base.
+     */
+    void cancel(Order order) {
+        if (order.isExpiring()) {
+            Expiry expiry = expiries.remove(order);
+            if (expiry != null) {
+                expiryWheel.cancel(expiry.timer);
+            }
+        }
+    }
+
+    /**
+     * @see MatchingEngine#isExpiries()
+     */
+    boolean isExpiries() {
+        return !expiries.isEmpty();
+    }
+
+    /**
+     * @see MatchingEngine#isDueExpiries()
+     */
+    boolean isDue() {
+        return (expiryWheel != null) && expiryWheel.hasDue();
+    }
+
+    /**
+     * Expires the due {@link Order}s by the {@link #clock}.
+     */
+    int expire(int maxOrders) {
+        return expire(clock.getAsLong(), maxOrders);
+    }
+
+    /**
+     * @see MatchingEngine#expireOrders(long, int)
+     */
+    int expire(long nowMillis, int maxOrders) {
+        if (expiryWheel == null) {
+            return 0;
+        }
+
+        // group the expired Orders by their Stocks, in the order they expired:
+        Map<Stock, List<Order>> expiredOrders = new LinkedHashMap<>();
+        int count = expiryWheel.expire(nowMillis, maxOrders, order ->
+                expiredOrders.computeIfAbsent(expiries.remove(order).stock,
+                        k -> new ArrayList<>()).add(order));
+        for (Map.Entry<Stock, List<Order>> i : expiredOrders.entrySet()) {
+            removeExpiredOrders(i.getKey(), i.getValue());
+        }
+        return count;
+    }
+
+    private void removeExpiredOrders(Stock stock, List<Order> expiredOrders) {
+        engine.beforeChange(stock);
+        List<Order> buyOrders = new ArrayList<>();
+        List<Order> sellOrders = new ArrayList<>();
+        for (Order i : expiredOrders) {
+            (i.getOrderDirection() == OrderDirection.BUY ? buyOrders :
+                    sellOrders).add(i);
+        }
+        removeExpiredOrders(
+                MatchingEngine.getAwaitingOrders(stock, OrderDirection.BUY),
+                buyOrders);
+        removeExpiredOrders(
+                MatchingEngine.getAwaitingOrders(stock, OrderDirection.SELL),
+                sellOrders);
+        for (Order i : expiredOrders) {
+            engine.getMarketData().onOrderRemoved(stock, i, i.getQuantity());
+            stock.getMetrics().incrementCancels();
+            engine.notifyExpire(stock, i);
+        }
+        if (!MessagePrint.isQuiet()) {
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.StockDataBase.printOrdersExpired(
+                            stock.getSymbol(), expiredOrders.size()));
+        }
+    }
+
+    /**
+     * Removes the expired {@link Order}s of a single side: one by one, or in
+     * a single pass over the side if they are a large part of it.
+     */
+    private static void removeExpiredOrders(OrderBook orders,
+                                            List<Order> expiredOrders) {
+        if (expiredOrders.isEmpty()) {
+            return;
+        }
+        if (expiredOrders.size() * 8 >= orders.size()) {
+            Set<Order> set = Collections.newSetFromMap(
+                    new IdentityHashMap<>(expiredOrders.size() * 2));
+            set.addAll(expiredOrders);
+            orders.removeIf(set::contains);
+        } else {
+            for (Order i : expiredOrders) {
+                orders.remove(i);
+            }
+        }
+    }
+
+    /**
+     * A scheduled expiration of an awaiting {@link Order}.
+     */
+    private static final class Expiry {
+
+        private final Stock stock;
+        private final TimerWheel.Timer<Order> timer;
+
+        private Expiry(Stock stock, TimerWheel.Timer<Order> timer) {
+            this.stock = stock;
+            this.timer = timer;
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package engine;
+
+import message.Message;
+import message.print.MessagePrint;
+import order.Order;
+import order.OrderType;
+import stock.Stock;
+import timestamp.TimeStamp;
+import transaction.Transaction;
+
+import java.util.List;
+
+/**
+ * Triggers the Stop {@link Order}s of a {@link MatchingEngine}, that wait
+ * outside their {@link Stock}'s awaiting orders until their {@code stopPrice}
+ * is reached.
+ *
+ * @version 1.0
+ * @see MatchingEngine#placeStopOrder(Stock, Order)
+ */
+final class StopTrigger {
+
+    /**
+     * The engine that executes the triggered {@link Order}s.
+     */
+    private final MatchingEngine engine;
+
+    StopTrigger(MatchingEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Triggers the Stop {@link Order}s of the {@link Stock}, that their
+     * {@code stopPrice} was reached by the {@link Stock}'s current {@code
+     * price}, or by one of the {@link Transaction}s made from {@code
+     * fromIndex}.
+     * <p>Each triggered {@link Order} is executed, and the {@link
+     * Transaction}s it makes may trigger more {@link Order}s. This cascade is
+     * processed round by round, each round in the deterministic order of
+     * {@link order.StopOrders#removeTriggered(long, long)}.</p>
+     * <p>Stop {@link Order}s are not triggered during a call auction.</p>
+     *
+     * @param stock        the stock to check.
+     * @param transactions the {@link Transaction}s made by the current
+     *                     calculation. the {@link Transaction}s made by
+     *                     triggered {@link Order}s are added to it.
+     * @param fromIndex    the index of the first {@link Transaction} in {@code
+     *                     transactions} that wasn't checked yet.
+     */
+    void trigger(Stock stock, List<Transaction> transactions, int fromIndex) {
+        if (stock.isCallAuction()) {
+            return;
+        }
+
+        while (true) {
+
+            // calculate the price range reached:
+            long lowestPrice = stock.getPrice();
+            long highestPrice = stock.getPrice();
+            for (int i = fromIndex; i < transactions.size(); ++i) {
+                lowestPrice =
+                        Math.min(lowestPrice, transactions.get(i).getPrice());
+                highestPrice =
+                        Math.max(highestPrice, transactions.get(i).getPrice());
+            }
+
+            // check only the triggered range of the Stop Orders:
+            List<Order> triggered = stock.getDataBase().getStopOrders()
+                    .removeTriggered(lowestPrice, highestPrice);
+            if (triggered.isEmpty()) {
+                return;
+            }
+
+            // execute the triggered Orders, and check their Transactions next:
+            fromIndex = transactions.size();
+            for (Order i : triggered) {
+                executeTriggeredStopOrder(stock, i, transactions);
+            }
+        }
+    }
+
+    /**
+     * Executes a triggered Stop {@link Order}: a {@link OrderType#STP} becomes
+     * a {@link OrderType#MKT} {@link Order}, and a {@link OrderType#STL}
+     * becomes a {@link OrderType#LMT} {@link Order}. The {@link Order}'s
+     * {@code timeStamp} is the time it was triggered.
+     *
+     * @param stock        the stock of the {@link Order}.
+     * @param stopOrder    the triggered {@link Order}.
+     * @param transactions the {@link Transaction}s made by the current
+     *                     calculation.
+     */
+    private void executeTriggeredStopOrder(Stock stock, Order stopOrder,
+                                           List<Transaction> transactions) {
+        stopOrder.setTimeStamp(TimeStamp.getTimeStamp());
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Message.Out.StockDataBase.printStopOrderTriggered(stopOrder));
+
+        if (stopOrder.getOrderType() == OrderType.STP) {
+            stopOrder.setOrderType(OrderType.MKT);
+            engine.executeMKTOrder(stock, stopOrder, transactions);
+        } else if (stopOrder.getOrderType() == OrderType.STL) {
+            stopOrder.setOrderType(OrderType.LMT);
+            engine.insertOrder(stock, stopOrder);
+            engine.calcOrdersOfASingleStock(stock, stopOrder, transactions);
+        }
+    }
+
+}
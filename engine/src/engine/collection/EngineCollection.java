@@ -5,6 +5,7 @@ import message.print.MessagePrint;
 
 import javax.xml.bind.annotation.XmlTransient;
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * This class represents a {@link Collection} of {@code classes} to be loaded
@@ -13,7 +14,7 @@ import java.util.Collection;
  *
  * @param <_Collection> represents a {@link Collection}.
  * @param <E>           the Type of {@code Element} in the {@link Collection}.
- * @version 1.1
+ * @version 1.3
  */
 public class EngineCollection<_Collection extends Collection<E>, E>
         implements AddTabsCollection<E> {
@@ -37,7 +38,7 @@ public class EngineCollection<_Collection extends Collection<E>, E>
     @Override public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
         try {
-            for (E i : collection) {
+            for (E i : getCollection()) {
                 stringBuilder.append(i.toString()).append("\n");
             }
         } catch (NullPointerException e) {
@@ -47,6 +48,31 @@ public class EngineCollection<_Collection extends Collection<E>, E>
         return stringBuilder.toString();
     }
 
+    /**
+     * Prints the next page of the {@code Elements} straight to the {@code
+     * stream}, one by one, without building a {@code String} of the whole
+     * {@link Collection}.
+     * <p>The cursor is kept across the pages, so each page costs {@code
+     * O(count)}, with no skipping of the previous pages.</p>
+     *
+     * @param stream  the {@link MessagePrint.Stream} to print to.
+     * @param addTabs add here the amount of 'tab's to insert before each
+     *                {@code Element}.
+     * @param cursor  an {@link Iterator} of the {@link Collection}, after the
+     *                previous pages.
+     * @param count   the maximal number of {@code Element}s in the page.
+     * @param <E>     the Type of {@code Element} in the {@link Collection}.
+     * @return {@code true} if there are more {@code Elements} after the page.
+     */
+    public static <E> boolean printPage(MessagePrint.Stream stream,
+                                        String addTabs, Iterator<E> cursor,
+                                        int count) {
+        for (int i = 0; (i < count) && cursor.hasNext(); ++i) {
+            MessagePrint.println(stream, addTabs + cursor.next().toString());
+        }
+        return cursor.hasNext();
+    }
+
     @Override public String toString(String addTabs) {
         StringBuilder stringBuilder = new StringBuilder();
         for (E i : this.getCollection()) {
@@ -0,0 +1,63 @@
+package engine.collection.list;
+
+import engine.collection.AddTabsCollection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * <p>This class {@code extends} the {@link ArrayList} <i>{@code
+ * implementor}</i>, with the addition of automatic sort of its {@code
+ * Elements}, as {@link SortableLinkedList} does.
+ * </p>
+ *
+ * <blockquote><p>Best for a few {@code Elements}: they are kept contiguous,
+ * and {@link #sortedInsert(Comparable)} finds its position by a binary
+ * search.</p></blockquote>
+ *
+ * @param <E> the Type of {@code Element} in the {@link java.util.List}.
+ * @version 1.0
+ */
+public class SortableArrayList<E extends Comparable<? super E>>
+        extends ArrayList<E> implements SortableList<E>, AddTabsCollection<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default Constructor.
+     */
+    public SortableArrayList() {}
+
+    public SortableArrayList(Collection<? extends E> c) {
+        super(c);
+    }
+
+    /**
+     * Inserts the {@code Element} before the first {@code Element} that
+     * should come after it, as {@link SortableList#sortedInsert(Comparable)}
+     * does, by a binary search.
+     * <p>Assumes that the list is already sorted.</p>
+     */
+    @Override public boolean sortedInsert(E e) {
+        int from = 0;
+        int to = size();
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (e.compareTo(get(middle)) < 0) {
+                to = middle;
+            } else {
+                from = middle + 1;
+            }
+        }
+        add(from, e);
+        return true;
+    }
+
+    @Override public String toString(String addTabs) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (E i : this) {
+            stringBuilder.append(addTabs).append(i.toString()).append("\n");
+        }
+        return stringBuilder.toString();
+    }
+}
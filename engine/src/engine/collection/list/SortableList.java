@@ -3,6 +3,7 @@ package engine.collection.list;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * <p>This <i>interface</i> {@code extends} the known {@link java.util.List}
@@ -27,4 +28,26 @@ public interface SortableList<E extends Comparable<? super E>> extends List<E> {
         return result;
     }
 
+    /**
+     * Merges a single {@code Element} into its sorted position, without
+     * re-sorting the whole list.
+     * <p>Assumes that the list is already sorted.</p>
+     *
+     * @param e the {@code Element} to insert.
+     * @return {@code true} (as specified by {@link List#add}).
+     */
+    default public boolean sortedInsert(E e) {
+        ListIterator<E> it = listIterator();
+        while (it.hasNext()) {
+            if (e.compareTo(it.next()) < 0) {
+
+                // found the first Element that should come after 'e':
+                it.previous();
+                break;
+            }
+        }
+        it.add(e);
+        return true;
+    }
+
 }
@@ -0,0 +1,289 @@
+package engine.timer;
+
+import java.util.function.Consumer;
+
+/**
+ * <b>A hashed hierarchical timer wheel.</b>
+ * <p>
+ * Schedules {@code Elements} to be expired at their deadlines, in
+ * milliseconds. The wheel has {@value #LEVELS} levels of {@value #SLOTS}
+ * slots each: a slot of the first level holds the timers of a single
+ * millisecond, and a slot of each next level covers a whole rotation of the
+ * level below it. A timer is hashed to a slot by its deadline, and it is
+ * moved down a level (<i>cascaded</i>) each time the wheel reaches its
+ * slot, until it is due.
+ * </p>
+ * <ul>
+ *     <li>{@link #schedule(Object, long)} and {@link #cancel(Timer)} take
+ *     {@code O(1)}, as each slot is a doubly-linked list of its timers.</li>
+ *     <li>{@link #expire(long, int, Consumer)} takes {@code O(expired)}, and
+ *     the cascades of the timers it passes. The spans of empty levels are
+ *     skipped at once, so an idle wheel advances over hours in a few
+ *     steps.</li>
+ * </ul>
+ * <p>The due timers wait in a queue, so a large number of timers with the
+ * same deadline (e.g. at the end of a session) is expired in bounded chunks,
+ * by the order of their deadlines.</p>
+ * <p>Not thread-safe.</p>
+ *
+ * @param <E> the Type of {@code Element} to expire.
+ * @version 1.0
+ */
+public class TimerWheel<E> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * The farthest deadline the levels can hold, from the current time. A
+     * farther timer waits in the last slot it can reach, and is placed again
+     * when it is cascaded.
+     */
+    private static final long MAX_DELAY = (1L << (BITS * LEVELS)) - 1;
+
+    /**
+     * The head of each slot of each level.
+     */
+    private final Timer<?>[][] slots = new Timer<?>[LEVELS][SLOTS];
+
+    /**
+     * The number of timers in each level.
+     */
+    private final int[] counts = new int[LEVELS];
+
+    /**
+     * The head of the queue of the due timers.
+     */
+    private final Timer<?> due = newHead();
+
+    private int dueCount = 0;
+
+    /**
+     * The next millisecond to process: every timer of an earlier deadline is
+     * already due.
+     */
+    private long current;
+
+    /**
+     * @param now the current time, in milliseconds.
+     */
+    public TimerWheel(long now) {
+        current = now;
+        for (Timer<?>[] i : slots) {
+            for (int j = 0; j < SLOTS; j++) {
+                i[j] = newHead();
+            }
+        }
+    }
+
+    private static Timer<?> newHead() {
+        Timer<?> head = new Timer<>(null, 0);
+        head.previous = head;
+        head.next = head;
+        return head;
+    }
+
+    /**
+     * @return the number of timers that were not expired or cancelled yet.
+     */
+    public int size() {
+        int size = dueCount;
+        for (int i : counts) {
+            size += i;
+        }
+        return size;
+    }
+
+    /**
+     * @return {@code true} if there are due timers that were not expired yet,
+     * as of the last {@link #expire(long, int, Consumer)}.
+     */
+    public boolean hasDue() {
+        return dueCount > 0;
+    }
+
+    /**
+     * @param element  the {@code Element} to expire.
+     * @param deadline the time to expire it, in milliseconds. a deadline that
+     *                 has already passed is due at once.
+     * @return the timer, to {@link #cancel(Timer)} it.
+     */
+    public Timer<E> schedule(E element, long deadline) {
+        Timer<E> timer = new Timer<>(element, deadline);
+        place(timer);
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that was not expired yet. Cancelling it again has no
+     * effect.
+     */
+    public void cancel(Timer<E> timer) {
+        if (timer.next == null) {
+            return;
+        }
+        if (timer.level == LEVELS) {
+            --dueCount;
+        } else {
+            --counts[timer.level];
+        }
+        unlink(timer);
+    }
+
+    /**
+     * Advances the wheel to the given time, and expires its due timers, by
+     * the order of their deadlines.
+     *
+     * @param now    the current time, in milliseconds.
+     * @param max    the maximal number of timers to expire. the rest of the
+     *               due timers are expired by the next calls.
+     * @param action called with the {@code Element} of each expired timer.
+     * @return the number of timers expired.
+     */
+    @SuppressWarnings("unchecked")
+    public int expire(long now, int max, Consumer<? super E> action) {
+        advance(now);
+        int expired = 0;
+        while ((expired < max) && (dueCount > 0)) {
+            Timer<E> timer = (Timer<E>) due.next;
+            unlink(timer);
+            --dueCount;
+            ++expired;
+            action.accept(timer.element);
+        }
+        return expired;
+    }
+
+    /**
+     * Moves the timers of all the milliseconds up to the given time to the
+     * queue of the due timers.
+     */
+    private void advance(long now) {
+        while (current <= now) {
+            int index = (int) current & MASK;
+            if (index == 0) {
+                cascade(1);
+            }
+
+            // skip the rotations of the levels that are empty:
+            int empty = 0;
+            while ((empty < LEVELS) && (counts[empty] == 0)) {
+                ++empty;
+            }
+            if (empty == LEVELS) {
+                current = now + 1;
+                return;
+            }
+            if (empty > 0) {
+                long span = 1L << (BITS * empty);
+                current = Math.min((current & -span) + span, now + 1);
+                continue;
+            }
+
+            Timer<?> head = slots[0][index];
+            while (head.next != head) {
+                Timer<?> timer = head.next;
+                unlink(timer);
+                --counts[0];
+                appendDue(timer);
+            }
+            ++current;
+        }
+    }
+
+    /**
+     * Places the timers of the current slot of a level in the levels below
+     * it. Called when all the levels below it completed a rotation.
+     */
+    private void cascade(int level) {
+        if (level == LEVELS) {
+            return;
+        }
+        int index = (int) (current >>> (BITS * level)) & MASK;
+        Timer<?> head = slots[level][index];
+        while (head.next != head) {
+            Timer<?> timer = head.next;
+            unlink(timer);
+            --counts[level];
+            place(timer);
+        }
+        if (index == 0) {
+            cascade(level + 1);
+        }
+    }
+
+    private void place(Timer<?> timer) {
+        long delay = timer.deadline - current;
+        if (delay < 0) {
+            appendDue(timer);
+            return;
+        }
+        long deadline = Math.min(delay, MAX_DELAY) + current;
+        int level = 0;
+        while (delay >= (1L << (BITS * (level + 1))) && (level < LEVELS - 1)) {
+            ++level;
+        }
+        timer.level = level;
+        ++counts[level];
+        link(slots[level][(int) (deadline >>> (BITS * level)) & MASK], timer);
+    }
+
+    private void appendDue(Timer<?> timer) {
+        timer.level = LEVELS;
+        ++dueCount;
+        link(due, timer);
+    }
+
+    /**
+     * Links the timer at the tail of the list of the given head.
+     */
+    private static void link(Timer<?> head, Timer<?> timer) {
+        timer.previous = head.previous;
+        timer.next = head;
+        head.previous.next = timer;
+        head.previous = timer;
+    }
+
+    private static void unlink(Timer<?> timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    /**
+     * A scheduled {@code Element} of the {@link TimerWheel}.
+     *
+     * @param <E> the Type of {@code Element} to expire.
+     */
+    public static final class Timer<E> {
+
+        private final E element;
+        private final long deadline;
+
+        /**
+         * The level of the slot of the timer, or {@link #LEVELS} if it is
+         * due.
+         */
+        private int level;
+
+        private Timer<?> previous;
+        private Timer<?> next;
+
+        private Timer(E element, long deadline) {
+            this.element = element;
+            this.deadline = deadline;
+        }
+
+        public E getElement() {
+            return element;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+}
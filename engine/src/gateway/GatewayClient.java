@@ -0,0 +1,168 @@
+package gateway;
+
+import message.Message;
+import message.print.MessagePrint;
+import order.OrderType;
+import replay.OrderRecord;
+import replay.OrderReplay;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A blocking client of the {@link OrderGateway}, that sends a whole order
+ * file without waiting for the responses (pipelining), and counts the
+ * responses as they arrive.
+ * <p>Usage:</p>
+ * <blockquote><tt>GatewayClient &lt;port&gt; &lt;orders.csv&gt;</tt></blockquote>
+ *
+ * @version 1.0
+ * @see OrderReplay#readOrders(File)
+ */
+public class GatewayClient implements Closeable {
+
+    private final Socket socket;
+    private final BufferedWriter writer;
+    private final BufferedReader reader;
+
+    private long acks = 0;
+    private long rejects = 0;
+    private long fills = 0;
+
+    /**
+     * Connects to a gateway on the loopback address.
+     */
+    public GatewayClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        writer = new BufferedWriter(new OutputStreamWriter(
+                socket.getOutputStream(), StandardCharsets.US_ASCII));
+        reader = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the request line of the record, as in {@link GatewayRequest}.
+     */
+    public static String toRequest(String clientOrderId, OrderRecord record) {
+        StringBuilder line = new StringBuilder().append(clientOrderId)
+                .append(' ').append(record.getSymbol()).append(' ')
+                .append(record.getDirection()).append(' ')
+                .append(record.getType()).append(' ')
+                .append(record.getQuantity());
+        if (record.getType().isStop()) {
+            line.append(' ').append(record.getStopPrice());
+        }
+        if ((record.getType() == OrderType.LMT) ||
+                (record.getType() == OrderType.STL)) {
+            line.append(' ').append(record.getDesiredLimitPrice());
+        }
+        return line.toString();
+    }
+
+    /**
+     * Sends a request line. it may stay buffered until {@link #flush()}.
+     */
+    public void send(String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Reads the next response line, and counts it.
+     *
+     * @return the response line, or {@code null} if the gateway closed the
+     * connection.
+     */
+    public String receive() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            if (line.startsWith("ACK ")) {
+                ++acks;
+            } else if (line.startsWith("REJ ")) {
+                ++rejects;
+            } else if (line.startsWith("FILL ")) {
+                ++fills;
+            }
+        }
+        return line;
+    }
+
+    public long getAcks() {
+        return acks;
+    }
+
+    public long getRejects() {
+        return rejects;
+    }
+
+    public long getFills() {
+        return fills;
+    }
+
+    @Override public void close() throws IOException {
+        socket.close();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Gateway.usage("GatewayClient <port> " +
+                            "<orders.csv>"));
+            return;
+        }
+        try (GatewayClient client = new GatewayClient(
+                Integer.parseInt(args[0]))) {
+            List<OrderRecord> records =
+                    OrderReplay.readOrders(new File(args[1]));
+            long startNanos = System.nanoTime();
+
+            // send everything, while the responses are read:
+            Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < records.size(); i++) {
+                        client.send(toRequest(Integer.toString(i),
+                                records.get(i)));
+                    }
+                    client.flush();
+                } catch (IOException e) {
+                    MessagePrint.println(MessagePrint.Stream.ERR,
+                            e.getMessage());
+                }
+            }, "gateway-client-sender");
+            sender.start();
+
+            // each Order ends with an 'ACK' or a 'REJ':
+            while ((client.getAcks() + client.getRejects() < records.size()) &&
+                    (client.receive() != null)) {}
+            long elapsedNanos = System.nanoTime() - startNanos;
+            sender.join();
+
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.Gateway.printClientReport(records.size(),
+                            client.getAcks(), client.getRejects(),
+                            client.getFills(), elapsedNanos));
+        } catch (NumberFormatException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Input.mismatch("[int] port", "[String]"));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
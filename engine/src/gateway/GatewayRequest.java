@@ -0,0 +1,221 @@
+package gateway;
+
+import message.Message;
+import order.OrderDirection;
+import order.OrderType;
+import order.TimeInForce;
+import timestamp.TimeStamp;
+
+/**
+ * A single request line of the {@link OrderGateway}'s protocol, parsed by the
+ * I/O thread:
+ * <blockquote><tt>&lt;clientOrderId&gt; &lt;symbol&gt; &lt;BUY|SELL&gt;
+ * &lt;LMT|MKT|STP|STL|FOK&gt; &lt;quantity&gt; [stopPrice]
+ * [desiredLimitPrice] [peakQuantity] [DAY|GTD=&lt;timeStamp&gt;]</tt></blockquote>
+ * <p>The prices are in the order the menu asks for them: a {@code LMT} or a
+ * {@code FOK} {@link order.Order} has a {@code desiredLimitPrice}, a {@code
+ * STP} {@link order.Order} has a {@code stopPrice}, a {@code STL} {@link
+ * order.Order} has both, and a {@code MKT} {@link order.Order} has none.</p>
+ * <p>A {@code LMT} {@link order.Order} may end with a {@code peakQuantity},
+ * to be an iceberg {@link order.Order}.</p>
+ * <p>A {@code LMT} or a {@code STL} {@link order.Order} may end with its
+ * {@link TimeInForce}: {@code DAY}, or {@code GTD=} followed by the
+ * {@code timeStamp} of the day to expire at. else, it is {@code GTC}.</p>
+ * <p>An invalid line is still passed to the matching thread, with an {@code
+ * error}, so its rejection keeps its order among the session's
+ * responses.</p>
+ *
+ * @version 1.2
+ */
+final class GatewayRequest {
+
+    static final String USAGE = "<clientOrderId> <symbol> <BUY|SELL> " +
+            "<LMT|MKT|STP|STL|FOK> <quantity> [stopPrice] " +
+            "[desiredLimitPrice] [peakQuantity] [DAY|GTD=<timeStamp>]";
+
+    /**
+     * The maximal number of tokens in a request line.
+     */
+    private static final int MAX_TOKENS = 8;
+
+    final GatewaySession session;
+    final String clientOrderId;
+    final String symbol;
+    final OrderDirection direction;
+    final OrderType type;
+    final long quantity;
+    final long stopPrice;
+    final long desiredLimitPrice;
+
+    /**
+     * The peak of an iceberg {@link order.Order}, or {@code 0}.
+     */
+    final long peakQuantity;
+
+    final TimeInForce timeInForce;
+
+    /**
+     * The {@code timeStamp} a {@link TimeInForce#GTD} {@link order.Order}
+     * expires at, or {@code null}.
+     */
+    final String expireTimeStamp;
+
+    /**
+     * The reason of the rejection of an invalid line, or {@code null} if the
+     * line is valid.
+     */
+    final String error;
+
+    private GatewayRequest(GatewaySession session, String clientOrderId,
+                           String symbol, OrderDirection direction,
+                           OrderType type, long quantity, long stopPrice,
+                           long desiredLimitPrice, long peakQuantity,
+                           TimeInForce timeInForce, String expireTimeStamp,
+                           String error) {
+        this.session = session;
+        this.clientOrderId = clientOrderId;
+        this.symbol = symbol;
+        this.direction = direction;
+        this.type = type;
+        this.quantity = quantity;
+        this.stopPrice = stopPrice;
+        this.desiredLimitPrice = desiredLimitPrice;
+        this.peakQuantity = peakQuantity;
+        this.timeInForce = timeInForce;
+        this.expireTimeStamp = expireTimeStamp;
+        this.error = error;
+    }
+
+    private static GatewayRequest reject(GatewaySession session,
+                                         String clientOrderId, String error) {
+        return new GatewayRequest(session, clientOrderId, null, null, null, 0,
+                0, 0, 0, null, null, error);
+    }
+
+    /**
+     * Parses a request line. the line is split by hand (no regular
+     * expressions), as it is on the I/O thread.
+     *
+     * @param session the session the line was read from.
+     * @param line    the line, without its line terminator.
+     * @return the parsed request, which may be an invalid one.
+     */
+    static GatewayRequest parse(GatewaySession session, String line) {
+        String[] tokens = new String[MAX_TOKENS];
+        int count = 0;
+        int length = line.length();
+        for (int i = 0; i < length; ) {
+            while ((i < length) && Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            int start = i;
+            while ((i < length) && !Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            if (start < i) {
+                if (count == MAX_TOKENS) {
+                    return reject(session, tokens[0],
+                            Message.Err.Gateway.usage(USAGE));
+                }
+                tokens[count++] = line.substring(start, i);
+            }
+        }
+        if (count < 5) {
+            return reject(session, (count > 0) ? tokens[0] : "?",
+                    Message.Err.Gateway.usage(USAGE));
+        }
+
+        // get the orderDirection:
+        OrderDirection direction;
+        if (tokens[2].equalsIgnoreCase("Buy")) {
+            direction = OrderDirection.BUY;
+        } else if (tokens[2].equalsIgnoreCase("Sell")) {
+            direction = OrderDirection.SELL;
+        } else {
+            return reject(session, tokens[0], Message.Err.Input
+                    .mismatch("[String] 'Buy' or 'Sell'",
+                            "different [String]"));
+        }
+
+        // get the orderType:
+        OrderType type = null;
+        for (OrderType i : OrderType.values()) {
+            if (i.name().equalsIgnoreCase(tokens[3])) {
+                type = i;
+            }
+        }
+        if (type == null) {
+            return reject(session, tokens[0], Message.Err.Input
+                    .mismatch("[String] 'LMT', 'MKT', 'STP', 'STL' or 'FOK'",
+                            "different [String]"));
+        }
+
+        // an optional time-in-force ends the line of a resting Order:
+        TimeInForce timeInForce = TimeInForce.GTC;
+        String expireTimeStamp = null;
+        if (count > 5) {
+            String last = tokens[count - 1];
+            if (last.equalsIgnoreCase("DAY")) {
+                timeInForce = TimeInForce.DAY;
+            } else if (last.regionMatches(true, 0, "GTD=", 0, 4)) {
+                timeInForce = TimeInForce.GTD;
+                expireTimeStamp = last.substring(4);
+                try {
+                    TimeStamp.toMillisOfDay(expireTimeStamp);
+                } catch (IllegalArgumentException e) {
+                    return reject(session, tokens[0], Message.Err.Input
+                            .mismatch("timeStamp 'HH:mm:ss:SSS'",
+                                    "different [String]"));
+                }
+            }
+            if (timeInForce.isExpiring()) {
+                --count;
+                if ((type != OrderType.LMT) && (type != OrderType.STL)) {
+                    return reject(session, tokens[0],
+                            Message.Err.Gateway.usage(USAGE));
+                }
+            }
+        }
+        int expectedCount = (type == OrderType.MKT) ? 5 :
+                (type == OrderType.STL) ? 7 : 6;
+        boolean isIceberg = (type == OrderType.LMT) && (count == 7);
+        if ((count != expectedCount) && !isIceberg) {
+            return reject(session, tokens[0],
+                    Message.Err.Gateway.usage(USAGE));
+        }
+
+        // get the Quantity and the prices:
+        long quantity;
+        long stopPrice = 0;
+        long desiredLimitPrice = 0;
+        long peakQuantity = 0;
+        try {
+            quantity = Long.parseLong(tokens[4]);
+            if (type.isStop()) {
+                stopPrice = Long.parseLong(tokens[5]);
+            }
+            if ((type == OrderType.LMT) || (type == OrderType.FOK)) {
+                desiredLimitPrice = Long.parseLong(tokens[5]);
+            } else if (type == OrderType.STL) {
+                desiredLimitPrice = Long.parseLong(tokens[6]);
+            }
+            if (isIceberg) {
+                peakQuantity = Long.parseLong(tokens[6]);
+            }
+        } catch (NumberFormatException e) {
+            return reject(session, tokens[0],
+                    Message.Err.Input.mismatch("[long]", "[String]"));
+        }
+        if ((quantity <= 0) || (isIceberg && (peakQuantity <= 0))) {
+            return reject(session, tokens[0], Message.Err.Input
+                    .mismatch("number greater than 0", "negative number or 0"));
+        }
+        if ((stopPrice < 0) || (desiredLimitPrice < 0)) {
+            return reject(session, tokens[0], Message.Err.Input
+                    .mismatch("non-negative number", "negative number"));
+        }
+        return new GatewayRequest(session, tokens[0], tokens[1], direction,
+                type, quantity, stopPrice, desiredLimitPrice, peakQuantity,
+                timeInForce, expireTimeStamp, null);
+    }
+}
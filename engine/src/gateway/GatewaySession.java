@@ -0,0 +1,56 @@
+package gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A single client connection of the {@link OrderGateway}.
+ * <ul>
+ *     <li>The {@code input} is read and parsed by the I/O thread only.</li>
+ *     <li>The {@code pendingOutput} is built by the matching thread only, and
+ *     is handed over to the I/O thread through the {@code output} queue at
+ *     the end of each batch of requests.</li>
+ * </ul>
+ *
+ * @version 1.0
+ */
+final class GatewaySession {
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer input;
+
+    /**
+     * The responses to write, in order. filled by the matching thread,
+     * drained by the I/O thread.
+     */
+    final ConcurrentLinkedQueue<ByteBuffer> output =
+            new ConcurrentLinkedQueue<>();
+
+    /**
+     * The responses of the current batch, not handed over yet.
+     */
+    final StringBuilder pendingOutput = new StringBuilder();
+
+    /**
+     * {@code true} if {@link #pendingOutput} was changed in the current
+     * batch.
+     */
+    boolean touched = false;
+
+    /**
+     * {@code true} if the intake queue was full, so the I/O thread stopped
+     * reading from this session until it is drained.
+     */
+    boolean stalled = false;
+
+    volatile boolean closed = false;
+
+    GatewaySession(SocketChannel channel, SelectionKey key, int bufferSize) {
+        this.channel = channel;
+        this.key = key;
+        this.input = ByteBuffer.allocate(bufferSize);
+    }
+}
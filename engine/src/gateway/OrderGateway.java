@@ -0,0 +1,572 @@
+package gateway;
+
+import engine.Engine;
+import engine.FillListener;
+import engine.MatchingEngine;
+import load.AutoSave;
+import load.LoadSaveXML;
+import message.Message;
+import message.print.MessagePrint;
+import order.Order;
+import order.OrderType;
+import stock.Stock;
+import transaction.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <b>A local TCP order gateway to the {@link Engine}.</b>
+ * <p>
+ * Listens on a port of the loopback address, and accepts a line-based
+ * protocol: each line is an {@link Order}, as described in {@link
+ * GatewayRequest}. A client may send many lines without waiting for their
+ * responses (pipelining), and the responses of a session keep the order of
+ * its requests:
+ * </p>
+ * <ul>
+ *     <li><tt>ACK &lt;clientOrderId&gt; &lt;timeStamp&gt;</tt> - the {@link
+ *     Order} was accepted.</li>
+ *     <li><tt>FILL &lt;clientOrderId&gt; &lt;quantity&gt;
+ *     &lt;price&gt;</tt> - the {@link Order} took part in a {@link
+ *     Transaction}. a resting {@link Order}'s fills arrive asynchronously,
+ *     whenever another {@link Order} matches it.</li>
+ *     <li><tt>EXP &lt;clientOrderId&gt; &lt;quantity&gt;</tt> - the resting
+ *     {@link Order}'s time-in-force is over, and its remaining quantity was
+ *     removed.</li>
+ *     <li><tt>REJ &lt;clientOrderId&gt; &lt;reason&gt;</tt> - the request was
+ *     invalid, or the {@link Order} was rejected.</li>
+ * </ul>
+ * <p>
+ * Two threads run the gateway:
+ * </p>
+ * <ul>
+ *     <li>The I/O thread runs a {@link Selector} over all the sessions. It
+ *     parses the lines, and offers them to a bounded intake queue without
+ *     blocking: when the queue is full, it stops reading from the session
+ *     until the queue is drained.</li>
+ *     <li>The matching thread is the only thread that calls the {@link
+ *     Engine} while the gateway runs. It drains the intake queue in batches,
+ *     and hands each session's responses of the batch to the I/O thread at
+ *     once, with a single {@link Selector#wakeup()}. between the batches,
+ *     it expires the due {@link Order}s, a batch at a time.</li>
+ * </ul>
+ * <p>Usage:</p>
+ * <blockquote><tt>OrderGateway &lt;stocks.xml&gt; [port]</tt></blockquote>
+ *
+ * @version 1.4
+ * @see GatewayClient
+ */
+public class OrderGateway implements Closeable {
+
+    private static final int INTAKE_CAPACITY = 1 << 16;
+
+    /**
+     * The size of each session's read buffer: the maximal length of a line.
+     */
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The maximal number of requests the matching thread executes before it
+     * hands their responses over to the I/O thread.
+     */
+    private static final int MATCHING_BATCH_SIZE = 1024;
+
+    /**
+     * The longest time the idle matching thread waits for a request, while
+     * there are {@link Order}s to expire.
+     */
+    private static final long EXPIRY_POLL_MILLIS = 10;
+
+    /**
+     * The {@link MatchingEngine} that the gateway routes its {@link Order}s
+     * to.
+     */
+    private final MatchingEngine engine;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+
+    private final BlockingQueue<GatewayRequest> intake =
+            new ArrayBlockingQueue<>(INTAKE_CAPACITY);
+
+    /**
+     * The sessions that have new responses to write. filled by the matching
+     * thread, drained by the I/O thread.
+     */
+    private final ConcurrentLinkedQueue<GatewaySession> writable =
+            new ConcurrentLinkedQueue<>();
+
+    /**
+     * The sessions that stopped reading, because the intake queue was full.
+     * used by the I/O thread only.
+     */
+    private final List<GatewaySession> stalled = new ArrayList<>();
+
+    /**
+     * The live {@link Order}s of all the sessions (by identity, as {@link
+     * Order}s are equal by value). used by the matching thread only.
+     */
+    private final Map<Order, GatewayRequest> liveOrders =
+            new IdentityHashMap<>();
+
+    /**
+     * The sessions that got responses in the current batch. used by the
+     * matching thread only.
+     */
+    private final List<GatewaySession> touched = new ArrayList<>();
+
+    private final Thread ioThread;
+    private final Thread matchingThread;
+
+    private volatile boolean running = false;
+
+    /**
+     * Opens the gateway's port, without accepting connections yet.
+     *
+     * @param port the port on the loopback address, or {@code 0} for any free
+     *             port.
+     * @throws IOException if the port could not be opened.
+     */
+    public OrderGateway(int port) throws IOException {
+        this(Engine.getDefault(), port);
+    }
+
+    /**
+     * Opens the gateway's port of the given {@link MatchingEngine}, without
+     * accepting connections yet.
+     *
+     * @param engine the {@link MatchingEngine} to route the {@link Order}s
+     *               to.
+     * @param port   the port on the loopback address, or {@code 0} for any
+     *               free port.
+     * @throws IOException if the port could not be opened.
+     */
+    public OrderGateway(MatchingEngine engine, int port) throws IOException {
+        this.engine = engine;
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                port));
+        server.configureBlocking(false);
+        selector = Selector.open();
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        ioThread = new Thread(this::runIO, "gateway-io");
+        matchingThread = new Thread(this::runMatching, "gateway-matching");
+    }
+
+    /**
+     * @return the port the gateway listens on.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections and {@link Order}s.
+     * <p><b>Note:</b> from now on, until the gateway is closed, no other
+     * thread may call the {@link Engine}.</p>
+     */
+    public void start() {
+        running = true;
+        engine.setFillListener(new FillListener() {
+            @Override public void onFill(Stock stock, Order order,
+                                         Transaction transaction) {
+                OrderGateway.this.onFill(stock, order, transaction);
+            }
+
+            @Override public void onExpire(Stock stock, Order order) {
+                OrderGateway.this.onExpire(stock, order);
+            }
+        });
+        matchingThread.start();
+        ioThread.start();
+    }
+
+    /**
+     * Stops the gateway, and closes all its sessions. the {@link Order}s
+     * that were already accepted stay in the {@link Engine}.
+     */
+    @Override public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        matchingThread.interrupt();
+        try {
+            ioThread.join();
+            matchingThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        engine.setFillListener(null);
+        for (SelectionKey i : selector.keys()) {
+            i.channel().close();
+        }
+        selector.close();
+    }
+
+    /*
+     * The I/O thread:
+     */
+
+    private void runIO() {
+        try {
+            while (running) {
+
+                // poll the stalled sessions, until the intake is drained:
+                selector.select(stalled.isEmpty() ? 0 : 1);
+
+                // write the responses of the matching thread:
+                GatewaySession session;
+                while ((session = writable.poll()) != null) {
+                    write(session);
+                }
+
+                // resume the stalled sessions:
+                for (Iterator<GatewaySession> it = stalled.iterator();
+                     it.hasNext(); ) {
+                    session = it.next();
+                    session.stalled = false;
+                    readLines(session);
+                    if (!session.stalled) {
+                        it.remove();
+                        if (!session.closed) {
+                            session.key.interestOps(session.key.interestOps() |
+                                    SelectionKey.OP_READ);
+                        }
+                    }
+                }
+
+                // handle the ready channels:
+                for (Iterator<SelectionKey> it =
+                     selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        session = (GatewaySession) key.attachment();
+                        if (key.isReadable()) {
+                            read(session);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(session);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new GatewaySession(channel, key, INPUT_BUFFER_SIZE));
+    }
+
+    private void read(GatewaySession session) {
+        try {
+            if (session.channel.read(session.input) < 0) {
+                closeSession(session);
+                return;
+            }
+        } catch (IOException e) {
+            closeSession(session);
+            return;
+        }
+        readLines(session);
+    }
+
+    /**
+     * Offers the complete lines of the session's {@code input} to the intake
+     * queue. if the queue is full, the session is stalled, and the rest of
+     * the lines stay in its {@code input}.
+     */
+    private void readLines(GatewaySession session) {
+        ByteBuffer input = session.input;
+        byte[] array = input.array();
+        int end = input.position();
+        int lineStart = 0;
+        for (int i = 0; i < end; i++) {
+            if (array[i] == '\n') {
+                String line = new String(array, lineStart, i - lineStart,
+                        StandardCharsets.US_ASCII).trim();
+                if (!line.isEmpty() &&
+                        !intake.offer(GatewayRequest.parse(session, line))) {
+
+                    // stop reading, until the matching thread catches up:
+                    session.stalled = true;
+                    session.key.interestOps(session.key.interestOps() &
+                            ~SelectionKey.OP_READ);
+                    if (!stalled.contains(session)) {
+                        stalled.add(session);
+                    }
+                    break;
+                }
+                lineStart = i + 1;
+            }
+        }
+
+        // keep the rest of the lines:
+        input.position(lineStart).limit(end);
+        input.compact();
+
+        // a line that doesn't fit in the buffer is never completed:
+        if (!input.hasRemaining() && !session.stalled) {
+            closeSession(session);
+        }
+    }
+
+    private void write(GatewaySession session) {
+        if (session.closed) {
+            return;
+        }
+        try {
+            ByteBuffer buffer;
+            while ((buffer = session.output.peek()) != null) {
+                session.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+
+                    // the socket is full: continue when it is writable:
+                    session.key.interestOps(session.key.interestOps() |
+                            SelectionKey.OP_WRITE);
+                    return;
+                }
+                session.output.poll();
+            }
+            session.key.interestOps(session.key.interestOps() &
+                    ~SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            closeSession(session);
+        }
+    }
+
+    private void closeSession(GatewaySession session) {
+        session.closed = true;
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /*
+     * The matching thread:
+     */
+
+    private void runMatching() {
+        try {
+            AutoSave autoSave = engine.getAutoSave();
+            while (running) {
+
+                // the due Orders expire first, a batch at a time:
+                if (engine.expireOrders(MATCHING_BATCH_SIZE) > 0) {
+                    flush();
+                }
+                GatewayRequest request = intake.poll();
+                if (request == null) {
+                    if (engine.isDueExpiries()) {
+                        continue;
+                    }
+
+                    // idle: the autosave may take its checkpoints meanwhile:
+                    if (autoSave != null) {
+                        autoSave.enterIdle();
+                    }
+                    try {
+
+                        // wake up in time to expire the awaiting Orders:
+                        request = engine.isExpiries() ?
+                                intake.poll(EXPIRY_POLL_MILLIS,
+                                        TimeUnit.MILLISECONDS) :
+                                intake.take();
+                    } finally {
+                        if (autoSave != null) {
+                            autoSave.exitIdle();
+                        }
+                    }
+                    if (request == null) {
+                        continue;
+                    }
+                }
+                int count = 0;
+                do {
+                    execute(request);
+                } while ((++count < MATCHING_BATCH_SIZE) &&
+                        ((request = intake.poll()) != null));
+                flush();
+                if (autoSave != null) {
+                    autoSave.checkpointIfDue();
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // the gateway was closed.
+        }
+    }
+
+    private void execute(GatewayRequest request) {
+        if (request.error != null) {
+            reject(request, request.error);
+            return;
+        }
+        try {
+            Stock stock = engine.getStockBySymbol(request.symbol);
+            Order order = new Order(request.direction, request.type,
+                    request.quantity, request.desiredLimitPrice,
+                    request.stopPrice, request.peakQuantity);
+            order.setTimeInForce(request.timeInForce);
+            order.setExpireTimeStamp(request.expireTimeStamp);
+            if (request.type == OrderType.MKT) {
+                order.setDesiredLimitPrice(
+                        MatchingEngine.calcDesiredLimitPriceOfMKTOrder(stock,
+                                request.direction));
+            }
+
+            // acknowledge first, so the Order's own fills follow the 'ACK':
+            StringBuilder output = getOutput(request.session);
+            int mark = output.length();
+            output.append("ACK ").append(request.clientOrderId).append(' ')
+                    .append(order.getTimeStamp()).append('\n');
+            liveOrders.put(order, request);
+            try {
+                engine.executeOrder(stock, order);
+            } catch (IOException e) {
+
+                // rejected by the pre-trade risk stage, before any fill:
+                liveOrders.remove(order);
+                output.setLength(mark);
+                throw e;
+            }
+
+            /*
+             * a 'MKT' Order's remainder is cancelled (unless in an auction),
+             * and a 'FOK' Order is never placed:
+             */
+            if (((request.type == OrderType.MKT) && !stock.isCallAuction()) ||
+                    (request.type == OrderType.FOK)) {
+                liveOrders.remove(order);
+            }
+        } catch (IOException e) {
+            reject(request, e.getMessage());
+        }
+    }
+
+    /**
+     * Called by the {@link Engine}, on the matching thread.
+     */
+    private void onFill(Stock stock, Order order, Transaction transaction) {
+        GatewayRequest request = liveOrders.get(order);
+        if (request == null) {
+            return;
+        }
+        getOutput(request.session).append("FILL ")
+                .append(request.clientOrderId).append(' ')
+                .append(transaction.getQuantity()).append(' ')
+                .append(transaction.getPrice()).append('\n');
+        if (order.getTotalQuantity() <= transaction.getQuantity()) {
+            liveOrders.remove(order);
+        }
+    }
+
+    /**
+     * Called by the {@link Engine}, on the matching thread.
+     */
+    private void onExpire(Stock stock, Order order) {
+        GatewayRequest request = liveOrders.remove(order);
+        if (request == null) {
+            return;
+        }
+        getOutput(request.session).append("EXP ")
+                .append(request.clientOrderId).append(' ')
+                .append(order.getTotalQuantity()).append('\n');
+    }
+
+    private void reject(GatewayRequest request, String reason) {
+        getOutput(request.session).append("REJ ")
+                .append(request.clientOrderId).append(' ')
+                .append(reason.replace('\n', ' ')).append('\n');
+    }
+
+    private StringBuilder getOutput(GatewaySession session) {
+        if (!session.touched) {
+            session.touched = true;
+            touched.add(session);
+        }
+        return session.pendingOutput;
+    }
+
+    /**
+     * Hands the responses of the current batch over to the I/O thread.
+     */
+    private void flush() {
+        if (touched.isEmpty()) {
+            return;
+        }
+        for (GatewaySession i : touched) {
+            i.touched = false;
+            if (!i.closed) {
+                i.output.add(ByteBuffer.wrap(i.pendingOutput.toString()
+                        .getBytes(StandardCharsets.US_ASCII)));
+                writable.add(i);
+            }
+            i.pendingOutput.setLength(0);
+        }
+        touched.clear();
+        selector.wakeup();
+    }
+
+    public static void main(String[] args) {
+        if ((args.length < 1) || (args.length > 2)) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Gateway.usage("OrderGateway <stocks.xml> " +
+                            "[port]"));
+            return;
+        }
+        try {
+            LoadSaveXML.unmarshal(args[0]);
+            int port = (args.length == 2) ? Integer.parseInt(args[1]) : 0;
+
+            OrderGateway gateway = new OrderGateway(port);
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.Gateway.listening(gateway.getPort()));
+
+            // the gateway's clients get the responses, not the console:
+            MessagePrint.setQuiet(true);
+            gateway.start();
+        } catch (NumberFormatException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Input.mismatch("[int] port", "[String]"));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,534 @@
+package load;
+
+import engine.Engine;
+import engine.EngineSnapshot;
+import message.Message;
+import message.print.MessagePrint;
+import stock.Stock;
+import stock.Stocks;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <b>A periodic autosave of the {@link Engine}'s {@link Stocks} to a
+ * directory, by incremental checkpoints.</b>
+ * <p>The directory holds:</p>
+ * <ul>
+ *     <li><tt>autosave-base.xml</tt> - a full {@link Descriptor}, with the
+ *     sequence of the last checkpoint it includes.</li>
+ *     <li><tt>autosave-delta-&lt;sequence&gt;.xml</tt> - a {@link Delta} of
+ *     each later checkpoint: only the {@link Stock}s that were changed since
+ *     the previous checkpoint, and only their new {@link
+ *     transaction.Transaction}s (all of them, for a {@link Stock} that was
+ *     not loaded when the base was taken).</li>
+ * </ul>
+ * <p>A checkpoint only takes an {@link EngineSnapshot} of the changed
+ * {@link Stock}s; the {@link Delta} is written on a background thread. Every
+ * {@code deltasPerBase} deltas, the writer merges the deltas into the base
+ * and deletes them, so a recovery never reads more than {@code
+ * deltasPerBase} deltas. Each file is written to a temporary file and moved
+ * over, so a crash never leaves a partial file.</p>
+ * <p>A checkpoint must be taken on the thread that calls the {@link Engine},
+ * between its operations:</p>
+ * <ul>
+ *     <li>A busy thread calls {@link #checkpointIfDue()} between its
+ *     operations.</li>
+ *     <li>An idle thread, that waits for its next operation within {@link
+ *     #enterIdle()} and {@link #exitIdle()}, lets the timer take the
+ *     checkpoint for it.</li>
+ * </ul>
+ *
+ * @version 1.2
+ * @see Engine#setAutoSave(AutoSave)
+ */
+public class AutoSave {
+
+    private static final String BASE_FILE_NAME = "autosave-base.xml";
+    private static final String DELTA_FILE_PREFIX = "autosave-delta-";
+    private static final String FILE_SUFFIX = ".xml";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long intervalMillis;
+    private final int deltasPerBase;
+
+    /**
+     * Marks the checkpoints as due, at a fixed rate.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Writes the files, one at a time, in the order of their checkpoints.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Held while a checkpoint is taken, and while {@link #idle} changes, so
+     * the timer takes a checkpoint only while the {@link Engine} is idle.
+     */
+    private final ReentrantLock idleLock = new ReentrantLock();
+
+    /**
+     * {@code true} while the thread that calls the {@link Engine} is idle.
+     * guarded by {@link #idleLock}.
+     */
+    private boolean idle = false;
+
+    /**
+     * {@code true} if the interval passed since the previous checkpoint.
+     */
+    private volatile boolean due = false;
+
+    /**
+     * The fields below are guarded by {@link #idleLock}:
+     * <ul>
+     *     <li>{@code sequence} - of the last checkpoint that was taken.</li>
+     *     <li>{@code deltasSinceMerge} - the number of deltas that were not
+     *     merged into the base yet.</li>
+     *     <li>{@code savedStocks} - the {@link Stocks} of the base, or {@code
+     *     null} if no base was taken yet. a different {@link Stocks} (e.g. a
+     *     new load) takes a new base.</li>
+     *     <li>{@code savedTransactions} - the number of {@link
+     *     transaction.Transaction}s of each {@link Stock} that were already
+     *     saved, by the dense id of the {@link Stock}, or {@code -1} if it
+     *     was not counted yet.</li>
+     * </ul>
+     */
+    private long sequence;
+    private int deltasSinceMerge = 0;
+    private Stocks savedStocks = null;
+    private int[] savedTransactions = new int[0];
+
+    /**
+     * @param directory      the directory of the autosave. created if it does
+     *                       not exist.
+     * @param intervalMillis the interval between the checkpoints.
+     * @param deltasPerBase  the number of deltas that are merged into the
+     *                       base at once.
+     * @throws IOException if the directory cannot be used.
+     */
+    public AutoSave(File directory, long intervalMillis, int deltasPerBase)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(Message.Err.AutoSave
+                    .notADirectory(directory.getPath()));
+        }
+        this.directory = directory;
+        this.intervalMillis = intervalMillis;
+        this.deltasPerBase = Math.max(1, deltasPerBase);
+
+        // continue after the files of a previous run:
+        Descriptor base = new File(directory, BASE_FILE_NAME).exists() ?
+                read(Descriptor.class, new File(directory, BASE_FILE_NAME)) :
+                null;
+        sequence = ((base != null) && (base.getSequence() != null)) ?
+                base.getSequence() : 0;
+        for (Long i : listDeltaFiles(directory).keySet()) {
+            sequence = Math.max(sequence, i);
+        }
+
+        timer = Executors.newSingleThreadScheduledExecutor(
+                daemonThreadFactory("autosave-timer"));
+        writer = Executors.newSingleThreadExecutor(
+                daemonThreadFactory("autosave-writer"));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Starts the timer of the checkpoints.
+     */
+    public void start() {
+        timer.scheduleAtFixedRate(this::onTimer, intervalMillis,
+                intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Marks a checkpoint as due, and takes it at once if the {@link Engine}
+     * is idle.
+     */
+    private void onTimer() {
+        due = true;
+        if (idleLock.tryLock()) {
+            try {
+                if (idle) {
+                    checkpointIfDue();
+                }
+            } finally {
+                idleLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Called by the thread that calls the {@link Engine} before it waits for
+     * its next operation: until {@link #exitIdle()}, the timer takes the
+     * checkpoints for it.
+     */
+    public void enterIdle() {
+        checkpointIfDue();
+        idleLock.lock();
+        try {
+            idle = true;
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Called by the thread that calls the {@link Engine} after it waited for
+     * its next operation. waits for a checkpoint that the timer is taking.
+     */
+    public void exitIdle() {
+        idleLock.lock();
+        try {
+            idle = false;
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Takes a checkpoint, if the interval passed since the previous one. Cheap
+     * otherwise, so it may be called between every two operations.
+     */
+    public void checkpointIfDue() {
+        if (due) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Takes a checkpoint: a base, if the {@link Engine}'s {@link Stocks} were
+     * replaced since the previous checkpoint, or else a delta of the changed
+     * {@link Stock}s, if any.
+     * <p>Must be called on the thread that calls the {@link Engine}, between
+     * its operations.</p>
+     */
+    public void checkpoint() {
+        idleLock.lock();
+        try {
+            due = false;
+            Stocks stocks;
+            try {
+                stocks = Engine.getStocks();
+            } catch (IOException e) {
+
+                // there is nothing to save yet:
+                return;
+            }
+            if (stocks != savedStocks) {
+                checkpointBase(stocks);
+            } else {
+                checkpointDelta();
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private void checkpointBase(Stocks stocks) {
+        Engine.takeModifiedStocks();
+        savedStocks = stocks;
+        savedTransactions = new int[stocks.getCollection().size()];
+        Arrays.fill(savedTransactions, -1);
+        for (Stock i : stocks.getCollection()) {
+
+            // a lazily loaded Stock is counted on its first delta:
+            if (i.isDataBaseLoaded()) {
+                savedTransactions[i.getId()] = transactionsCount(i);
+            }
+        }
+        deltasSinceMerge = 0;
+        long baseSequence = ++sequence;
+        EngineSnapshot snapshot =
+                Engine.beginSnapshot(stocks.getCollection());
+
+        writer.execute(() -> {
+            Descriptor base = snapshot.complete();
+            base.setSequence(baseSequence);
+            if (write(base, new File(directory, BASE_FILE_NAME))) {
+                deleteDeltaFiles(baseSequence);
+            }
+        });
+    }
+
+    private void checkpointDelta() {
+        List<Stock> modifiedStocks = Engine.takeModifiedStocks();
+        if (modifiedStocks.isEmpty()) {
+            return;
+        }
+
+        // count the new Transactions of each changed Stock:
+        int[] newTransactionsCounts = new int[modifiedStocks.size()];
+        for (int i = 0; i < modifiedStocks.size(); i++) {
+            Stock stock = modifiedStocks.get(i);
+            int count = transactionsCount(stock);
+            int savedCount = savedTransactions[stock.getId()];
+            savedTransactions[stock.getId()] = count;
+            newTransactionsCounts[i] =
+                    (savedCount >= 0) ? (count - savedCount) : -1;
+        }
+        long deltaSequence = ++sequence;
+        boolean merge = (++deltasSinceMerge >= deltasPerBase);
+        if (merge) {
+            deltasSinceMerge = 0;
+        }
+        EngineSnapshot snapshot = Engine.beginSnapshot(modifiedStocks);
+
+        writer.execute(() -> {
+            List<Stock> copies =
+                    snapshot.complete().getStocks().getCollection();
+            Delta delta = new Delta(deltaSequence);
+            for (int i = 0; i < copies.size(); i++) {
+                delta.getStockDeltas().add(new StockDelta(copies.get(i),
+                        newTransactionsCounts[i]));
+            }
+            if (write(delta, deltaFile(directory, deltaSequence)) && merge) {
+                mergeDeltaFiles();
+            }
+        });
+    }
+
+    private static int transactionsCount(Stock stock) {
+        return stock.getDataBase().getSuccessfullyFinishedTransactions()
+                .getCollection().size();
+    }
+
+    /**
+     * Merges the delta files into the base file, on the writer thread.
+     */
+    private void mergeDeltaFiles() {
+        File baseFile = new File(directory, BASE_FILE_NAME);
+        Descriptor base = read(Descriptor.class, baseFile);
+        if (base == null) {
+            return;
+        }
+        long mergedSequence = applyDeltaFiles(directory, base);
+        if (mergedSequence < 0) {
+            return;
+        }
+        base.setSequence(mergedSequence);
+        if (write(base, baseFile)) {
+            deleteDeltaFiles(mergedSequence);
+        }
+    }
+
+    /**
+     * Applies the delta files that are later than the given base to it, by
+     * ascending sequence.
+     *
+     * @return the sequence of the last delta applied, or of the base if there
+     * are none, or {@code -1} if a delta file cannot be read.
+     */
+    private static long applyDeltaFiles(File directory, Descriptor base) {
+        long baseSequence =
+                (base.getSequence() != null) ? base.getSequence() : 0;
+        long lastSequence = baseSequence;
+        Map<String, Stock> stocksBySymbol = new HashMap<>();
+        for (Stock i : base.getStocks().getCollection()) {
+            stocksBySymbol.put(i.getSymbol(), i);
+        }
+        for (Map.Entry<Long, File> i :
+                listDeltaFiles(directory).tailMap(baseSequence, false)
+                        .entrySet()) {
+            Delta delta = read(Delta.class, i.getValue());
+            if (delta == null) {
+                return -1;
+            }
+            for (StockDelta j : delta.getStockDeltas()) {
+                Stock stock = stocksBySymbol.get(j.getSymbol());
+                if (stock != null) {
+                    j.applyTo(stock);
+                } else {
+                    stock = j.toStock();
+                    base.getStocks().getCollection().add(stock);
+                    stocksBySymbol.put(stock.getSymbol(), stock);
+                }
+            }
+            lastSequence = i.getKey();
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Deletes the delta files that are already in the base file.
+     */
+    private void deleteDeltaFiles(long baseSequence) {
+        for (File i : listDeltaFiles(directory).headMap(baseSequence, true)
+                .values()) {
+            if (!i.delete()) {
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        Message.Err.AutoSave.writeFail(i.getPath(),
+                                "cannot delete"));
+            }
+        }
+    }
+
+    /**
+     * Takes a final checkpoint, and waits for all the files to be written.
+     * <p>Must be called on the thread that calls the {@link Engine}.</p>
+     */
+    public void close() {
+        timer.shutdownNow();
+        checkpoint();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param directory a directory.
+     * @return {@code true} if there is an autosave in the directory.
+     */
+    public static boolean exists(File directory) {
+        return new File(directory, BASE_FILE_NAME).exists();
+    }
+
+    /**
+     * Recovers the {@link Engine}'s {@link Stocks} from the autosave in the
+     * given directory: its base, and then its later deltas.
+     *
+     * @param directory the directory of the autosave.
+     * @return the number of deltas applied.
+     * @throws IOException if there is no autosave in the directory, or if it
+     *                     cannot be read, or if its {@link Stocks} are
+     *                     invalid.
+     */
+    public static int recover(File directory) throws IOException {
+        File baseFile = new File(directory, BASE_FILE_NAME);
+        if (!baseFile.exists()) {
+            throw new IOException(
+                    Message.Err.AutoSave.noBase(directory.getPath()));
+        }
+        Descriptor base = read(Descriptor.class, baseFile);
+        if ((base == null) || (base.getStocks() == null)) {
+            throw new IOException(Message.Err.AutoSave.readFail(
+                    baseFile.getPath(), "no stocks"));
+        }
+        long baseSequence =
+                (base.getSequence() != null) ? base.getSequence() : 0;
+        int deltas = listDeltaFiles(directory).tailMap(baseSequence, false)
+                .size();
+        if (applyDeltaFiles(directory, base) < 0) {
+            throw new IOException(Message.Err.AutoSave.readFail(
+                    directory.getPath(), "a delta is unreadable"));
+        }
+        Engine.checkValidStocks(base.getStocks());
+        Engine.setStocks(base.getStocks());
+        return deltas;
+    }
+
+    /**
+     * @return the delta files of the directory, by their sequences.
+     */
+    private static TreeMap<Long, File> listDeltaFiles(File directory) {
+        TreeMap<Long, File> deltaFiles = new TreeMap<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return deltaFiles;
+        }
+        for (File i : files) {
+            String name = i.getName();
+            if (name.startsWith(DELTA_FILE_PREFIX) &&
+                    name.endsWith(FILE_SUFFIX)) {
+                try {
+                    deltaFiles.put(Long.parseLong(name.substring(
+                            DELTA_FILE_PREFIX.length(),
+                            name.length() - FILE_SUFFIX.length())), i);
+                } catch (NumberFormatException e) {
+
+                    // not a file of the autosave.
+                }
+            }
+        }
+        return deltaFiles;
+    }
+
+    private static File deltaFile(File directory, long sequence) {
+        return new File(directory,
+                String.format("%s%010d%s", DELTA_FILE_PREFIX, sequence,
+                        FILE_SUFFIX));
+    }
+
+    /**
+     * marshal (= Save) the given root element, to a temporary file that is
+     * then moved over the given file.
+     *
+     * @return {@code true} if the file was written, else the error is
+     * printed.
+     */
+    private static boolean write(Object root, File file) {
+        File temporaryFile =
+                new File(file.getPath() + TEMPORARY_SUFFIX);
+        try {
+            Marshaller jaxbMarshaller = JAXBContext.newInstance(
+                    root.getClass()).createMarshaller();
+            jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            jaxbMarshaller.marshal(root, temporaryFile);
+            Files.move(temporaryFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (JAXBException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.AutoSave.writeFail(file.getPath(),
+                            reasonOf(e)));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.AutoSave.writeFail(file.getPath(),
+                            e.getMessage()));
+        }
+        return false;
+    }
+
+    /**
+     * unmarshal (= Load) the root element of the given file.
+     *
+     * @return the root element, or {@code null} if the file cannot be read,
+     * and then the error is printed.
+     */
+    private static <T> T read(Class<T> rootClass, File file) {
+        try {
+            return rootClass.cast(JAXBContext.newInstance(rootClass)
+                    .createUnmarshaller().unmarshal(file));
+        } catch (JAXBException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.AutoSave.readFail(file.getPath(),
+                            reasonOf(e)));
+            return null;
+        }
+    }
+
+    private static String reasonOf(JAXBException e) {
+        return (e.getLinkedException() != null) ?
+                e.getLinkedException().getMessage() : e.getMessage();
+    }
+
+}
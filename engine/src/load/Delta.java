@@ -0,0 +1,49 @@
+package load;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single autosave checkpoint: the {@link StockDelta}s of all the {@link
+ * stock.Stock}s that were changed since the previous checkpoint. annotated
+ * with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
+ *
+ * @version 1.0
+ * @see AutoSave
+ */
+@XmlRootElement(name = "rse-autosave-delta")
+@XmlAccessorType(XmlAccessType.FIELD) public class Delta {
+
+    /**
+     * The sequence of this checkpoint. the deltas are applied by ascending
+     * sequence.
+     */
+    @XmlAttribute(name = "sequence") private long sequence;
+
+    @XmlElement(name = "rse-stock-delta")
+    private List<StockDelta> stockDeltas = new ArrayList<>();
+
+    Delta(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
+     * load and save.
+     */
+    public Delta() {}
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<StockDelta> getStockDeltas() {
+        return stockDeltas;
+    }
+
+}
@@ -4,6 +4,7 @@ import stock.Stocks;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
@@ -11,7 +12,7 @@ import javax.xml.bind.annotation.XmlRootElement;
  * This is the <i>SuperClass</i> of the schema <tt>.xml</tt> file - annotated
  * with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
  *
- * @version 1.1
+ * @version 1.2
  */
 @XmlRootElement(name = "rizpa-stock-exchange-descriptor")
 @XmlAccessorType(XmlAccessType.FIELD) public class Descriptor {
@@ -21,6 +22,14 @@ import javax.xml.bind.annotation.XmlRootElement;
      */
     @XmlElement(name = "rse-stocks") private Stocks stocks;
 
+    /**
+     * The sequence of the last autosave delta that was merged into this
+     * {@code Descriptor}, or {@code null} if it is not an autosave base.
+     *
+     * @see AutoSave
+     */
+    @XmlAttribute(name = "rse-autosave-sequence") private Long sequence;
+
     public Stocks getStocks() {
         return stocks;
     }
@@ -29,6 +38,14 @@ import javax.xml.bind.annotation.XmlRootElement;
         this.stocks = stocks;
     }
 
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
     @Override public String toString() {
         return "Descriptor{" + "stocks=\n" + stocks + '}';
     }
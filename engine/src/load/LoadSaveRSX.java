@@ -0,0 +1,383 @@
+package load;
+
+import engine.Engine;
+import engine.EngineSnapshot;
+import message.Message;
+import message.print.MessagePrint;
+import stock.Stock;
+import stock.Stocks;
+import stock.database.StockDataBase;
+import stock.database.StockDataBaseLoader;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class loads and saves an indexed snapshot: a <tt>.rsx</tt> file, whose
+ * {@link Stock}s are loaded lazily.
+ * <p>The file is:</p>
+ * <ul>
+ *     <li>A magic number.</li>
+ *     <li>The {@link StockDataBase} of each {@link Stock}, as a separate
+ *     <tt>.xml</tt> fragment.</li>
+ *     <li>An index: the symbol, company name and price of each {@link
+ *     Stock}, with the position and length of its fragment.</li>
+ *     <li>The position of the index.</li>
+ * </ul>
+ * <p>A load reads the index only. Each {@link Stock}'s {@link StockDataBase}
+ * (its books and transaction history) is read from its fragment on its first
+ * use, so the load time and the memory are proportional to the {@link
+ * Stock}s that are actually used. The file is kept open until the program
+ * exits, so it can be saved over meanwhile.</p>
+ * <ul>
+ *     <li>Implemented with '.rsx' suffix case-insensitive.</li>
+ * </ul>
+ *
+ * @version 1.1
+ * @see StockDataBaseLoader
+ */
+public class LoadSaveRSX {
+
+    /**
+     * "RSX1".
+     */
+    private static final int MAGIC = 0x52535831;
+
+    /**
+     * The {@code JAXBContext} of the fragments, created on first use.
+     */
+    private static JAXBContext dataBaseContext = null;
+
+    /**
+     * private Constructor, to prevent others to make instances of this class.
+     */
+    private LoadSaveRSX() {}
+
+    /**
+     * @param path a path of a file.
+     * @return {@code true} if the file has the '.rsx' suffix
+     * (case-insensitive).
+     */
+    public static boolean isRSX(String path) {
+        return (path.length() >= 4) &&
+                (path.substring(path.length() - 4).equalsIgnoreCase(".rsx"));
+    }
+
+    private static synchronized JAXBContext getDataBaseContext()
+            throws JAXBException {
+        if (dataBaseContext == null) {
+            dataBaseContext = JAXBContext.newInstance(StockDataBase.class);
+        }
+        return dataBaseContext;
+    }
+
+    /**
+     * Save the {@link Engine}'s {@code stocks} to a <tt>.rsx</tt> file. A
+     * {@link Stock} that was not loaded yet is copied as is, from the file it
+     * was loaded from.
+     * <p>The save blocks the {@link Engine} until it is done.</p>
+     *
+     * @param pathOfRSX the path of the desired file to save.
+     * @throws IOException if file doesn't have the correct suffix (= '.rsx')
+     *                     (with case-insensitive), or if there are no {@code
+     *                     stocks} to save.
+     */
+    public static void marshal(String pathOfRSX) throws IOException {
+
+        // check the file's suffix:
+        if (!isRSX(pathOfRSX)) {
+            throw new IOException(Message.Err.RSX.suffix());
+        }
+        long startNanos = System.nanoTime();
+        try {
+            marshal(Engine.getStocks().getCollection(), pathOfRSX, startNanos);
+        } catch (IOException e) {
+            throw new IOException(Message.Err.XML.Save.noStocksToSave());
+        }
+    }
+
+    /**
+     * Save a point-in-time snapshot of the {@link Engine}'s {@code stocks} to
+     * a <tt>.rsx</tt> file, on a background thread, as in {@link
+     * LoadSaveXML#marshalInBackground(String)}.
+     * <p>Must be called on the thread that calls the {@link Engine}.</p>
+     *
+     * @param pathOfRSX the path of the desired file to save.
+     * @return the background thread, already started.
+     * @throws IOException if file doesn't have the correct suffix (= '.rsx')
+     *                     (with case-insensitive), or if there are no {@code
+     *                     stocks} to save.
+     */
+    public static Thread marshalInBackground(String pathOfRSX)
+            throws IOException {
+
+        // check the file's suffix:
+        if (!isRSX(pathOfRSX)) {
+            throw new IOException(Message.Err.RSX.suffix());
+        }
+        long startNanos = System.nanoTime();
+        EngineSnapshot snapshot;
+        try {
+            snapshot = Engine.beginSnapshot();
+        } catch (IOException e) {
+            throw new IOException(Message.Err.XML.Save.noStocksToSave());
+        }
+
+        Thread thread = new Thread(
+                () -> marshal(snapshot.complete().getStocks().getCollection(),
+                        pathOfRSX, startNanos), "rsx-save");
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Writes the given {@link Stock}s to a temporary file, that is then moved
+     * over the given file. the result is printed.
+     */
+    private static void marshal(List<Stock> stocks, String pathOfRSX,
+                                long startNanos) {
+        File file = new File(pathOfRSX);
+        File temporaryFile = new File(pathOfRSX + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(temporaryFile))) {
+                write(stocks, out);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Engine.getMetrics().getPersistence().recordSince(startNanos);
+
+            // print Success message:
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.RSX.saved(pathOfRSX));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.RSX.writeFail(e.getMessage()));
+        } catch (JAXBException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.RSX.writeFail(reasonOf(e)));
+        }
+    }
+
+    private static void write(List<Stock> stocks, OutputStream out)
+            throws IOException, JAXBException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        long position = Integer.BYTES;
+
+        // the fragments:
+        Marshaller marshaller = getDataBaseContext().createMarshaller();
+        ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+        long[] positions = new long[stocks.size()];
+        int[] lengths = new int[stocks.size()];
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock stock = stocks.get(i);
+            fragment.reset();
+            StockDataBaseLoader loader = stock.getDataBaseLoader();
+            if (loader instanceof Fragment) {
+
+                // not loaded yet: copy it as is:
+                ((Fragment) loader).readTo(fragment);
+            } else {
+                marshaller.marshal(stock.getDataBase(), fragment);
+            }
+            fragment.writeTo(dataOut);
+            positions[i] = position;
+            lengths[i] = fragment.size();
+            position += fragment.size();
+        }
+
+        // the index:
+        dataOut.writeInt(stocks.size());
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock stock = stocks.get(i);
+            dataOut.writeUTF(stock.getSymbol());
+            dataOut.writeUTF(stock.getCompanyName());
+            dataOut.writeLong(stock.getPrice());
+            dataOut.writeLong(positions[i]);
+            dataOut.writeInt(lengths[i]);
+        }
+        dataOut.writeLong(position);
+        dataOut.flush();
+    }
+
+    /**
+     * Load the index of a <tt>.rsx</tt> file to {@link Engine}'s {@code
+     * stocks}. the result is printed.
+     *
+     * @param pathOfRSX the path of the desired file to load.
+     * @throws IOException if file doesn't have the correct suffix (= '.rsx')
+     *                     (with case-insensitive).
+     */
+    public static void unmarshal(String pathOfRSX) throws IOException {
+
+        // check the file's suffix:
+        if (!isRSX(pathOfRSX)) {
+            throw new IOException(Message.Err.RSX.suffix());
+        }
+        long startNanos = System.nanoTime();
+        try {
+            Stocks stocks = readIndex(new File(pathOfRSX));
+
+            // check the validation of the stocks in the File given:
+            try {
+                Engine.checkValidStocks(stocks);
+            } catch (IOException e) {
+                throw new IOException(e.getMessage() + ".");
+            }
+
+            // stocks found as valid, so we are allowed to set the Stocks:
+            Engine.setStocks(stocks);
+            Engine.getMetrics().getPersistence().recordSince(startNanos);
+
+            // print Success message:
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.RSX.loaded(pathOfRSX,
+                            stocks.getCollection().size()));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the {@link Stocks} of the index, each with a {@link Fragment}
+     * to load its {@link StockDataBase}.
+     */
+    private static Stocks readIndex(File file) throws IOException {
+        if (!file.exists()) {
+            throw new IOException(Message.Err.RSX.fileDoesNotExist());
+        }
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if ((size < Integer.BYTES + Long.BYTES) ||
+                    (readFully(channel, 0, Integer.BYTES).getInt() !=
+                            MAGIC)) {
+                throw new IOException(Message.Err.RSX.format());
+            }
+            long indexPosition = readFully(channel, size - Long.BYTES,
+                    Long.BYTES).getLong();
+            long indexLength = size - Long.BYTES - indexPosition;
+            if ((indexPosition < Integer.BYTES) || (indexLength < 0) ||
+                    (indexLength > Integer.MAX_VALUE)) {
+                throw new IOException(Message.Err.RSX.format());
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    readFully(channel, indexPosition, (int) indexLength)
+                            .array()));
+
+            int count = in.readInt();
+            List<Stock> list = new ArrayList<>(Math.max(0, count));
+            for (int i = 0; i < count; i++) {
+                Stock stock = new Stock(in.readUTF(), in.readUTF(),
+                        in.readLong());
+                long position = in.readLong();
+                int length = in.readInt();
+                if ((position < Integer.BYTES) || (length < 0) ||
+                        (position + length > indexPosition)) {
+                    throw new IOException(Message.Err.RSX.format());
+                }
+                stock.setDataBaseLoader(new Fragment(channel,
+                        stock.getSymbol(), position, length));
+                list.add(stock);
+            }
+            Stocks stocks = new Stocks();
+            stocks.setCollection(list);
+            return stocks;
+        } catch (EOFException e) {
+            channel.close();
+            throw new IOException(Message.Err.RSX.format());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position,
+                                        int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String reasonOf(JAXBException e) {
+        return (e.getLinkedException() != null) ?
+                e.getLinkedException().getMessage() : e.getMessage();
+    }
+
+    /**
+     * The fragment of a single {@link StockDataBase} in a <tt>.rsx</tt> file.
+     * reads by position, so it may be read from any thread.
+     */
+    private static class Fragment implements StockDataBaseLoader {
+
+        private final FileChannel channel;
+        private final String symbol;
+        private final long position;
+        private final int length;
+
+        private Fragment(FileChannel channel, String symbol, long position,
+                         int length) {
+            this.channel = channel;
+            this.symbol = symbol;
+            this.position = position;
+            this.length = length;
+        }
+
+        @Override public StockDataBase load() throws IOException {
+            try {
+                StockDataBase dataBase = (StockDataBase) getDataBaseContext()
+                        .createUnmarshaller().unmarshal(
+                                new ByteArrayInputStream(
+                                        readFully(channel, position, length)
+                                                .array()));
+
+                // check the timeStamps of the Transactions, while storing them:
+                dataBase.getSuccessfullyFinishedTransactions().getCollection()
+                        .getTotalPeriod();
+                return dataBase;
+            } catch (IllegalArgumentException e) {
+                throw new IOException(Message.Err.XML.Load
+                        .stocksInvalid_TransactionTimeStamp() + "'" + symbol +
+                        "'. " + e.getMessage());
+            } catch (JAXBException e) {
+                throw new IOException(
+                        Message.Err.RSX.stockReadFail(symbol, reasonOf(e)));
+            } catch (IOException e) {
+                throw new IOException(Message.Err.RSX.stockReadFail(symbol,
+                        e.getMessage()));
+            }
+        }
+
+        private void readTo(OutputStream out) throws IOException {
+            out.write(readFully(channel, position, length).array());
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package load;
 
 import engine.Engine;
+import engine.EngineSnapshot;
 import message.Message;
 import message.builder.err.BuildError_XML;
 import message.print.MessagePrint;
@@ -9,10 +10,8 @@ import stock.Stocks;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 import java.io.File;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * This class loads (unmarshal) and saves (marshal) a <tt>.xml</tt> file.
@@ -20,7 +19,7 @@ import java.util.Objects;
  *     <li>Implemented with '.xml' suffix case-insensitive.</li>
  * </ul>
  *
- * @version 1.1
+ * @version 1.3
  * @see JAXBContext
  */
 public class LoadSaveXML {
@@ -29,13 +28,8 @@ public class LoadSaveXML {
          https://howtodoinjava.com/jaxb/jaxb-exmaple-marshalling-and-unmarshalling-list-or-set-of-objects/ */
 
     /**
-     * try-catching:
-     * <ul>
-     *     <li>{@link NullPointerException}</li>
-     *     <li>{@link JAXBException}</li>
-     *     <li>{@link IllegalArgumentException}</li>
-     * </ul>
      * marshal (= Save) to <tt>.xml</tt> from {@link Engine}'s {@code stocks}.
+     * <p>The save blocks the {@link Engine} until it is done.</p>
      *
      * @param pathOfXML the path of the desired XML to save.
      * @throws IOException if file doesn't have the correct suffix (= '.xml')
@@ -44,64 +38,120 @@ public class LoadSaveXML {
     public static void marshal(String pathOfXML) throws IOException {
 
         // check the file's suffix:
-        if ((pathOfXML.length() >= 4) &&
-                (pathOfXML.substring(pathOfXML.length() - 4)
-                        .equalsIgnoreCase(".xml"))) {
-
-            try {
-                JAXBContext jaxbContext =
-                        JAXBContext.newInstance(Descriptor.class);
-                Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-
-                // set in format
-                jaxbMarshaller
-                        .setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        if (isXML(pathOfXML)) {
+            marshal(Engine.createDescriptor(), pathOfXML, System.nanoTime());
+        } else {
+            throw new IOException(Message.Err.XML.suffix());
+        }
 
-                // // set Schema '.xsd' file:
-                // jaxbMarshaller.setProperty(
-                //         Marshaller.JAXB_NO_NAMESPACE_SCHEMA_LOCATION,
-                //         "RSE-V1.xsd");
+    }
 
-                // Marshal in file
-                jaxbMarshaller.marshal(Engine.createDescriptor(),
-                        new File(pathOfXML));
+    /**
+     * marshal (= Save) to <tt>.xml</tt> a point-in-time snapshot of {@link
+     * Engine}'s {@code stocks}, on a background thread.
+     * <p>The snapshot is taken immediately, and the {@link Engine} may keep
+     * changing its {@code stocks} while they are saved: see {@link
+     * EngineSnapshot}. The result is printed when the save is done.</p>
+     * <p>Must be called on the thread that calls the {@link Engine}.</p>
+     *
+     * @param pathOfXML the path of the desired XML to save.
+     * @return the background thread, already started.
+     * @throws IOException if file doesn't have the correct suffix (= '.xml')
+     *                     (with case-insensitive), or if there are no {@code
+     *                     stocks} to save.
+     */
+    public static Thread marshalInBackground(String pathOfXML)
+            throws IOException {
 
-                // print Success message:
-                MessagePrint.println(MessagePrint.Stream.OUT,
-                        Message.Out.XML.Save.success(pathOfXML));
-            } catch (NullPointerException e) {
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Save.noStocksToSave());
-            } catch (JAXBException e) {
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Save.writeFail());
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        new BuildError_XML().getMessage() +
-                                e.getLinkedException().getMessage());
-            } catch (IllegalArgumentException e) {
-
-                /*
-                 * This Exception is probably for programmers only,
-                 * and won't be encountered at all, thanks to our previous catches.
-                 */
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Save.writeFail());
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        new BuildError_XML().getMessage() + e.getMessage());
-            }
-        } else {
+        // check the file's suffix:
+        if (!isXML(pathOfXML)) {
             throw new IOException(Message.Err.XML.suffix());
         }
+        long startNanos = System.nanoTime();
+        EngineSnapshot snapshot;
+        try {
+            snapshot = Engine.beginSnapshot();
+        } catch (IOException e) {
+            throw new IOException(Message.Err.XML.Save.noStocksToSave());
+        }
+
+        Thread thread = new Thread(
+                () -> marshal(snapshot.complete(), pathOfXML, startNanos),
+                "xml-save");
+        thread.start();
+        return thread;
+    }
+
+    private static boolean isXML(String pathOfXML) {
+        return (pathOfXML.length() >= 4) &&
+                (pathOfXML.substring(pathOfXML.length() - 4)
+                        .equalsIgnoreCase(".xml"));
+    }
 
+    /**
+     * try-catching:
+     * <ul>
+     *     <li>{@link NullPointerException}</li>
+     *     <li>{@link JAXBException}</li>
+     *     <li>{@link IllegalArgumentException}</li>
+     * </ul>
+     * marshal (= Save) the given {@link Descriptor} to <tt>.xml</tt>.
+     *
+     * @param descriptor the {@link Descriptor} to save.
+     * @param pathOfXML  the path of the desired XML to save.
+     * @param startNanos the start time of the save, for the metrics.
+     */
+    private static void marshal(Descriptor descriptor, String pathOfXML,
+                                long startNanos) {
+        try {
+            JAXBContext jaxbContext = JAXBContext.newInstance(Descriptor.class);
+            Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
+
+            // set in format
+            jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+
+            // // set Schema '.xsd' file:
+            // jaxbMarshaller.setProperty(
+            //         Marshaller.JAXB_NO_NAMESPACE_SCHEMA_LOCATION,
+            //         "RSE-V1.xsd");
+
+            // Marshal in file
+            jaxbMarshaller.marshal(descriptor, new File(pathOfXML));
+            Engine.getMetrics().getPersistence().recordSince(startNanos);
+
+            // print Success message:
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.XML.Save.success(pathOfXML));
+        } catch (NullPointerException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.XML.Save.noStocksToSave());
+        } catch (JAXBException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.XML.Save.writeFail());
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    new BuildError_XML().getMessage() +
+                            e.getLinkedException().getMessage());
+        } catch (IllegalArgumentException e) {
+
+            /*
+             * This Exception is probably for programmers only,
+             * and won't be encountered at all, thanks to our previous catches.
+             */
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.XML.Save.writeFail());
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    new BuildError_XML().getMessage() + e.getMessage());
+        }
     }
 
     /**
      * try-catching:
      *  <ul>
      *      <li>{@link IOException}</li>
-     *      <li>{@link NullPointerException}</li>
      *  </ul>
-     * unmarshal (= Load) from '.xml' to {@link Engine}'s {@code stocks}.
+     * unmarshal (= Load) from '.xml' to {@link Engine}'s {@code stocks}, by
+     * the {@link ParallelLoad} pipeline: the {@link stock.Stock}s are parsed
+     * and validated in parallel, and set at once only if they are all valid.
      *
      * @param pathOfXML the path of the desired XML to load.
      * @throws IOException if file doesn't have the correct suffix (= '.xml')
@@ -110,22 +160,22 @@ public class LoadSaveXML {
     public static void unmarshal(String pathOfXML) throws IOException {
 
         // check the file's suffix:
-        if ((pathOfXML.length() >= 4) &&
-                (pathOfXML.substring(pathOfXML.length() - 4)
-                        .equalsIgnoreCase(".xml"))) {
+        if (isXML(pathOfXML)) {
 
             // unmarshalling:
+            long startNanos = System.nanoTime();
             try {
 
                 // Stocks to check: unmarshal from the given File:
-                Stocks stocks = Objects.requireNonNull(
-                        unmarshalDescriptor(new File(pathOfXML))).getStocks();
+                Stocks stocks = ParallelLoad.parse(
+                        ParallelLoad.split(new File(pathOfXML)));
 
                 // check the validation of the stocks in the File given:
                 checkValidStocks(stocks);
 
                 // stocks found as valid, so we are allowed to set the Stocks:
                 Engine.setStocks(stocks); // set stocks of Engine.
+                Engine.getMetrics().getPersistence().recordSince(startNanos);
 
                 // print Success message:
                 MessagePrint.println(MessagePrint.Stream.OUT,
@@ -133,9 +183,6 @@ public class LoadSaveXML {
 
             } catch (IOException e) {
                 MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
-            } catch (NullPointerException e) {
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Load.nullPointerException());
             }
         } else {
 
@@ -156,7 +203,7 @@ public class LoadSaveXML {
         try {
 
             // check the validation of the stocks in the File given:
-            Engine.checkValidStocks(stocks);
+            ParallelLoad.prepare(stocks);
         } catch (IOException e) {
 
             // stocks are invalid:
@@ -164,53 +211,4 @@ public class LoadSaveXML {
         }
     }
 
-    /**
-     * try-catching:
-     * <ul>
-     *     <li>{@link JAXBException}</li>
-     *     <li>{@link IllegalArgumentException }</li>
-     * </ul>
-     *
-     * @param fileToUnmarshal a given file to unmarshal.
-     * @return {@code Descriptor} extracted from the <tt>.xml</tt> file given.
-     * @throws IOException if the provided file does not exist.
-     */
-    private static Descriptor unmarshalDescriptor(File fileToUnmarshal)
-            throws IOException {
-
-        // check if file exists:
-        if (fileToUnmarshal.exists()) {
-            try {
-                JAXBContext jaxbContext =
-                        JAXBContext.newInstance(Descriptor.class);
-                Unmarshaller jaxbUnmarshaller =
-                        jaxbContext.createUnmarshaller();
-                return (Descriptor) jaxbUnmarshaller.unmarshal(fileToUnmarshal);
-            } catch (JAXBException e) {
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Load.readFail());
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        new BuildError_XML().getMessage() +
-                                e.getLinkedException().getMessage());
-            } catch (IllegalArgumentException e) {
-
-                /*
-                 * This Exception is probably for programmers only,
-                 * and won't be encountered at all, thanks to our previous catches.
-                 */
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        Message.Err.XML.Load.readFail());
-                MessagePrint.println(MessagePrint.Stream.ERR,
-                        new BuildError_XML().getMessage() + e.getMessage());
-            }
-        } else {
-
-            // file does not exist:
-            throw (new IOException(Message.Err.XML.Load.fileDoesNotExist()));
-        }
-
-        // In case of an error, return null:
-        return null;
-    }
-
 }
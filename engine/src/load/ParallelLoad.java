@@ -0,0 +1,296 @@
+package load;
+
+import engine.Engine;
+import message.Message;
+import order.Order;
+import order.OrderDirection;
+import stock.Stock;
+import stock.Stocks;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <b>A parallel load pipeline of a <tt>.xml</tt> file.</b>
+ * <ol>
+ *     <li>{@link #split(File)} - a single streaming pass cuts the file into
+ *     a section of each {@link Stock}. It only copies the elements, so it is
+ *     much cheaper than binding them.</li>
+ *     <li>{@link #parse(List)} - the sections are unmarshalled on the {@link
+ *     ForkJoinPool}, each by its own {@code Unmarshaller}.</li>
+ *     <li>{@link #prepare(Stocks)} - the {@link Stock}s are checked for an
+ *     ambiguity in a single pass, and then each {@link Stock} is validated,
+ *     its books are sorted (only if they are not already sorted) and its
+ *     {@link bar.Bar}s are aggregated, on the {@link ForkJoinPool}.</li>
+ * </ol>
+ * <p>Nothing is published until all the steps succeed: the caller then sets
+ * the {@link Stocks} at once, by {@link Engine#setStocks(Stocks)}. A failure
+ * is reported for the first {@link Stock} that failed, by the order of the
+ * file, as the sequential load does.</p>
+ *
+ * @version 1.0
+ * @see LoadSaveXML#unmarshal(String)
+ */
+class ParallelLoad {
+
+    /**
+     * The maximal number of {@link Stock}s that a single task handles without
+     * forking.
+     */
+    private static final int STOCKS_PER_TASK = 4;
+
+    private static final String STOCK_ELEMENT = "rse-stock";
+
+    /**
+     * The depth of a {@link Stock}'s element: descriptor / stocks / stock.
+     */
+    private static final int STOCK_ELEMENT_DEPTH = 3;
+
+    /**
+     * The book order of the awaiting {@link Order}s of each side: by price
+     * priority, and then by time priority. unlike {@link
+     * Order#compareTo(Order)}, equal {@link Order}s compare as equal, so a
+     * stable sort keeps their order in the file.
+     */
+    private static final Comparator<Order> BOOK_ORDER = (o1, o2) -> {
+        int result = (o1.getOrderDirection() == OrderDirection.BUY) ?
+                Long.compare(o2.getDesiredLimitPrice(),
+                        o1.getDesiredLimitPrice()) :
+                Long.compare(o1.getDesiredLimitPrice(),
+                        o2.getDesiredLimitPrice());
+        return (result != 0) ? result :
+                o1.getTimeStamp().compareTo(o2.getTimeStamp());
+    };
+
+    /**
+     * The {@code JAXBContext} of the sections, created on first use.
+     */
+    private static JAXBContext stockContext = null;
+
+    /**
+     * private Constructor, to prevent others to make instances of this class.
+     */
+    private ParallelLoad() {}
+
+    private static synchronized JAXBContext getStockContext()
+            throws JAXBException {
+        if (stockContext == null) {
+            stockContext = JAXBContext.newInstance(Stock.class);
+        }
+        return stockContext;
+    }
+
+    /**
+     * Cuts the <tt>.xml</tt> file into a section of each {@link Stock}, in
+     * the order of the file.
+     *
+     * @param file the <tt>.xml</tt> file.
+     * @return the sections, each a standalone document of a {@link Stock}.
+     * @throws IOException if the file cannot be read, or if it does not have
+     *                     any {@link Stocks}.
+     */
+    static List<byte[]> split(File file) throws IOException {
+        if (!file.exists()) {
+            throw new IOException(Message.Err.XML.Load.fileDoesNotExist());
+        }
+        List<byte[]> sections = new ArrayList<>();
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+        try (InputStream in = new BufferedInputStream(
+                new FileInputStream(file))) {
+            XMLEventReader reader = inputFactory.createXMLEventReader(in);
+            ByteArrayOutputStream section = new ByteArrayOutputStream();
+            XMLEventWriter writer = null;
+            boolean hasStocks = false;
+            int depth = 0;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    ++depth;
+                    if (depth == STOCK_ELEMENT_DEPTH - 1) {
+                        hasStocks = true;
+                    } else if ((depth == STOCK_ELEMENT_DEPTH) &&
+                            event.asStartElement().getName().getLocalPart()
+                                    .equals(STOCK_ELEMENT)) {
+                        section.reset();
+                        writer = outputFactory.createXMLEventWriter(section,
+                                "UTF-8");
+                    }
+                }
+                if (writer != null) {
+                    writer.add(event);
+                }
+                if (event.isEndElement()) {
+                    if ((depth == STOCK_ELEMENT_DEPTH) && (writer != null)) {
+                        writer.close();
+                        writer = null;
+                        sections.add(section.toByteArray());
+                    }
+                    --depth;
+                }
+            }
+            reader.close();
+            if (!hasStocks) {
+                throw new IOException(
+                        Message.Err.XML.Load.nullPointerException());
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(Message.Err.XML.Load.readFail() + " " +
+                    e.getMessage());
+        }
+        return sections;
+    }
+
+    /**
+     * Unmarshals the sections on the {@link ForkJoinPool}.
+     *
+     * @param sections the sections of {@link #split(File)}.
+     * @return the {@link Stocks}, in the order of the sections.
+     * @throws IOException of the first section that cannot be unmarshalled.
+     */
+    static Stocks parse(List<byte[]> sections) throws IOException {
+        Stock[] stocks = new Stock[sections.size()];
+        IOException[] errors = new IOException[sections.size()];
+        ForkJoinPool.commonPool().invoke(new Task(0, sections.size(), i -> {
+            try {
+                Unmarshaller unmarshaller =
+                        getStockContext().createUnmarshaller();
+                stocks[i] = (Stock) unmarshaller.unmarshal(
+                        new ByteArrayInputStream(sections.get(i)));
+            } catch (JAXBException e) {
+                errors[i] = new IOException(Message.Err.XML.Load.readFail() +
+                        " " + ((e.getLinkedException() != null) ?
+                        e.getLinkedException().getMessage() :
+                        e.getMessage()));
+            }
+        }, errors));
+        throwFirst(errors);
+
+        Stocks result = new Stocks();
+        result.setCollection(new ArrayList<>(Arrays.asList(stocks)));
+        return result;
+    }
+
+    /**
+     * Validates the {@link Stocks}, and prepares each of them for the {@link
+     * Engine} on the {@link ForkJoinPool}. A {@link Stock} whose data-base is
+     * not loaded yet is left as is.
+     *
+     * @param stocks the {@link Stocks} to prepare.
+     * @throws IOException of the first invalid {@link Stock}.
+     */
+    static void prepare(Stocks stocks) throws IOException {
+        List<Stock> list = stocks.getCollection();
+        Engine.checkStocksAmbiguity(list);
+
+        IOException[] errors = new IOException[list.size()];
+        ForkJoinPool.commonPool().invoke(new Task(0, list.size(), i -> {
+            Stock stock = list.get(i);
+            if (stock.isDataBaseLoaded()) {
+                Engine.checkValidStock(stock);
+                sortBook(stock.getDataBase().getAwaitingBuyOrders()
+                        .getCollection());
+                sortBook(stock.getDataBase().getAwaitingSellOrders()
+                        .getCollection());
+                stock.getDataBase().getBars();
+            }
+        }, errors));
+        throwFirst(errors);
+    }
+
+    /**
+     * Sorts a side of a book by {@link #BOOK_ORDER}, only if it is not
+     * already sorted (as in a saved file).
+     */
+    private static void sortBook(List<Order> orders) {
+        Iterator<Order> it = orders.iterator();
+        Order previous = it.hasNext() ? it.next() : null;
+        while (it.hasNext()) {
+            Order next = it.next();
+            if (BOOK_ORDER.compare(previous, next) > 0) {
+                orders.sort(BOOK_ORDER);
+                return;
+            }
+            previous = next;
+        }
+    }
+
+    private static void throwFirst(IOException[] errors) throws IOException {
+        for (IOException i : errors) {
+            if (i != null) {
+                throw i;
+            }
+        }
+    }
+
+    /**
+     * A step of the pipeline, of a single {@link Stock}.
+     */
+    private interface Step {
+
+        /**
+         * @param index the index of the {@link Stock}.
+         * @throws IOException if the {@link Stock} is invalid.
+         */
+        void run(int index) throws IOException;
+    }
+
+    /**
+     * Runs a {@link Step} on a range of {@link Stock}s, by forking halves
+     * until the range is small.
+     */
+    private static class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final Step step;
+        private final IOException[] errors;
+
+        private Task(int from, int to, Step step, IOException[] errors) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+            this.errors = errors;
+        }
+
+        @Override protected void compute() {
+            if (to - from <= STOCKS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        step.run(i);
+                    } catch (IOException e) {
+                        errors[i] = e;
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(from, middle, step, errors),
+                        new Task(middle, to, step, errors));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package load;
+
+import order.BuyOrders;
+import order.SellOrders;
+import order.StopOrders;
+import stock.Stock;
+import stock.database.StockDataBase;
+import transaction.Transaction;
+import transaction.TransactionHistory;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes of a single {@link Stock} since the previous autosave
+ * checkpoint, annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt>
+ * file.
+ * <ul>
+ *     <li>The book ({@code price} and awaiting orders) is written whole, as
+ *     it is small and changes in place.</li>
+ *     <li>Only the {@link Transaction}s made since the previous checkpoint
+ *     are written, as the older ones never change.</li>
+ * </ul>
+ * <p>The {@link bar.Bar}s are not written: a {@link Stock} that a delta was
+ * applied to has its {@link bar.Bar}s aggregated again from its {@link
+ * Transaction}s.</p>
+ *
+ * @version 1.1
+ * @see AutoSave
+ */
+@XmlAccessorType(XmlAccessType.FIELD) public class StockDelta {
+
+    @XmlElement(name = "rse-symbol") private String symbol;
+    @XmlElement(name = "rse-company-name") private String companyName;
+    @XmlElement(name = "rse-price") private long price;
+    @XmlElement(name = "rse-buy-orders") private BuyOrders awaitingBuyOrders;
+    @XmlElement(name = "rse-sell-orders") private SellOrders awaitingSellOrders;
+    @XmlElement(name = "rse-stop-orders") private StopOrders stopOrders;
+
+    /**
+     * {@code true} if {@link #newTransactions} are all the {@link
+     * Transaction}s of the {@link Stock}, to replace its previous ones.
+     */
+    @XmlAttribute(name = "complete") private boolean complete;
+
+    /**
+     * The new {@link Transaction}s, from the newest to the oldest.
+     */
+    @XmlElement(name = "rse-new-transaction")
+    private List<Transaction> newTransactions;
+
+    /**
+     * @param stock                a snapshot copy of the {@link Stock}. its
+     *                             collections are taken, not copied.
+     * @param newTransactionsCount the number of {@link Transaction}s made
+     *                             since the previous checkpoint, or {@code
+     *                             -1} for all of them.
+     */
+    StockDelta(Stock stock, int newTransactionsCount) {
+        StockDataBase dataBase = stock.getDataBase();
+        symbol = stock.getSymbol();
+        companyName = stock.getCompanyName();
+        price = stock.getPrice();
+        awaitingBuyOrders = dataBase.getAwaitingBuyOrders();
+        awaitingSellOrders = dataBase.getAwaitingSellOrders();
+        stopOrders = dataBase.getStopOrders();
+        TransactionHistory history =
+                dataBase.getSuccessfullyFinishedTransactions().getCollection();
+        complete = newTransactionsCount < 0;
+        if (complete) {
+            newTransactionsCount = history.size();
+        }
+        newTransactions = new ArrayList<>(newTransactionsCount);
+        for (int i = 0; i < newTransactionsCount; i++) {
+            newTransactions.add(history.get(i));
+        }
+    }
+
+    /**
+     * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
+     * load and save.
+     */
+    public StockDelta() {}
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Applies this delta to the {@link Stock} of the previous checkpoint.
+     */
+    void applyTo(Stock stock) {
+        StockDataBase dataBase = stock.getDataBase();
+        stock.setPrice(price);
+        dataBase.setAwaitingBuyOrders(awaitingBuyOrders);
+        dataBase.setAwaitingSellOrders(awaitingSellOrders);
+        dataBase.setStopOrders(stopOrders);
+
+        // add the new Transactions, from the oldest to the newest:
+        if (complete) {
+            dataBase.getSuccessfullyFinishedTransactions()
+                    .setCollection(new TransactionHistory());
+        }
+        TransactionHistory history =
+                dataBase.getSuccessfullyFinishedTransactions().getCollection();
+        if (newTransactions != null) {
+            for (int i = newTransactions.size() - 1; i >= 0; i--) {
+                history.addFirst(newTransactions.get(i));
+            }
+        }
+
+        dataBase.rebuildBars();
+    }
+
+    /**
+     * @return a new {@link Stock} of this delta, for a {@link Stock} that the
+     * previous checkpoint doesn't have.
+     */
+    Stock toStock() {
+        Stock stock = new Stock(symbol, companyName, price);
+        applyTo(stock);
+        return stock;
+    }
+
+}
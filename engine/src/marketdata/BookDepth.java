@@ -0,0 +1,116 @@
+package marketdata;
+
+import order.Order;
+import order.OrderDirection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The aggregated depth of a single {@link stock.Stock}'s data-base: the
+ * {@link PriceLevel}s of each side, sorted by price priority (the best price
+ * first).
+ * <p>Updated incrementally by the {@link MarketDataPublisher}.</p>
+ *
+ * @version 1.1
+ */
+public class BookDepth {
+
+    /**
+     * 'Buy' levels, the highest price first.
+     */
+    private final TreeMap<Long, PriceLevel> buyLevels =
+            new TreeMap<>(Collections.reverseOrder());
+
+    /**
+     * 'Sell' levels, the lowest price first.
+     */
+    private final TreeMap<Long, PriceLevel> sellLevels = new TreeMap<>();
+
+    /**
+     * @param direction the side.
+     * @return the best {@link PriceLevel} of the side, or {@code null} if the
+     * side is empty.
+     */
+    public PriceLevel getBest(OrderDirection direction) {
+        TreeMap<Long, PriceLevel> levels = getLevels(direction);
+        return levels.isEmpty() ? null : levels.firstEntry().getValue();
+    }
+
+    /**
+     * @param direction the side.
+     * @param n         the maximal number of levels.
+     * @return the best {@code n} {@link PriceLevel}s of the side.
+     */
+    public List<PriceLevel> getLevels(OrderDirection direction, int n) {
+        List<PriceLevel> result =
+                new ArrayList<>(Math.min(n, getLevelCount(direction)));
+        Iterator<PriceLevel> it = getLevels(direction).values().iterator();
+        while (it.hasNext() && (result.size() < n)) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of {@link PriceLevel}s in the side.
+     */
+    public int getLevelCount(OrderDirection direction) {
+        return getLevels(direction).size();
+    }
+
+    /**
+     * Checks whether a side can perform the given quantity in its entirety,
+     * up to a price limit, including the hidden reserve of its iceberg {@link
+     * Order}s. Only the levels needed are visited.
+     *
+     * @param direction  the side to perform the quantity.
+     * @param limitPrice the worst price of a level to take: the highest price
+     *                   of a 'Sell' side, or the lowest of a 'Buy' side.
+     * @param quantity   the quantity to perform.
+     * @return {@code true} if the levels within the limit have enough
+     * quantity.
+     */
+    public boolean isFillable(OrderDirection direction, long limitPrice,
+                              long quantity) {
+        TreeMap<Long, PriceLevel> levels = getLevels(direction);
+        for (PriceLevel i : levels.headMap(limitPrice, true).values()) {
+            quantity -= i.getQuantity() + i.getHiddenQuantity();
+            if (quantity <= 0) {
+                return true;
+            }
+        }
+        return quantity <= 0;
+    }
+
+    /**
+     * Adds (or removes, with negative values) quantity and {@link Order}s to
+     * the {@link PriceLevel} of the given price.
+     *
+     * @param hiddenQuantity the change of the hidden reserve of the level.
+     * @return the updated {@link PriceLevel}, with {@code orderCount} of
+     * {@code 0} if the level was deleted.
+     */
+    PriceLevel update(OrderDirection direction, long price, long quantity,
+                      long hiddenQuantity, int orderCount) {
+        TreeMap<Long, PriceLevel> levels = getLevels(direction);
+        PriceLevel level = levels.get(price);
+        if (level == null) {
+            level = new PriceLevel(price);
+            levels.put(price, level);
+        }
+        level.add(quantity, hiddenQuantity, orderCount);
+        if (level.getOrderCount() <= 0) {
+            levels.remove(price);
+        }
+        return level;
+    }
+
+    private TreeMap<Long, PriceLevel> getLevels(OrderDirection direction) {
+        return (direction == OrderDirection.BUY) ? buyLevels : sellLevels;
+    }
+
+}
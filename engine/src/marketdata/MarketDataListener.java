@@ -0,0 +1,12 @@
+package marketdata;
+
+/**
+ * A consumer of {@link MarketDataMessage}s.
+ * <p>Called synchronously by the {@link MarketDataPublisher}, so it must not
+ * block.</p>
+ *
+ * @version 1.0
+ */
+@FunctionalInterface public interface MarketDataListener {
+    public void onMessage(MarketDataMessage message);
+}
@@ -0,0 +1,109 @@
+package marketdata;
+
+import currency.Currency;
+import order.OrderDirection;
+
+/**
+ * An immutable, compact <i>market-data</i> delta message.
+ * <ul>
+ *     <li>{@link Type#LEVEL_ADD}, {@link Type#LEVEL_CHANGE} and {@link
+ *     Type#LEVEL_DELETE}: {@link #quantity} and {@link #orderCount} are the
+ *     new totals of the price level.</li>
+ *     <li>{@link Type#TRADE}: {@link #quantity} is the quantity of the
+ *     {@link transaction.Transaction}, and there is no {@link
+ *     #direction}.</li>
+ * </ul>
+ *
+ * @version 1.1
+ * @see MarketDataPublisher
+ */
+public class MarketDataMessage {
+
+    /**
+     * The sequence number of the message, in the {@link MarketDataPublisher}
+     * that published it.
+     */
+    private final long sequence;
+
+    private final Type type;
+
+    /**
+     * The dense id of the {@link stock.Stock}, that keys the message.
+     */
+    private final int stockId;
+
+    /**
+     * The {@code Symbol} of the {@link stock.Stock}, for presentation only.
+     */
+    private final String symbol;
+
+    /**
+     * The side of the price level, or {@code null} for a {@link
+     * Type#TRADE}.
+     */
+    private final OrderDirection direction;
+
+    private final long price;
+
+    private final long quantity;
+
+    private final int orderCount;
+
+    public MarketDataMessage(long sequence, Type type, int stockId,
+                             String symbol, OrderDirection direction,
+                             long price, long quantity, int orderCount) {
+        this.sequence = sequence;
+        this.type = type;
+        this.stockId = stockId;
+        this.symbol = symbol;
+        this.direction = direction;
+        this.price = price;
+        this.quantity = quantity;
+        this.orderCount = orderCount;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getStockId() {
+        return stockId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public OrderDirection getDirection() {
+        return direction;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    @Override public String toString() {
+        return sequence + " " + type + " " + symbol +
+                ((direction != null) ? (" " + direction) : "") + " " +
+                quantity + "@" + Currency.numberFormat.format(price) +
+                ((type != Type.TRADE) ? (" (" + orderCount + " orders)") : "");
+    }
+
+    /**
+     * The types of the market-data messages.
+     */
+    public enum Type {LEVEL_ADD, LEVEL_CHANGE, LEVEL_DELETE, TRADE}
+
+}
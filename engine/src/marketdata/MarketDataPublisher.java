@@ -0,0 +1,274 @@
+package marketdata;
+
+import order.Order;
+import order.OrderDirection;
+import stock.Quote;
+import stock.Stock;
+import stock.Stocks;
+import transaction.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The <i>market-data</i> publisher of the {@link engine.Engine}.
+ * <p>
+ * Keeps the aggregated {@link BookDepth} (top-of-book and all price levels)
+ * of each {@link Stock}, updated incrementally from the book events reported
+ * by the {@link engine.Engine}. Each change is published to the registered
+ * {@link MarketDataListener}s as a compact {@link MarketDataMessage} delta, so
+ * consumers never need a full-book dump.
+ * </p>
+ *
+ * <p>
+ * Besides, after each change that affects the best price levels or the last
+ * price of a {@link Stock}, a new immutable {@link Quote} is published to the
+ * {@link Stock} (conflated top-of-book).
+ * </p>
+ *
+ * <blockquote>When there are no {@link MarketDataListener}s, no messages are
+ * created at all.</blockquote>
+ *
+ * <p>Only the shown quantity of an iceberg {@link Order} is published. Its
+ * hidden reserve is kept apart in its {@link PriceLevel}.</p>
+ *
+ * @version 1.3
+ */
+public class MarketDataPublisher {
+
+    /**
+     * Index = the dense id of the {@link Stock} (see {@link Stock#getId()}).
+     * {@code null} for a {@link Stock} whose {@link BookDepth} was not built
+     * yet.
+     */
+    private BookDepth[] depths = new BookDepth[0];
+
+    private final List<MarketDataListener> listeners =
+            new CopyOnWriteArrayList<>();
+
+    private long sequence = 0;
+
+    public void addListener(MarketDataListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MarketDataListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Rebuilds the {@link BookDepth}s of all the given {@link Stocks} from
+     * their data-bases. Called when new {@link Stocks} are set.
+     * <p>A {@link Stock} whose data-base is not loaded yet gets its {@link
+     * BookDepth} on its first use, by {@link #getDepth(Stock)}.</p>
+     *
+     * @param stocks the new {@link Stocks}, or {@code null}.
+     */
+    public void reset(Stocks stocks) {
+        depths = new BookDepth[(stocks != null) ?
+                stocks.getCollection().size() : 0];
+        if (stocks != null) {
+            for (Stock i : stocks.getCollection()) {
+                i.setQuote(null);
+                if (i.isDataBaseLoaded()) {
+                    reset(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the {@link BookDepth} of a single {@link Stock} from its
+     * data-base.
+     */
+    private BookDepth reset(Stock stock) {
+        BookDepth depth = new BookDepth();
+        for (Order j : stock.getDataBase().getAwaitingBuyOrders()
+                .getCollection()) {
+            depth.update(j.getOrderDirection(), j.getDesiredLimitPrice(),
+                    j.getQuantity(), j.getHiddenQuantity(), 1);
+        }
+        for (Order j : stock.getDataBase().getAwaitingSellOrders()
+                .getCollection()) {
+            depth.update(j.getOrderDirection(), j.getDesiredLimitPrice(),
+                    j.getQuantity(), j.getHiddenQuantity(), 1);
+        }
+        if (stock.getId() >= depths.length) {
+            depths = Arrays.copyOf(depths, stock.getId() + 1);
+        }
+        if (stock.getId() >= 0) {
+            depths[stock.getId()] = depth;
+        }
+        stock.getMetrics().setBook(depth.getLevelCount(OrderDirection.BUY),
+                depth.getLevelCount(OrderDirection.SELL),
+                getNotional(depth, OrderDirection.BUY),
+                getNotional(depth, OrderDirection.SELL));
+
+        // the volume of all the Transactions made so far:
+        stock.setQuote(null);
+        publishQuote(stock, depth, stock.getPrice(),
+                stock.getDataBase().getSuccessfullyFinishedTransactions()
+                        .getCollection().getTotalQuantity());
+        return depth;
+    }
+
+    /**
+     * Must be called before the {@link Stock}'s data-base changes for the
+     * first time, as the {@link BookDepth} of a {@link Stock} that was not
+     * used yet is built from its data-base.
+     *
+     * @param stock the stock.
+     * @return the aggregated depth of the {@link Stock}.
+     */
+    public BookDepth getDepth(Stock stock) {
+        int id = stock.getId();
+        BookDepth depth = ((id >= 0) && (id < depths.length)) ? depths[id] :
+                null;
+        if (depth == null) {
+            depth = reset(stock);
+        }
+        return depth;
+    }
+
+    /**
+     * @param stock the stock.
+     * @param n     the maximal number of levels of each side.
+     * @return a snapshot of the best {@code n} levels of each side, as {@link
+     * MarketDataMessage.Type#LEVEL_ADD} messages, for a consumer that starts
+     * to follow the deltas.
+     */
+    public List<MarketDataMessage> getSnapshot(Stock stock, int n) {
+        List<MarketDataMessage> snapshot = new ArrayList<>();
+        BookDepth depth = getDepth(stock);
+        for (OrderDirection direction : OrderDirection.values()) {
+            for (PriceLevel i : depth.getLevels(direction, n)) {
+                snapshot.add(new MarketDataMessage(sequence,
+                        MarketDataMessage.Type.LEVEL_ADD, stock.getId(),
+                        stock.getSymbol(), direction, i.getPrice(), i.getQuantity(),
+                        i.getOrderCount()));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * An {@link Order} was inserted to the {@link Stock}'s data-base.
+     */
+    public void onOrderAdded(Stock stock, Order order) {
+        updateLevel(stock, order, order.getQuantity(),
+                order.getHiddenQuantity(), 1);
+    }
+
+    /**
+     * An {@link Order} in the {@link Stock}'s data-base was reduced by the
+     * given quantity, and stays in the data-base.
+     */
+    public void onOrderReduced(Stock stock, Order order, long quantity) {
+        updateLevel(stock, order, -quantity, 0, 0);
+    }
+
+    /**
+     * An {@link Order} was removed from the {@link Stock}'s data-base, with
+     * its current hidden reserve.
+     *
+     * @param quantity the shown quantity the {@link Order} had in the
+     *                 data-base.
+     */
+    public void onOrderRemoved(Stock stock, Order order, long quantity) {
+        updateLevel(stock, order, -quantity, -order.getHiddenQuantity(), -1);
+    }
+
+    /**
+     * A {@link Transaction} was made.
+     */
+    public void onTrade(Stock stock, Transaction transaction) {
+        ++sequence;
+        publishQuote(stock, getDepth(stock), transaction.getPrice(),
+                stock.getQuote().getVolume() + transaction.getQuantity());
+        if (!listeners.isEmpty()) {
+            publish(new MarketDataMessage(sequence,
+                    MarketDataMessage.Type.TRADE, stock.getId(),
+                    stock.getSymbol(), null,
+                    transaction.getPrice(), transaction.getQuantity(), 0));
+        }
+    }
+
+    private void updateLevel(Stock stock, Order order, long quantity,
+                             long hiddenQuantity, int orderCount) {
+        BookDepth depth = getDepth(stock);
+        PriceLevel level = depth.update(order.getOrderDirection(),
+                order.getDesiredLimitPrice(), quantity, hiddenQuantity,
+                orderCount);
+        ++sequence;
+        boolean isBuy = order.getOrderDirection() == OrderDirection.BUY;
+
+        // update the book gauges of the Stock's metrics:
+        int levelsDelta = 0;
+        if (level.getOrderCount() <= 0) {
+            levelsDelta = -1;
+        } else if ((orderCount > 0) && (level.getOrderCount() == 1)) {
+            levelsDelta = 1;
+        }
+        stock.getMetrics().onBookChange(isBuy, levelsDelta,
+                order.getDesiredLimitPrice() * quantity);
+
+        // publish a new Quote, only if the top-of-book has changed:
+        Quote quote = stock.getQuote();
+        PriceLevel best = depth.getBest(order.getOrderDirection());
+        long bestPrice = (best == null) ? 0 : best.getPrice();
+        long bestQuantity = (best == null) ? 0 : best.getQuantity();
+        if ((bestPrice != (isBuy ? quote.getBidPrice() : quote.getAskPrice())) ||
+                (bestQuantity !=
+                        (isBuy ? quote.getBidQuantity() : quote.getAskQuantity()))) {
+            publishQuote(stock, depth, quote.getLastPrice(), quote.getVolume());
+        }
+
+        if (!listeners.isEmpty()) {
+            MarketDataMessage.Type type;
+            if (level.getOrderCount() <= 0) {
+                type = MarketDataMessage.Type.LEVEL_DELETE;
+            } else if ((orderCount > 0) && (level.getOrderCount() == 1)) {
+                type = MarketDataMessage.Type.LEVEL_ADD;
+            } else {
+                type = MarketDataMessage.Type.LEVEL_CHANGE;
+            }
+            publish(new MarketDataMessage(sequence, type, stock.getId(),
+                    stock.getSymbol(), order.getOrderDirection(), level.getPrice(),
+                    level.getQuantity(), level.getOrderCount()));
+        }
+    }
+
+    private void publishQuote(Stock stock, BookDepth depth, long lastPrice,
+                              long volume) {
+        PriceLevel bid = depth.getBest(OrderDirection.BUY);
+        PriceLevel ask = depth.getBest(OrderDirection.SELL);
+        stock.setQuote(new Quote((bid == null) ? 0 : bid.getPrice(),
+                (bid == null) ? 0 : bid.getQuantity(),
+                (ask == null) ? 0 : ask.getPrice(),
+                (ask == null) ? 0 : ask.getQuantity(), lastPrice, volume,
+                sequence));
+    }
+
+    /**
+     * @return the sum of {@code price * quantity} over all the levels of a
+     * side of the book.
+     */
+    private static long getNotional(BookDepth depth,
+                                    OrderDirection direction) {
+        long notional = 0;
+        for (PriceLevel i : depth
+                .getLevels(direction, depth.getLevelCount(direction))) {
+            notional += i.getPrice() * i.getQuantity();
+        }
+        return notional;
+    }
+
+    private void publish(MarketDataMessage message) {
+        for (MarketDataListener i : listeners) {
+            i.onMessage(message);
+        }
+    }
+
+}
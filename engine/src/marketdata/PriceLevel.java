@@ -0,0 +1,59 @@
+package marketdata;
+
+/**
+ * An aggregated price level of a single side of a {@link stock.Stock}'s
+ * data-base.
+ * <p>Only its shown {@code quantity} is published. The {@code hiddenQuantity}
+ * of the iceberg {@link order.Order}s is kept to tell the full quantity that
+ * the level can perform.</p>
+ *
+ * @version 1.1
+ */
+public class PriceLevel {
+
+    private final long price;
+
+    /**
+     * The total quantity of all the {@link order.Order}s in this level.
+     */
+    private long quantity;
+
+    /**
+     * The total reserve of the iceberg {@link order.Order}s in this level.
+     */
+    private long hiddenQuantity;
+
+    private int orderCount;
+
+    public PriceLevel(long price) {
+        this.price = price;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getHiddenQuantity() {
+        return hiddenQuantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    void add(long quantity, long hiddenQuantity, int orderCount) {
+        this.quantity += quantity;
+        this.hiddenQuantity += hiddenQuantity;
+        this.orderCount += orderCount;
+    }
+
+    @Override public String toString() {
+        return "PriceLevel{" + "price=" + price + ", quantity=" + quantity +
+                ", orderCount=" + orderCount + '}';
+    }
+
+}
@@ -0,0 +1,191 @@
+package metrics;
+
+import currency.Currency;
+import stock.Stock;
+import stock.Stocks;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The instrumentation of the {@link engine.Engine}'s hot path.
+ * <p>Holds a {@link LatencyHistogram} for each of:</p>
+ * <ul>
+ *     <li>order intake: inserting an {@link order.Order} into its book.</li>
+ *     <li>matching: calculating an arrived {@link order.Order} against the
+ *     book.</li>
+ *     <li>transaction: storing a new {@link transaction.Transaction}.</li>
+ *     <li>persistence: saving to / loading from a <tt>.xml</tt> file.</li>
+ * </ul>
+ * <p>Each {@link Stock} has its own {@link StockMetrics} counters and
+ * gauges.</p>
+ * <p>Exposed through JMX as {@value #OBJECT_NAME}.</p>
+ *
+ * @version 1.0
+ */
+public class EngineMetrics implements EngineMetricsMBean {
+
+    public static final String OBJECT_NAME = "engine:type=EngineMetrics";
+
+    private final LatencyHistogram orderIntake =
+            new LatencyHistogram("order-intake");
+
+    private final LatencyHistogram matching = new LatencyHistogram("matching");
+
+    private final LatencyHistogram transaction =
+            new LatencyHistogram("transaction");
+
+    private final LatencyHistogram persistence =
+            new LatencyHistogram("persistence");
+
+    /**
+     * The {@link Stock}s to report.
+     */
+    private volatile Stocks stocks = null;
+
+    public EngineMetrics() {}
+
+    /**
+     * Registers this {@code EngineMetrics} as a JMX MBean in the platform's
+     * MBean server.
+     *
+     * @return {@code true} if registered, {@code false} if the server refused
+     * (e.g. an MBean of the same name is already registered).
+     */
+    public boolean registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(this, new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sets the {@link Stock}s to report, after they are loaded.
+     */
+    public void reset(Stocks stocks) {
+        this.stocks = stocks;
+    }
+
+    public LatencyHistogram getOrderIntake() {
+        return orderIntake;
+    }
+
+    public LatencyHistogram getMatching() {
+        return matching;
+    }
+
+    public LatencyHistogram getTransaction() {
+        return transaction;
+    }
+
+    public LatencyHistogram getPersistence() {
+        return persistence;
+    }
+
+    /**
+     * @return all the {@link LatencyHistogram}s.
+     */
+    public List<LatencyHistogram> getHistograms() {
+        List<LatencyHistogram> histograms = new ArrayList<>(4);
+        histograms.add(orderIntake);
+        histograms.add(matching);
+        histograms.add(transaction);
+        histograms.add(persistence);
+        return histograms;
+    }
+
+    /**
+     * @return a line of the counters and gauges of the given {@link Stock}.
+     */
+    public String getStockStatistics(Stock stock) {
+        StockMetrics counters = stock.getMetrics();
+        return stock.getSymbol() + "{" + "orders=" + counters.getOrders() +
+                ", fills=" + counters.getFills() + ", cancels=" +
+                counters.getCancels() + ", rejects=" + counters.getRejects() +
+                ", buyLevels=" + counters.getBuyLevels() + ", sellLevels=" +
+                counters.getSellLevels() + ", restingBuyNotional=" +
+                Currency.numberFormat.format(counters.getRestingBuyNotional()) +
+                ", restingSellNotional=" + Currency.numberFormat.format(
+                counters.getRestingSellNotional()) + "}";
+    }
+
+    @Override public String[] getStockStatistics() {
+        Stocks currentStocks = stocks;
+        if (currentStocks == null) {
+            return new String[0];
+        }
+        List<Stock> list = currentStocks.getCollection();
+        String[] lines = new String[list.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = getStockStatistics(list.get(i));
+        }
+        return lines;
+    }
+
+    @Override public void reset() {
+        for (LatencyHistogram i : getHistograms()) {
+            i.reset();
+        }
+        Stocks currentStocks = stocks;
+        if (currentStocks != null) {
+            for (Stock i : currentStocks.getCollection()) {
+                i.getMetrics().reset();
+            }
+        }
+    }
+
+    @Override public long getOrderIntakeCount() {
+        return orderIntake.getCount();
+    }
+
+    @Override public long getOrderIntakeP99Nanos() {
+        return orderIntake.getValueAtPercentile(99);
+    }
+
+    @Override public long getOrderIntakeMaxNanos() {
+        return orderIntake.getMaxNanos();
+    }
+
+    @Override public long getMatchingCount() {
+        return matching.getCount();
+    }
+
+    @Override public long getMatchingP99Nanos() {
+        return matching.getValueAtPercentile(99);
+    }
+
+    @Override public long getMatchingMaxNanos() {
+        return matching.getMaxNanos();
+    }
+
+    @Override public long getTransactionCount() {
+        return transaction.getCount();
+    }
+
+    @Override public long getTransactionP99Nanos() {
+        return transaction.getValueAtPercentile(99);
+    }
+
+    @Override public long getTransactionMaxNanos() {
+        return transaction.getMaxNanos();
+    }
+
+    @Override public long getPersistenceCount() {
+        return persistence.getCount();
+    }
+
+    @Override public long getPersistenceP99Nanos() {
+        return persistence.getValueAtPercentile(99);
+    }
+
+    @Override public long getPersistenceMaxNanos() {
+        return persistence.getMaxNanos();
+    }
+
+}
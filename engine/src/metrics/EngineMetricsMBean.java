@@ -0,0 +1,45 @@
+package metrics;
+
+/**
+ * The JMX management interface of the {@link EngineMetrics}.
+ * <p>All the latencies are in nanoseconds.</p>
+ *
+ * @version 1.0
+ */
+public interface EngineMetricsMBean {
+
+    long getOrderIntakeCount();
+
+    long getOrderIntakeP99Nanos();
+
+    long getOrderIntakeMaxNanos();
+
+    long getMatchingCount();
+
+    long getMatchingP99Nanos();
+
+    long getMatchingMaxNanos();
+
+    long getTransactionCount();
+
+    long getTransactionP99Nanos();
+
+    long getTransactionMaxNanos();
+
+    long getPersistenceCount();
+
+    long getPersistenceP99Nanos();
+
+    long getPersistenceMaxNanos();
+
+    /**
+     * @return a line of counters and gauges for each {@link stock.Stock}.
+     */
+    String[] getStockStatistics();
+
+    /**
+     * Clears all the latencies and counters.
+     */
+    void reset();
+
+}
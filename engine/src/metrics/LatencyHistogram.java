@@ -0,0 +1,183 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies, in nanoseconds, in the spirit of
+ * <i>HdrHistogram</i>.
+ * <p>
+ * The buckets are <i>log-linear</i>: values below {@value #LINEAR_LIMIT} have
+ * a bucket each, and each power of 2 above it is split into {@value
+ * #SUB_BUCKETS} equal buckets. Thus, any value is recorded with a relative
+ * error of about 3%, in a fixed array that covers the whole {@code long}
+ * range.
+ * </p>
+ * <p>
+ * Recording a value is a single atomic increment of its bucket, and an add
+ * to a {@link LongAdder}. No locks, and no allocations. Reading walks the
+ * buckets, and is meant for the (rare) reports.
+ * </p>
+ *
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of buckets in each power of 2.
+     */
+    private static final int SUB_BUCKETS = 32;
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Values below this limit have a bucket each.
+     */
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    private static final int BUCKETS =
+            LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds. negative values are recorded as
+     *              {@code 0}.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(indexOf(nanos));
+        totalNanos.add(nanos);
+
+        // update the max, only if it is exceeded:
+        long max;
+        while (nanos > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Records the latency from a start time until now.
+     *
+     * @param startNanos the start time, from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double getMeanNanos() {
+        long count = getCount();
+        return (count == 0) ? 0 : ((double) totalNanos.sum() / count);
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @param percentile a percentile between {@code 0} and {@code 100}.
+     * @return the latency (in nanoseconds) that {@code percentile} percents
+     * of the recorded latencies do not exceed, or {@code 0} if nothing was
+     * recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1,
+                (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Clears all the recorded latencies. latencies recorded concurrently
+     * with the reset may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        // the top bits of the value, between SUB_BUCKETS and 2 * SUB_BUCKETS:
+        int mantissa = (int) (value >>> shift);
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS +
+                (mantissa - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the highest value that is recorded into the bucket of the given
+     * {@code index}.
+     */
+    private static long highestValueOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long mantissa = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        long highest = ((mantissa + 1) << shift) - 1;
+
+        // the last bucket ends beyond Long.MAX_VALUE:
+        return (highest < 0) ? Long.MAX_VALUE : highest;
+    }
+
+    @Override public String toString() {
+        return name + "{" + "count=" + getCount() + ", mean=" +
+                Math.round(getMeanNanos()) + "ns, p50=" +
+                getValueAtPercentile(50) + "ns, p99=" +
+                getValueAtPercentile(99) + "ns, p99.9=" +
+                getValueAtPercentile(99.9) + "ns, max=" + getMaxNanos() +
+                "ns}";
+    }
+}
@@ -0,0 +1,140 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free counters of a single {@link stock.Stock}, and the gauges of
+ * its book (depth and resting notional).
+ * <p>The gauges are written only by the thread that changes the book (through
+ * the {@link marketdata.MarketDataPublisher}), and may be read by any
+ * thread.</p>
+ *
+ * @version 1.0
+ * @see EngineMetrics
+ */
+public class StockMetrics {
+
+    /**
+     * {@link order.Order}s that entered the book, or swept it.
+     */
+    private final LongAdder orders = new LongAdder();
+
+    /**
+     * {@link transaction.Transaction}s made.
+     */
+    private final LongAdder fills = new LongAdder();
+
+    /**
+     * Remainders of {@code MKT} {@link order.Order}s that were cancelled.
+     */
+    private final LongAdder cancels = new LongAdder();
+
+    /**
+     * {@link order.Order}s rejected by the pre-trade risk stage.
+     */
+    private final LongAdder rejects = new LongAdder();
+
+    private volatile long buyLevels = 0;
+
+    private volatile long sellLevels = 0;
+
+    /**
+     * The sum of {@code price * quantity} of the resting 'Buy' {@link
+     * order.Order}s.
+     */
+    private volatile long restingBuyNotional = 0;
+
+    /**
+     * The sum of {@code price * quantity} of the resting 'Sell' {@link
+     * order.Order}s.
+     */
+    private volatile long restingSellNotional = 0;
+
+    public void incrementOrders() {
+        orders.increment();
+    }
+
+    public void incrementFills() {
+        fills.increment();
+    }
+
+    public void incrementCancels() {
+        cancels.increment();
+    }
+
+    public void incrementRejects() {
+        rejects.increment();
+    }
+
+    /**
+     * Updates the gauges of a side of the book, after a change of it.
+     *
+     * @param isBuy         {@code true} for the 'Buy' side.
+     * @param levelsDelta   the change in the number of price levels.
+     * @param notionalDelta the change in the resting notional.
+     */
+    public void onBookChange(boolean isBuy, int levelsDelta,
+                             long notionalDelta) {
+        if (isBuy) {
+            buyLevels += levelsDelta;
+            restingBuyNotional += notionalDelta;
+        } else {
+            sellLevels += levelsDelta;
+            restingSellNotional += notionalDelta;
+        }
+    }
+
+    /**
+     * Sets the gauges of the book, after it was rebuilt.
+     */
+    public void setBook(long buyLevels, long sellLevels,
+                        long restingBuyNotional, long restingSellNotional) {
+        this.buyLevels = buyLevels;
+        this.sellLevels = sellLevels;
+        this.restingBuyNotional = restingBuyNotional;
+        this.restingSellNotional = restingSellNotional;
+    }
+
+    public long getOrders() {
+        return orders.sum();
+    }
+
+    public long getFills() {
+        return fills.sum();
+    }
+
+    public long getCancels() {
+        return cancels.sum();
+    }
+
+    public long getRejects() {
+        return rejects.sum();
+    }
+
+    public long getBuyLevels() {
+        return buyLevels;
+    }
+
+    public long getSellLevels() {
+        return sellLevels;
+    }
+
+    public long getRestingBuyNotional() {
+        return restingBuyNotional;
+    }
+
+    public long getRestingSellNotional() {
+        return restingSellNotional;
+    }
+
+    /**
+     * Clears the counters. The gauges stay, as they follow the book.
+     */
+    public void reset() {
+        orders.reset();
+        fills.reset();
+        cancels.reset();
+        rejects.reset();
+    }
+
+}
@@ -11,8 +11,14 @@ import java.util.Objects;
 
 /**
  * This class represents a Buy or Sell Order.
+ * <p>An <i>iceberg</i> {@code Order} shows only a peak of its quantity in the
+ * data-base, and keeps the rest of it as a hidden reserve. Each time its
+ * shown quantity is performed, it is {@link #replenish()}ed from the reserve,
+ * and loses its time priority.</p>
+ * <p>An {@code Order} of an expiring {@link TimeInForce} is removed from the
+ * data-base when it expires, by the {@link engine.MatchingEngine}.</p>
  *
- * @version 1.0
+ * @version 1.3
  */
 @XmlRootElement(name = "rse-order") @XmlAccessorType(XmlAccessType.FIELD)
 public class Order implements Comparable<Order>, Periodable {
@@ -23,14 +29,48 @@ public class Order implements Comparable<Order>, Periodable {
     private String timeStamp;
     private OrderDirection orderDirection;
     private OrderType orderType;
+
+    /**
+     * The shown quantity. of an iceberg {@code Order}, it is at most the
+     * {@link #peakQuantity}.
+     */
     private long quantity;
 
+    /**
+     * The quantity shown by each refresh of an iceberg {@code Order}, or
+     * {@code 0} if this is not an iceberg {@code Order}.
+     */
+    private long peakQuantity;
+
+    /**
+     * The reserve of an iceberg {@code Order}, that is not shown yet.
+     */
+    private long hiddenQuantity;
+
     /**
      * Initialized only if the {@link #orderType} is not {@link OrderType#LMT},
      * else initialized to {@code 0}.
      */
     private long desiredLimitPrice;
 
+    /**
+     * Initialized only if the {@link #orderType} is {@link OrderType#STP} or
+     * {@link OrderType#STL}, else initialized to {@code 0}.
+     * <p>The {@link stock.Stock}'s {@code price} that triggers this {@code
+     * Order}.</p>
+     */
+    private long stopPrice;
+
+    private TimeInForce timeInForce = TimeInForce.GTC;
+
+    /**
+     * Initialized only if the {@link #timeInForce} is {@link
+     * TimeInForce#GTD}, else {@code null}.
+     * <p>The timeStamp of the day the {@code Order} was placed on, that it
+     * expires at.</p>
+     */
+    private String expireTimeStamp;
+
     public Order(OrderDirection direction, OrderType type, long quantity,
                  long desiredLimitPrice) {
         timeStamp = TimeStamp.getTimeStamp();
@@ -40,6 +80,47 @@ public class Order implements Comparable<Order>, Periodable {
         this.desiredLimitPrice = desiredLimitPrice;
     }
 
+    public Order(OrderDirection direction, OrderType type, long quantity,
+                 long desiredLimitPrice, long stopPrice) {
+        this(direction, type, quantity, desiredLimitPrice);
+        this.stopPrice = stopPrice;
+    }
+
+    /**
+     * Constructor of an iceberg {@code Order}.
+     *
+     * @param quantity     the total quantity.
+     * @param peakQuantity the quantity to show at a time. if it is not less
+     *                     than the {@code quantity}, the {@code Order} is
+     *                     shown in its entirety.
+     */
+    public Order(OrderDirection direction, OrderType type, long quantity,
+                 long desiredLimitPrice, long stopPrice, long peakQuantity) {
+        this(direction, type, quantity, desiredLimitPrice, stopPrice);
+        if ((peakQuantity > 0) && (peakQuantity < quantity)) {
+            this.peakQuantity = peakQuantity;
+            this.quantity = peakQuantity;
+            this.hiddenQuantity = quantity - peakQuantity;
+        }
+    }
+
+    /**
+     * Copy Constructor: the copy keeps the {@code timeStamp} of the given
+     * {@code Order}, and is independent of its later changes.
+     */
+    public Order(Order order) {
+        this.timeStamp = order.timeStamp;
+        this.orderDirection = order.orderDirection;
+        this.orderType = order.orderType;
+        this.quantity = order.quantity;
+        this.peakQuantity = order.peakQuantity;
+        this.hiddenQuantity = order.hiddenQuantity;
+        this.desiredLimitPrice = order.desiredLimitPrice;
+        this.stopPrice = order.stopPrice;
+        this.timeInForce = order.timeInForce;
+        this.expireTimeStamp = order.expireTimeStamp;
+    }
+
     /**
      * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
      * load and save.
@@ -62,6 +143,57 @@ public class Order implements Comparable<Order>, Periodable {
         this.quantity = quantity;
     }
 
+    public long getPeakQuantity() {
+        return peakQuantity;
+    }
+
+    public void setPeakQuantity(long peakQuantity) {
+        this.peakQuantity = peakQuantity;
+    }
+
+    public long getHiddenQuantity() {
+        return hiddenQuantity;
+    }
+
+    public void setHiddenQuantity(long hiddenQuantity) {
+        this.hiddenQuantity = hiddenQuantity;
+    }
+
+    /**
+     * @return the shown {@link #quantity} and the {@link #hiddenQuantity}.
+     */
+    public long getTotalQuantity() {
+        return quantity + hiddenQuantity;
+    }
+
+    /**
+     * @return {@code true} if this is an iceberg {@code Order}.
+     */
+    public boolean isIceberg() {
+        return peakQuantity > 0;
+    }
+
+    /**
+     * Shows the next peak of an iceberg {@code Order}, whose shown {@link
+     * #quantity} was performed: the {@link #quantity} is taken from the
+     * {@link #hiddenQuantity}, and the {@link #timeStamp} is renewed, so the
+     * {@code Order} loses its time priority.
+     * <p>Must be called while the {@code Order} is out of the data-base, as
+     * its sorted position changes.</p>
+     *
+     * @return {@code true} if the {@code Order} was replenished, or {@code
+     * false} if there is no reserve left.
+     */
+    public boolean replenish() {
+        if (hiddenQuantity <= 0) {
+            return false;
+        }
+        quantity = Math.min(peakQuantity, hiddenQuantity);
+        hiddenQuantity -= quantity;
+        timeStamp = TimeStamp.getTimeStamp();
+        return true;
+    }
+
     public OrderDirection getOrderDirection() {
         return orderDirection;
     }
@@ -86,27 +218,74 @@ public class Order implements Comparable<Order>, Periodable {
         this.desiredLimitPrice = desiredLimitPrice;
     }
 
+    public long getStopPrice() {
+        return stopPrice;
+    }
+
+    public void setStopPrice(long stopPrice) {
+        this.stopPrice = stopPrice;
+    }
+
+    public TimeInForce getTimeInForce() {
+        return timeInForce;
+    }
+
+    public void setTimeInForce(TimeInForce timeInForce) {
+        this.timeInForce = timeInForce;
+    }
+
+    public String getExpireTimeStamp() {
+        return expireTimeStamp;
+    }
+
+    public void setExpireTimeStamp(String expireTimeStamp) {
+        this.expireTimeStamp = expireTimeStamp;
+    }
+
+    /**
+     * @return {@code true} if this {@code Order} expires, by its {@link
+     * #timeInForce}.
+     */
+    public boolean isExpiring() {
+        return (timeInForce != null) && timeInForce.isExpiring();
+    }
+
     @Override public boolean equals(Object o) {
         if (this == o) { return true; }
         if (o == null || getClass() != o.getClass()) { return false; }
         Order order = (Order) o;
         return quantity == order.quantity &&
+                peakQuantity == order.peakQuantity &&
+                hiddenQuantity == order.hiddenQuantity &&
                 desiredLimitPrice == order.desiredLimitPrice &&
+                stopPrice == order.stopPrice &&
                 Objects.equals(timeStamp, order.timeStamp) &&
+                Objects.equals(expireTimeStamp, order.expireTimeStamp) &&
+                timeInForce == order.timeInForce &&
                 orderDirection == order.orderDirection &&
                 orderType == order.orderType;
     }
 
     @Override public int hashCode() {
         return Objects.hash(timeStamp, orderDirection, orderType, quantity,
-                desiredLimitPrice);
+                peakQuantity, hiddenQuantity, desiredLimitPrice, stopPrice,
+                timeInForce, expireTimeStamp);
     }
 
     @Override public String toString() {
         return "Order{" + "timeStamp='" + timeStamp + '\'' +
                 ", orderDirection=" + orderDirection + ", orderType=" +
-                orderType + ", quantity=" + quantity + ", desiredLimitPrice=" +
+                orderType + ", quantity=" + quantity +
+                (isIceberg() ? (", peakQuantity=" + peakQuantity +
+                        ", hiddenQuantity=" + hiddenQuantity) : "") +
+                ", desiredLimitPrice=" +
                 Currency.numberFormat.format(desiredLimitPrice) +
+                (orderType.isStop() ? (", stopPrice=" +
+                        Currency.numberFormat.format(stopPrice)) : "") +
+                (isExpiring() ? (", timeInForce=" + timeInForce +
+                        ((expireTimeStamp != null) ?
+                                (", expireTimeStamp='" + expireTimeStamp +
+                                        '\'') : "")) : "") +
                 ", orderPeriod=" + Currency.numberFormat.format(getPeriod()) +
                 '}';
     }
@@ -159,14 +338,14 @@ public class Order implements Comparable<Order>, Periodable {
 
     /**
      * The total <i>price worth</i> of this {@code Order} is: the
-     * <tt>{@link #quantity}</tt> of the {@link stock.Stock}s times the
-     * {@link #desiredLimitPrice} of each {@link stock.Stock} in the {@code
+     * <tt>{@link #getTotalQuantity()}</tt> of the {@link stock.Stock}s times
+     * the {@link #desiredLimitPrice} of each {@link stock.Stock} in the {@code
      * Order}.
      *
      * @return {@code Order-Worth} desiredLimitPrice = <tt>Period</tt>.
      */
     @Override public long getPeriod() {
-        return quantity * desiredLimitPrice;
+        return getTotalQuantity() * desiredLimitPrice;
     }
 
 }
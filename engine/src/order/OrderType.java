@@ -5,7 +5,7 @@ package order;
  * <p> Each type has the {@link #isLMT()} method to check if a
  * desiredLimitPrice limit is required for an order.</p>
  *
- * @version 1.0
+ * @version 1.2
  */
 public enum OrderType {
     LMT {
@@ -16,15 +16,52 @@ public enum OrderType {
         @Deprecated @Override public boolean isLMT() {
             return false;
         }
-    }, FOX {
+    },
+
+    /**
+     * <i>Fill-Or-Kill</i> Order: is performed in its entirety at once, at its
+     * {@code desiredLimitPrice} or better, or else is cancelled. it is never
+     * placed in the data-base.
+     */
+    FOK {
         @Deprecated @Override public boolean isLMT() {
-            return false;
+            return true;
         }
     }, IOC {
         @Deprecated @Override public boolean isLMT() {
             return false;
         }
+    },
+
+    /**
+     * <i>Stop</i> Order: waits outside the data-base until the {@link
+     * stock.Stock}'s {@code price} reaches its {@code stopPrice}, and then
+     * becomes a {@link #MKT} Order.
+     */
+    STP {
+        @Deprecated @Override public boolean isLMT() {
+            return false;
+        }
+    },
+
+    /**
+     * <i>Stop-Limit</i> Order: waits outside the data-base until the {@link
+     * stock.Stock}'s {@code price} reaches its {@code stopPrice}, and then
+     * becomes a {@link #LMT} Order.
+     */
+    STL {
+        @Deprecated @Override public boolean isLMT() {
+            return true;
+        }
     };
 
+    /**
+     * @return {@code true} if this is a {@link #STP} or a {@link #STL} Order
+     * type.
+     */
+    public boolean isStop() {
+        return (this == STP) || (this == STL);
+    }
+
     public abstract boolean isLMT();
 }
@@ -1,7 +1,7 @@
 package order;
 
 import engine.collection.EngineCollection;
-import engine.collection.list.SortableLinkedList;
+import order.book.OrderBook;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -15,27 +15,27 @@ import javax.xml.bind.annotation.XmlRootElement;
  * annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
  * </p>
  *
- * @version 1.0
+ * @version 1.1
  */
 @XmlAccessorType(XmlAccessType.FIELD) @XmlRootElement(name = "rse-sell-orders")
 public class SellOrders
-        extends EngineCollection<SortableLinkedList<Order>, Order> {
+        extends EngineCollection<OrderBook, Order> {
 
     /**
      * <b><i>important:</i></b>
      * The <i>default</i> {@code Constructor} is <i>initializing</i> the {@link
-     * SortableLinkedList}.
+     * OrderBook}.
      */
     public SellOrders() {
-        setCollection(new SortableLinkedList<>());
+        setCollection(new OrderBook());
     }
 
-    @Override public SortableLinkedList<Order> getCollection() {
+    @Override public OrderBook getCollection() {
         return super.getCollection();
     }
 
     @XmlElement(name = "rse-sell-order")
-    public void setCollection(SortableLinkedList<Order> collection) {
+    public void setCollection(OrderBook collection) {
         super.setCollection(collection);
     }
 
@@ -0,0 +1,39 @@
+package order;
+
+/**
+ * This class pairs an {@link Order} with the {@code Symbol} of the {@link
+ * stock.Stock} it was placed on.
+ * <p>Used to submit a batch of {@link Order}s of several {@link
+ * stock.Stock}s at once.</p>
+ *
+ * @version 1.0
+ * @see engine.Engine#executeOrdersBatch(java.util.List)
+ */
+public class StockOrder {
+
+    /**
+     * The {@code Symbol} of the {@link stock.Stock}: case in-sensitive.
+     */
+    private final String symbol;
+
+    private final Order order;
+
+    public StockOrder(String symbol, Order order) {
+        this.symbol = symbol;
+        this.order = order;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    @Override public String toString() {
+        return "StockOrder{" + "symbol='" + symbol + '\'' + ", order=" +
+                order + '}';
+    }
+
+}
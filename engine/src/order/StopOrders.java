@@ -0,0 +1,199 @@
+package order;
+
+import engine.collection.EngineCollection;
+import engine.collection.list.SortableLinkedList;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * {@link OrderType#STP} and {@link OrderType#STL} {@link Order}s {@code
+ * Collection}, that wait outside the data-base's awaiting orders. wrapped in a
+ * special class. Has a {@code Collection} field of all the {@link Order}s
+ * together.
+ * <p>
+ * annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
+ * </p>
+ * <p>
+ * Besides the {@code Collection}, each side has a <i>trigger index</i>: the
+ * {@link Order}s sorted by their {@code stopPrice} (and by arrival, in each
+ * {@code stopPrice}). Thus, a new {@link stock.Stock}'s {@code price} checks
+ * only the range of triggered {@link Order}s, instead of all of them.
+ * </p>
+ * <p>
+ * Once built, the trigger indexes are the source of truth: a trigger removes
+ * its {@link Order}s from them only, and the {@code Collection} is built
+ * again from them when it is next asked for (e.g. to marshal it).
+ * </p>
+ * <ul>
+ *     <li>A 'Buy' {@link Order} is triggered when the {@code price} rises to
+ *     its {@code stopPrice} or above.</li>
+ *     <li>A 'Sell' {@link Order} is triggered when the {@code price} drops to
+ *     its {@code stopPrice} or below.</li>
+ * </ul>
+ *
+ * @version 1.1
+ */
+@XmlAccessorType(XmlAccessType.FIELD) @XmlRootElement(name = "rse-stop-orders")
+public class StopOrders
+        extends EngineCollection<SortableLinkedList<Order>, Order> {
+
+    /**
+     * 'Buy' trigger index. Key = {@code stopPrice}.
+     * <p>Built lazily from the {@code Collection}.</p>
+     */
+    @XmlTransient private TreeMap<Long, LinkedList<Order>> buyIndex = null;
+
+    /**
+     * 'Sell' trigger index. Key = {@code stopPrice}.
+     * <p>Built lazily from the {@code Collection}.</p>
+     */
+    @XmlTransient private TreeMap<Long, LinkedList<Order>> sellIndex = null;
+
+    /**
+     * {@code true} if {@link Order}s were removed from the trigger indexes
+     * since the {@code Collection} was last built from them.
+     */
+    @XmlTransient private boolean isCollectionStale = false;
+
+    /**
+     * <b><i>important:</i></b>
+     * The <i>default</i> {@code Constructor} is <i>initializing</i> the {@link
+     * SortableLinkedList}.
+     */
+    public StopOrders() {
+        setCollection(new SortableLinkedList<>());
+    }
+
+    /**
+     * Copy Constructor: the copies of the given {@link Order}s, as their
+     * quantities change. The given trigger indexes are kept.
+     */
+    public StopOrders(StopOrders stopOrders) {
+        this();
+        for (Order i : stopOrders.getOrders()) {
+            add(new Order(i));
+        }
+    }
+
+    /**
+     * The trigger indexes are built again on their next use, as the returned
+     * {@code Collection} may be changed by its caller.
+     *
+     * @return all the {@link Order}s.
+     */
+    @Override public SortableLinkedList<Order> getCollection() {
+        SortableLinkedList<Order> collection = getOrders();
+        buyIndex = null;
+        sellIndex = null;
+        return collection;
+    }
+
+    /**
+     * @return all the {@link Order}s, built again from the trigger indexes
+     * if needed. must not be changed.
+     */
+    private SortableLinkedList<Order> getOrders() {
+        if (isCollectionStale) {
+            SortableLinkedList<Order> collection = new SortableLinkedList<>();
+            for (LinkedList<Order> i : buyIndex.values()) {
+                collection.addAll(i);
+            }
+            for (LinkedList<Order> i : sellIndex.descendingMap().values()) {
+                collection.addAll(i);
+            }
+            super.setCollection(collection);
+            isCollectionStale = false;
+        }
+        return super.getCollection();
+    }
+
+    @XmlElement(name = "rse-stop-order")
+    public void setCollection(SortableLinkedList<Order> collection) {
+        super.setCollection(collection);
+
+        // the trigger indexes are rebuilt on their next use:
+        buyIndex = null;
+        sellIndex = null;
+        isCollectionStale = false;
+    }
+
+    /**
+     * @param order a {@link OrderType#STP} or a {@link OrderType#STL} {@link
+     *              Order} to wait for its {@code stopPrice}.
+     */
+    public void add(Order order) {
+        buildIndexes();
+        addToIndex(order);
+        if (!isCollectionStale) {
+            super.getCollection().add(order);
+        }
+    }
+
+    /**
+     * Removes all the 'Buy' {@link Order}s with a {@code stopPrice} lower
+     * than or equal to the given {@code highestPrice}, and all the 'Sell'
+     * {@link Order}s with a {@code stopPrice} higher than or equal to the
+     * given {@code lowestPrice}.
+     *
+     * @param lowestPrice  the lowest {@code price} the {@link stock.Stock}
+     *                     reached.
+     * @param highestPrice the highest {@code price} the {@link stock.Stock}
+     *                     reached.
+     * @return the triggered {@link Order}s, in a deterministic order: first
+     * the 'Buy' {@link Order}s by ascending {@code stopPrice}, then the 'Sell'
+     * {@link Order}s by descending {@code stopPrice}. {@link Order}s with the
+     * same {@code stopPrice} are by arrival order.
+     */
+    public List<Order> removeTriggered(long lowestPrice, long highestPrice) {
+        buildIndexes();
+        List<Order> triggered = new ArrayList<>();
+        removeRange(buyIndex.headMap(highestPrice, true), triggered);
+        removeRange(sellIndex.tailMap(lowestPrice, true).descendingMap(),
+                triggered);
+
+        // the Collection is built again from the indexes when it is needed:
+        if (!triggered.isEmpty()) {
+            isCollectionStale = true;
+        }
+        return triggered;
+    }
+
+    private void removeRange(NavigableMap<Long, LinkedList<Order>> range,
+                             List<Order> triggered) {
+        for (Iterator<Map.Entry<Long, LinkedList<Order>>> it =
+             range.entrySet().iterator(); it.hasNext(); ) {
+            triggered.addAll(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private void buildIndexes() {
+        if (buyIndex == null || sellIndex == null) {
+            buyIndex = new TreeMap<>();
+            sellIndex = new TreeMap<>();
+            for (Order i : super.getCollection()) {
+                addToIndex(i);
+            }
+        }
+    }
+
+    private void addToIndex(Order order) {
+        TreeMap<Long, LinkedList<Order>> index =
+                (order.getOrderDirection() == OrderDirection.BUY) ? buyIndex :
+                        sellIndex;
+        index.computeIfAbsent(order.getStopPrice(), k -> new LinkedList<>())
+                .add(order);
+    }
+
+}
@@ -0,0 +1,33 @@
+package order;
+
+/**
+ * Indicates how long an {@link Order} may wait in the data-base of its {@link
+ * stock.Stock}.
+ *
+ * @version 1.0
+ */
+public enum TimeInForce {
+
+    /**
+     * <i>Good-Till-Cancelled</i>: waits until it is performed. the default.
+     */
+    GTC,
+
+    /**
+     * Waits until the end of the session of the day it was placed on.
+     */
+    DAY,
+
+    /**
+     * <i>Good-Till-Date</i>: waits until its {@code expireTimeStamp}, of the
+     * day it was placed on.
+     */
+    GTD;
+
+    /**
+     * @return {@code true} if an {@link Order} of this time-in-force expires.
+     */
+    public boolean isExpiring() {
+        return this != GTC;
+    }
+}
@@ -0,0 +1,247 @@
+package order.book;
+
+import engine.collection.AddTabsCollection;
+import engine.collection.list.SortableArrayList;
+import engine.collection.list.SortableLinkedList;
+import engine.collection.list.SortableList;
+import order.Order;
+import order.OrderDirection;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * <b>A side of the book of a {@link stock.Stock}: its awaiting {@link Order}s
+ * of a single {@link OrderDirection}, sorted by price/time priority.</b>
+ * <p>The {@link Order}s are kept by one of the implementations of {@link
+ * Kind}. {@link #adapt(OrderDirection, long)} chooses it by the observed depth
+ * and price spread of the book:</p>
+ * <ul>
+ *     <li>A few {@link Order}s are kept in a sorted array.</li>
+ *     <li>Many {@link Order}s, within a narrow price spread, are kept in a
+ *     {@link TickArrayBook} of a window that covers the spread.</li>
+ *     <li>Many {@link Order}s, over a wide price spread, are kept in a tree
+ *     of price levels.</li>
+ * </ul>
+ * <p>The implementation is replaced online, and the {@link Order}s keep their
+ * order. Thus, it is invisible to the matching and to the <tt>.xml</tt>
+ * persistence, that see a {@link java.util.List} of {@link Order}s.</p>
+ *
+ * @version 1.1
+ * @see order.BuyOrders
+ * @see order.SellOrders
+ */
+public class OrderBook extends AbstractSequentialList<Order>
+        implements SortableList<Order>, AddTabsCollection<Order> {
+
+    /**
+     * A book of at most this number of {@link Order}s is kept in a sorted
+     * array. It is moved out of the array only above this number, and back
+     * only below half of it, so a book on the edge does not migrate back and
+     * forth.
+     */
+    private static final int SMALL_BOOK = 64;
+
+    /**
+     * The number of {@link #adapt(OrderDirection, long)} calls between the
+     * checks of the price spread of a large book.
+     */
+    private static final int ADAPT_INTERVAL = 256;
+
+    /**
+     * The bounds of the window of a {@link TickArrayBook}, in ticks. A wider
+     * spread is kept in a tree of levels.
+     */
+    private static final int MIN_TICK_WINDOW = 64;
+    private static final int MAX_TICK_WINDOW = 1 << 14;
+
+    private SortableList<Order> orders = new SortableLinkedList<>();
+
+    private Kind kind = Kind.LINKED_LIST;
+
+    /**
+     * The number of {@link #adapt(OrderDirection, long)} calls since the
+     * price spread was last checked.
+     */
+    private int adaptsSinceCheck = 0;
+
+    /**
+     * Default Constructor: an empty book, of a {@link SortableLinkedList}.
+     */
+    public OrderBook() {}
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Chooses the implementation by the depth and the price spread of the
+     * book, and migrates the {@link Order}s to it if needed. Must not be
+     * called while the book is iterated.
+     * <p>The depth is checked on each call, and the price spread of a large
+     * book once in {@link #ADAPT_INTERVAL} calls.</p>
+     *
+     * @param direction      the side of the book.
+     * @param referencePrice the price to center a {@link TickArrayBook}'s
+     *                       window around.
+     */
+    public void adapt(OrderDirection direction, long referencePrice) {
+        int size = orders.size();
+        if (size <= ((kind == Kind.SORTED_ARRAY) ?
+                SMALL_BOOK : SMALL_BOOK / 2)) {
+            if (kind != Kind.SORTED_ARRAY) {
+                migrate(Kind.SORTED_ARRAY, new SortableArrayList<>(orders));
+            }
+            return;
+        }
+
+        // a large book that was just small is checked at once:
+        boolean isLarge = (kind == Kind.TREE_MAP) ||
+                (kind == Kind.TICK_ARRAY);
+        if (isLarge && (++adaptsSinceCheck < ADAPT_INTERVAL)) {
+            if (kind == Kind.TICK_ARRAY) {
+                ((TickArrayBook) orders).slide(referencePrice);
+            }
+            return;
+        }
+        adaptsSinceCheck = 0;
+
+        long spread = Math.abs(orders.get(size - 1).getDesiredLimitPrice() -
+                orders.get(0).getDesiredLimitPrice());
+        if (spread < MAX_TICK_WINDOW / 2) {
+
+            // a window of at least twice the spread:
+            int ticks = Math.max(MIN_TICK_WINDOW,
+                    Integer.highestOneBit((int) spread) << 2);
+            int currentTicks = (kind == Kind.TICK_ARRAY) ?
+                    ((TickArrayBook) orders).getTicks() : 0;
+            if ((currentTicks < ticks) || (currentTicks > 4 * ticks)) {
+                useTickArray(direction, referencePrice, ticks);
+            } else {
+                ((TickArrayBook) orders).slide(referencePrice);
+            }
+        } else if (kind != Kind.TREE_MAP) {
+            migrate(Kind.TREE_MAP,
+                    toTickArrayBook(direction, referencePrice, 0));
+        }
+    }
+
+    /**
+     * Keeps the {@link Order}s by a {@link TickArrayBook} of the given number
+     * of ticks: migrates them if they are kept otherwise, or else slides the
+     * window toward the given reference price.
+     *
+     * @param direction      the side of the book.
+     * @param referencePrice the price to center the window around.
+     * @param ticks          the number of prices in the window.
+     */
+    public void useTickArray(OrderDirection direction, long referencePrice,
+                             int ticks) {
+        if ((kind == Kind.TICK_ARRAY) &&
+                (((TickArrayBook) orders).getTicks() == ticks)) {
+            ((TickArrayBook) orders).slide(referencePrice);
+            return;
+        }
+        migrate(Kind.TICK_ARRAY,
+                toTickArrayBook(direction, referencePrice, ticks));
+    }
+
+    private TickArrayBook toTickArrayBook(OrderDirection direction,
+                                          long referencePrice, int ticks) {
+        TickArrayBook tickArray =
+                new TickArrayBook(direction, referencePrice, ticks);
+        for (Order i : orders) {
+            tickArray.append(i);
+        }
+        return tickArray;
+    }
+
+    private void migrate(Kind kind, SortableList<Order> orders) {
+        this.kind = kind;
+        this.orders = orders;
+        adaptsSinceCheck = 0;
+    }
+
+    @Override public boolean add(Order order) {
+        return orders.add(order);
+    }
+
+    @Override public boolean contains(Object o) {
+        return orders.contains(o);
+    }
+
+    @Override public boolean remove(Object o) {
+        return orders.remove(o);
+    }
+
+    @Override public Order get(int index) {
+        return orders.get(index);
+    }
+
+    @Override public void clear() {
+        orders.clear();
+    }
+
+    @Override public int size() {
+        return orders.size();
+    }
+
+    @Override public Iterator<Order> iterator() {
+        return orders.iterator();
+    }
+
+    @Override public ListIterator<Order> listIterator(int index) {
+        return orders.listIterator(index);
+    }
+
+    @Override public void sort(Comparator<? super Order> c) {
+        orders.sort(c);
+    }
+
+    @Override public boolean sortedAddAll(Collection<? extends Order> c) {
+        return orders.sortedAddAll(c);
+    }
+
+    @Override public boolean sortedAdd(Order order) {
+        return orders.sortedAdd(order);
+    }
+
+    @Override public boolean sortedInsert(Order order) {
+        return orders.sortedInsert(order);
+    }
+
+    @Override public String toString(String addTabs) {
+        return ((AddTabsCollection<?>) orders).toString(addTabs);
+    }
+
+    /**
+     * The implementations of a book.
+     */
+    public enum Kind {
+
+        /**
+         * A {@link SortableLinkedList}: a book as it was loaded, before it
+         * was adapted.
+         */
+        LINKED_LIST,
+
+        /**
+         * A {@link SortableArrayList}, for a few {@link Order}s.
+         */
+        SORTED_ARRAY,
+
+        /**
+         * A {@link TickArrayBook} of {@code 0} ticks: a tree of price levels.
+         */
+        TREE_MAP,
+
+        /**
+         * A {@link TickArrayBook}.
+         */
+        TICK_ARRAY
+    }
+
+}
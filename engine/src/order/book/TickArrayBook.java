@@ -0,0 +1,695 @@
+package order.book;
+
+import engine.collection.AddTabsCollection;
+import engine.collection.list.SortableList;
+import order.Order;
+import order.OrderDirection;
+
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * <b>A side of a book, whose price levels are a directly indexed array over a
+ * sliding window of ticks around a reference price.</b>
+ * <p>
+ * Each price in the window [{@link #low}, {@link #low} + {@link #ticks}) has
+ * a slot in {@link #levels}, and a bit in the {@link #occupied} bitmap. The
+ * best occupied slot is kept up to date, so the best price and the access to
+ * a level by its price are O(1). A price outside the window falls back to a
+ * level in the {@link #outside} tree.
+ * </p>
+ * <p>
+ * {@link #slide(long)} moves the window toward a new reference price (the
+ * {@link stock.Stock}'s {@code price}). the levels are moved by reference, so
+ * a slide costs O(occupied levels), not O(orders).
+ * </p>
+ * <p>
+ * With {@code 0} ticks, there is no window, and all the levels are in the
+ * tree: a tree-based book, for prices that are spread too wide for an array.
+ * </p>
+ *
+ * <blockquote>The {@link Order}s are iterated as a sorted {@link
+ * engine.collection.list.SortableLinkedList} of the same side: by price
+ * priority, and then in the order of {@link Order#compareTo(Order)} within
+ * each level. Thus, {@link #add(Order)} always inserts an {@link Order} into
+ * its sorted position. an iterator may only {@link ListIterator#set(Object)}
+ * or {@link ListIterator#add(Object)} an {@link Order} that keeps the price
+ * priority, and {@link #sort(Comparator)} sorts within the levels.</blockquote>
+ *
+ * @version 1.2
+ * @see OrderBook
+ */
+public class TickArrayBook extends AbstractSequentialList<Order>
+        implements SortableList<Order>, AddTabsCollection<Order> {
+
+    /**
+     * {@code true} for the 'Buy' side: the highest price is the best.
+     */
+    private final boolean isBuy;
+
+    /**
+     * The number of prices in the window.
+     */
+    private final int ticks;
+
+    /**
+     * The lowest price of the window.
+     */
+    private long low;
+
+    /**
+     * The level of each price in the window, or {@code null} if it is empty.
+     * each level is sorted by {@link Order#compareTo(Order)}.
+     */
+    private final LinkedList<Order>[] levels;
+
+    /**
+     * A bit of each slot of {@link #levels}, set if its level is not empty.
+     */
+    private final long[] occupied;
+
+    /**
+     * The slot of the best level in the window, or {@code -1} if the window
+     * is empty.
+     */
+    private int best = -1;
+
+    /**
+     * The levels of the prices outside the window, by price.
+     */
+    private final TreeMap<Long, LinkedList<Order>> outside = new TreeMap<>();
+
+    private int size = 0;
+
+    /**
+     * @param direction      the side of the book.
+     * @param referencePrice the price to center the window around.
+     * @param ticks          the number of prices in the window, or {@code 0}
+     *                       for a tree of levels only.
+     */
+    public TickArrayBook(OrderDirection direction, long referencePrice,
+                         int ticks) {
+        this.isBuy = direction == OrderDirection.BUY;
+        this.ticks = ticks;
+        levels = newLevels(ticks);
+        occupied = new long[(ticks + 63) >>> 6];
+        low = toLow(referencePrice);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static LinkedList<Order>[] newLevels(int ticks) {
+        return (LinkedList<Order>[]) new LinkedList[ticks];
+    }
+
+    private long toLow(long referencePrice) {
+        return Math.max(0, referencePrice - ticks / 2);
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Moves the window to be centered around the given reference price, if it
+     * drifted away by more than a quarter of the window.
+     *
+     * @param referencePrice the price to center the window around.
+     */
+    public void slide(long referencePrice) {
+        long newLow = toLow(referencePrice);
+        if ((ticks == 0) || (Math.abs(newLow - low) <= ticks / 4)) {
+            return;
+        }
+
+        // move the levels of the window out to the tree:
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            outside.put(low + i, levels[i]);
+            levels[i] = null;
+        }
+        Arrays.fill(occupied, 0);
+        best = -1;
+        low = newLow;
+
+        // move the levels of the new window in from the tree:
+        Iterator<Map.Entry<Long, LinkedList<Order>>> it =
+                outside.subMap(low, low + ticks).entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, LinkedList<Order>> entry = it.next();
+            putLevel((int) (entry.getKey() - low), entry.getValue());
+            it.remove();
+        }
+        ++modCount;
+    }
+
+    /**
+     * @return the slot of the given price in the window, or {@code -1} if it
+     * is outside the window.
+     */
+    private int toSlot(long price) {
+        long slot = price - low;
+        return ((slot >= 0) && (slot < ticks)) ? (int) slot : -1;
+    }
+
+    private LinkedList<Order> getLevel(long price) {
+        int slot = toSlot(price);
+        return (slot >= 0) ? levels[slot] : outside.get(price);
+    }
+
+    private LinkedList<Order> getOrCreateLevel(long price) {
+        int slot = toSlot(price);
+        if (slot < 0) {
+            return outside.computeIfAbsent(price, k -> new LinkedList<>());
+        }
+        LinkedList<Order> level = levels[slot];
+        if (level == null) {
+            level = new LinkedList<>();
+            putLevel(slot, level);
+        }
+        return level;
+    }
+
+    private void putLevel(int slot, LinkedList<Order> level) {
+        levels[slot] = level;
+        occupied[slot >>> 6] |= 1L << slot;
+        if ((best < 0) || (isBuy ? (slot > best) : (slot < best))) {
+            best = slot;
+        }
+    }
+
+    private void removeLevel(long price) {
+        int slot = toSlot(price);
+        if (slot >= 0) {
+            removeLevel(slot);
+        } else {
+            outside.remove(price);
+        }
+    }
+
+    private void removeLevel(int slot) {
+        levels[slot] = null;
+        occupied[slot >>> 6] &= ~(1L << slot);
+        if (slot == best) {
+            best = nextOccupied(slot);
+        }
+    }
+
+    /**
+     * @return the next occupied slot after the given slot, by price priority,
+     * or {@code -1} if there is none.
+     */
+    private int nextOccupied(int slot) {
+        return isBuy ? previousSetBit(slot - 1) : nextSetBit(slot + 1);
+    }
+
+    /**
+     * @return the lowest occupied slot from the given slot, or {@code -1}.
+     */
+    private int nextSetBit(int from) {
+        if (from >= ticks) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @return the highest occupied slot up to the given slot, or {@code -1}.
+     */
+    private int previousSetBit(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L >>> (63 - (from & 63)));
+        while (bits == 0) {
+            if (word-- == 0) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    /**
+     * @return the levels outside the window that come before the window, by
+     * price priority.
+     */
+    private NavigableMap<Long, LinkedList<Order>> getLevelsBefore() {
+        return isBuy ? outside.tailMap(low + ticks, true).descendingMap() :
+                outside.headMap(low, false);
+    }
+
+    /**
+     * @return the levels outside the window that come after the window, by
+     * price priority.
+     */
+    private NavigableMap<Long, LinkedList<Order>> getLevelsAfter() {
+        return isBuy ? outside.headMap(low, false).descendingMap() :
+                outside.tailMap(low + ticks, true);
+    }
+
+    /**
+     * @return the lowest occupied price above the given price, or {@link
+     * Long#MAX_VALUE} if there is none.
+     */
+    private long higherPrice(long price) {
+        long higher = Long.MAX_VALUE;
+        if (!outside.isEmpty()) {
+            Long key = outside.higherKey(price);
+            if (key != null) {
+                higher = key;
+            }
+        }
+        if (price < low + ticks - 1) {
+            int slot = nextSetBit((price < low) ? 0 : (int) (price - low + 1));
+            if ((slot >= 0) && (low + slot < higher)) {
+                higher = low + slot;
+            }
+        }
+        return higher;
+    }
+
+    /**
+     * @return the highest occupied price below the given price, or {@link
+     * Long#MIN_VALUE} if there is none.
+     */
+    private long lowerPrice(long price) {
+        long lower = Long.MIN_VALUE;
+        if (!outside.isEmpty()) {
+            Long key = outside.lowerKey(price);
+            if (key != null) {
+                lower = key;
+            }
+        }
+        if (price > low) {
+            int slot = previousSetBit((price >= low + ticks) ? ticks - 1 :
+                    (int) (price - low - 1));
+            if ((slot >= 0) && (low + slot > lower)) {
+                lower = low + slot;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * @return the occupied price that comes after the given price, by price
+     * priority.
+     */
+    private long worsePrice(long price) {
+        return isBuy ? lowerPrice(price) : higherPrice(price);
+    }
+
+    /**
+     * @return the occupied price that comes before the given price, by price
+     * priority.
+     */
+    private long betterPrice(long price) {
+        return isBuy ? higherPrice(price) : lowerPrice(price);
+    }
+
+    private long bestPrice() {
+        return isBuy ? lowerPrice(Long.MAX_VALUE) :
+                higherPrice(Long.MIN_VALUE);
+    }
+
+    private long worstPrice() {
+        return isBuy ? higherPrice(Long.MIN_VALUE) :
+                lowerPrice(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return {@code true} if the given price comes after the other price,
+     * by price priority.
+     */
+    private boolean isWorse(long price, long otherPrice) {
+        return isBuy ? (price < otherPrice) : (price > otherPrice);
+    }
+
+    /**
+     * @return the best level, or {@code null} if the book is empty.
+     */
+    private LinkedList<Order> getBestLevel() {
+        if (!outside.isEmpty()) {
+            Map.Entry<Long, LinkedList<Order>> entry =
+                    getLevelsBefore().firstEntry();
+            if (entry != null) {
+                return entry.getValue();
+            }
+        }
+        if (best >= 0) {
+            return levels[best];
+        }
+        Map.Entry<Long, LinkedList<Order>> entry =
+                getLevelsAfter().firstEntry();
+        return (entry != null) ? entry.getValue() : null;
+    }
+
+    /**
+     * @return the worst level, or {@code null} if the book is empty.
+     */
+    private LinkedList<Order> getWorstLevel() {
+        if (!outside.isEmpty()) {
+            Map.Entry<Long, LinkedList<Order>> entry =
+                    getLevelsAfter().lastEntry();
+            if (entry != null) {
+                return entry.getValue();
+            }
+        }
+        int worst = isBuy ? nextSetBit(0) : previousSetBit(ticks - 1);
+        if (worst >= 0) {
+            return levels[worst];
+        }
+        Map.Entry<Long, LinkedList<Order>> entry =
+                getLevelsBefore().lastEntry();
+        return (entry != null) ? entry.getValue() : null;
+    }
+
+    /**
+     * Inserts the {@link Order} into its sorted position, as {@link
+     * #sortedInsert(Order)}.
+     */
+    @Override public boolean add(Order order) {
+        return sortedInsert(order);
+    }
+
+    @Override public boolean sortedAdd(Order order) {
+        return sortedInsert(order);
+    }
+
+    @Override public boolean sortedAddAll(Collection<? extends Order> c) {
+        for (Order i : c) {
+            sortedInsert(i);
+        }
+        return !c.isEmpty();
+    }
+
+    /**
+     * Inserts the {@link Order} into its level, searching from the back of
+     * the level, as an arriving {@link Order} is usually the last in time
+     * priority.
+     */
+    @Override public boolean sortedInsert(Order order) {
+        LinkedList<Order> level = getOrCreateLevel(order.getDesiredLimitPrice());
+        ListIterator<Order> it = level.listIterator(level.size());
+        while (it.hasPrevious()) {
+            if (order.compareTo(it.previous()) >= 0) {
+
+                // found the last Element that should come before 'order':
+                it.next();
+                break;
+            }
+        }
+        it.add(order);
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Appends the {@link Order} to the end of its level, without searching.
+     * <p>Assumes that the {@link Order}s are appended in their sorted
+     * order.</p>
+     */
+    void append(Order order) {
+        getOrCreateLevel(order.getDesiredLimitPrice()).addLast(order);
+        ++size;
+        ++modCount;
+    }
+
+    @Override public boolean contains(Object o) {
+        if (!(o instanceof Order)) {
+            return false;
+        }
+        LinkedList<Order> level = getLevel(((Order) o).getDesiredLimitPrice());
+        return (level != null) && level.contains(o);
+    }
+
+    @Override public boolean remove(Object o) {
+        if (!(o instanceof Order)) {
+            return false;
+        }
+        long price = ((Order) o).getDesiredLimitPrice();
+        LinkedList<Order> level = getLevel(price);
+        if ((level == null) || !level.remove(o)) {
+            return false;
+        }
+        if (level.isEmpty()) {
+            removeLevel(price);
+        }
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    @Override public Order get(int index) {
+        if ((index == 0) && (size > 0)) {
+            return getBestLevel().getFirst();
+        }
+        if ((index == size - 1) && (size > 0)) {
+            return getWorstLevel().getLast();
+        }
+        return super.get(index);
+    }
+
+    @Override public void clear() {
+        Arrays.fill(levels, null);
+        Arrays.fill(occupied, 0);
+        best = -1;
+        outside.clear();
+        size = 0;
+        ++modCount;
+    }
+
+    @Override public int size() {
+        return size;
+    }
+
+    /**
+     * Sorts the {@link Order}s of each level by the given {@link Comparator}.
+     * the levels always keep their price priority, so a {@link Comparator}
+     * by price priority (e.g. of a loaded book) sorts the book as it would
+     * sort a {@link java.util.List}.
+     */
+    @Override public void sort(Comparator<? super Order> c) {
+        Order[] orders = toArray(new Order[0]);
+        Arrays.sort(orders, c);
+        clear();
+        for (Order i : orders) {
+            append(i);
+        }
+    }
+
+    @Override public ListIterator<Order> listIterator(int index) {
+        if ((index < 0) || (index > size)) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        Itr it = new Itr();
+        if (index <= size / 2) {
+            for (int i = 0; i < index; ++i) {
+                it.next();
+            }
+        } else {
+
+            // closer to the end: from the end of the worst level, backward:
+            it.moveToLevel(worstPrice(), false);
+            it.nextIndex = size;
+            for (int i = size; i > index; --i) {
+                it.previous();
+            }
+        }
+        it.canModify = false;
+        return it;
+    }
+
+    @Override public String toString(String addTabs) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Order i : this) {
+            stringBuilder.append(addTabs).append(i.toString()).append("\n");
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Iterates the levels by price priority, in both directions. Moves from a
+     * level to its neighbor by {@link #worsePrice(long)} and {@link
+     * #betterPrice(long)}, so a level may be removed while it is iterated.
+     */
+    private class Itr implements ListIterator<Order> {
+
+        /**
+         * The level of the cursor, or {@code null} if the cursor is before
+         * the first level. the {@link Order} before the cursor (if there is
+         * one) is in this level, unless the cursor is at the start of it.
+         */
+        private LinkedList<Order> level = null;
+        private long levelPrice;
+        private ListIterator<Order> levelIt = null;
+
+        private int nextIndex = 0;
+
+        /**
+         * {@code true} if {@link #remove()} and {@link #set(Order)} may be
+         * called, for the {@link Order} last returned.
+         */
+        private boolean canModify = false;
+        private boolean isLastNext = false;
+        private int expectedModCount = modCount;
+
+        /**
+         * Moves the cursor to the start or to the end of the level of the
+         * given price.
+         */
+        private void moveToLevel(long price, boolean isAtStart) {
+            level = getLevel(price);
+            levelPrice = price;
+            levelIt = level.listIterator(isAtStart ? 0 : level.size());
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override public Order next() {
+            checkForComodification();
+            if (nextIndex >= size) {
+                throw new NoSuchElementException();
+            }
+            if (level == null) {
+                moveToLevel(bestPrice(), true);
+            } else if (!levelIt.hasNext()) {
+                moveToLevel(worsePrice(levelPrice), true);
+            }
+            ++nextIndex;
+            canModify = true;
+            isLastNext = true;
+            return levelIt.next();
+        }
+
+        @Override public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override public Order previous() {
+            checkForComodification();
+            if (nextIndex <= 0) {
+                throw new NoSuchElementException();
+            }
+            if (!levelIt.hasPrevious()) {
+                moveToLevel(betterPrice(levelPrice), false);
+            }
+            --nextIndex;
+            canModify = true;
+            isLastNext = false;
+            return levelIt.previous();
+        }
+
+        @Override public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override public void remove() {
+            if (!canModify) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            levelIt.remove();
+            if (level.isEmpty()) {
+                removeLevel(levelPrice);
+            }
+            if (isLastNext) {
+                --nextIndex;
+            }
+            canModify = false;
+            --size;
+            expectedModCount = ++modCount;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the {@link Order}'s price is
+         *                                  not the price of the {@link
+         *                                  Order} it replaces.
+         */
+        @Override public void set(Order order) {
+            if (!canModify) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            if (order.getDesiredLimitPrice() != levelPrice) {
+                throw new IllegalArgumentException(
+                        "The Order's price is not the price of its level.");
+            }
+            levelIt.set(order);
+        }
+
+        /**
+         * @throws IllegalArgumentException if the {@link Order}'s price does
+         *                                  not keep the price priority at
+         *                                  the cursor.
+         */
+        @Override public void add(Order order) {
+            checkForComodification();
+            long price = order.getDesiredLimitPrice();
+
+            // the prices of the Orders before and after the cursor:
+            boolean isInLevel = (level != null) && !level.isEmpty();
+            long previousPrice = (isInLevel && levelIt.hasPrevious()) ?
+                    levelPrice : (nextIndex > 0) ? betterPrice(levelPrice) : 0;
+            long nextPrice = (isInLevel && levelIt.hasNext()) ? levelPrice :
+                    (nextIndex == size) ? 0 : (level == null) ? bestPrice() :
+                            worsePrice(levelPrice);
+            if (((nextIndex > 0) && isWorse(previousPrice, price)) ||
+                    ((nextIndex < size) && isWorse(price, nextPrice))) {
+                throw new IllegalArgumentException("The Order's price is " +
+                        "out of the price priority at the cursor.");
+            }
+
+            if (isInLevel && (price == levelPrice)) {
+                levelIt.add(order);
+            } else if ((nextIndex > 0) && (price == previousPrice)) {
+
+                // the end of the level before the cursor's level:
+                moveToLevel(price, false);
+                levelIt.add(order);
+            } else {
+
+                // the start of the next level, or a new level between them:
+                level = getOrCreateLevel(price);
+                levelPrice = price;
+                level.addFirst(order);
+                levelIt = level.listIterator(1);
+            }
+            ++nextIndex;
+            canModify = false;
+            ++size;
+            expectedModCount = ++modCount;
+        }
+    }
+
+}
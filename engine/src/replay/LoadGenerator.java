@@ -0,0 +1,192 @@
+package replay;
+
+import engine.Engine;
+import engine.MatchingEngine;
+import message.Message;
+import message.print.MessagePrint;
+import order.OrderDirection;
+import order.OrderType;
+import stock.Stock;
+import stock.Stocks;
+import timestamp.TimeStamp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <b>Generates a synthetic order flow, and measures the {@link Engine} under
+ * it.</b>
+ * <ul>
+ *     <li>The prices of each {@link Stock} follow a random walk.</li>
+ *     <li>The {@link Stock}s are picked by a <i>Zipf</i> distribution, so the
+ *     {@code skew} sets how much the first {@link Stock}s are busier than the
+ *     rest ({@code 0} means uniform).</li>
+ *     <li>Most {@link order.Order}s are {@code LMT} around the current price,
+ *     some are {@code MKT}.</li>
+ * </ul>
+ * <p>The flow is replayed at full speed by an {@link OrderReplay}, which
+ * reports the sustained throughput and the latencies. It may also be written
+ * as a <tt>.csv</tt> order file, to be replayed again.</p>
+ * <p>Usage:</p>
+ * <blockquote><tt>LoadGenerator [symbols] [orders] [skew] [seed] [--write
+ * &lt;orders.csv&gt;] [--tick-book &lt;ticks&gt;]</tt></blockquote>
+ * <p><tt>--tick-book</tt> keeps the books in {@link
+ * order.book.TickArrayBook}s of the given number of ticks. Otherwise, each
+ * side of a book adapts its implementation to its depth and spread.</p>
+ *
+ * @version 1.3
+ */
+public class LoadGenerator {
+
+    /**
+     * The initial price of each generated {@link Stock}.
+     */
+    private static final long INITIAL_PRICE = 1000;
+
+    /**
+     * The percents of {@code MKT} {@link order.Order}s in the flow.
+     */
+    private static final int MKT_PERCENTS = 5;
+
+    /**
+     * The maximal distance of a {@code LMT} {@link order.Order}'s price from
+     * the current price.
+     */
+    private static final int PRICE_SPREAD = 10;
+
+    private static final int MAX_QUANTITY = 100;
+
+    /**
+     * Prevent others to call the Constructor. Thus, private Constructor.
+     */
+    private LoadGenerator() {}
+
+    /**
+     * @return new {@link Stocks} of {@code count} {@link Stock}s, with the
+     * Symbols <tt>S0</tt>, <tt>S1</tt>, ...
+     */
+    public static Stocks createStocks(int count) {
+        List<Stock> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new Stock("S" + i, "Synthetic Company " + i,
+                    INITIAL_PRICE));
+        }
+        Stocks stocks = new Stocks();
+        stocks.setCollection(list);
+        return stocks;
+    }
+
+    /**
+     * Generates a synthetic order flow.
+     *
+     * @param symbols the Symbols of the {@link Stock}s, from the busiest.
+     * @param count   the number of {@link order.Order}s.
+     * @param skew    the <i>Zipf</i> exponent of the {@link Stock}s' picks.
+     * @param seed    the seed of the random numbers, to repeat a flow.
+     * @return the records, by arrival order.
+     */
+    public static List<OrderRecord> generate(List<String> symbols, int count,
+                                             double skew, long seed) {
+        Random random = new Random(seed);
+
+        // the cumulative weights of the Zipf distribution:
+        double[] cumulativeWeights = new double[symbols.size()];
+        double totalWeight = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            totalWeight += 1 / Math.pow(i + 1, skew);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long[] prices = new long[symbols.size()];
+        Arrays.fill(prices, INITIAL_PRICE);
+        long millisOfDay = TimeStamp.toMillisOfDay("09:00:00:000");
+        List<OrderRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+
+            // pick a Stock:
+            int index = Arrays.binarySearch(cumulativeWeights,
+                    random.nextDouble() * totalWeight);
+            index = Math.min((index < 0) ? (-index - 1) : index,
+                    symbols.size() - 1);
+
+            // walk its price:
+            prices[index] = Math.max(PRICE_SPREAD + 1,
+                    prices[index] + random.nextInt(3) - 1);
+
+            OrderDirection direction = random.nextBoolean() ?
+                    OrderDirection.BUY : OrderDirection.SELL;
+            OrderType type = (random.nextInt(100) < MKT_PERCENTS) ?
+                    OrderType.MKT : OrderType.LMT;
+
+            // a 'Buy' is mostly below the price, and a 'Sell' mostly above:
+            long offset = random.nextInt(PRICE_SPREAD) - PRICE_SPREAD / 4;
+            long price = (direction == OrderDirection.BUY) ?
+                    (prices[index] - offset) : (prices[index] + offset);
+
+            millisOfDay = (millisOfDay + random.nextInt(3)) % 86_400_000L;
+            records.add(new OrderRecord(TimeStamp.fromMillisOfDay(millisOfDay),
+                    symbols.get(index), direction, type,
+                    1 + random.nextInt(MAX_QUANTITY), price, 0));
+        }
+        return records;
+    }
+
+    public static void main(String[] args) {
+        try {
+            List<String> positional = new ArrayList<>();
+            File writeFile = null;
+            int tickBookWindow = 0;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--write") && (i + 1 < args.length)) {
+                    writeFile = new File(args[++i]);
+                } else if (args[i].equals("--tick-book") &&
+                        (i + 1 < args.length)) {
+                    tickBookWindow = Integer.parseInt(args[++i]);
+                } else {
+                    positional.add(args[i]);
+                }
+            }
+            int symbolsCount = (positional.size() > 0) ?
+                    Integer.parseInt(positional.get(0)) : 10;
+            int ordersCount = (positional.size() > 1) ?
+                    Integer.parseInt(positional.get(1)) : 100_000;
+            double skew = (positional.size() > 2) ?
+                    Double.parseDouble(positional.get(2)) : 1.0;
+            long seed = (positional.size() > 3) ?
+                    Long.parseLong(positional.get(3)) : 1;
+            if ((symbolsCount <= 0) || (ordersCount < 0) ||
+                    (tickBookWindow < 0)) {
+                throw new NumberFormatException();
+            }
+
+            Stocks stocks = createStocks(symbolsCount);
+            List<String> symbols = new ArrayList<>(symbolsCount);
+            for (Stock i : stocks.getCollection()) {
+                symbols.add(i.getSymbol());
+            }
+            List<OrderRecord> records =
+                    generate(symbols, ordersCount, skew, seed);
+            if (writeFile != null) {
+                OrderReplay.writeOrders(writeFile, records);
+            }
+
+            // a clean engine of its own, apart from the default one:
+            MatchingEngine engine = new MatchingEngine();
+            engine.setStocks(stocks);
+            engine.setTickBookWindow(tickBookWindow);
+            OrderReplay replay = new OrderReplay();
+            replay.run(engine, records, false);
+            MessagePrint.println(MessagePrint.Stream.OUT, replay.getReport());
+        } catch (NumberFormatException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Replay.loadGeneratorUsage());
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+    }
+
+}
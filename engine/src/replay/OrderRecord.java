@@ -0,0 +1,135 @@
+package replay;
+
+import message.Message;
+import order.Order;
+import order.OrderDirection;
+import order.OrderType;
+import timestamp.TimeStamp;
+
+import java.io.IOException;
+
+/**
+ * A single recorded {@link Order}, as a line of a <tt>.csv</tt> order file:
+ * <blockquote><tt>timeStamp,symbol,direction,type,quantity,desiredLimitPrice,stopPrice</tt></blockquote>
+ * <p>e.g. <tt>09:30:00:000,AAPL,BUY,LMT,10,101,0</tt>.</p>
+ * <ul>
+ *     <li>The {@code timeStamp} is of the format of {@link TimeStamp}. It
+ *     becomes the {@link Order}'s {@code timeStamp}, so a replay keeps the
+ *     recorded priorities, and it sets the pacing of a paced replay.</li>
+ *     <li>The {@code desiredLimitPrice} of a {@code MKT} {@link Order} is
+ *     ignored: it is calculated when the {@link Order} is executed.</li>
+ *     <li>The {@code stopPrice} is used by Stop {@link Order}s only.</li>
+ * </ul>
+ *
+ * @version 1.0
+ */
+public final class OrderRecord {
+
+    private final String timeStamp;
+    private final String symbol;
+    private final OrderDirection direction;
+    private final OrderType type;
+    private final long quantity;
+    private final long desiredLimitPrice;
+    private final long stopPrice;
+
+    public OrderRecord(String timeStamp, String symbol,
+                       OrderDirection direction, OrderType type, long quantity,
+                       long desiredLimitPrice, long stopPrice) {
+        this.timeStamp = timeStamp;
+        this.symbol = symbol;
+        this.direction = direction;
+        this.type = type;
+        this.quantity = quantity;
+        this.desiredLimitPrice = desiredLimitPrice;
+        this.stopPrice = stopPrice;
+    }
+
+    /**
+     * Parses a line of a <tt>.csv</tt> order file.
+     *
+     * @param line       the line to parse.
+     * @param lineNumber the number of the line, for the error message.
+     * @return the parsed {@code OrderRecord}.
+     * @throws IOException if the line is invalid.
+     */
+    public static OrderRecord parse(String line, long lineNumber)
+            throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 7) {
+            throw new IOException(Message.Err.Replay
+                    .invalidLine(lineNumber, line, "expected 7 fields"));
+        }
+        try {
+            String timeStamp = fields[0].trim();
+            TimeStamp.toMillisOfDay(timeStamp);
+            OrderRecord record = new OrderRecord(timeStamp, fields[1].trim(),
+                    OrderDirection.valueOf(fields[2].trim().toUpperCase()),
+                    OrderType.valueOf(fields[3].trim().toUpperCase()),
+                    Long.parseLong(fields[4].trim()),
+                    Long.parseLong(fields[5].trim()),
+                    Long.parseLong(fields[6].trim()));
+            if (record.quantity <= 0) {
+                throw new IllegalArgumentException(
+                        "quantity must be greater than 0");
+            }
+            return record;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(Message.Err.Replay
+                    .invalidLine(lineNumber, line, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return a new {@link Order} of this record, with the recorded {@code
+     * timeStamp}. its {@code desiredLimitPrice} is this record's, also for a
+     * {@code MKT} {@link Order}.
+     */
+    public Order toOrder() {
+        Order order =
+                new Order(direction, type, quantity, desiredLimitPrice,
+                        stopPrice);
+        order.setTimeStamp(timeStamp);
+        return order;
+    }
+
+    /**
+     * @return this record as a line of a <tt>.csv</tt> order file.
+     */
+    public String toCsv() {
+        return timeStamp + "," + symbol + "," + direction + "," + type + "," +
+                quantity + "," + desiredLimitPrice + "," + stopPrice;
+    }
+
+    public String getTimeStamp() {
+        return timeStamp;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public OrderDirection getDirection() {
+        return direction;
+    }
+
+    public OrderType getType() {
+        return type;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getDesiredLimitPrice() {
+        return desiredLimitPrice;
+    }
+
+    public long getStopPrice() {
+        return stopPrice;
+    }
+
+    @Override public String toString() {
+        return "OrderRecord{" + toCsv() + '}';
+    }
+}
@@ -0,0 +1,326 @@
+package replay;
+
+import engine.Engine;
+import engine.MatchingEngine;
+import load.LoadSaveXML;
+import marketdata.MarketDataListener;
+import marketdata.MarketDataMessage;
+import message.Message;
+import message.print.MessagePrint;
+import metrics.LatencyHistogram;
+import order.Order;
+import order.OrderType;
+import stock.Stock;
+import timestamp.TimeStamp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <b>Replays a recorded order flow through the {@link Engine}.</b>
+ * <p>
+ * Each {@link OrderRecord} is executed as in {@link Engine#executeOrder(
+ *stock.Stock, Order)}, either at full speed, or at the recorded pacing (by
+ * the records' {@code timeStamp}s). The trades made are collected from the
+ * market-data, as lines of <tt>symbol,quantity,price</tt>, so they can be
+ * checked against an expected output. Each {@link Order}'s latency is
+ * recorded in a {@link LatencyHistogram}.
+ * </p>
+ * <p>While replaying, the {@link MessagePrint.Stream#OUT} messages are
+ * suppressed.</p>
+ * <p>Usage:</p>
+ * <blockquote><tt>OrderReplay &lt;stocks.xml&gt; &lt;orders.csv&gt;
+ * [--paced] [--expected &lt;trades.csv&gt;] [--write-expected
+ * &lt;trades.csv&gt;]</tt></blockquote>
+ *
+ * @version 1.2
+ * @see LoadGenerator
+ */
+public class OrderReplay {
+
+    private final LatencyHistogram latency = new LatencyHistogram("replay");
+
+    /**
+     * The trades made, as lines of <tt>symbol,quantity,price</tt>.
+     */
+    private final List<String> trades = new ArrayList<>();
+
+    private long orders = 0;
+
+    private long rejected = 0;
+
+    private long elapsedNanos = 0;
+
+    /**
+     * Reads a <tt>.csv</tt> order file. Empty lines, and lines that start
+     * with '#', are skipped.
+     *
+     * @throws IOException if the file can not be read, or has an invalid
+     *                     line.
+     */
+    public static List<OrderRecord> readOrders(File file) throws IOException {
+        List<OrderRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                ++lineNumber;
+                if (!line.trim().isEmpty() && !line.startsWith("#")) {
+                    records.add(OrderRecord.parse(line, lineNumber));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Writes a <tt>.csv</tt> order file.
+     */
+    public static void writeOrders(File file, List<OrderRecord> records)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            writer.write("# timeStamp,symbol,direction,type,quantity," +
+                    "desiredLimitPrice,stopPrice");
+            writer.newLine();
+            for (OrderRecord i : records) {
+                writer.write(i.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Reads a <tt>.csv</tt> file of trades, a line of
+     * <tt>symbol,quantity,price</tt> each.
+     */
+    public static List<String> readTrades(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String i : Files.readAllLines(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            if (!i.trim().isEmpty() && !i.startsWith("#")) {
+                lines.add(i.trim());
+            }
+        }
+        return lines;
+    }
+
+    public static void writeTrades(File file, List<String> trades)
+            throws IOException {
+        Files.write(file.toPath(), trades, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the index of the first trade that differs, or {@code -1} if
+     * the trades are equal.
+     */
+    public static int findMismatch(List<String> expected,
+                                   List<String> actual) {
+        int size = Math.min(expected.size(), actual.size());
+        for (int i = 0; i < size; i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                return i;
+            }
+        }
+        return (expected.size() == actual.size()) ? -1 : size;
+    }
+
+    /**
+     * Replays the given records through the {@link Engine}'s current {@link
+     * stock.Stocks}.
+     *
+     * @param records the records, by arrival order.
+     * @param paced   {@code true} to keep the recorded pacing, {@code false}
+     *                for full speed.
+     * @throws IOException if there are no {@link stock.Stocks} in the {@link
+     *                     Engine}.
+     */
+    public void run(List<OrderRecord> records, boolean paced)
+            throws IOException {
+        run(Engine.getDefault(), records, paced);
+    }
+
+    /**
+     * Replays the given records through the given {@link MatchingEngine}'s
+     * current {@link stock.Stocks}.
+     *
+     * @param engine  the {@link MatchingEngine} to replay through.
+     * @param records the records, by arrival order.
+     * @param paced   {@code true} to keep the recorded pacing, {@code false}
+     *                for full speed.
+     * @throws IOException if there are no {@link stock.Stocks} in the {@link
+     *                     MatchingEngine}.
+     */
+    public void run(MatchingEngine engine, List<OrderRecord> records,
+                    boolean paced) throws IOException {
+
+        // find the Stocks by their Symbols once (case in-sensitive):
+        Map<String, Stock> stocksBySymbol = new HashMap<>();
+        for (Stock i : engine.getStocks().getCollection()) {
+            stocksBySymbol.put(i.getSymbol().toUpperCase(), i);
+        }
+
+        // resolve the Symbol of each record before the replay starts:
+        Stock[] stocksOfRecords = new Stock[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            stocksOfRecords[i] = stocksBySymbol
+                    .get(records.get(i).getSymbol().toUpperCase());
+        }
+
+        // collect the trades from the market-data:
+        MarketDataListener tradesListener = message -> {
+            if (message.getType() == MarketDataMessage.Type.TRADE) {
+                trades.add(message.getSymbol() + "," + message.getQuantity() +
+                        "," + message.getPrice());
+            }
+        };
+        engine.getMarketData().addListener(tradesListener);
+        boolean wasQuiet = MessagePrint.isQuiet();
+        MessagePrint.setQuiet(true);
+        try {
+            long startNanos = System.nanoTime();
+            long firstMillis = records.isEmpty() ? 0 :
+                    TimeStamp.toMillisOfDay(records.get(0).getTimeStamp());
+            for (int j = 0; j < records.size(); j++) {
+                OrderRecord i = records.get(j);
+                if (paced) {
+
+                    // wait until the recorded time of this Order:
+                    long dueNanos = startNanos + 1_000_000L *
+                            (TimeStamp.toMillisOfDay(i.getTimeStamp()) -
+                                    firstMillis);
+                    long waitNanos;
+                    while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                }
+                execute(engine, stocksOfRecords[j], i);
+            }
+            elapsedNanos += System.nanoTime() - startNanos;
+        } finally {
+            MessagePrint.setQuiet(wasQuiet);
+            engine.getMarketData().removeListener(tradesListener);
+        }
+    }
+
+    private void execute(MatchingEngine engine, Stock stock,
+                         OrderRecord record) {
+        long startNanos = System.nanoTime();
+        ++orders;
+        if (stock == null) {
+            ++rejected;
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Replay.unknownSymbol(record.getSymbol()));
+            return;
+        }
+        Order order = record.toOrder();
+        if (order.getOrderType() == OrderType.MKT) {
+            order.setDesiredLimitPrice(
+                    MatchingEngine.calcDesiredLimitPriceOfMKTOrder(stock,
+                            order.getOrderDirection()));
+        }
+        try {
+            engine.executeOrder(stock, order);
+        } catch (IOException e) {
+            ++rejected;
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+        latency.recordSince(startNanos);
+    }
+
+    public List<String> getTrades() {
+        return trades;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return a report of the throughput and the latencies of the replay.
+     */
+    public String getReport() {
+        return Message.Out.Replay
+                .printReport(orders, rejected, trades.size(), elapsedNanos,
+                        latency);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            MessagePrint.println(MessagePrint.Stream.ERR,
+                    Message.Err.Replay.usage());
+            return;
+        }
+        boolean paced = false;
+        File expectedFile = null;
+        File writeExpectedFile = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--paced")) {
+                paced = true;
+            } else if (args[i].equals("--expected") &&
+                    (i + 1 < args.length)) {
+                expectedFile = new File(args[++i]);
+            } else if (args[i].equals("--write-expected") &&
+                    (i + 1 < args.length)) {
+                writeExpectedFile = new File(args[++i]);
+            } else {
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        Message.Err.Replay.usage());
+                return;
+            }
+        }
+
+        try {
+            LoadSaveXML.unmarshal(args[0]);
+            List<OrderRecord> records = readOrders(new File(args[1]));
+            OrderReplay replay = new OrderReplay();
+            replay.run(records, paced);
+            MessagePrint.println(MessagePrint.Stream.OUT, replay.getReport());
+
+            if (writeExpectedFile != null) {
+                writeTrades(writeExpectedFile, replay.getTrades());
+            }
+            if (expectedFile != null) {
+                List<String> expected = readTrades(expectedFile);
+                int mismatch = findMismatch(expected, replay.getTrades());
+                if (mismatch < 0) {
+                    MessagePrint.println(MessagePrint.Stream.OUT,
+                            Message.Out.Replay.match(expected.size()));
+                } else {
+                    MessagePrint.println(MessagePrint.Stream.ERR,
+                            Message.Err.Replay.mismatch(mismatch,
+                                    (mismatch < expected.size()) ?
+                                            expected.get(mismatch) : null,
+                                    (mismatch < replay.getTrades().size()) ?
+                                            replay.getTrades().get(mismatch) :
+                                            null));
+                }
+            }
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+    }
+
+}
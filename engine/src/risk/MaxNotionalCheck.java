@@ -0,0 +1,30 @@
+package risk;
+
+import message.Message;
+import order.Order;
+import stock.Stock;
+
+import java.io.IOException;
+
+/**
+ * Rejects {@link Order}s with a <i>notional</i> (= {@link Order#getPeriod()})
+ * greater than a maximum.
+ *
+ * @version 1.0
+ */
+public class MaxNotionalCheck implements RiskCheck {
+
+    private final long maxNotional;
+
+    public MaxNotionalCheck(long maxNotional) {
+        this.maxNotional = maxNotional;
+    }
+
+    @Override public void check(Stock stock, Order order) throws IOException {
+        if (order.getPeriod() > maxNotional) {
+            throw new IOException(Message.Err.Risk
+                    .maxNotional(order.getPeriod(), maxNotional));
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package risk;
+
+import message.Message;
+import order.Order;
+import stock.Stock;
+
+import java.io.IOException;
+
+/**
+ * Rejects {@link Order}s with a total quantity (including the hidden reserve
+ * of an iceberg {@link Order}) greater than a maximum.
+ *
+ * @version 1.1
+ */
+public class MaxQuantityCheck implements RiskCheck {
+
+    private final long maxQuantity;
+
+    public MaxQuantityCheck(long maxQuantity) {
+        this.maxQuantity = maxQuantity;
+    }
+
+    @Override public void check(Stock stock, Order order) throws IOException {
+        if (order.getTotalQuantity() > maxQuantity) {
+            throw new IOException(Message.Err.Risk
+                    .maxQuantity(order.getTotalQuantity(), maxQuantity));
+        }
+    }
+
+}
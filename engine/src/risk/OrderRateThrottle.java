@@ -0,0 +1,72 @@
+package risk;
+
+import message.Message;
+import order.Order;
+import stock.Stock;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects {@link Order}s of a {@link Stock} that arrive after the {@link
+ * Stock} already received a maximal number of {@link Order}s in the current
+ * second.
+ * <p>
+ * Each {@link Stock} has a single lock-free counter (by its dense id), that
+ * packs the current second (high 32 bits) and the number of {@link Order}s in
+ * it (low 32 bits), and is updated by compare-and-set.
+ * </p>
+ *
+ * @version 1.1
+ */
+public class OrderRateThrottle implements RiskCheck {
+
+    private final long maxOrdersPerSecond;
+
+    /**
+     * Index = the dense id of the {@link Stock} (see {@link Stock#getId()}).
+     * replaced by a grown copy when a new {@link Stock} is seen, so a reader
+     * never needs a lock.
+     */
+    private volatile AtomicLong[] counters = new AtomicLong[0];
+
+    public OrderRateThrottle(long maxOrdersPerSecond) {
+        this.maxOrdersPerSecond = maxOrdersPerSecond;
+    }
+
+    @Override public void check(Stock stock, Order order) throws IOException {
+        AtomicLong[] currentCounters = counters;
+        int id = stock.getId();
+        AtomicLong counter = (id < currentCounters.length) ?
+                currentCounters[id] : null;
+        if (counter == null) {
+            counter = addCounter(id);
+        }
+        long second = System.currentTimeMillis() / 1000;
+
+        while (true) {
+            long current = counter.get();
+            long count = ((current >>> 32) == (second & 0xFFFFFFFFL)) ?
+                    (current & 0xFFFFFFFFL) : 0;
+            if (count >= maxOrdersPerSecond) {
+                throw new IOException(Message.Err.Risk
+                        .orderRate(stock.getSymbol(), maxOrdersPerSecond));
+            }
+            if (counter.compareAndSet(current, (second << 32) | (count + 1))) {
+                return;
+            }
+        }
+    }
+
+    private synchronized AtomicLong addCounter(int id) {
+        AtomicLong[] newCounters = Arrays.copyOf(counters,
+                Math.max(counters.length, id + 1));
+        if (newCounters[id] == null) {
+            newCounters[id] = new AtomicLong();
+            counters = newCounters;
+        }
+        return newCounters[id];
+    }
+
+}
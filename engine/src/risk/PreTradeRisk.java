@@ -0,0 +1,53 @@
+package risk;
+
+import order.Order;
+import stock.Stock;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The <i>pre-trade risk</i> stage of the {@link engine.Engine}.
+ * <p>Holds a pluggable chain of {@link RiskCheck}s, that every arriving
+ * {@link Order} must pass before it is calculated.</p>
+ *
+ * <blockquote>The chain is an array that is replaced on each change
+ * (copy-on-write), so {@link #check(Stock, Order)} never takes a lock, and
+ * costs a single pass over the {@link RiskCheck}s.</blockquote>
+ *
+ * @version 1.0
+ */
+public class PreTradeRisk {
+
+    private volatile RiskCheck[] riskChecks = new RiskCheck[0];
+
+    /**
+     * @param riskCheck a {@link RiskCheck} to add to the end of the chain.
+     */
+    public synchronized void addCheck(RiskCheck riskCheck) {
+        RiskCheck[] newRiskChecks =
+                Arrays.copyOf(riskChecks, riskChecks.length + 1);
+        newRiskChecks[riskChecks.length] = riskCheck;
+        riskChecks = newRiskChecks;
+    }
+
+    /**
+     * Removes all the {@link RiskCheck}s from the chain.
+     */
+    public synchronized void clearChecks() {
+        riskChecks = new RiskCheck[0];
+    }
+
+    /**
+     * @param stock the stock the {@link Order} was placed on.
+     * @param order the arriving {@link Order}.
+     * @throws IOException with the message of the first {@link RiskCheck}
+     *                     that rejected the {@link Order}.
+     */
+    public void check(Stock stock, Order order) throws IOException {
+        for (RiskCheck i : riskChecks) {
+            i.check(stock, order);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package risk;
+
+import message.Message;
+import order.Order;
+import order.OrderType;
+import stock.Stock;
+
+import java.io.IOException;
+
+/**
+ * Rejects limit-priced {@link Order}s (see {@link OrderType#isLMT()}: {@code
+ * LMT}, {@code FOK}, and the limit of {@code STL}) with a {@code
+ * desiredLimitPrice} that is too far from the {@link Stock}'s current {@code
+ * price}.
+ *
+ * @version 1.1
+ */
+public class PriceCollarCheck implements RiskCheck {
+
+    /**
+     * The collar, in percents of the {@link Stock}'s {@code price}.
+     */
+    private final long collarPercent;
+
+    public PriceCollarCheck(long collarPercent) {
+        this.collarPercent = collarPercent;
+    }
+
+    @Override public void check(Stock stock, Order order) throws IOException {
+        if (order.getOrderType().isLMT()) {
+            long price = stock.getPrice();
+            long collar = price * collarPercent / 100;
+            if (Math.abs(order.getDesiredLimitPrice() - price) > collar) {
+                throw new IOException(Message.Err.Risk
+                        .priceCollar(order.getDesiredLimitPrice(),
+                                price - collar, price + collar));
+            }
+        }
+    }
+
+}
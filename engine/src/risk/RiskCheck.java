@@ -0,0 +1,26 @@
+package risk;
+
+import order.Order;
+import stock.Stock;
+
+import java.io.IOException;
+
+/**
+ * A single <i>pre-trade risk</i> check, that is done on an arriving {@link
+ * Order} before it enters the {@link Stock}'s data-base.
+ * <p>Implementations must be cheap: they should only compare the {@link
+ * Order} to precomputed limits, and must not take locks.</p>
+ *
+ * @version 1.0
+ * @see PreTradeRisk
+ */
+@FunctionalInterface public interface RiskCheck {
+
+    /**
+     * @param stock the stock the {@link Order} was placed on.
+     * @param order the arriving {@link Order}.
+     * @throws IOException with an appropriate message, if the {@link Order}
+     *                     is rejected.
+     */
+    public void check(Stock stock, Order order) throws IOException;
+}
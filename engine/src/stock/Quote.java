@@ -0,0 +1,99 @@
+package stock;
+
+import currency.Currency;
+
+/**
+ * An immutable <i>top-of-book</i> snapshot of a {@link Stock}.
+ * <p>
+ * A new {@code Quote} is published to the {@link Stock} through a {@code
+ * volatile} reference whenever its best price levels or its last price
+ * change. Thus, a reader on any thread gets a consistent {@code Quote} with a
+ * single read, without locks and without allocations.
+ * </p>
+ * <blockquote>A side without {@link order.Order}s has a price and a quantity
+ * of {@code 0}.</blockquote>
+ *
+ * @version 1.0
+ * @see marketdata.MarketDataPublisher
+ */
+public final class Quote {
+
+    private final long bidPrice;
+    private final long bidQuantity;
+    private final long askPrice;
+    private final long askQuantity;
+
+    /**
+     * The price of the last {@link transaction.Transaction}.
+     */
+    private final long lastPrice;
+
+    /**
+     * The total quantity of all the {@link transaction.Transaction}s.
+     */
+    private final long volume;
+
+    /**
+     * The sequence number of the market-data change that published this
+     * {@code Quote}.
+     */
+    private final long sequence;
+
+    public Quote(long bidPrice, long bidQuantity, long askPrice,
+                 long askQuantity, long lastPrice, long volume,
+                 long sequence) {
+        this.bidPrice = bidPrice;
+        this.bidQuantity = bidQuantity;
+        this.askPrice = askPrice;
+        this.askQuantity = askQuantity;
+        this.lastPrice = lastPrice;
+        this.volume = volume;
+        this.sequence = sequence;
+    }
+
+    public boolean hasBid() {
+        return bidQuantity > 0;
+    }
+
+    public boolean hasAsk() {
+        return askQuantity > 0;
+    }
+
+    public long getBidPrice() {
+        return bidPrice;
+    }
+
+    public long getBidQuantity() {
+        return bidQuantity;
+    }
+
+    public long getAskPrice() {
+        return askPrice;
+    }
+
+    public long getAskQuantity() {
+        return askQuantity;
+    }
+
+    public long getLastPrice() {
+        return lastPrice;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override public String toString() {
+        return "Quote{" + "bid=" + (hasBid() ?
+                (bidQuantity + "@" + Currency.numberFormat.format(bidPrice)) :
+                "none") + ", ask=" + (hasAsk() ?
+                (askQuantity + "@" + Currency.numberFormat.format(askPrice)) :
+                "none") + ", last=" + Currency.numberFormat.format(lastPrice) +
+                ", volume=" + volume + ", sequence=" + sequence + '}';
+    }
+
+}
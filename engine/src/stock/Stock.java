@@ -1,25 +1,44 @@
 package stock;
 
 import currency.Currency;
+import engine.collection.EngineCollection;
 import message.Message;
 import message.builder.out.BuildOutput_StockDataBase;
+import message.print.MessagePrint;
+import metrics.StockMetrics;
+import order.Order;
 import stock.database.StockDataBase;
+import stock.database.StockDataBaseLoader;
 import transaction.Transaction;
 
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
-import java.util.Objects;
+import javax.xml.bind.annotation.XmlTransient;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 
 /**
  * A Stock annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
+ * <p>{@code Stock}s are compared by identity: inside the {@link
+ * engine.MatchingEngine} a {@code Stock} is keyed by its dense {@link #id}, and
+ * its {@code Symbol} is resolved only at the edges.</p>
  *
- * @version 1.2
+ * @version 1.8
  */
 @XmlAccessorType(XmlAccessType.FIELD) @XmlRootElement(name = "rse-stock")
 public class Stock {
 
+    /**
+     * The dense id of this {@code Stock}: its index in the {@link Stocks} of
+     * its {@link engine.MatchingEngine}, assigned when the {@link Stocks} are
+     * set. {@code -1} until then.
+     */
+    @XmlTransient private int id = -1;
+
     @XmlElement(name = "rse-symbol") private String symbol;
     @XmlElement(name = "rse-company-name") private String companyName;
 
@@ -42,25 +61,89 @@ public class Stock {
     @XmlElement(name = "rse-data-base") private StockDataBase dataBase =
             new StockDataBase();
 
-    public String getSymbol() {
-        return symbol;
-    }
+    /**
+     * Loads the {@link #dataBase} on its first use, or {@code null} if it is
+     * already loaded. The {@link #dataBase} is written before this field is
+     * cleared, so a thread that reads {@code null} here sees it.
+     */
+    @XmlTransient private volatile StockDataBaseLoader dataBaseLoader = null;
 
-    public void setSymbol() {
+    /**
+     * Indicates whether this {@code Stock} is in a <i>call auction</i>.
+     * <p>During a call auction, {@link order.Order}s are accumulated in the
+     * {@link #dataBase} without being matched, until the auction is
+     * uncrossed.</p>
+     *
+     * @see engine.Engine#uncrossCallAuction(Stock)
+     */
+    @XmlTransient private boolean callAuction = false;
+
+    /**
+     * The latest top-of-book snapshot of this {@code Stock}, published by the
+     * {@link marketdata.MarketDataPublisher}.
+     */
+    @XmlTransient private volatile Quote quote = null;
+
+    /**
+     * The counters and book gauges of this {@code Stock}.
+     */
+    @XmlTransient private final StockMetrics metrics = new StockMetrics();
+
+    /**
+     * {@code true} if this {@code Stock} was changed since it was last taken
+     * by {@link engine.Engine#takeModifiedStocks()}. used by the {@link
+     * engine.Engine}'s thread only.
+     */
+    @XmlTransient private boolean modified = false;
+
+    /**
+     * Must have a Default Constructor for {@code JAXBContext} <tt>.xml</tt>
+     * load and save.
+     */
+    public Stock() {}
+
+    public Stock(String symbol, String companyName, long price) {
         this.symbol = symbol;
+        this.companyName = companyName;
+        this.price = price;
+    }
+
+    /**
+     * Copy Constructor: a point-in-time copy of the given {@code Stock}, to
+     * be saved while the given {@code Stock} keeps changing.
+     *
+     * @see engine.EngineSnapshot
+     */
+    public Stock(Stock stock) {
+        this.id = stock.id;
+        this.symbol = stock.symbol;
+        this.companyName = stock.companyName;
+        this.price = stock.price;
+        if (stock.dataBaseLoader != null) {
+
+            // not loaded yet: the copy loads the same data-base on its own:
+            this.dataBase = null;
+            this.dataBaseLoader = stock.dataBaseLoader;
+        } else {
+            this.dataBase = new StockDataBase(stock.dataBase);
+        }
+        this.callAuction = stock.callAuction;
+    }
+
+    public int getId() {
+        return id;
     }
 
-    @Override public boolean equals(Object o) {
-        if (this == o) { return true; }
-        if (o == null || getClass() != o.getClass()) { return false; }
-        Stock stock = (Stock) o;
-        return price == stock.price && Objects.equals(symbol, stock.symbol) &&
-                Objects.equals(companyName, stock.companyName) &&
-                Objects.equals(dataBase, stock.dataBase);
+    public void setId(int id) {
+        this.id = id;
     }
 
-    @Override public int hashCode() {
-        return Objects.hash(symbol, companyName, price, dataBase);
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol() {
+        this.symbol = symbol;
     }
 
     public String getCompanyName() {
@@ -79,12 +162,104 @@ public class Stock {
         this.price = price;
     }
 
+    public boolean isCallAuction() {
+        return callAuction;
+    }
+
+    public void setCallAuction(boolean callAuction) {
+        this.callAuction = callAuction;
+    }
+
+    /**
+     * @return the latest top-of-book snapshot of this {@code Stock}. safe to
+     * call from any thread.
+     */
+    public Quote getQuote() {
+        Quote currentQuote = quote;
+        if (currentQuote == null) {
+
+            // nothing was published yet:
+            currentQuote = new Quote(0, 0, 0, 0, price, 0, 0);
+        }
+        return currentQuote;
+    }
+
+    public void setQuote(Quote quote) {
+        this.quote = quote;
+    }
+
+    public StockMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * @return the data-base, loaded first if it was not loaded yet.
+     * @throws UncheckedIOException if the data-base cannot be loaded.
+     */
     public StockDataBase getDataBase() {
+        if (dataBaseLoader != null) {
+            loadDataBase();
+        }
         return dataBase;
     }
 
+    private synchronized void loadDataBase() {
+        StockDataBaseLoader loader = dataBaseLoader;
+        if (loader != null) {
+            try {
+                dataBase = loader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+            dataBaseLoader = null;
+        }
+    }
+
     public void setDataBase(StockDataBase dataBase) {
         this.dataBase = dataBase;
+        this.dataBaseLoader = null;
+    }
+
+    /**
+     * @return {@code true} if the data-base is loaded, {@code false} if it is
+     * still to be loaded on its first use.
+     */
+    public boolean isDataBaseLoaded() {
+        return dataBaseLoader == null;
+    }
+
+    /**
+     * @return the loader of the data-base, or {@code null} if it is already
+     * loaded.
+     */
+    public StockDataBaseLoader getDataBaseLoader() {
+        return dataBaseLoader;
+    }
+
+    /**
+     * Drops the data-base, to be loaded by the given loader on its first use.
+     *
+     * @param dataBaseLoader the loader of the data-base.
+     */
+    public void setDataBaseLoader(StockDataBaseLoader dataBaseLoader) {
+        this.dataBase = null;
+        this.dataBaseLoader = dataBaseLoader;
+    }
+
+    /**
+     * Called by JAXB before marshalling: a data-base that was not loaded yet
+     * is loaded, to be saved.
+     */
+    private void beforeMarshal(Marshaller marshaller) {
+        getDataBase();
     }
 
     @Override public String toString() {
@@ -92,11 +267,11 @@ public class Stock {
                 companyName + '\'' + ", price='" +
                 Currency.numberFormat.format(price) + '\'' +
                 ", numOfTotalTransactions=" +
-                dataBase.getSuccessfullyFinishedTransactions().getCollection()
+                getDataBase().getSuccessfullyFinishedTransactions().getCollection()
                         .size() + ", [Total Transactions Period = " +
-                Currency.numberFormat.format(dataBase.getTotalPeriod(
-                        dataBase.getSuccessfullyFinishedTransactions()
-                                .getCollection())) + "]}";
+                Currency.numberFormat.format(
+                        getDataBase().getSuccessfullyFinishedTransactions()
+                                .getCollection().getTotalPeriod()) + "]}";
     }
 
     /**
@@ -125,28 +300,61 @@ public class Stock {
                                           String addContentTabs) {
 
         StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(addTitleTabs).append(" - ")
-                .append("Transactions Made: ");
-
-        stringBuilder.append("[Total Transactions Period = ")
-                .append(Currency.numberFormat.format(dataBase.getTotalPeriod(
-                        dataBase.getSuccessfullyFinishedTransactions()
-                                .getCollection()))).append("]:");
+        stringBuilder.append(getTransactionsTitle(addTitleTabs));
         stringBuilder.append("\n");
 
-        if (dataBase.getSuccessfullyFinishedTransactions().getCollection()
+        if (getDataBase().getSuccessfullyFinishedTransactions().getCollection()
                 .size() == 0) {
             stringBuilder.append(addContentTabs)
                     .append(Message.Out.StockDataBase.printEmpty(
                             BuildOutput_StockDataBase.TypeOfCollection.SUCCESSFULLY_FINISHED_TRANSACTIONS));
 
         } else {
-            stringBuilder.append(dataBase.getSuccessfullyFinishedTransactions()
+            stringBuilder.append(getDataBase().getSuccessfullyFinishedTransactions()
                     .toString(addContentTabs));
         }
         return stringBuilder.toString();
     }
 
+    /**
+     * Prints a page of the transactions in this {@code Stock}, straight to
+     * the output, as presented in {@link #getTransactionsToString(String,
+     * String)}.
+     *
+     * @param title          the title, printed before the page, as built
+     *                       once before all the pages.
+     * @param addContentTabs add here the amount of 'tab's to insert before the
+     *                       Content.
+     * @param cursor         the cursor of the transactions, after the previous
+     *                       pages.
+     * @param count          the maximal number of transactions in the page.
+     * @return {@code true} if there are more transactions after the page.
+     */
+    public boolean printTransactions(String title,
+                                     String addContentTabs,
+                                     Iterator<Transaction> cursor,
+                                     int count) {
+        return printPage(title,
+                getDataBase().getSuccessfullyFinishedTransactions(),
+                BuildOutput_StockDataBase.TypeOfCollection.SUCCESSFULLY_FINISHED_TRANSACTIONS,
+                addContentTabs, cursor, count);
+    }
+
+    /**
+     * Builds the title of the transactions in this {@code Stock}, with their
+     * running total period.
+     *
+     * @param addTitleTabs add here the amount of 'tab's to insert before the
+     *                     Title.
+     * @return the title.
+     */
+    public String getTransactionsTitle(String addTitleTabs) {
+        return addTitleTabs + " - " + "Transactions Made: " +
+                "[Total Transactions Period = " + Currency.numberFormat.format(
+                getDataBase().getSuccessfullyFinishedTransactions().getCollection()
+                        .getTotalPeriod()) + "]:";
+    }
+
     /**
      * Reveal details of all the orders in this {@code Stock} sorted by {@link
      * timestamp.TimeStamp}:
@@ -162,27 +370,61 @@ public class Stock {
                                                String addContentTabs) {
 
         StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(addTitleTabs).append(" - ")
-                .append("Awaiting 'Buy' Orders: ");
-
-        stringBuilder.append("[Total 'Buy' Orders Period = ")
-                .append(Currency.numberFormat.format(dataBase.getTotalPeriod(
-                        dataBase.getAwaitingBuyOrders().getCollection())))
-                .append("]:");
+        stringBuilder.append(getAwaitingBuyOrdersTitle(addTitleTabs));
         stringBuilder.append("\n");
 
-        if (dataBase.getAwaitingBuyOrders().getCollection().size() == 0) {
+        if (getDataBase().getAwaitingBuyOrders().getCollection().size() == 0) {
             stringBuilder.append(addContentTabs)
                     .append(Message.Out.StockDataBase.printEmpty(
                             BuildOutput_StockDataBase.TypeOfCollection.AWAITING_BUY_ORDERS));
 
         } else {
-            stringBuilder.append(dataBase.getAwaitingBuyOrders()
+            stringBuilder.append(getDataBase().getAwaitingBuyOrders()
                     .toString(addContentTabs));
         }
         return stringBuilder.toString();
     }
 
+    /**
+     * Prints a page of the awaiting 'Buy' orders in this {@code Stock},
+     * straight to the output, as presented in {@link
+     * #getAwaitingBuyOrdersToString(String, String)}.
+     *
+     * @param title          the title, printed before the page, as built
+     *                       once before all the pages.
+     * @param addContentTabs add here the amount of 'tab's to insert before the
+     *                       Content.
+     * @param cursor         the cursor of the orders, after the previous
+     *                       pages.
+     * @param count          the maximal number of orders in the page.
+     * @return {@code true} if there are more orders after the page.
+     */
+    public boolean printAwaitingBuyOrders(String title,
+                                          String addContentTabs,
+                                          Iterator<Order> cursor,
+                                          int count) {
+        return printPage(title,
+                getDataBase().getAwaitingBuyOrders(),
+                BuildOutput_StockDataBase.TypeOfCollection.AWAITING_BUY_ORDERS,
+                addContentTabs, cursor, count);
+    }
+
+    /**
+     * Builds the title of the awaiting 'Buy' orders in this {@code Stock}. It
+     * sums the period of all the orders, so build it once before the pages.
+     *
+     * @param addTitleTabs add here the amount of 'tab's to insert before the
+     *                     Title.
+     * @return the title.
+     */
+    public String getAwaitingBuyOrdersTitle(String addTitleTabs) {
+        return addTitleTabs + " - " + "Awaiting 'Buy' Orders: " +
+                "[Total 'Buy' Orders Period = " + Currency.numberFormat.format(
+                getDataBase().getTotalPeriod(
+                        getDataBase().getAwaitingBuyOrders().getCollection())) +
+                "]:";
+    }
+
     /**
      * Reveal details of all the orders in this {@code Stock} sorted by {@link
      * timestamp.TimeStamp}:
@@ -198,25 +440,152 @@ public class Stock {
                                                 String addContentTabs) {
 
         StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(addTitleTabs).append(" - ")
-                .append("Awaiting 'Sell' Orders: ");
-
-        stringBuilder.append("[Total 'Sell' Orders Period = ")
-                .append(Currency.numberFormat.format(dataBase.getTotalPeriod(
-                        dataBase.getAwaitingSellOrders().getCollection())))
-                .append("]:");
+        stringBuilder.append(getAwaitingSellOrdersTitle(addTitleTabs));
         stringBuilder.append("\n");
 
-        if (dataBase.getAwaitingSellOrders().getCollection().size() == 0) {
+        if (getDataBase().getAwaitingSellOrders().getCollection().size() == 0) {
             stringBuilder.append(addContentTabs)
                     .append(Message.Out.StockDataBase.printEmpty(
                             BuildOutput_StockDataBase.TypeOfCollection.AWAITING_SELL_ORDERS));
 
         } else {
-            stringBuilder.append(dataBase.getAwaitingSellOrders()
+            stringBuilder.append(getDataBase().getAwaitingSellOrders()
                     .toString(addContentTabs));
         }
         return stringBuilder.toString();
     }
 
+    /**
+     * Prints a page of the awaiting 'Sell' orders in this {@code Stock},
+     * straight to the output, as presented in {@link
+     * #getAwaitingSellOrdersToString(String, String)}.
+     *
+     * @param title          the title, printed before the page, as built
+     *                       once before all the pages.
+     * @param addContentTabs add here the amount of 'tab's to insert before the
+     *                       Content.
+     * @param cursor         the cursor of the orders, after the previous
+     *                       pages.
+     * @param count          the maximal number of orders in the page.
+     * @return {@code true} if there are more orders after the page.
+     */
+    public boolean printAwaitingSellOrders(String title,
+                                           String addContentTabs,
+                                           Iterator<Order> cursor,
+                                           int count) {
+        return printPage(title,
+                getDataBase().getAwaitingSellOrders(),
+                BuildOutput_StockDataBase.TypeOfCollection.AWAITING_SELL_ORDERS,
+                addContentTabs, cursor, count);
+    }
+
+    /**
+     * Builds the title of the awaiting 'Sell' orders in this {@code Stock}, as
+     * {@link #getAwaitingBuyOrdersTitle(String)} does.
+     *
+     * @param addTitleTabs add here the amount of 'tab's to insert before the
+     *                     Title.
+     * @return the title.
+     */
+    public String getAwaitingSellOrdersTitle(String addTitleTabs) {
+        return addTitleTabs + " - " + "Awaiting 'Sell' Orders: " +
+                "[Total 'Sell' Orders Period = " + Currency.numberFormat.format(
+                getDataBase().getTotalPeriod(
+                        getDataBase().getAwaitingSellOrders().getCollection())) +
+                "]:";
+    }
+
+
+    /**
+     * Reveal details of all the Stop orders in this {@code Stock}, that are
+     * waiting for their {@code stopPrice}, sorted by arrival:
+     * <p>Old is presented above, and New is presented below.</p>
+     *
+     * @param addTitleTabs   add here the amount of 'tab's to insert before the
+     *                       Title.
+     * @param addContentTabs add here the amount of 'tab's to insert before the
+     *                       Content.
+     * @return {@link String} of the presented {@link java.util.Collection}.
+     */
+    public String getAwaitingStopOrdersToString(String addTitleTabs,
+                                                String addContentTabs) {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(getAwaitingStopOrdersTitle(addTitleTabs));
+        stringBuilder.append("\n");
+
+        if (getDataBase().getStopOrders().getCollection().size() == 0) {
+            stringBuilder.append(addContentTabs)
+                    .append(Message.Out.StockDataBase.printEmpty(
+                            BuildOutput_StockDataBase.TypeOfCollection.AWAITING_STOP_ORDERS));
+
+        } else {
+            stringBuilder.append(
+                    getDataBase().getStopOrders().toString(addContentTabs));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Prints a page of the Stop orders in this {@code Stock}, straight to the
+     * output, as presented in {@link #getAwaitingStopOrdersToString(String,
+     * String)}.
+     *
+     * @param title          the title, printed before the page, as built
+     *                       once before all the pages.
+     * @param addContentTabs add here the amount of 'tab's to insert before the
+     *                       Content.
+     * @param cursor         the cursor of the orders, after the previous
+     *                       pages.
+     * @param count          the maximal number of orders in the page.
+     * @return {@code true} if there are more orders after the page.
+     */
+    public boolean printAwaitingStopOrders(String title,
+                                           String addContentTabs,
+                                           Iterator<Order> cursor,
+                                           int count) {
+        return printPage(title,
+                getDataBase().getStopOrders(),
+                BuildOutput_StockDataBase.TypeOfCollection.AWAITING_STOP_ORDERS,
+                addContentTabs, cursor, count);
+    }
+
+    /**
+     * Builds the title of the awaiting 'Stop' orders in this {@code Stock}.
+     *
+     * @param addTitleTabs add here the amount of 'tab's to insert before the
+     *                     Title.
+     * @return the title.
+     */
+    public String getAwaitingStopOrdersTitle(String addTitleTabs) {
+        return addTitleTabs + " - " + "Awaiting 'Stop' Orders: ";
+    }
+
+    /**
+     * Prints a title, and then the next page of a {@link EngineCollection}
+     * straight to the output. Thus, the memory used does not depend on the
+     * size of the {@link EngineCollection}, and each page costs only its own
+     * {@code Elements}.
+     *
+     * @param cursor the cursor of the {@link EngineCollection}, after the
+     *               previous pages.
+     * @return {@code true} if there are more {@code Elements} after the page.
+     */
+    private static <E> boolean printPage(String title,
+                                         EngineCollection<?, E> collection,
+                                         BuildOutput_StockDataBase.TypeOfCollection typeOfCollection,
+                                         String addContentTabs,
+                                         Iterator<E> cursor, int count) {
+        MessagePrint.println(MessagePrint.Stream.OUT, title);
+        if (collection.getCollection().isEmpty()) {
+            MessagePrint.println(MessagePrint.Stream.OUT, addContentTabs +
+                    Message.Out.StockDataBase.printEmpty(typeOfCollection));
+            return false;
+        }
+        boolean isMore = EngineCollection.printPage(MessagePrint.Stream.OUT,
+                addContentTabs, cursor, count);
+        MessagePrint.println(MessagePrint.Stream.OUT, "");
+        return isMore;
+    }
+
 }
@@ -1,19 +1,28 @@
 package stock.database;
 
+import bar.Bars;
 import engine.collection.AddTabsCollection;
 import engine.collection.Periodable;
 import engine.collection.list.SortableLinkedList;
 import order.BuyOrders;
 import order.Order;
+import order.OrderDirection;
 import order.SellOrders;
+import order.StopOrders;
+import order.book.OrderBook;
 import transaction.Transaction;
+import transaction.TransactionHistory;
 import transaction.Transactions;
 
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * This class manages all the {@link Order}(s) and {@link Transaction}(s) of a
@@ -24,8 +33,11 @@ import java.util.Collection;
  *     <li>{@link #awaitingSellOrders}.</li>
  *     <li>{@link #successfullyFinishedTransactions}.</li>
  * </ul>
+ * <p>And the {@link #stopOrders}, that wait outside the awaiting orders.</p>
+ * <p>And the {@link #bars}, that aggregate the {@link Transaction}s over
+ * time.</p>
  *
- * @version 1.2
+ * @version 1.8
  */
 @XmlAccessorType(XmlAccessType.FIELD) @XmlRootElement(name = "rse-data-base")
 public class StockDataBase {
@@ -46,6 +58,23 @@ public class StockDataBase {
     @XmlElement(name = "rse-successfully-finished-transactions")
     private Transactions successfullyFinishedTransactions;
 
+    /**
+     * Element = {@link Order} of {@link order.OrderType#STP} or {@link
+     * order.OrderType#STL}.
+     */
+    @XmlElement(name = "rse-stop-orders") private StopOrders stopOrders;
+
+    /**
+     * The OHLCV {@link bar.Bar}s of the {@link Transaction}s.
+     */
+    @XmlElement(name = "rse-bars") private Bars bars;
+
+    /**
+     * {@code true} if the {@link #bars} should be aggregated from the {@link
+     * Transaction}s, on their first use.
+     */
+    @XmlTransient private boolean barsToRebuild = false;
+
     /**
      * Constructor:
      * <p>initializes all fields.</p>
@@ -66,6 +95,40 @@ public class StockDataBase {
 
         successfullyFinishedTransactions = new Transactions();
 
+        stopOrders = new StopOrders();
+
+        bars = new Bars();
+
+    }
+
+    /**
+     * Copy Constructor: the copy is independent of the given data-base's
+     * later changes.
+     * <ul>
+     *     <li>The {@link Order}s are copied, as their quantities change.</li>
+     *     <li>The {@link Transaction}s never change, so they are shared, as
+     *     in {@link
+     *     TransactionHistory#TransactionHistory(TransactionHistory)}.</li>
+     * </ul>
+     */
+    public StockDataBase(StockDataBase dataBase) {
+        this();
+        copyOrders(dataBase.awaitingBuyOrders.getCollection(),
+                awaitingBuyOrders.getCollection());
+        copyOrders(dataBase.awaitingSellOrders.getCollection(),
+                awaitingSellOrders.getCollection());
+        stopOrders = new StopOrders(dataBase.stopOrders);
+        successfullyFinishedTransactions.setCollection(
+                new TransactionHistory(dataBase.successfullyFinishedTransactions
+                        .getCollection()));
+        bars = new Bars(dataBase.bars);
+        barsToRebuild = dataBase.barsToRebuild;
+    }
+
+    private static void copyOrders(List<Order> from, List<Order> to) {
+        for (Order i : from) {
+            to.add(new Order(i));
+        }
     }
 
     public BuyOrders getAwaitingBuyOrders() {
@@ -94,6 +157,77 @@ public class StockDataBase {
                 successfullyFinishedTransactions;
     }
 
+    /**
+     * Chooses the implementation of both sides of the book.
+     *
+     * @param referencePrice the price to center a {@link
+     *                       order.book.TickArrayBook}'s window around.
+     * @param ticks          the number of prices in the window of a {@link
+     *                       order.book.TickArrayBook}, or {@code 0} to let
+     *                       each side adapt by its depth and price spread.
+     * @see OrderBook
+     */
+    public void useBooks(long referencePrice, int ticks) {
+        OrderBook buyOrders = awaitingBuyOrders.getCollection();
+        OrderBook sellOrders = awaitingSellOrders.getCollection();
+        if (ticks > 0) {
+            buyOrders.useTickArray(OrderDirection.BUY, referencePrice, ticks);
+            sellOrders.useTickArray(OrderDirection.SELL, referencePrice,
+                    ticks);
+        } else {
+            buyOrders.adapt(OrderDirection.BUY, referencePrice);
+            sellOrders.adapt(OrderDirection.SELL, referencePrice);
+        }
+    }
+
+    public StopOrders getStopOrders() {
+        return stopOrders;
+    }
+
+    public void setStopOrders(StopOrders stopOrders) {
+        this.stopOrders = stopOrders;
+    }
+
+    public Bars getBars() {
+        if (barsToRebuild) {
+            barsToRebuild = false;
+            Iterator<Transaction> it = successfullyFinishedTransactions
+                    .getCollection().chronologicalIterator();
+            while (it.hasNext()) {
+                bars.add(it.next());
+            }
+        }
+        return bars;
+    }
+
+    public void setBars(Bars bars) {
+        this.bars = bars;
+    }
+
+    /**
+     * Drops the {@link #bars}, to be aggregated again from the {@link
+     * Transaction}s on their first use. called after the {@link
+     * Transaction}s were changed outside the {@code Engine}.
+     */
+    public void rebuildBars() {
+        bars = new Bars();
+        barsToRebuild =
+                !successfullyFinishedTransactions.getCollection().isEmpty();
+    }
+
+    /**
+     * Called by JAXB after unmarshalling: a data-base saved without {@link
+     * bar.Bar}s gets them aggregated from its {@link Transaction}s, once. The
+     * {@link Transaction}s are read only after the load is validated.
+     */
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        if (bars == null) {
+            bars = new Bars();
+        }
+        barsToRebuild = bars.isEmpty() &&
+                !successfullyFinishedTransactions.getCollection().isEmpty();
+    }
+
     /**
      * This method calculates the {@code Total-Collection-Period} of all the
      * {@code Elements} in the {@link Collection} and returns it.
@@ -0,0 +1,23 @@
+package stock.database;
+
+import java.io.IOException;
+
+/**
+ * Loads the {@link StockDataBase} of a single {@link stock.Stock}, on its
+ * first use.
+ *
+ * @version 1.0
+ * @see stock.Stock#setDataBaseLoader(StockDataBaseLoader)
+ */
+public interface StockDataBaseLoader {
+
+    /**
+     * May be called more than once, and on any thread: each call returns a
+     * new {@link StockDataBase}.
+     *
+     * @return the loaded {@link StockDataBase}.
+     * @throws IOException if it cannot be loaded.
+     */
+    StockDataBase load() throws IOException;
+
+}
@@ -4,13 +4,16 @@ import order.Order;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.TimeZone;
 
 /**
  * This class represents the format of a TimeStamp.
  * <p>Has the method {@link #getTimeStamp()} to get a timeStamp of current
  * execution.</p>
+ * <p>Has the methods {@link #toMillisOfDay(String)} and {@link
+ * #fromMillisOfDay(long)} to convert a timeStamp to a number, and back.</p>
  *
- * @version 1.0
+ * @version 1.3
  */
 public class TimeStamp {
 
@@ -19,6 +22,8 @@ public class TimeStamp {
      */
     private static final String timeStampFormat = "HH:mm:ss:SSS";
 
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
     /**
      * Prevent others to call the Constructor. Thus, private Constructor.
      */
@@ -34,4 +39,93 @@ public class TimeStamp {
                 .format(LocalDateTime.now());
     }
 
+    /**
+     * Converts a timeStamp of the format {@value #timeStampFormat} to the
+     * number of milliseconds since the start of the day.
+     * <p>Parses the characters directly, with no allocations.</p>
+     *
+     * @param timeStamp the timeStamp to convert.
+     * @return the milliseconds of the day of the {@code timeStamp}.
+     * @throws IllegalArgumentException if the {@code timeStamp} is not of the
+     *                                  format {@value #timeStampFormat}, or
+     *                                  is not a time of the day.
+     */
+    public static long toMillisOfDay(String timeStamp) {
+        if ((timeStamp == null) ||
+                (timeStamp.length() != timeStampFormat.length()) ||
+                (timeStamp.charAt(2) != ':') || (timeStamp.charAt(5) != ':') ||
+                (timeStamp.charAt(8) != ':')) {
+            throw newFormatException(timeStamp);
+        }
+        long hours = parseDigits(timeStamp, 0, 2);
+        long minutes = parseDigits(timeStamp, 3, 5);
+        long seconds = parseDigits(timeStamp, 6, 8);
+        long millis = parseDigits(timeStamp, 9, 12);
+        if ((hours >= 24) || (minutes >= 60) || (seconds >= 60)) {
+            throw new IllegalArgumentException("timeStamp '" + timeStamp +
+                    "' is not a time of the day.");
+        }
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+    }
+
+    /**
+     * Converts a number of milliseconds since the start of the day to a
+     * timeStamp of the format {@value #timeStampFormat}.
+     *
+     * @param millisOfDay the milliseconds of the day to convert.
+     * @return the timeStamp of the {@code millisOfDay}.
+     */
+    public static String fromMillisOfDay(long millisOfDay) {
+        StringBuilder stringBuilder = new StringBuilder(12);
+        appendDigits(stringBuilder, millisOfDay / 3_600_000 % 24, 2);
+        stringBuilder.append(':');
+        appendDigits(stringBuilder, millisOfDay / 60_000 % 60, 2);
+        stringBuilder.append(':');
+        appendDigits(stringBuilder, millisOfDay / 1000 % 60, 2);
+        stringBuilder.append(':');
+        appendDigits(stringBuilder, millisOfDay % 1000, 3);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Converts a number of milliseconds since the start of the day to a time,
+     * in the local day of another time.
+     *
+     * @param nowMillis   a time, in milliseconds since the epoch.
+     * @param millisOfDay the milliseconds of the day to convert.
+     * @return the time of the {@code millisOfDay} in the local day of the
+     * {@code nowMillis}, in milliseconds since the epoch.
+     */
+    public static long toEpochMillis(long nowMillis, long millisOfDay) {
+        long offset = TimeZone.getDefault().getOffset(nowMillis);
+        return nowMillis - Math.floorMod(nowMillis + offset, MILLIS_PER_DAY) +
+                millisOfDay;
+    }
+
+    private static long parseDigits(String timeStamp, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char digit = timeStamp.charAt(i);
+            if ((digit < '0') || (digit > '9')) {
+                throw newFormatException(timeStamp);
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException newFormatException(
+            String timeStamp) {
+        return new IllegalArgumentException("timeStamp '" + timeStamp +
+                "' is not of the format '" + timeStampFormat + "'.");
+    }
+
+    private static void appendDigits(StringBuilder stringBuilder, long value,
+                                     int digits) {
+        for (long i = (digits == 3) ? 100 : 10; i > value && i > 1; i /= 10) {
+            stringBuilder.append('0');
+        }
+        stringBuilder.append(value);
+    }
+
 }
@@ -0,0 +1,226 @@
+package transaction;
+
+import java.util.Arrays;
+
+/**
+ * A sealed, compressed chunk of {@link Transaction}s, in a columnar layout.
+ * <p>
+ * The {@link Transaction}s are kept from the oldest to the newest, each as 3
+ * <i>varint</i>s:
+ * </p>
+ * <ul>
+ *     <li>the delta of its {@code timeStamp} (in milliseconds of the day)
+ *     from the previous one, <i>zigzag</i> encoded.</li>
+ *     <li>the delta of its {@code price} from the previous one, <i>zigzag</i>
+ *     encoded.</li>
+ *     <li>its {@code quantity}.</li>
+ * </ul>
+ * <p>Thus, a typical {@link Transaction} takes a few bytes, instead of an
+ * object and a {@code String}.</p>
+ * <p>A chunk is immutable once sealed, and keeps a summary of its {@link
+ * Transaction}s: the ranges of their values (to skip the chunk in queries
+ * that it can not match), and the running sums of the whole history up to
+ * this chunk (to sum up many chunks in {@code O(1)}).</p>
+ *
+ * @version 1.0
+ * @see TransactionHistory
+ */
+final class TransactionChunk {
+
+    private final byte[] data;
+
+    private final int size;
+
+    private final long firstMillis;
+
+    private final long lastMillis;
+
+    private final long totalQuantity;
+
+    private final long totalPeriod;
+
+    private final long minMillis;
+
+    private final long maxMillis;
+
+    private final long minPrice;
+
+    private final long maxPrice;
+
+    private final long maxQuantity;
+
+    /**
+     * The sum of the {@code quantity}s of this chunk and all the chunks
+     * before it.
+     */
+    private final long cumulativeQuantity;
+
+    /**
+     * The sum of the {@code Period}s of this chunk and all the chunks before
+     * it.
+     */
+    private final long cumulativePeriod;
+
+    /**
+     * Seals the given columns into a chunk.
+     *
+     * @param millis     the {@code timeStamp}s, in milliseconds of the day.
+     * @param prices     the {@code price}s.
+     * @param quantities the {@code quantity}s.
+     * @param size       the number of {@link Transaction}s in the columns.
+     * @param previous   the chunk before this one, or {@code null} if this is
+     *                   the first.
+     */
+    TransactionChunk(long[] millis, long[] prices, long[] quantities,
+                     int size, TransactionChunk previous) {
+        byte[] buffer = new byte[size * 6];
+        int position = 0;
+        long previousMillis = 0;
+        long previousPrice = 0;
+        long quantitySum = 0;
+        long periodSum = 0;
+        long minMillisFound = Long.MAX_VALUE;
+        long maxMillisFound = Long.MIN_VALUE;
+        long minPriceFound = Long.MAX_VALUE;
+        long maxPriceFound = Long.MIN_VALUE;
+        long maxQuantityFound = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+
+            // make sure there is room for 3 varints of the worst case:
+            if (buffer.length - position < 30) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2 + 30);
+            }
+            position = writeVarint(buffer, position,
+                    zigzag(millis[i] - previousMillis));
+            position = writeVarint(buffer, position,
+                    zigzag(prices[i] - previousPrice));
+            position = writeVarint(buffer, position, quantities[i]);
+            previousMillis = millis[i];
+            previousPrice = prices[i];
+            quantitySum += quantities[i];
+            periodSum += quantities[i] * prices[i];
+            minMillisFound = Math.min(minMillisFound, millis[i]);
+            maxMillisFound = Math.max(maxMillisFound, millis[i]);
+            minPriceFound = Math.min(minPriceFound, prices[i]);
+            maxPriceFound = Math.max(maxPriceFound, prices[i]);
+            maxQuantityFound = Math.max(maxQuantityFound, quantities[i]);
+        }
+        this.data = Arrays.copyOf(buffer, position);
+        this.size = size;
+        this.firstMillis = millis[0];
+        this.lastMillis = millis[size - 1];
+        this.totalQuantity = quantitySum;
+        this.totalPeriod = periodSum;
+        this.minMillis = minMillisFound;
+        this.maxMillis = maxMillisFound;
+        this.minPrice = minPriceFound;
+        this.maxPrice = maxPriceFound;
+        this.maxQuantity = maxQuantityFound;
+        this.cumulativeQuantity = quantitySum +
+                ((previous == null) ? 0 : previous.cumulativeQuantity);
+        this.cumulativePeriod = periodSum +
+                ((previous == null) ? 0 : previous.cumulativePeriod);
+    }
+
+    /**
+     * Decodes this chunk into the given columns, from the oldest to the
+     * newest.
+     */
+    void decode(long[] millis, long[] prices, long[] quantities) {
+        int[] position = {0};
+        long currentMillis = 0;
+        long currentPrice = 0;
+        for (int i = 0; i < size; i++) {
+            currentMillis += unzigzag(readVarint(position));
+            currentPrice += unzigzag(readVarint(position));
+            millis[i] = currentMillis;
+            prices[i] = currentPrice;
+            quantities[i] = readVarint(position);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getFirstMillis() {
+        return firstMillis;
+    }
+
+    long getLastMillis() {
+        return lastMillis;
+    }
+
+    long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    long getTotalPeriod() {
+        return totalPeriod;
+    }
+
+    long getMinMillis() {
+        return minMillis;
+    }
+
+    long getMaxMillis() {
+        return maxMillis;
+    }
+
+    long getMinPrice() {
+        return minPrice;
+    }
+
+    long getMaxPrice() {
+        return maxPrice;
+    }
+
+    long getMaxQuantity() {
+        return maxQuantity;
+    }
+
+    long getCumulativeQuantity() {
+        return cumulativeQuantity;
+    }
+
+    long getCumulativePeriod() {
+        return cumulativePeriod;
+    }
+
+    /**
+     * @return the number of bytes that this chunk's data takes.
+     */
+    int getEncodedSize() {
+        return data.length;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private long readVarint(int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = data[position[0]++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+}
@@ -0,0 +1,729 @@
+package transaction;
+
+import timestamp.TimeStamp;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * An append-only store of the {@link Transaction}s of a {@link stock.Stock},
+ * viewed as a {@link List} from the <i>newest</i> to the <i>oldest</i> (as the
+ * {@link Transaction}s were always kept).
+ * <p>
+ * The most recent {@link Transaction}s are kept as objects, in a <i>hot
+ * tail</i>. Whenever the tail fills, its older half is sealed into a {@link
+ * TransactionChunk}: a compressed, columnar encoding of {@value #CHUNK_SIZE}
+ * {@link Transaction}s. The {@link Transaction}s of the sealed chunks are
+ * re-created lazily, only while iterating over them.
+ * </p>
+ * <ul>
+ *     <li>{@link #addFirst(Transaction)} adds a new {@link Transaction}, in
+ *     amortized {@code O(1)}.</li>
+ *     <li>{@link #add(Transaction)} adds an <i>older</i> {@link Transaction}
+ *     than all the existing ones. Used by the <tt>.xml</tt> load, which reads
+ *     the {@link Transaction}s from the newest to the oldest.</li>
+ *     <li>{@link #getTotalPeriod()} and {@link #getTotalQuantity()} are kept
+ *     as running sums.</li>
+ * </ul>
+ * <p>
+ * Queries by time, price and quantity are answered without walking the
+ * whole history: while the {@code timeStamp}s arrive in order, the chunks
+ * and the tail are binary searched by time, in {@code O(log n + k)}. Besides,
+ * each chunk keeps the ranges of its values, so chunks that can not match a
+ * query are never decoded, and its running sums let {@link
+ * #getSummary(String, String)} sum up all the chunks inside the window in
+ * {@code O(1)}.
+ * </p>
+ * <blockquote>Any other modification is not supported.</blockquote>
+ *
+ * @version 1.2
+ */
+public class TransactionHistory extends AbstractList<Transaction> {
+
+    /**
+     * The number of {@link Transaction}s in each sealed {@link
+     * TransactionChunk}, and the minimal number of {@link Transaction}s that
+     * stay in the hot tail.
+     */
+    static final int CHUNK_SIZE = 1024;
+
+    /**
+     * The sealed chunks, from the oldest to the newest.
+     */
+    private final List<TransactionChunk> chunks = new ArrayList<>();
+
+    /**
+     * The hot tail, from the oldest to the newest.
+     */
+    private final ArrayList<Transaction> tail = new ArrayList<>();
+
+    /**
+     * The {@code timeStamp}s of the {@link #tail}, in milliseconds of the
+     * day.
+     */
+    private final long[] tailMillis = new long[2 * CHUNK_SIZE];
+
+    /**
+     * {@link Transaction}s older than all the others, from the newest to the
+     * oldest, that were added by {@link #add(Transaction)} and not stored yet.
+     */
+    private final ArrayList<Transaction> pendingOlder = new ArrayList<>();
+
+    private long totalQuantity = 0;
+
+    private long totalPeriod = 0;
+
+    /**
+     * {@code true} while each {@link Transaction} is not earlier than the
+     * previous one. Then, the history may be binary searched by time.
+     */
+    private boolean timeOrdered = true;
+
+    /**
+     * The {@code timeStamp} of the newest {@link Transaction}, in
+     * milliseconds of the day.
+     */
+    private long newestMillis = Long.MIN_VALUE;
+
+    public TransactionHistory() {}
+
+    /**
+     * Copy Constructor: the sealed chunks, and the {@link Transaction}s
+     * themselves, never change, so they are shared with the given history.
+     * Only the hot tail is copied.
+     */
+    public TransactionHistory(TransactionHistory history) {
+        chunks.addAll(history.chunks);
+        tail.addAll(history.tail);
+        System.arraycopy(history.tailMillis, 0, tailMillis, 0,
+                history.tail.size());
+        pendingOlder.addAll(history.pendingOlder);
+        totalQuantity = history.totalQuantity;
+        totalPeriod = history.totalPeriod;
+        timeOrdered = history.timeOrdered;
+        newestMillis = history.newestMillis;
+    }
+
+    /**
+     * Adds the newest {@link Transaction}.
+     *
+     * @param transaction the {@link Transaction} to add.
+     * @throws IllegalArgumentException if the {@code timeStamp} of the {@code
+     *                                  transaction} is not of the format of
+     *                                  {@link TimeStamp}.
+     */
+    public void addFirst(Transaction transaction) {
+        storePendingOlder();
+        append(transaction);
+        ++modCount;
+    }
+
+    /**
+     * Adds a {@link Transaction} that is <i>older</i> than all the existing
+     * ones. i.e. to the end of this {@link List}.
+     *
+     * @param transaction the {@link Transaction} to add.
+     * @return {@code true}.
+     */
+    @Override public boolean add(Transaction transaction) {
+        pendingOlder.add(transaction);
+        ++modCount;
+        return true;
+    }
+
+    @Override public void clear() {
+        chunks.clear();
+        tail.clear();
+        pendingOlder.clear();
+        totalQuantity = 0;
+        totalPeriod = 0;
+        timeOrdered = true;
+        newestMillis = Long.MIN_VALUE;
+        ++modCount;
+    }
+
+    @Override public int size() {
+        return chunks.size() * CHUNK_SIZE + tail.size() + pendingOlder.size();
+    }
+
+    /**
+     * Gets a {@link Transaction} by its index. a sealed {@link Transaction}
+     * is decoded with its whole chunk, thus prefer {@link #iterator()}.
+     *
+     * @param index {@code 0} is the newest {@link Transaction}.
+     */
+    @Override public Transaction get(int index) {
+        storePendingOlder();
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + size());
+        }
+        if (index < tail.size()) {
+            return tail.get(tail.size() - 1 - index);
+        }
+        int fromNewestChunk = index - tail.size();
+        DecodedChunk decoded = new DecodedChunk(chunks.get(
+                chunks.size() - 1 - fromNewestChunk / CHUNK_SIZE));
+        return decoded.get(CHUNK_SIZE - 1 - fromNewestChunk % CHUNK_SIZE);
+    }
+
+    /**
+     * @return an {@link Iterator} from the newest {@link Transaction} to the
+     * oldest.
+     */
+    @Override public Iterator<Transaction> iterator() {
+        storePendingOlder();
+        return new NewestFirstIterator();
+    }
+
+    /**
+     * @return an {@link Iterator} from the oldest {@link Transaction} to the
+     * newest.
+     */
+    public Iterator<Transaction> chronologicalIterator() {
+        storePendingOlder();
+        return new OldestFirstIterator();
+    }
+
+    /**
+     * @return the sum of the {@code Period}s of all the {@link
+     * Transaction}s.
+     * @see Transaction#getPeriod()
+     */
+    public long getTotalPeriod() {
+        storePendingOlder();
+        return totalPeriod;
+    }
+
+    /**
+     * @return the sum of the {@code quantity}s of all the {@link
+     * Transaction}s.
+     */
+    public long getTotalQuantity() {
+        storePendingOlder();
+        return totalQuantity;
+    }
+
+    /**
+     * @return the number of the {@link Transaction}s that are sealed in
+     * compressed chunks.
+     */
+    public int getSealedSize() {
+        storePendingOlder();
+        return chunks.size() * CHUNK_SIZE;
+    }
+
+    /**
+     * @return the number of bytes that the sealed chunks take.
+     */
+    public long getSealedBytes() {
+        storePendingOlder();
+        long bytes = 0;
+        for (TransactionChunk i : chunks) {
+            bytes += i.getEncodedSize();
+        }
+        return bytes;
+    }
+
+    /**
+     * Appends the newest {@link Transaction} to the tail, and seals the older
+     * half of the tail when it is full.
+     */
+    private void append(Transaction transaction) {
+
+        // parse the timeStamp now, so an invalid one is never stored:
+        long millis = TimeStamp.toMillisOfDay(transaction.getTimeStamp());
+        if (millis < newestMillis) {
+            timeOrdered = false;
+        }
+        newestMillis = millis;
+        tailMillis[tail.size()] = millis;
+        tail.add(transaction);
+        totalQuantity += transaction.getQuantity();
+        totalPeriod += transaction.getPeriod();
+        if (tail.size() >= 2 * CHUNK_SIZE) {
+            sealOldestOfTail();
+        }
+    }
+
+    private void sealOldestOfTail() {
+        long[] millis = new long[CHUNK_SIZE];
+        long[] prices = new long[CHUNK_SIZE];
+        long[] quantities = new long[CHUNK_SIZE];
+        System.arraycopy(tailMillis, 0, millis, 0, CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Transaction transaction = tail.get(i);
+            prices[i] = transaction.getPrice();
+            quantities[i] = transaction.getQuantity();
+        }
+        chunks.add(new TransactionChunk(millis, prices, quantities, CHUNK_SIZE,
+                chunks.isEmpty() ? null : chunks.get(chunks.size() - 1)));
+        tail.subList(0, CHUNK_SIZE).clear();
+        System.arraycopy(tailMillis, CHUNK_SIZE, tailMillis, 0, tail.size());
+    }
+
+    /**
+     * Stores the {@link #pendingOlder} {@link Transaction}s before all the
+     * others. happens once, after an <tt>.xml</tt> load.
+     */
+    private void storePendingOlder() {
+        if (pendingOlder.isEmpty()) {
+            return;
+        }
+
+        // collect all, from the oldest to the newest:
+        List<Transaction> all = new ArrayList<>(size());
+        for (int i = pendingOlder.size() - 1; i >= 0; i--) {
+            all.add(pendingOlder.get(i));
+        }
+        pendingOlder.clear();
+        for (Iterator<Transaction> it = new OldestFirstIterator();
+             it.hasNext(); ) {
+            all.add(it.next());
+        }
+
+        // store them again:
+        chunks.clear();
+        tail.clear();
+        totalQuantity = 0;
+        totalPeriod = 0;
+        timeOrdered = true;
+        newestMillis = Long.MIN_VALUE;
+        for (Transaction i : all) {
+            append(i);
+        }
+    }
+
+    /**
+     * Gets the {@link Transaction}s in a time window.
+     *
+     * @param from the start of the window (inclusive), of the format of {@link
+     *             TimeStamp}. {@code null} for no start.
+     * @param to   the end of the window (inclusive), of the format of {@link
+     *             TimeStamp}. {@code null} for no end.
+     * @return the {@link Transaction}s, from the newest to the oldest.
+     */
+    public List<Transaction> getTransactions(String from, String to) {
+        return getTransactions(from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Gets the {@link Transaction}s in a price range.
+     *
+     * @param minPrice the lowest price (inclusive). {@code Long.MIN_VALUE} for
+     *                 no lowest price.
+     * @param maxPrice the highest price (inclusive). {@code Long.MAX_VALUE}
+     *                 for no highest price.
+     * @return the {@link Transaction}s, from the newest to the oldest.
+     */
+    public List<Transaction> getTransactionsByPrice(long minPrice,
+                                                    long maxPrice) {
+        return getTransactions(null, null, minPrice, maxPrice);
+    }
+
+    /**
+     * Gets the {@link Transaction}s in a time window, and in a price range.
+     *
+     * @param from     the start of the window (inclusive). {@code null} for no
+     *                 start.
+     * @param to       the end of the window (inclusive). {@code null} for no
+     *                 end.
+     * @param minPrice the lowest price (inclusive).
+     * @param maxPrice the highest price (inclusive).
+     * @return the {@link Transaction}s, from the newest to the oldest.
+     */
+    public List<Transaction> getTransactions(String from, String to,
+                                             long minPrice, long maxPrice) {
+        List<Transaction> result = new ArrayList<>();
+        scan(toFromMillis(from), toToMillis(to), minPrice, maxPrice,
+                (millis, price, quantity, transaction) -> result.add(
+                        (transaction != null) ? transaction :
+                                newTransaction(millis, price, quantity)));
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Gets the {@link Transaction}s of the largest {@code quantity}s in a time
+     * window. Chunks that have no {@code quantity} larger than the found ones,
+     * are skipped.
+     *
+     * @param n    the maximal number of {@link Transaction}s to get.
+     * @param from the start of the window (inclusive). {@code null} for no
+     *             start.
+     * @param to   the end of the window (inclusive). {@code null} for no end.
+     * @return the {@link Transaction}s, from the largest {@code quantity} to
+     * the smallest.
+     */
+    public List<Transaction> getTopByQuantity(int n, String from, String to) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+
+        // a min-heap of the n largest so far:
+        PriorityQueue<Transaction> top = new PriorityQueue<>(n,
+                Comparator.comparingLong(Transaction::getQuantity));
+        scan(toFromMillis(from), toToMillis(to), Long.MIN_VALUE,
+                Long.MAX_VALUE, new RecordVisitor() {
+                    @Override
+                    public void visit(long millis, long price, long quantity,
+                                      Transaction transaction) {
+                        if (top.size() < n) {
+                            top.add((transaction != null) ? transaction :
+                                    newTransaction(millis, price, quantity));
+                        } else if (quantity > top.peek().getQuantity()) {
+                            top.poll();
+                            top.add((transaction != null) ? transaction :
+                                    newTransaction(millis, price, quantity));
+                        }
+                    }
+
+                    @Override
+                    public boolean isSkipped(TransactionChunk chunk) {
+                        return (top.size() == n) && (chunk.getMaxQuantity() <=
+                                top.peek().getQuantity());
+                    }
+                });
+        List<Transaction> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(Transaction::getQuantity)
+                .reversed());
+        return result;
+    }
+
+    /**
+     * Summarizes the {@link Transaction}s in a time window. The chunks inside
+     * the window are summed up by their running sums, without decoding them.
+     *
+     * @param from the start of the window (inclusive). {@code null} for no
+     *             start.
+     * @param to   the end of the window (inclusive). {@code null} for no end.
+     * @return the count, volume, {@code Period} and VWAP of the window.
+     */
+    public TransactionSummary getSummary(String from, String to) {
+        storePendingOlder();
+        long fromMillis = toFromMillis(from);
+        long toMillis = toToMillis(to);
+        long[] sums = new long[3]; // count, volume, period.
+        RecordVisitor summer = (millis, price, quantity, transaction) -> {
+            ++sums[0];
+            sums[1] += quantity;
+            sums[2] += quantity * price;
+        };
+        DecodedChunk decoded = new DecodedChunk();
+        if (timeOrdered) {
+
+            // the chunks on the edges of the window are partially inside:
+            int first = firstChunkEndingAtOrAfter(fromMillis);
+            int last = lastChunkStartingAtOrBefore(toMillis);
+            while ((first <= last) &&
+                    !isInside(chunks.get(first), fromMillis, toMillis)) {
+                visitChunk(chunks.get(first++), fromMillis, toMillis,
+                        Long.MIN_VALUE, Long.MAX_VALUE, summer, decoded);
+            }
+            while ((last >= first) &&
+                    !isInside(chunks.get(last), fromMillis, toMillis)) {
+                visitChunk(chunks.get(last--), fromMillis, toMillis,
+                        Long.MIN_VALUE, Long.MAX_VALUE, summer, decoded);
+            }
+
+            // all the chunks between them are inside:
+            if (first <= last) {
+                TransactionChunk before =
+                        (first == 0) ? null : chunks.get(first - 1);
+                sums[0] += (long) (last - first + 1) * CHUNK_SIZE;
+                sums[1] += chunks.get(last).getCumulativeQuantity() -
+                        ((before == null) ? 0 : before.getCumulativeQuantity());
+                sums[2] += chunks.get(last).getCumulativePeriod() -
+                        ((before == null) ? 0 : before.getCumulativePeriod());
+            }
+        } else {
+            for (TransactionChunk i : chunks) {
+                if (isInside(i, fromMillis, toMillis)) {
+                    sums[0] += i.size();
+                    sums[1] += i.getTotalQuantity();
+                    sums[2] += i.getTotalPeriod();
+                } else {
+                    visitChunk(i, fromMillis, toMillis, Long.MIN_VALUE,
+                            Long.MAX_VALUE, summer, decoded);
+                }
+            }
+        }
+        visitTail(fromMillis, toMillis, Long.MIN_VALUE, Long.MAX_VALUE, summer);
+        return new TransactionSummary(sums[0], sums[1], sums[2]);
+    }
+
+    /**
+     * Visits the {@link Transaction}s that match the given ranges, from the
+     * oldest to the newest.
+     */
+    private void scan(long fromMillis, long toMillis, long minPrice,
+                      long maxPrice, RecordVisitor visitor) {
+        storePendingOlder();
+        int first = 0;
+        int last = chunks.size() - 1;
+        if (timeOrdered) {
+            first = firstChunkEndingAtOrAfter(fromMillis);
+            last = lastChunkStartingAtOrBefore(toMillis);
+        }
+        DecodedChunk decoded = new DecodedChunk();
+        for (int i = first; i <= last; i++) {
+            TransactionChunk chunk = chunks.get(i);
+            if (!visitor.isSkipped(chunk)) {
+                visitChunk(chunk, fromMillis, toMillis, minPrice, maxPrice,
+                        visitor, decoded);
+            }
+        }
+        visitTail(fromMillis, toMillis, minPrice, maxPrice, visitor);
+    }
+
+    /**
+     * Decodes a chunk, unless its ranges do not match, and visits its
+     * matching {@link Transaction}s.
+     */
+    private void visitChunk(TransactionChunk chunk, long fromMillis,
+                            long toMillis, long minPrice, long maxPrice,
+                            RecordVisitor visitor, DecodedChunk decoded) {
+        if ((chunk.getMaxMillis() < fromMillis) ||
+                (chunk.getMinMillis() > toMillis) ||
+                (chunk.getMaxPrice() < minPrice) ||
+                (chunk.getMinPrice() > maxPrice)) {
+            return;
+        }
+        decoded.decode(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            long millis = decoded.millis[i];
+            long price = decoded.prices[i];
+            if ((millis >= fromMillis) && (millis <= toMillis) &&
+                    (price >= minPrice) && (price <= maxPrice)) {
+                visitor.visit(millis, price, decoded.quantities[i], null);
+            }
+        }
+    }
+
+    private void visitTail(long fromMillis, long toMillis, long minPrice,
+                           long maxPrice, RecordVisitor visitor) {
+        int i = 0;
+        if (timeOrdered) {
+
+            // binary search the first one at 'fromMillis' or later:
+            int high = tail.size();
+            while (i < high) {
+                int middle = (i + high) >>> 1;
+                if (tailMillis[middle] < fromMillis) {
+                    i = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+        }
+        for (; i < tail.size(); i++) {
+            long millis = tailMillis[i];
+            if (millis > toMillis) {
+                if (timeOrdered) {
+                    break;
+                }
+                continue;
+            }
+            Transaction transaction = tail.get(i);
+            long price = transaction.getPrice();
+            if ((millis >= fromMillis) && (price >= minPrice) &&
+                    (price <= maxPrice)) {
+                visitor.visit(millis, price, transaction.getQuantity(),
+                        transaction);
+            }
+        }
+    }
+
+    /**
+     * Binary search over the chunks, while {@link #timeOrdered}.
+     *
+     * @return the index of the first chunk that ends at {@code millis} or
+     * later.
+     */
+    private int firstChunkEndingAtOrAfter(long millis) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (chunks.get(middle).getMaxMillis() < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Binary search over the chunks, while {@link #timeOrdered}.
+     *
+     * @return the index of the last chunk that starts at {@code millis} or
+     * earlier.
+     */
+    private int lastChunkStartingAtOrBefore(long millis) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (chunks.get(middle).getMinMillis() <= millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    private static boolean isInside(TransactionChunk chunk, long fromMillis,
+                                    long toMillis) {
+        return (chunk.getMinMillis() >= fromMillis) &&
+                (chunk.getMaxMillis() <= toMillis);
+    }
+
+    private static long toFromMillis(String from) {
+        return (from == null) ? Long.MIN_VALUE : TimeStamp.toMillisOfDay(from);
+    }
+
+    private static long toToMillis(String to) {
+        return (to == null) ? Long.MAX_VALUE : TimeStamp.toMillisOfDay(to);
+    }
+
+    private static Transaction newTransaction(long millis, long price,
+                                              long quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setTimeStamp(TimeStamp.fromMillisOfDay(millis));
+        transaction.setPrice(price);
+        transaction.setQuantity(quantity);
+        return transaction;
+    }
+
+    /**
+     * Visits the {@link Transaction}s that match a query.
+     */
+    @FunctionalInterface private interface RecordVisitor {
+
+        /**
+         * @param transaction the {@link Transaction} object, if it is in the
+         *                    tail. {@code null} if it is sealed.
+         */
+        void visit(long millis, long price, long quantity,
+                   Transaction transaction);
+
+        /**
+         * @return {@code true} if the whole chunk can not be of any interest.
+         */
+        default boolean isSkipped(TransactionChunk chunk) {
+            return false;
+        }
+    }
+
+    /**
+     * The columns of a {@link TransactionChunk}, decoded.
+     */
+    private static class DecodedChunk {
+        private final long[] millis = new long[CHUNK_SIZE];
+        private final long[] prices = new long[CHUNK_SIZE];
+        private final long[] quantities = new long[CHUNK_SIZE];
+
+        DecodedChunk() {}
+
+        DecodedChunk(TransactionChunk chunk) {
+            chunk.decode(millis, prices, quantities);
+        }
+
+        void decode(TransactionChunk chunk) {
+            chunk.decode(millis, prices, quantities);
+        }
+
+        /**
+         * @return a new {@link Transaction} of the {@code index} (from the
+         * oldest) in the chunk.
+         */
+        Transaction get(int index) {
+            return newTransaction(millis[index], prices[index],
+                    quantities[index]);
+        }
+    }
+
+    private class NewestFirstIterator implements Iterator<Transaction> {
+        private final int expectedModCount = modCount;
+        private int tailIndex = tail.size() - 1;
+        private int chunkIndex = chunks.size() - 1;
+        private int indexInChunk = -1;
+        private DecodedChunk decoded = null;
+
+        @Override public boolean hasNext() {
+            return (tailIndex >= 0) || (indexInChunk >= 0) || (chunkIndex >= 0);
+        }
+
+        @Override public Transaction next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (tailIndex >= 0) {
+                return tail.get(tailIndex--);
+            }
+            if (indexInChunk < 0) {
+
+                // decode the next chunk, reusing the columns:
+                TransactionChunk chunk = chunks.get(chunkIndex--);
+                if (decoded == null) {
+                    decoded = new DecodedChunk(chunk);
+                } else {
+                    decoded.decode(chunk);
+                }
+                indexInChunk = chunk.size() - 1;
+            }
+            return decoded.get(indexInChunk--);
+        }
+    }
+
+    private class OldestFirstIterator implements Iterator<Transaction> {
+        private final int expectedModCount = modCount;
+        private int chunkIndex = 0;
+        private int indexInChunk = CHUNK_SIZE;
+        private int tailIndex = 0;
+        private DecodedChunk decoded = null;
+
+        @Override public boolean hasNext() {
+            return (chunkIndex < chunks.size()) || (indexInChunk < CHUNK_SIZE) ||
+                    (tailIndex < tail.size());
+        }
+
+        @Override public Transaction next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (indexInChunk < CHUNK_SIZE) {
+                return decoded.get(indexInChunk++);
+            }
+            if (chunkIndex < chunks.size()) {
+
+                // decode the next chunk, reusing the columns:
+                TransactionChunk chunk = chunks.get(chunkIndex++);
+                if (decoded == null) {
+                    decoded = new DecodedChunk(chunk);
+                } else {
+                    decoded.decode(chunk);
+                }
+                indexInChunk = 0;
+                return decoded.get(indexInChunk++);
+            }
+            return tail.get(tailIndex++);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package transaction;
+
+import currency.Currency;
+
+/**
+ * An immutable summary of the {@link Transaction}s in a time window: their
+ * count, their volume, their total {@code Period}, and their <i>VWAP</i>
+ * (Volume Weighted Average Price).
+ *
+ * @version 1.0
+ * @see TransactionHistory#getSummary(String, String)
+ */
+public final class TransactionSummary {
+
+    private final long count;
+
+    /**
+     * The sum of the {@code quantity}s.
+     */
+    private final long volume;
+
+    /**
+     * The sum of the {@code Period}s.
+     */
+    private final long totalPeriod;
+
+    public TransactionSummary(long count, long volume, long totalPeriod) {
+        this.count = count;
+        this.volume = volume;
+        this.totalPeriod = totalPeriod;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public long getTotalPeriod() {
+        return totalPeriod;
+    }
+
+    /**
+     * @return the Volume Weighted Average Price, or {@code 0} if there are no
+     * {@link Transaction}s.
+     */
+    public double getVWAP() {
+        return (volume == 0) ? 0 : ((double) totalPeriod / volume);
+    }
+
+    @Override public String toString() {
+        return "TransactionSummary{" + "count=" + count + ", volume=" +
+                volume + ", totalPeriod=" +
+                Currency.numberFormat.format(totalPeriod) + ", VWAP=" +
+                Currency.numberFormat.format(getVWAP()) + '}';
+    }
+}
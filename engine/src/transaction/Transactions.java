@@ -1,7 +1,6 @@
 package transaction;
 
 import engine.collection.EngineCollection;
-import engine.collection.list.SortableLinkedList;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -12,31 +11,35 @@ import javax.xml.bind.annotation.XmlRootElement;
  * {@link Transaction}s {@code Collection}. wrapped in a special class. Has a
  * {@code Collection} field of all the {@link Transaction}s together.
  * <p>
+ * The {@code Collection} is a compressed {@link TransactionHistory}, from the
+ * newest {@link Transaction} to the oldest.
+ * </p>
+ * <p>
  * annotated with JAXB, to marshal / unmarshal a <tt>.xml</tt> file.
  * </p>
  *
- * @version 1.0
+ * @version 1.1
  */
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlRootElement(name = "rse-successfully-finished-transactions")
 public class Transactions
-        extends EngineCollection<SortableLinkedList<Transaction>, Transaction> {
+        extends EngineCollection<TransactionHistory, Transaction> {
 
     /**
      * <b><i>important:</i></b>
      * The <i>default</i> {@code Constructor} is <i>initializing</i> the {@link
-     * SortableLinkedList}.
+     * TransactionHistory}.
      */
     public Transactions() {
-        setCollection(new SortableLinkedList<>());
+        setCollection(new TransactionHistory());
     }
 
-    @Override public SortableLinkedList<Transaction> getCollection() {
+    @Override public TransactionHistory getCollection() {
         return super.getCollection();
     }
 
     @XmlElement(name = "rse-transaction")
-    public void setCollection(SortableLinkedList<Transaction> collection) {
+    public void setCollection(TransactionHistory collection) {
         super.setCollection(collection);
     }
 
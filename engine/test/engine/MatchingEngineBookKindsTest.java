@@ -0,0 +1,75 @@
+package engine;
+
+import message.print.MessagePrint;
+import org.junit.Test;
+import replay.LoadGenerator;
+import replay.OrderRecord;
+import replay.OrderReplay;
+import stock.Stock;
+import stock.Stocks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays the same flow of {@link order.Order}s through {@link
+ * MatchingEngine}s of different {@link MatchingEngine#getTickBookWindow()}s,
+ * and checks that all of them make the same trades and keep the same books.
+ *
+ * @version 1.0
+ */
+public class MatchingEngineBookKindsTest {
+
+    @Test
+    public void sameTradesAndBooks() throws IOException {
+        MessagePrint.setQuiet(true);
+        try {
+            Result expected = replay(0);
+            for (int i : new int[]{64, 1024}) {
+                Result result = replay(i);
+                assertEquals("window " + i + " trades", expected.trades,
+                        result.trades);
+                assertEquals("window " + i + " books", expected.books,
+                        result.books);
+            }
+        } finally {
+            MessagePrint.setQuiet(false);
+        }
+    }
+
+    private static Result replay(int tickBookWindow) throws IOException {
+        Stocks stocks = LoadGenerator.createStocks(4);
+        List<String> symbols = new ArrayList<>();
+        for (Stock i : stocks.getCollection()) {
+            symbols.add(i.getSymbol());
+        }
+        List<OrderRecord> records =
+                LoadGenerator.generate(symbols, 20_000, 1.0, 7);
+
+        MatchingEngine engine = new MatchingEngine();
+        engine.setStocks(stocks);
+        engine.setTickBookWindow(tickBookWindow);
+        OrderReplay replay = new OrderReplay();
+        replay.run(engine, records, false);
+
+        Result result = new Result();
+        result.trades = replay.getTrades();
+        for (Stock i : engine.getStocks().getCollection()) {
+            result.books.add(i.getDataBase().getAwaitingBuyOrders()
+                    .getCollection().toString());
+            result.books.add(i.getDataBase().getAwaitingSellOrders()
+                    .getCollection().toString());
+        }
+        return result;
+    }
+
+    private static final class Result {
+
+        private List<String> trades;
+        private final List<String> books = new ArrayList<>();
+    }
+
+}
@@ -0,0 +1,211 @@
+package order.book;
+
+import engine.collection.list.SortableArrayList;
+import engine.collection.list.SortableLinkedList;
+import engine.collection.list.SortableList;
+import order.Order;
+import order.OrderDirection;
+import order.OrderType;
+import org.junit.Test;
+import timestamp.TimeStamp;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the same stream of {@link Order}s through each {@link
+ * OrderBook.Kind}, and checks that all of them fill the same {@link Order}s
+ * and keep the same books.
+ *
+ * @version 1.0
+ */
+public class OrderBookKindsTest {
+
+    private static final long REFERENCE_PRICE = 10_000;
+
+    /**
+     * The number of prices in the window of a {@link OrderBook.Kind#TICK_ARRAY}
+     * book. the stream places some {@link Order}s outside of it.
+     */
+    private static final int TICKS = 64;
+
+    private static SortableList<Order> newBook(OrderBook.Kind kind,
+                                               OrderDirection direction) {
+        switch (kind) {
+            case LINKED_LIST:
+                return new SortableLinkedList<>();
+            case SORTED_ARRAY:
+                return new SortableArrayList<>();
+            case TREE_MAP:
+                return new TickArrayBook(direction, REFERENCE_PRICE, 0);
+            case TICK_ARRAY:
+                return new TickArrayBook(direction, REFERENCE_PRICE, TICKS);
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    @Test
+    public void sameFillsAndBooks() {
+        Run expected = new Run(OrderBook.Kind.LINKED_LIST);
+        expected.play(20_000, 7);
+        for (OrderBook.Kind i : OrderBook.Kind.values()) {
+            Run run = new Run(i);
+            run.play(20_000, 7);
+            assertEquals(i + " fills", expected.fills, run.fills);
+            assertEquals(i + " buy book", expected.contents(expected.buyBook),
+                    run.contents(run.buyBook));
+            assertEquals(i + " sell book",
+                    expected.contents(expected.sellBook),
+                    run.contents(run.sellBook));
+        }
+    }
+
+    /**
+     * {@link Order}s of an equal price and an equal {@code timeStamp} are
+     * kept from the newest to the oldest.
+     */
+    @Test
+    public void equalTimeStampsNewestFirst() {
+        for (OrderBook.Kind kind : OrderBook.Kind.values()) {
+            for (OrderDirection direction : OrderDirection.values()) {
+                SortableList<Order> book = newBook(kind, direction);
+                List<Order> placed = new ArrayList<>();
+                for (long i = 1; i <= 5; ++i) {
+                    Order order = newOrder(direction, i, REFERENCE_PRICE,
+                            "10:00:00:000");
+                    book.sortedInsert(order);
+                    placed.add(0, order);
+                }
+
+                // an older Order goes before them, and a worse price after:
+                Order older = newOrder(direction, 6, REFERENCE_PRICE,
+                        "09:59:59:999");
+                Order worse = newOrder(direction, 7,
+                        (direction == OrderDirection.BUY) ?
+                                REFERENCE_PRICE - 1 : REFERENCE_PRICE + 1,
+                        "09:00:00:000");
+                book.sortedInsert(worse);
+                book.sortedInsert(older);
+                placed.add(0, older);
+                placed.add(worse);
+
+                assertEquals(kind + " " + direction, placed.size(),
+                        book.size());
+                for (int i = 0; i < placed.size(); ++i) {
+                    assertSame(kind + " " + direction + " at " + i,
+                            placed.get(i), book.get(i));
+                }
+            }
+        }
+    }
+
+    private static Order newOrder(OrderDirection direction, long quantity,
+                                  long price, String timeStamp) {
+        Order order = new Order(direction, OrderType.LMT, quantity, price);
+        order.setTimeStamp(timeStamp);
+        return order;
+    }
+
+    /**
+     * A stream of {@link Order}s, matched by price/time priority against
+     * books of a single {@link OrderBook.Kind}.
+     */
+    private static final class Run {
+
+        private final SortableList<Order> buyBook;
+        private final SortableList<Order> sellBook;
+
+        /**
+         * The sequence number of each placed {@link Order}.
+         */
+        private final Map<Order, Integer> ids = new IdentityHashMap<>();
+
+        /**
+         * Each fill, as {@code "incoming/resting/quantity@price"}.
+         */
+        private final List<String> fills = new ArrayList<>();
+
+        private Run(OrderBook.Kind kind) {
+            buyBook = newBook(kind, OrderDirection.BUY);
+            sellBook = newBook(kind, OrderDirection.SELL);
+        }
+
+        private void play(int count, long seed) {
+            Random random = new Random(seed);
+            for (int i = 0; i < count; ++i) {
+
+                // a coarse clock, so many Orders share a timeStamp:
+                String timeStamp = TimeStamp.fromMillisOfDay(
+                        36_000_000L + i / 8);
+                OrderDirection direction = random.nextBoolean() ?
+                        OrderDirection.BUY : OrderDirection.SELL;
+                long price = REFERENCE_PRICE + random.nextInt(41) - 20;
+                if (random.nextInt(20) == 0) {
+                    price += (random.nextBoolean() ? 1 : -1) *
+                            (TICKS + random.nextInt(1000));
+                }
+                Order order = newOrder(direction, 1 + random.nextInt(1000),
+                        price, timeStamp);
+                ids.put(order, i);
+                match(order);
+
+                // cancel a resting Order once in a while:
+                if (random.nextInt(10) == 0) {
+                    SortableList<Order> book = random.nextBoolean() ?
+                            buyBook : sellBook;
+                    if (!book.isEmpty()) {
+                        Order cancelled = book.get(book.size() / 2);
+                        assertTrue(book.remove(cancelled));
+                    }
+                }
+            }
+        }
+
+        private void match(Order incoming) {
+            boolean isBuy = incoming.getOrderDirection() == OrderDirection.BUY;
+            SortableList<Order> opposite = isBuy ? sellBook : buyBook;
+            Iterator<Order> it = opposite.iterator();
+            while ((incoming.getQuantity() > 0) && it.hasNext()) {
+                Order resting = it.next();
+                if (isBuy ? (resting.getDesiredLimitPrice() >
+                        incoming.getDesiredLimitPrice()) :
+                        (resting.getDesiredLimitPrice() <
+                                incoming.getDesiredLimitPrice())) {
+                    break;
+                }
+                long quantity = Math.min(incoming.getQuantity(),
+                        resting.getQuantity());
+                fills.add(ids.get(incoming) + "/" + ids.get(resting) + "/" +
+                        quantity + "@" + resting.getDesiredLimitPrice());
+                incoming.setQuantity(incoming.getQuantity() - quantity);
+                if (resting.getQuantity() == quantity) {
+                    it.remove();
+                } else {
+                    resting.setQuantity(resting.getQuantity() - quantity);
+                }
+            }
+            if (incoming.getQuantity() > 0) {
+                (isBuy ? buyBook : sellBook).sortedInsert(incoming);
+            }
+        }
+
+        private List<String> contents(List<Order> book) {
+            List<String> result = new ArrayList<>();
+            for (Order i : book) {
+                result.add(ids.get(i) + "/" + i.getQuantity() + "@" +
+                        i.getDesiredLimitPrice());
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+package transaction;
+
+import org.junit.Test;
+import stock.Stock;
+import timestamp.TimeStamp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the queries of a {@link TransactionHistory}, over sealed chunks and
+ * the hot tail, against a plain walk over the same {@link Transaction}s.
+ *
+ * @version 1.0
+ */
+public class TransactionHistoryTest {
+
+    /**
+     * Enough {@link Transaction}s to seal a few chunks.
+     */
+    private static final int COUNT = 5 * TransactionHistory.CHUNK_SIZE + 123;
+
+    private static final long FIRST_MILLIS = 34_200_000L;
+
+    private final Stock stock = new Stock("TST", "Test", 1_000);
+
+    /**
+     * The {@link Transaction}s, from the oldest to the newest. every few
+     * share a {@code timeStamp}.
+     */
+    private List<Transaction> newTransactions(long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>();
+        long millis = FIRST_MILLIS;
+        for (int i = 0; i < COUNT; ++i) {
+            millis += random.nextInt(3);
+            transactions.add(new Transaction(stock,
+                    TimeStamp.fromMillisOfDay(millis),
+                    1 + random.nextInt(500), 900 + random.nextInt(200)));
+        }
+        return transactions;
+    }
+
+    private static TransactionHistory newHistory(
+            List<Transaction> transactions) {
+        TransactionHistory history = new TransactionHistory();
+        for (Transaction i : transactions) {
+            history.addFirst(i);
+        }
+        return history;
+    }
+
+    @Test
+    public void newestFirst() {
+        List<Transaction> transactions = newTransactions(1);
+        TransactionHistory history = newHistory(transactions);
+        assertTrue(history.getSealedSize() > 0);
+        assertEquals(COUNT, history.size());
+
+        List<String> expected = keys(transactions);
+        List<String> chronological = new ArrayList<>();
+        for (Iterator<Transaction> it = history.chronologicalIterator();
+             it.hasNext(); ) {
+            chronological.add(key(it.next()));
+        }
+        assertEquals(expected, chronological);
+
+        List<String> newestFirst = keys(history);
+        List<String> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, newestFirst);
+        assertEquals(reversed.get(0), key(history.get(0)));
+        assertEquals(reversed.get(COUNT - 1), key(history.get(COUNT - 1)));
+
+        long quantity = 0;
+        long period = 0;
+        for (Transaction i : transactions) {
+            quantity += i.getQuantity();
+            period += i.getPeriod();
+        }
+        assertEquals(quantity, history.getTotalQuantity());
+        assertEquals(period, history.getTotalPeriod());
+    }
+
+    /**
+     * A history loaded from the newest to the oldest, by {@link
+     * TransactionHistory#add(Transaction)}, is the same as one built by
+     * {@link TransactionHistory#addFirst(Transaction)}.
+     */
+    @Test
+    public void loadedFromNewest() {
+        List<Transaction> transactions = newTransactions(2);
+        TransactionHistory loaded = new TransactionHistory();
+        for (int i = transactions.size() - 1; i >= 0; --i) {
+            loaded.add(transactions.get(i));
+        }
+        TransactionHistory built = newHistory(transactions);
+        assertEquals(keys(built), keys(loaded));
+        assertEquals(keys(built.getTransactions(at(1000), at(2000))),
+                keys(loaded.getTransactions(at(1000), at(2000))));
+    }
+
+    @Test
+    public void timeWindows() {
+        List<Transaction> transactions = newTransactions(3);
+        TransactionHistory history = newHistory(transactions);
+        long last = TimeStamp.toMillisOfDay(
+                transactions.get(COUNT - 1).getTimeStamp()) - FIRST_MILLIS;
+        long[][] windows = {
+                {0, last}, {-100, 10}, {10, 10}, {1000, 1000 + 2500},
+                {last - 30, last + 100}, {last + 1, last + 100},
+                {-100, -1}, {500, 100}};
+        for (long[] i : windows) {
+            assertEquals(i[0] + ".." + i[1],
+                    keys(filter(transactions, at(i[0]), at(i[1]),
+                            Long.MIN_VALUE, Long.MAX_VALUE)),
+                    keys(history.getTransactions(at(i[0]), at(i[1]))));
+        }
+        assertEquals(keys(filter(transactions, null, at(700), Long.MIN_VALUE,
+                Long.MAX_VALUE)), keys(history.getTransactions(null,
+                at(700))));
+        assertEquals(keys(filter(transactions, at(700), null, Long.MIN_VALUE,
+                Long.MAX_VALUE)), keys(history.getTransactions(at(700),
+                null)));
+    }
+
+    @Test
+    public void priceRanges() {
+        List<Transaction> transactions = newTransactions(4);
+        TransactionHistory history = newHistory(transactions);
+        long[][] ranges = {
+                {900, 1099}, {950, 960}, {1000, 1000}, {1099, 2000},
+                {0, 899}, {Long.MIN_VALUE, Long.MAX_VALUE}};
+        for (long[] i : ranges) {
+            assertEquals(i[0] + ".." + i[1],
+                    keys(filter(transactions, null, null, i[0], i[1])),
+                    keys(history.getTransactionsByPrice(i[0], i[1])));
+        }
+        assertEquals(keys(filter(transactions, at(300), at(4000), 990, 1010)),
+                keys(history.getTransactions(at(300), at(4000), 990,
+                        1010)));
+    }
+
+    @Test
+    public void topByQuantity() {
+        List<Transaction> transactions = newTransactions(5);
+        TransactionHistory history = newHistory(transactions);
+        List<Transaction> inWindow = filter(transactions, at(200), at(5000),
+                Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Transaction> top = history.getTopByQuantity(10, at(200),
+                at(5000));
+        assertEquals(10, top.size());
+
+        // the n-th largest quantity in the window:
+        List<Long> quantities = new ArrayList<>();
+        for (Transaction i : inWindow) {
+            quantities.add(i.getQuantity());
+        }
+        quantities.sort(Collections.reverseOrder());
+        for (int i = 0; i < top.size(); ++i) {
+            assertEquals(quantities.get(i).longValue(),
+                    top.get(i).getQuantity());
+        }
+        assertTrue(history.getTopByQuantity(0, null, null).isEmpty());
+        assertEquals(COUNT, history.getTopByQuantity(COUNT + 1, null, null)
+                .size());
+    }
+
+    @Test
+    public void summaries() {
+        List<Transaction> transactions = newTransactions(6);
+        TransactionHistory history = newHistory(transactions);
+        String[][] windows = {
+                {null, null}, {at(0), at(100)}, {at(1000), at(6000)},
+                {at(3000), null}, {at(-10), at(-1)}};
+        for (String[] i : windows) {
+            long count = 0;
+            long volume = 0;
+            long period = 0;
+            for (Transaction j : filter(transactions, i[0], i[1],
+                    Long.MIN_VALUE, Long.MAX_VALUE)) {
+                ++count;
+                volume += j.getQuantity();
+                period += j.getPeriod();
+            }
+            TransactionSummary summary = history.getSummary(i[0], i[1]);
+            String window = i[0] + ".." + i[1];
+            assertEquals(window, count, summary.getCount());
+            assertEquals(window, volume, summary.getVolume());
+            assertEquals(window, period, summary.getTotalPeriod());
+        }
+    }
+
+    /**
+     * A history of a {@code timeStamp} earlier than the one before it, is
+     * queried by a walk over all of it.
+     */
+    @Test
+    public void outOfTimeOrder() {
+        List<Transaction> transactions = newTransactions(7);
+        Transaction early = new Transaction(stock, at(50), 77, 1_050);
+        transactions.add(3 * TransactionHistory.CHUNK_SIZE, early);
+        TransactionHistory history = newHistory(transactions);
+        assertEquals(keys(filter(transactions, at(40), at(60),
+                Long.MIN_VALUE, Long.MAX_VALUE)),
+                keys(history.getTransactions(at(40), at(60))));
+        assertEquals(keys(filter(transactions, at(40), at(60), 1_000, 1_060)),
+                keys(history.getTransactions(at(40), at(60), 1_000, 1_060)));
+        assertEquals(filter(transactions, at(40), at(60), Long.MIN_VALUE,
+                Long.MAX_VALUE).size(),
+                history.getSummary(at(40), at(60)).getCount());
+    }
+
+    /**
+     * The copy shares the sealed chunks, but not the later {@link
+     * Transaction}s.
+     */
+    @Test
+    public void copyIsIndependent() {
+        List<Transaction> transactions = newTransactions(8);
+        TransactionHistory history = newHistory(transactions);
+        TransactionHistory copy = new TransactionHistory(history);
+        history.addFirst(new Transaction(stock, at(100_000), 1, 1_000));
+        assertEquals(COUNT + 1, history.size());
+        assertEquals(COUNT, copy.size());
+        assertEquals(keys(history).subList(1, COUNT + 1), keys(copy));
+    }
+
+    /**
+     * @param millis milliseconds after the first {@link Transaction}.
+     */
+    private static String at(long millis) {
+        return TimeStamp.fromMillisOfDay(FIRST_MILLIS + millis);
+    }
+
+    /**
+     * @param transactions from the oldest to the newest.
+     * @return the matching {@link Transaction}s, from the newest to the
+     * oldest.
+     */
+    private static List<Transaction> filter(List<Transaction> transactions,
+                                            String from, String to,
+                                            long minPrice, long maxPrice) {
+        long fromMillis = (from == null) ? Long.MIN_VALUE :
+                TimeStamp.toMillisOfDay(from);
+        long toMillis = (to == null) ? Long.MAX_VALUE :
+                TimeStamp.toMillisOfDay(to);
+        List<Transaction> result = new ArrayList<>();
+        for (int i = transactions.size() - 1; i >= 0; --i) {
+            Transaction transaction = transactions.get(i);
+            long millis = TimeStamp.toMillisOfDay(transaction.getTimeStamp());
+            if ((millis >= fromMillis) && (millis <= toMillis) &&
+                    (transaction.getPrice() >= minPrice) &&
+                    (transaction.getPrice() <= maxPrice)) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    private static String key(Transaction transaction) {
+        return transaction.getTimeStamp() + "/" + transaction.getQuantity() +
+                "@" + transaction.getPrice();
+    }
+
+    private static List<String> keys(Iterable<Transaction> transactions) {
+        List<String> result = new ArrayList<>();
+        for (Transaction i : transactions) {
+            result.add(key(i));
+        }
+        return result;
+    }
+
+}
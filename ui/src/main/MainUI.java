@@ -1,16 +1,42 @@
 package main;
 
+import engine.Engine;
+import load.AutoSave;
+import message.Message;
+import message.print.MessagePrint;
+
+import java.io.File;
+import java.io.IOException;
+
 /**
  * Main class of the UI.
  * <p><b>Note: there is a mutual dependency between the <tt>ui</tt> module and
  * the
  * <tt>engine</tt> module.</b></p>
  *
+ * <p>Run with <tt>--script &lt;path&gt;</tt> (or <tt>--script -</tt> for
+ * {@code System.in}) to execute a command file by the {@link ScriptUI},
+ * instead of the interactive {@link MenuUI}.</p>
+ *
+ * <p>Run with <tt>--autosave &lt;directory&gt;</tt> to recover the stocks
+ * from the {@link AutoSave} in the directory, if there is one, and to keep
+ * saving them there periodically.</p>
+ *
  * @author Tal Yacob, ID: 208632778.
- * @version Rolling Exercise 1.0.
+ * @version Rolling Exercise 1.2.
  */
 public class MainUI {
 
+    /**
+     * The interval between the autosave checkpoints, in milliseconds.
+     */
+    private static final long AUTOSAVE_INTERVAL_MILLIS = 10_000;
+
+    /**
+     * The number of autosave deltas that are merged into its base at once.
+     */
+    private static final int AUTOSAVE_DELTAS_PER_BASE = 10;
+
     /**
      * main User-Interface method.
      *
@@ -18,8 +44,58 @@ public class MainUI {
      */
     public static void main(String[] args) {
 
-        MenuUI.run();
+        // parse the options:
+        String scriptPath = null;
+        String autoSaveDirectory = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--script")) {
+                scriptPath = args[i + 1];
+            } else if (args[i].equals("--autosave")) {
+                autoSaveDirectory = args[i + 1];
+            }
+        }
+
+        AutoSave autoSave = null;
+        if (autoSaveDirectory != null) {
+            autoSave = startAutoSave(new File(autoSaveDirectory));
+        }
+
+        if (scriptPath != null) {
+            ScriptUI.run(scriptPath);
+        } else {
+            MenuUI.run();
+        }
 
+        if (autoSave != null) {
+            autoSave.close();
+        }
+
+    }
+
+    /**
+     * Recovers the stocks from the autosave directory, if it has an autosave,
+     * and starts the autosave to it.
+     *
+     * @return the started {@link AutoSave}, or {@code null} if the directory
+     * cannot be used.
+     */
+    private static AutoSave startAutoSave(File directory) {
+        try {
+            if (AutoSave.exists(directory)) {
+                int deltas = AutoSave.recover(directory);
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        Message.Out.AutoSave.recovered(directory.getPath(),
+                                deltas));
+            }
+            AutoSave autoSave = new AutoSave(directory,
+                    AUTOSAVE_INTERVAL_MILLIS, AUTOSAVE_DELTAS_PER_BASE);
+            Engine.setAutoSave(autoSave);
+            autoSave.start();
+            return autoSave;
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            return null;
+        }
     }
 
 }
@@ -1,6 +1,8 @@
 package main;
 
 import engine.Engine;
+import load.AutoSave;
+import load.LoadSaveRSX;
 import load.LoadSaveXML;
 import message.Message;
 import message.print.MessagePrint;
@@ -8,16 +10,20 @@ import order.Order;
 import order.OrderDirection;
 import order.OrderType;
 import stock.Stock;
-import stock.Stocks;
+import stock.database.StockDataBase;
+import transaction.Transaction;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * This class defines the Menu's User-Interface.
  *
- * @version 1.2
+ * @version 1.7
  */
 public class MenuUI {
 
@@ -45,11 +51,11 @@ public class MenuUI {
         MessagePrint.println(MessagePrint.Stream.OUT,
                 "Please choose your command: " + "(" +
                         "enter a number between " + Keys.EXIT + " and " +
-                        Keys.LOAD_SAVED_XML_FILE + "): " + "\n");
+                        Keys.STATISTICS + "): " + "\n");
 
         // Print Menu Key Commands:
         MessagePrint.println(MessagePrint.Stream.OUT,
-                Keys.LOAD_XML_FILE + ". " + "Load a '.xml' file.");
+                Keys.LOAD_XML_FILE + ". " + "Load a '.xml' or '.rsx' file.");
         MessagePrint.println(MessagePrint.Stream.OUT,
                 Keys.PRINT_STOCKS + ". " + "Print stocks.");
         MessagePrint.println(MessagePrint.Stream.OUT,
@@ -62,9 +68,16 @@ public class MenuUI {
                 Keys.PRINT_LISTS_OF_ALL_ORDERS_AND_TRANSACTIONS + ". " +
                         "Print lists of all orders and transactions.");
         MessagePrint.println(MessagePrint.Stream.OUT,
-                Keys.SAVE_XML_FILE + ". " + "Save to a '.xml' file.");
+                Keys.SAVE_XML_FILE + ". " + "Save to a '.xml' or '.rsx' file.");
         MessagePrint.println(MessagePrint.Stream.OUT,
                 Keys.LOAD_SAVED_XML_FILE + ". " + "Load a saved '.xml' file.");
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Keys.CALL_AUCTION + ". " +
+                        "Start or uncross a call auction of a stock.");
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Keys.MARKET_DEPTH + ". " + "Print the market depth of a stock.");
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Keys.STATISTICS + ". " + "Print the engine statistics.");
         MessagePrint.println(MessagePrint.Stream.OUT,
                 Keys.EXIT + ". " + "Exit program.");
     }
@@ -79,8 +92,19 @@ public class MenuUI {
     private static void commandViaInput() {
         try {
 
-            // get input
-            byte input = scanner.nextByte();
+            // get input (idle meanwhile, for the autosave):
+            byte input;
+            AutoSave autoSave = Engine.getAutoSave();
+            if (autoSave != null) {
+                autoSave.enterIdle();
+            }
+            try {
+                input = scanner.nextByte();
+            } finally {
+                if (autoSave != null) {
+                    autoSave.exitIdle();
+                }
+            }
 
             if (input == Keys.LOAD_XML_FILE) {
                 command_LOAD_XML_FILE();
@@ -102,6 +126,12 @@ public class MenuUI {
                 // BONUS!
                 // Note: Same method as the 'LOAD_XML_FILE' Key:
                 command_LOAD_XML_FILE();
+            } else if (input == Keys.CALL_AUCTION) {
+                command_CALL_AUCTION();
+            } else if (input == Keys.MARKET_DEPTH) {
+                command_MARKET_DEPTH();
+            } else if (input == Keys.STATISTICS) {
+                command_STATISTICS();
             } else if (input == Keys.EXIT) {
                 command_EXIT();
             }
@@ -118,7 +148,12 @@ public class MenuUI {
         String input = scanner.nextLine().trim();
 
         try {
-            LoadSaveXML.unmarshal(input); // unmarshal from file
+            // unmarshal from file ('.rsx' is loaded lazily):
+            if (LoadSaveRSX.isRSX(input)) {
+                LoadSaveRSX.unmarshal(input);
+            } else {
+                LoadSaveXML.unmarshal(input);
+            }
         } catch (IOException e) {
             MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
         }
@@ -157,8 +192,10 @@ public class MenuUI {
                 // get the desired stock which has this Symbol:
                 Stock stock = Engine.getStockBySymbol(input);
 
-                // print the desired stock:
+                // print the desired stock, and its top-of-book:
                 MessagePrint.println(MessagePrint.Stream.OUT, stock.toString());
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        "\t - " + stock.getQuote().toString());
                 MessagePrint.println(MessagePrint.Stream.OUT,
                         stock.getTransactionsToString("\t", "\t\t\t"));
             } catch (IOException e) {
@@ -191,8 +228,18 @@ public class MenuUI {
                 // initialize 'desiredLimitPrice' to 0.
                 Long desiredLimitPrice = 0L;
 
-                // get the desiredLimitPrice (only if the orderType is 'LMT'):
-                if (orderType == OrderType.LMT) {
+                // initialize 'stopPrice' to 0.
+                Long stopPrice = 0L;
+
+                // get the stopPrice (only if the orderType is 'STP' or 'STL'):
+                if (orderType.isStop()) {
+                    stopPrice = getOrderStopPrice();
+                }
+
+                // get the desiredLimitPrice (only if the orderType is 'LMT', 'FOK' or 'STL'):
+                if ((orderType == OrderType.LMT) ||
+                        (orderType == OrderType.FOK) ||
+                        (orderType == OrderType.STL)) {
                     desiredLimitPrice = getOrderDesiredLimit();
                 } else if (orderType == OrderType.MKT) {
 
@@ -202,13 +249,17 @@ public class MenuUI {
                                     orderDirection);
                 }
 
-                // create the instance of the Order and insert it to DataBase:
-                Order order =
-                        insertOrder(stock, orderDirection, orderType, quantity,
-                                desiredLimitPrice);
+                // create the instance of the Order:
+                Order order = createOrder(orderDirection, orderType, quantity,
+                        desiredLimitPrice, stopPrice);
 
-                // calc this newly placed order with the matching already placed Orders:
-                Engine.calcOrdersOfASingleStock(stock, order);
+                /*
+                 * pass the Order through the pre-trade risk checks, announce
+                 * it, and then execute it by its type (a 'MKT' or a 'FOK'
+                 * Order is never inserted to DataBase, and a Stop Order waits
+                 * outside it):
+                 */
+                Engine.executeOrder(stock, order);
 
             } catch (IOException e) {
                 MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
@@ -281,18 +332,23 @@ public class MenuUI {
 
         // get the orderType:
         MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
-                .please("[String] Order-type", ": 'LMT' or 'MKT'"));
+                .please("[String] Order-type",
+                        ": 'LMT', 'MKT', 'FOK' (Fill-Or-Kill), 'STP' (Stop) or 'STL' (Stop-Limit)"));
 
         String stringInput = scanner.next();
 
         if (stringInput.equalsIgnoreCase("LMT") ||
-                stringInput.equalsIgnoreCase("MKT")) {
+                stringInput.equalsIgnoreCase("MKT") ||
+                stringInput.equalsIgnoreCase("FOK") ||
+                stringInput.equalsIgnoreCase("STP") ||
+                stringInput.equalsIgnoreCase("STL")) {
             return OrderType.valueOf(stringInput.toUpperCase());
         } else {
             scanner = new Scanner(System.in); // reset scanner.
 
             throw new IOException(Message.Err.Input
-                    .mismatch("[String] 'LMT' or 'MKT'", "different [String]"));
+                    .mismatch("[String] 'LMT', 'MKT', 'FOK', 'STP' or 'STL'",
+                            "different [String]"));
         }
     }
 
@@ -339,6 +395,27 @@ public class MenuUI {
 
     }
 
+    /**
+     * This method gets a {@link Long} {@code Order-Stop-Price} from the user.
+     *
+     * @return {@link Long} {@code Order-Stop-Price}.
+     * @throws IOException in case of an incorrect input.
+     */
+    private static Long getOrderStopPrice() throws IOException {
+        MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                .please("[long]", "Stop-price",
+                        "that triggers the order (a non-negative number)"));
+
+        try {
+            return getNonNegativeLong();
+        } catch (InputMismatchException e) {
+            scanner = new Scanner(System.in); // reset scanner.
+            throw new IOException(
+                    Message.Err.Input.mismatch("[long]", "[String]"));
+        }
+
+    }
+
     /**
      * This method gets a long <tt>input</tt> from the user, and checks if it is
      * a positive number.
@@ -388,50 +465,24 @@ public class MenuUI {
     }
 
     /**
-     * This method creates an {@link Order} with the given parameters.
+     * This method creates an {@link Order} with the given parameters, without
+     * inserting it to the {@link Stock}'s data-base.
      *
-     * @param stock             the {@link Stock} that matches the {@code
-     *                          Symbol} given.
-     * @param quantity          the {@code Quantity} of the stocks.
      * @param orderDirection    whether the order is to Buy or Sell.
-     * @param orderType         one of the {@code Order-Types}:
-     *                          <ul>
-     *                          <li>{@link OrderType#LMT}.</li>
-     *                          <li>{@link OrderType#MKT}.</li>
-     *                          <li>{@link OrderType#FOX}.</li>
-     *                          <li>{@link OrderType#IOC}.</li>
-     *                          </ul>
-     * @param desiredLimitPrice takes action only for {@link OrderType#LMT}
-     *                          {@code OrderTypes}.
-     * @return the newly placed order.
+     * @param orderType         one of the {@code Order-Types}.
+     * @param quantity          the {@code Quantity} of the stocks.
+     * @param desiredLimitPrice the {@code desiredLimitPrice} of the order.
+     * @param stopPrice         the {@code stopPrice} of the order.
+     * @return the newly created order.
      * @throws IOException if the {@link Order} build process failed.
      */
-    private static Order insertOrder(Stock stock, OrderDirection orderDirection,
+    private static Order createOrder(OrderDirection orderDirection,
                                      OrderType orderType, long quantity,
-                                     long desiredLimitPrice)
+                                     long desiredLimitPrice, long stopPrice)
             throws IOException {
-
-        // create the instance of the Order:
         try {
-            Order order = new Order(orderDirection, orderType, quantity,
-                    desiredLimitPrice);
-
-            // print success message:
-            MessagePrint.println(MessagePrint.Stream.OUT,
-                    Message.Out.StockDataBase.newSuccessAdd(order));
-
-            /*
-             * add the order to the according 'awaiting orders' Collection
-             * in the stock's data-base:
-             */
-            if (orderDirection == OrderDirection.BUY) {
-                stock.getDataBase().getAwaitingBuyOrders().getCollection()
-                        .sortedAdd(order);
-            } else if (orderDirection == OrderDirection.SELL) {
-                stock.getDataBase().getAwaitingSellOrders().getCollection()
-                        .sortedAdd(order);
-            }
-            return order;
+            return new Order(orderDirection, orderType, quantity,
+                    desiredLimitPrice, stopPrice);
         } catch (NullPointerException e) {
 
             // there is no need to reset scanner here.
@@ -440,26 +491,101 @@ public class MenuUI {
     }
 
     private static void command_PRINT_LISTS_OF_ALL_ORDERS_AND_TRANSACTIONS() {
-        try {
-            Stocks stocks = Engine.getStocks();
-            for (Stock i : stocks.getCollection()) {
-                MessagePrint
-                        .println(MessagePrint.Stream.OUT, i.toString() + ":");
 
-                MessagePrint.println(MessagePrint.Stream.OUT,
-                        i.getAwaitingBuyOrdersToString("\t", "\t\t\t"));
-                MessagePrint.println(MessagePrint.Stream.OUT,
-                        i.getAwaitingSellOrdersToString("\t", "\t\t\t"));
-                MessagePrint.println(MessagePrint.Stream.OUT,
-                        i.getTransactionsToString("\t", "\t\t\t"));
+        // first of all check if there are Stocks available in the system:
+        if (Engine.isStocks()) {
+
+            MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                    .please("[String]", "Symbol",
+                            "of the stock you wish to see, or '*' for all the stocks"));
+
+            // get the Symbol:
+            String input = scanner.next();
 
-                // add an extra new-line:
-                MessagePrint.println(MessagePrint.Stream.OUT, "\n");
+            try {
 
+                // get the desired stocks:
+                List<Stock> stocksToPrint = input.equals("*") ?
+                        Engine.getStocks().getCollection() :
+                        Collections.singletonList(
+                                Engine.getStockBySymbol(input));
+
+                MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                        .please("[int]", "page size",
+                                "(the number of entries of each list in a page, a number greater than 0)"));
+                int pageSize = (int) Math.min(getPositiveLong(),
+                        Integer.MAX_VALUE);
+
+                // print the pages of each stock, until the user stops:
+                for (Stock i : stocksToPrint) {
+                    if (!printPagesOfAStock(i, pageSize)) {
+                        break;
+                    }
+                }
+            } catch (InputMismatchException e) {
+                scanner = new Scanner(System.in); // reset scanner.
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        Message.Err.Input.mismatch("[int]", "[String]"));
+            } catch (IOException e) {
+                MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
             }
+        }
+    }
 
-        } catch (IOException e) {
-            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+    /**
+     * Prints the lists of a {@link Stock} page by page, straight to the
+     * output. Each page has up to {@code pageSize} entries of each list.
+     *
+     * @param stock    the {@link Stock} to print.
+     * @param pageSize the maximal number of entries of each list in a page.
+     * @return {@code false} if the user chose to stop printing.
+     */
+    private static boolean printPagesOfAStock(Stock stock, int pageSize) {
+
+        // a cursor of each list, kept across the pages:
+        StockDataBase dataBase = stock.getDataBase();
+        Iterator<Order> buyOrders =
+                dataBase.getAwaitingBuyOrders().getCollection().iterator();
+        Iterator<Order> sellOrders =
+                dataBase.getAwaitingSellOrders().getCollection().iterator();
+        Iterator<Order> stopOrders =
+                dataBase.getStopOrders().getCollection().iterator();
+        Iterator<Transaction> transactions = dataBase
+                .getSuccessfullyFinishedTransactions().getCollection()
+                .iterator();
+
+        // the titles, built once, since the totals are not paged:
+        String buyOrdersTitle = stock.getAwaitingBuyOrdersTitle("\t");
+        String sellOrdersTitle = stock.getAwaitingSellOrdersTitle("\t");
+        String stopOrdersTitle = stock.getAwaitingStopOrdersTitle("\t");
+        String transactionsTitle = stock.getTransactionsTitle("\t");
+        for (int page = 1; ; ++page) {
+            MessagePrint.println(MessagePrint.Stream.OUT, stock.toString() +
+                    Message.Out.StockDataBase.printPage(page) + ":");
+
+            // Note: print all the lists, even if some are done:
+            boolean isMore = stock.printAwaitingBuyOrders(buyOrdersTitle,
+                    "\t\t\t", buyOrders, pageSize);
+            isMore |= stock.printAwaitingSellOrders(sellOrdersTitle,
+                    "\t\t\t", sellOrders, pageSize);
+            isMore |= stock.printAwaitingStopOrders(stopOrdersTitle,
+                    "\t\t\t", stopOrders, pageSize);
+            isMore |= stock.printTransactions(transactionsTitle, "\t\t\t",
+                    transactions, pageSize);
+
+            // add an extra new-line:
+            MessagePrint.println(MessagePrint.Stream.OUT, "\n");
+
+            if (!isMore) {
+                return true;
+            }
+
+            // ask for the next page:
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Message.Out.Input.nextPage());
+            if (!scanner.next().equalsIgnoreCase("n")) {
+                return false;
+            }
         }
     }
 
@@ -475,13 +601,98 @@ public class MenuUI {
             String input = scanner.nextLine().trim();
 
             try {
-                LoadSaveXML.marshal(input);   // marshal to file
+
+                // marshal to file, while the Engine keeps running:
+                if (LoadSaveRSX.isRSX(input)) {
+                    LoadSaveRSX.marshalInBackground(input);
+                } else {
+                    LoadSaveXML.marshalInBackground(input);
+                }
             } catch (IOException e) {
                 MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
             }
         }
     }
 
+    /**
+     * Starts a call auction of a stock, or uncrosses it if the stock is
+     * already in a call auction.
+     */
+    private static void command_CALL_AUCTION() {
+
+        // first of all check if there are Stocks available in the system:
+        if (Engine.isStocks()) {
+
+            MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                    .please("[String]", "Symbol",
+                            "of the stock to start or uncross its call auction"));
+
+            // get the Symbol:
+            String input = scanner.next();
+
+            try {
+
+                // get the desired stock which has this Symbol:
+                Stock stock = Engine.getStockBySymbol(input);
+
+                if (stock.isCallAuction()) {
+                    Engine.uncrossCallAuction(stock);
+                } else {
+                    Engine.startCallAuction(stock);
+                }
+            } catch (IOException e) {
+                MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prints the aggregated price levels of a stock, as kept by the {@link
+     * Engine}'s market-data publisher.
+     */
+    private static void command_MARKET_DEPTH() {
+
+        // first of all check if there are Stocks available in the system:
+        if (Engine.isStocks()) {
+
+            MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                    .please("[String]", "Symbol",
+                            "of the stock you wish to see its depth"));
+
+            // get the Symbol:
+            String input = scanner.next();
+
+            try {
+
+                // get the desired stock which has this Symbol:
+                Stock stock = Engine.getStockBySymbol(input);
+
+                MessagePrint.println(MessagePrint.Stream.OUT, Message.Out.Input
+                        .please("[int]", "number of levels",
+                                "of each side (a number greater than 0)"));
+                int levels = (int) Math.min(getPositiveLong(),
+                        Integer.MAX_VALUE);
+
+                // print the depth of the desired stock:
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        Message.Out.MarketData.printDepth(stock.getSymbol(),
+                                Engine.getMarketData().getDepth(stock),
+                                levels));
+            } catch (InputMismatchException e) {
+                scanner = new Scanner(System.in); // reset scanner.
+                MessagePrint.println(MessagePrint.Stream.ERR,
+                        Message.Err.Input.mismatch("[int]", "[String]"));
+            } catch (IOException e) {
+                MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+            }
+        }
+    }
+
+    private static void command_STATISTICS() {
+        MessagePrint.println(MessagePrint.Stream.OUT,
+                Message.Out.Metrics.printStatistics(Engine.getMetrics()));
+    }
+
     private static void command_EXIT() {
         exit = true;
         MessagePrint.println(MessagePrint.Stream.OUT, "Exited successfully.");
@@ -527,6 +738,9 @@ public class MenuUI {
         public static byte PRINT_LISTS_OF_ALL_ORDERS_AND_TRANSACTIONS = 5;
         public static byte SAVE_XML_FILE = 6;       // BONUS!
         public static byte LOAD_SAVED_XML_FILE = 7; // BONUS!
+        public static byte CALL_AUCTION = 8;
+        public static byte MARKET_DEPTH = 9;
+        public static byte STATISTICS = 10;
         public static byte EXIT = 0;
     }
 
@@ -0,0 +1,410 @@
+package main;
+
+import engine.Engine;
+import load.AutoSave;
+import load.LoadSaveRSX;
+import load.LoadSaveXML;
+import message.Message;
+import message.print.MessagePrint;
+import order.Order;
+import order.OrderDirection;
+import order.OrderType;
+import stock.Stock;
+import stock.database.StockDataBase;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class defines the non-interactive User-Interface: it reads commands
+ * from a command file, or from a pipe to {@code System.in}, one command in a
+ * line.
+ * <p>The commands (case in-sensitive):</p>
+ * <ul>
+ *     <li><tt>LOAD &lt;path&gt;</tt> - load a '.xml' file, or a '.rsx'
+ *     file lazily.</li>
+ *     <li><tt>ORDER &lt;symbol&gt; &lt;BUY|SELL&gt; LMT &lt;quantity&gt;
+ *     &lt;desiredLimitPrice&gt; [peakQuantity]</tt> - with a {@code
+ *     peakQuantity}, an iceberg order.</li>
+ *     <li><tt>ORDER &lt;symbol&gt; &lt;BUY|SELL&gt; FOK &lt;quantity&gt;
+ *     &lt;desiredLimitPrice&gt;</tt></li>
+ *     <li><tt>ORDER &lt;symbol&gt; &lt;BUY|SELL&gt; MKT
+ *     &lt;quantity&gt;</tt></li>
+ *     <li><tt>ORDER &lt;symbol&gt; &lt;BUY|SELL&gt; STP &lt;quantity&gt;
+ *     &lt;stopPrice&gt;</tt></li>
+ *     <li><tt>ORDER &lt;symbol&gt; &lt;BUY|SELL&gt; STL &lt;quantity&gt;
+ *     &lt;stopPrice&gt; &lt;desiredLimitPrice&gt;</tt></li>
+ *     <li><tt>PRINT</tt> - print the stocks.</li>
+ *     <li><tt>PRINT &lt;symbol&gt;</tt> - print information about a
+ *     stock.</li>
+ *     <li><tt>PRINT ORDERS &lt;symbol|*&gt;</tt> - print all the orders and
+ *     transactions of a stock (or of all the stocks), without pages.</li>
+ *     <li><tt>SAVE &lt;path&gt;</tt> - save to a '.xml' or '.rsx' file.</li>
+ *     <li><tt>EXIT</tt> - stop reading the commands.</li>
+ * </ul>
+ * <p>Empty lines, and lines that start with '#', are skipped. An invalid
+ * command prints an error with its line number, and the next commands are
+ * still executed.</p>
+ * <p><b>Note:</b> the input is read line by line with a {@link
+ * BufferedReader}, and split by hand (no {@link java.util.Scanner} and no
+ * regular expressions), and the output is buffered until the end of the
+ * script, so a script of many orders runs at the {@link Engine}'s own
+ * speed.</p>
+ *
+ * @version 1.5
+ * @see MenuUI
+ */
+public class ScriptUI {
+
+    /**
+     * The size of the output buffer, in bytes.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The maximal number of arguments of a command.
+     */
+    private static final int MAX_ARGUMENTS = 8;
+
+    /**
+     * private Constructor, to prevent others to make instances of this class.
+     */
+    private ScriptUI() {}
+
+    /**
+     * Runs the commands of a command file.
+     *
+     * @param path the path of the command file, or '-' for {@code
+     *             System.in}.
+     */
+    public static void run(String path) {
+        try (InputStream in = path.equals("-") ?
+                new FileInputStream(FileDescriptor.in) :
+                new FileInputStream(path)) {
+            run(new BufferedReader(
+                    new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            MessagePrint.println(MessagePrint.Stream.ERR, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the commands of the given reader, until its end or an
+     * <tt>EXIT</tt> command.
+     *
+     * @param reader the commands, one in a line.
+     * @throws IOException if the reader fails.
+     */
+    public static void run(BufferedReader reader) throws IOException {
+
+        // buffer the output (it is flushed before every error, to keep order):
+        PrintStream systemOut = System.out;
+        PrintStream bufferedOut = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE),
+                false);
+        System.setOut(bufferedOut);
+        try {
+            AutoSave autoSave = Engine.getAutoSave();
+            String[] tokens = new String[MAX_ARGUMENTS];
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                ++lineNumber;
+                int count = tokenize(line, tokens);
+                if ((count == 0) || tokens[0].startsWith("#")) {
+                    continue;
+                }
+                try {
+                    if (!execute(line, tokens, count)) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    bufferedOut.flush();
+                    MessagePrint.println(MessagePrint.Stream.ERR,
+                            Message.Err.Script.atLine(lineNumber,
+                                    e.getMessage()));
+                }
+                if (autoSave != null) {
+                    autoSave.checkpointIfDue();
+                }
+            }
+        } finally {
+            bufferedOut.flush();
+            System.setOut(systemOut);
+        }
+    }
+
+    /**
+     * Executes a single command.
+     *
+     * @param line   the whole line of the command.
+     * @param tokens the tokens of the line.
+     * @param count  the number of tokens in the line.
+     * @return {@code false} if the command was <tt>EXIT</tt>.
+     * @throws IOException with an appropriate message, if the command failed.
+     */
+    private static boolean execute(String line, String[] tokens, int count)
+            throws IOException {
+        String command = tokens[0];
+        if (command.equalsIgnoreCase("LOAD")) {
+            String path = getPath(line, command, "LOAD <path>");
+            if (LoadSaveRSX.isRSX(path)) {
+                LoadSaveRSX.unmarshal(path);
+            } else {
+                LoadSaveXML.unmarshal(path);
+            }
+        } else if (command.equalsIgnoreCase("SAVE")) {
+            Engine.getStocks();
+            String path = getPath(line, command, "SAVE <path>");
+            if (LoadSaveRSX.isRSX(path)) {
+                LoadSaveRSX.marshal(path);
+            } else {
+                LoadSaveXML.marshal(path);
+            }
+        } else if (command.equalsIgnoreCase("ORDER")) {
+            command_ORDER(tokens, count);
+        } else if (command.equalsIgnoreCase("PRINT")) {
+            command_PRINT(tokens, count);
+        } else if (command.equalsIgnoreCase("EXIT")) {
+            return false;
+        } else {
+            throw new IOException(Message.Err.Script.unknownCommand(command));
+        }
+        return true;
+    }
+
+    private static void command_ORDER(String[] tokens, int count)
+            throws IOException {
+        if (count < 5) {
+            throw new IOException(Message.Err.Script.usage(
+                    "ORDER <symbol> <BUY|SELL> <LMT|MKT|STP|STL|FOK> " +
+                            "<quantity> [stopPrice] [desiredLimitPrice] " +
+                            "[peakQuantity]"));
+        }
+
+        // get the stock (first, to fail fast as the MenuUI does):
+        Stock stock = Engine.getStockBySymbol(tokens[1]);
+
+        // get the orderDirection:
+        OrderDirection orderDirection;
+        if (tokens[2].equalsIgnoreCase("Buy")) {
+            orderDirection = OrderDirection.BUY;
+        } else if (tokens[2].equalsIgnoreCase("Sell")) {
+            orderDirection = OrderDirection.SELL;
+        } else {
+            throw new IOException(Message.Err.Input
+                    .mismatch("[String] 'Buy' or 'Sell'",
+                            "different [String]"));
+        }
+
+        // get the orderType:
+        OrderType orderType = parseOrderType(tokens[3]);
+
+        // get the Quantity:
+        long quantity = parseLong(tokens[4]);
+        if (quantity <= 0) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("number greater than 0", "negative number or 0"));
+        }
+
+        // get the prices, in the order the MenuUI asks for them:
+        int expectedCount = (orderType == OrderType.MKT) ? 5 :
+                (orderType == OrderType.STL) ? 7 : 6;
+        boolean isIceberg = (orderType == OrderType.LMT) && (count == 7);
+        if ((count != expectedCount) && !isIceberg) {
+            throw new IOException(Message.Err.Script.usage(
+                    "ORDER <symbol> <BUY|SELL> " + orderType +
+                            " <quantity>" + getPricesUsage(orderType)));
+        }
+        long desiredLimitPrice = 0;
+        long stopPrice = 0;
+        if (orderType.isStop()) {
+            stopPrice = parseNonNegativeLong(tokens[5]);
+        }
+        if ((orderType == OrderType.LMT) || (orderType == OrderType.FOK)) {
+            desiredLimitPrice = parseNonNegativeLong(tokens[5]);
+        } else if (orderType == OrderType.STL) {
+            desiredLimitPrice = parseNonNegativeLong(tokens[6]);
+        } else if (orderType == OrderType.MKT) {
+            desiredLimitPrice = Engine.calcDesiredLimitPriceOfMKTOrder(stock,
+                    orderDirection);
+        }
+
+        // create the instance of the Order:
+        Order order;
+        try {
+            order = new Order(orderDirection, orderType, quantity,
+                    desiredLimitPrice, stopPrice,
+                    isIceberg ? parsePositiveLong(tokens[6]) : 0);
+        } catch (NullPointerException e) {
+            throw new IOException(Message.Err.Order.buildFail());
+        }
+
+        // pass the risk checks, then execute it as the MenuUI does:
+        Engine.executeOrder(stock, order);
+    }
+
+    private static void command_PRINT(String[] tokens, int count)
+            throws IOException {
+        if (count == 1) {
+
+            // print stocks:
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    Engine.getStocks().toString());
+        } else if ((count == 3) && tokens[1].equalsIgnoreCase("ORDERS")) {
+
+            // print all the lists of the desired stocks, without pages:
+            List<Stock> stocksToPrint = tokens[2].equals("*") ?
+                    Engine.getStocks().getCollection() :
+                    Collections.singletonList(
+                            Engine.getStockBySymbol(tokens[2]));
+            for (Stock i : stocksToPrint) {
+                MessagePrint.println(MessagePrint.Stream.OUT,
+                        i.toString() + ":");
+                StockDataBase dataBase = i.getDataBase();
+                i.printAwaitingBuyOrders(i.getAwaitingBuyOrdersTitle("\t"),
+                        "\t\t\t",
+                        dataBase.getAwaitingBuyOrders().getCollection()
+                                .iterator(), Integer.MAX_VALUE);
+                i.printAwaitingSellOrders(i.getAwaitingSellOrdersTitle("\t"),
+                        "\t\t\t",
+                        dataBase.getAwaitingSellOrders().getCollection()
+                                .iterator(), Integer.MAX_VALUE);
+                i.printAwaitingStopOrders(i.getAwaitingStopOrdersTitle("\t"),
+                        "\t\t\t",
+                        dataBase.getStopOrders().getCollection().iterator(),
+                        Integer.MAX_VALUE);
+                i.printTransactions(i.getTransactionsTitle("\t"),
+                        "\t\t\t",
+                        dataBase.getSuccessfullyFinishedTransactions()
+                                .getCollection().iterator(), Integer.MAX_VALUE);
+                MessagePrint.println(MessagePrint.Stream.OUT, "\n");
+            }
+        } else if (count == 2) {
+
+            // print the desired stock, and its top-of-book:
+            Stock stock = Engine.getStockBySymbol(tokens[1]);
+            MessagePrint.println(MessagePrint.Stream.OUT, stock.toString());
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    "\t - " + stock.getQuote().toString());
+            MessagePrint.println(MessagePrint.Stream.OUT,
+                    stock.getTransactionsToString("\t", "\t\t\t"));
+        } else {
+            throw new IOException(Message.Err.Script.usage(
+                    "PRINT [<symbol> | ORDERS <symbol|*>]"));
+        }
+    }
+
+    /**
+     * Splits a line by white-spaces, without regular expressions.
+     *
+     * @param line   the line to split.
+     * @param tokens filled with the tokens of the line. Tokens beyond its
+     *               length are counted, but not kept.
+     * @return the number of tokens in the line.
+     */
+    private static int tokenize(String line, String[] tokens) {
+        int count = 0;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+
+            // skip the white-spaces:
+            while ((i < length) && Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            if (i == length) {
+                break;
+            }
+
+            // find the end of the token:
+            int start = i;
+            while ((i < length) && !Character.isWhitespace(line.charAt(i))) {
+                ++i;
+            }
+            if (count < tokens.length) {
+                tokens[count] = line.substring(start, i);
+            }
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * @return the rest of the line after the command, which may contain
+     * white-spaces.
+     * @throws IOException if there is no path.
+     */
+    private static String getPath(String line, String command, String usage)
+            throws IOException {
+        String path = line.substring(line.indexOf(command) + command.length())
+                .trim();
+        if (path.isEmpty()) {
+            throw new IOException(Message.Err.Script.usage(usage));
+        }
+        return path;
+    }
+
+    private static OrderType parseOrderType(String token) throws IOException {
+        for (OrderType i : OrderType.values()) {
+            if (i.name().equalsIgnoreCase(token)) {
+                return i;
+            }
+        }
+        throw new IOException(Message.Err.Input
+                .mismatch("[String] 'LMT', 'MKT', 'STP', 'STL' or 'FOK'",
+                        "different [String]"));
+    }
+
+    private static String getPricesUsage(OrderType orderType) {
+        if (orderType == OrderType.LMT) {
+            return " <desiredLimitPrice> [peakQuantity]";
+        } else if (orderType == OrderType.FOK) {
+            return " <desiredLimitPrice>";
+        } else if (orderType == OrderType.STP) {
+            return " <stopPrice>";
+        } else if (orderType == OrderType.STL) {
+            return " <stopPrice> <desiredLimitPrice>";
+        } else {
+            return "";
+        }
+    }
+
+    private static long parseLong(String token) throws IOException {
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IOException(
+                    Message.Err.Input.mismatch("[long]", "[String]"));
+        }
+    }
+
+    private static long parseNonNegativeLong(String token) throws IOException {
+        long value = parseLong(token);
+        if (value < 0) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("non-negative number", "negative number"));
+        }
+        return value;
+    }
+
+    private static long parsePositiveLong(String token) throws IOException {
+        long value = parseLong(token);
+        if (value <= 0) {
+            throw new IOException(Message.Err.Input
+                    .mismatch("number greater than 0", "negative number or 0"));
+        }
+        return value;
+    }
+
+}
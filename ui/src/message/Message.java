@@ -9,7 +9,7 @@ import message.builder.out.*;
  * <blockquote>Uses the Message Building Process in order to produce the
  * messages.</blockquote>
  *
- * @version 1.1
+ * @version 1.2
  * @see BuildMessage
  */
 public class Message {
@@ -80,6 +80,43 @@ public class Message {
                             .stocksInvalid_CompanyNameAmbiguity();
                 }
 
+                public static String stocksInvalid_TransactionTimeStamp() {
+                    return new BuildError_Load()
+                            .stocksInvalid_TransactionTimeStamp();
+                }
+
+            }
+
+        }
+
+        /**
+         * Organizes all {@link BuildError_RSX} messages.
+         * <p>Reached within {@code Message.Err.RSX}</p>
+         */
+        public static class RSX {
+
+            public static String suffix() {
+                return new BuildError_RSX().suffix();
+            }
+
+            public static String fileDoesNotExist() {
+                return new BuildError_RSX().fileDoesNotExist();
+            }
+
+            public static String format() {
+                return new BuildError_RSX().format();
+            }
+
+            public static String readFail(String reason) {
+                return new BuildError_RSX().readFail(reason);
+            }
+
+            public static String writeFail(String reason) {
+                return new BuildError_RSX().writeFail(reason);
+            }
+
+            public static String stockReadFail(String symbol, String reason) {
+                return new BuildError_RSX().stockReadFail(symbol, reason);
             }
 
         }
@@ -98,6 +135,46 @@ public class Message {
                 return new BuildError_Stocks().unFoundSymbol(symbol);
             }
 
+            public static String unFoundId(int id) {
+                return new BuildError_Stocks().unFoundId(id);
+            }
+
+        }
+
+        /**
+         * Organizes all {@link BuildError_AutoSave} messages.
+         * <p>Reached within {@code Message.Err.AutoSave}</p>
+         */
+        public static class AutoSave {
+
+            public static String notADirectory(String path) {
+                return new BuildError_AutoSave().notADirectory(path);
+            }
+
+            public static String noBase(String directory) {
+                return new BuildError_AutoSave().noBase(directory);
+            }
+
+            public static String writeFail(String filePath, String reason) {
+                return new BuildError_AutoSave().writeFail(filePath, reason);
+            }
+
+            public static String readFail(String filePath, String reason) {
+                return new BuildError_AutoSave().readFail(filePath, reason);
+            }
+
+        }
+
+        /**
+         * Organizes all {@link BuildError_Gateway} messages.
+         * <p>Reached within {@code Message.Err.Gateway}</p>
+         */
+        public static class Gateway {
+
+            public static String usage(String usage) {
+                return new BuildError_Gateway().usage(usage);
+            }
+
         }
 
         /**
@@ -129,6 +206,86 @@ public class Message {
 
         }
 
+        /**
+         * Organizes all {@link BuildError_Risk} messages.
+         * <p>Reached within {@code Message.Err.Risk}</p>
+         */
+        public static class Risk {
+
+            public static String maxQuantity(long quantity, long maxQuantity) {
+                return new BuildError_Risk().maxQuantity(quantity, maxQuantity);
+            }
+
+            public static String maxNotional(long notional, long maxNotional) {
+                return new BuildError_Risk().maxNotional(notional, maxNotional);
+            }
+
+            public static String priceCollar(long desiredLimitPrice,
+                                             long minPrice, long maxPrice) {
+                return new BuildError_Risk()
+                        .priceCollar(desiredLimitPrice, minPrice, maxPrice);
+            }
+
+            public static String orderRate(String symbol,
+                                           long maxOrdersPerSecond) {
+                return new BuildError_Risk()
+                        .orderRate(symbol, maxOrdersPerSecond);
+            }
+
+        }
+
+        /**
+         * Organizes all {@link BuildError_Replay} messages.
+         * <p>Reached within {@code Message.Err.Replay}</p>
+         */
+        public static class Replay {
+
+            public static String invalidLine(long lineNumber, String line,
+                                             String reason) {
+                return new BuildError_Replay()
+                        .invalidLine(lineNumber, line, reason);
+            }
+
+            public static String unknownSymbol(String symbol) {
+                return new BuildError_Replay().unknownSymbol(symbol);
+            }
+
+            public static String mismatch(int index, String expected,
+                                          String actual) {
+                return new BuildError_Replay()
+                        .mismatch(index, expected, actual);
+            }
+
+            public static String usage() {
+                return new BuildError_Replay().usage();
+            }
+
+            public static String loadGeneratorUsage() {
+                return new BuildError_Replay().loadGeneratorUsage();
+            }
+
+        }
+
+        /**
+         * Organizes all {@link BuildError_Script} messages.
+         * <p>Reached within {@code Message.Err.Script}</p>
+         */
+        public static class Script {
+
+            public static String atLine(long lineNumber, String message) {
+                return new BuildError_Script().atLine(lineNumber, message);
+            }
+
+            public static String unknownCommand(String command) {
+                return new BuildError_Script().unknownCommand(command);
+            }
+
+            public static String usage(String usage) {
+                return new BuildError_Script().usage(usage);
+            }
+
+        }
+
         /**
          * Organizes all {@link BuildError_Transaction} messages.
          * <p>Reached within {@code Message.Err.Transaction}</p>
@@ -186,6 +343,50 @@ public class Message {
             }
         }
 
+        /**
+         * Organizes all {@link BuildOutput_RSX} messages.
+         * <p>Reached within {@code Message.Out.RSX}</p>
+         */
+        public static class RSX {
+
+            public static String loaded(String filePath, int stocks) {
+                return new BuildOutput_RSX().loaded(filePath, stocks);
+            }
+
+            public static String saved(String filePath) {
+                return new BuildOutput_RSX().saved(filePath);
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_AutoSave} messages.
+         * <p>Reached within {@code Message.Out.AutoSave}</p>
+         */
+        public static class AutoSave {
+
+            public static String recovered(String directory, int deltas) {
+                return new BuildOutput_AutoSave().recovered(directory, deltas);
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_Gateway} messages.
+         * <p>Reached within {@code Message.Out.Gateway}</p>
+         */
+        public static class Gateway {
+
+            public static String listening(int port) {
+                return new BuildOutput_Gateway().listening(port);
+            }
+
+            public static String printClientReport(long orders, long acks,
+                                                   long rejects, long fills,
+                                                   long elapsedNanos) {
+                return new BuildOutput_Gateway().printClientReport(orders,
+                        acks, rejects, fills, elapsedNanos);
+            }
+        }
+
         /**
          * Organizes all {@link BuildOutput_Input} messages.
          * <p>Reached within {@code Message.Out.Input}</p>
@@ -208,6 +409,76 @@ public class Message {
             public static String success(String firstMessage) {
                 return new BuildOutput_Input().success(firstMessage);
             }
+
+            public static String nextPage() {
+                return new BuildOutput_Input().nextPage();
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_CallAuction} messages.
+         * <p>Reached within {@code Message.Out.CallAuction}</p>
+         */
+        public static class CallAuction {
+
+            public static String started(String symbol) {
+                return new BuildOutput_CallAuction().started(symbol);
+            }
+
+            public static String uncrossed(String symbol, long clearingPrice,
+                                           long volume) {
+                return new BuildOutput_CallAuction()
+                        .uncrossed(symbol, clearingPrice, volume);
+            }
+
+            public static String noCross(String symbol) {
+                return new BuildOutput_CallAuction().noCross(symbol);
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_MarketData} messages.
+         * <p>Reached within {@code Message.Out.MarketData}</p>
+         */
+        public static class MarketData {
+
+            public static String printDepth(String symbol,
+                                            marketdata.BookDepth depth,
+                                            int levels) {
+                return new BuildOutput_MarketData()
+                        .printDepth(symbol, depth, levels);
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_Metrics} messages.
+         * <p>Reached within {@code Message.Out.Metrics}</p>
+         */
+        public static class Metrics {
+
+            public static String printStatistics(
+                    metrics.EngineMetrics engineMetrics) {
+                return new BuildOutput_Metrics()
+                        .printStatistics(engineMetrics);
+            }
+        }
+
+        /**
+         * Organizes all {@link BuildOutput_Replay} messages.
+         * <p>Reached within {@code Message.Out.Replay}</p>
+         */
+        public static class Replay {
+
+            public static String printReport(long orders, long rejected,
+                                             long trades, long elapsedNanos,
+                                             metrics.LatencyHistogram latency) {
+                return new BuildOutput_Replay().printReport(orders, rejected,
+                        trades, elapsedNanos, latency);
+            }
+
+            public static String match(int trades) {
+                return new BuildOutput_Replay().match(trades);
+            }
         }
 
         /**
@@ -235,6 +506,38 @@ public class Message {
                 return new BuildOutput_StockDataBase()
                         .printOrderPerformedInItsEntirety();
             }
+
+            public static String printStopOrderPlaced() {
+                return new BuildOutput_StockDataBase().printStopOrderPlaced();
+            }
+
+            public static String printStopOrderTriggered(order.Order order) {
+                return new BuildOutput_StockDataBase()
+                        .printStopOrderTriggered(order);
+            }
+
+            public static String printMKTOrderSummary(long filledQuantity,
+                                                      double averagePrice,
+                                                      long unfilledQuantity) {
+                return new BuildOutput_StockDataBase()
+                        .printMKTOrderSummary(filledQuantity, averagePrice,
+                                unfilledQuantity);
+            }
+
+            public static String printFOKOrderCancelled(long quantity) {
+                return new BuildOutput_StockDataBase()
+                        .printFOKOrderCancelled(quantity);
+            }
+
+            public static String printOrdersExpired(String symbol,
+                                                    int count) {
+                return new BuildOutput_StockDataBase()
+                        .printOrdersExpired(symbol, count);
+            }
+
+            public static String printPage(int pageNumber) {
+                return new BuildOutput_StockDataBase().printPage(pageNumber);
+            }
         }
 
     }
@@ -0,0 +1,61 @@
+package message.builder.err;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_AutoSave extends BuildError {
+
+    public BuildError_AutoSave() {
+
+        // append the message.
+        stringBuilder.append("There is a problem with the autosave: ");
+    }
+
+    public String notADirectory(String path) {
+
+        // append the message.
+        stringBuilder.append("'").append(path)
+                .append("' is not a directory.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String noBase(String directory) {
+
+        // append the message.
+        stringBuilder.append("There is no autosave in: ").append(directory)
+                .append(".");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String writeFail(String filePath, String reason) {
+
+        // append the message.
+        stringBuilder.append("Program cannot write to: ").append(filePath)
+                .append(" (").append(reason).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String readFail(String filePath, String reason) {
+
+        // append the message.
+        stringBuilder.append("Program cannot read: ").append(filePath)
+                .append(" (").append(reason).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
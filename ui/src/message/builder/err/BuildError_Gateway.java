@@ -0,0 +1,24 @@
+package message.builder.err;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_Gateway extends BuildError {
+
+    public String usage(String usage) {
+
+        // append the message.
+        stringBuilder.append("Usage: ").append(usage);
+
+        // return the String.
+        return getMessage();
+    }
+
+}
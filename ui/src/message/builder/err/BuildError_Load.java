@@ -60,4 +60,14 @@ public class BuildError_Load extends BuildError_XML {
         return getMessage();
     }
 
+    public String stocksInvalid_TransactionTimeStamp() {
+
+        // append the message.
+        stringBuilder
+                .append("Invalid Stocks - There is an invalid Transaction 'time-stamp' in the stock: ");
+
+        // return the String.
+        return getMessage();
+    }
+
 }
\ No newline at end of file
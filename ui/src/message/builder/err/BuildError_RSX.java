@@ -0,0 +1,78 @@
+package message.builder.err;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_RSX extends BuildError {
+
+    public BuildError_RSX() {
+
+        // append the message.
+        stringBuilder.append("There is a problem with your '.rsx' file: ");
+    }
+
+    public String suffix() {
+
+        // append the message.
+        stringBuilder.append("It does not have the '.rsx' suffix.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String fileDoesNotExist() {
+
+        // append the message.
+        stringBuilder.append("File does not exist.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String format() {
+
+        // append the message.
+        stringBuilder.append("It is not an indexed snapshot.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String readFail(String reason) {
+
+        // append the message.
+        stringBuilder.append("Program cannot read from it properly (")
+                .append(reason).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String writeFail(String reason) {
+
+        // append the message.
+        stringBuilder.append("Program cannot write to it properly (")
+                .append(reason).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String stockReadFail(String symbol, String reason) {
+
+        // append the message.
+        stringBuilder.append("The data-base of the stock '").append(symbol)
+                .append("' cannot be read (").append(reason).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
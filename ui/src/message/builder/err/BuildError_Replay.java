@@ -0,0 +1,72 @@
+package message.builder.err;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.1
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_Replay extends BuildError {
+
+    public String invalidLine(long lineNumber, String line, String reason) {
+
+        // append the message.
+        stringBuilder.append("Line ").append(lineNumber)
+                .append(" of the order file is invalid (").append(reason)
+                .append("): \"").append(line).append("\".");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String unknownSymbol(String symbol) {
+
+        // append the message.
+        stringBuilder.append("The Order was skipped: there is no Stock " +
+                "with the Symbol '").append(symbol).append("'.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String mismatch(int index, String expected, String actual) {
+
+        // append the message.
+        stringBuilder.append("The replay does NOT match the expected " +
+                "trades, from trade #").append(index + 1).append(":")
+                .append("\n\t - Expected: ")
+                .append((expected == null) ? "no more trades" : expected)
+                .append("\n\t - Actual: ")
+                .append((actual == null) ? "no more trades" : actual);
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String usage() {
+
+        // append the message.
+        stringBuilder.append("Usage: OrderReplay <stocks.xml> <orders.csv> " +
+                "[--paced] [--expected <trades.csv>] " +
+                "[--write-expected <trades.csv>]");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String loadGeneratorUsage() {
+
+        // append the message.
+        stringBuilder.append("Usage: LoadGenerator [symbols > 0] " +
+                "[orders >= 0] [skew] [seed] [--write <orders.csv>] " +
+                "[--tick-book <ticks >= 0>]");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
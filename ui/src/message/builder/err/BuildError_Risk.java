@@ -0,0 +1,72 @@
+package message.builder.err;
+
+import currency.Currency;
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_Risk extends BuildError {
+
+    public BuildError_Risk() {
+
+        // append the message.
+        stringBuilder.append("The Order was rejected by a pre-trade risk " +
+                "check: ");
+    }
+
+    public String maxQuantity(long quantity, long maxQuantity) {
+
+        // append the message.
+        stringBuilder.append("its quantity (").append(quantity)
+                .append(") is greater than the maximal quantity (")
+                .append(maxQuantity).append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String maxNotional(long notional, long maxNotional) {
+
+        // append the message.
+        stringBuilder.append("its period (")
+                .append(Currency.numberFormat.format(notional))
+                .append(") is greater than the maximal period (")
+                .append(Currency.numberFormat.format(maxNotional))
+                .append(").");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String priceCollar(long desiredLimitPrice, long minPrice,
+                              long maxPrice) {
+
+        // append the message.
+        stringBuilder.append("its desiredLimitPrice (")
+                .append(Currency.numberFormat.format(desiredLimitPrice))
+                .append(") is outside the price collar of ")
+                .append(Currency.numberFormat.format(minPrice)).append(" - ")
+                .append(Currency.numberFormat.format(maxPrice)).append(".");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String orderRate(String symbol, long maxOrdersPerSecond) {
+
+        // append the message.
+        stringBuilder.append("'").append(symbol)
+                .append("' has already received ").append(maxOrdersPerSecond)
+                .append(" Orders in the current second.");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
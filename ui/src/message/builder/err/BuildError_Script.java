@@ -0,0 +1,54 @@
+package message.builder.err;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Error} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildError
+ */
+public class BuildError_Script extends BuildError {
+
+    /**
+     * @param lineNumber the line of the failed command.
+     * @param message    the message of the failure. Its own {@code Error}
+     *                   prefix, if it has one, is not repeated.
+     */
+    public String atLine(long lineNumber, String message) {
+        String prefix = getMessage();
+        if (message.startsWith(prefix)) {
+            message = message.substring(prefix.length());
+        }
+
+        // append the message.
+        stringBuilder.append("Line ").append(lineNumber).append(": ")
+                .append(message);
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String unknownCommand(String command) {
+
+        // append the message.
+        stringBuilder.append("Unknown command '").append(command)
+                .append("' (the commands are LOAD, ORDER, PRINT, SAVE and " +
+                        "EXIT).");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String usage(String usage) {
+
+        // append the message.
+        stringBuilder.append("Usage: ").append(usage);
+
+        // return the String.
+        return getMessage();
+    }
+
+}
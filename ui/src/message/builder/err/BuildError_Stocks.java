@@ -6,7 +6,7 @@ import message.builder.BuildMessage;
  * This class is a sub-class in the message building process.
  * <p>Represents a part of an {@code Error} message.</p>
  *
- * @version 1.0
+ * @version 1.1
  * @see BuildMessage
  * @see BuildError
  */
@@ -31,4 +31,14 @@ public class BuildError_Stocks extends BuildError {
         return getMessage();
     }
 
+    public String unFoundId(int id) {
+
+        // append the message.
+        stringBuilder.append("The Stock id '").append(id)
+                .append("' was not found in the stocks Collection.");
+
+        // return the String.
+        return getMessage();
+    }
+
 }
@@ -0,0 +1,27 @@
+package message.builder.out;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_AutoSave extends BuildOutput {
+
+    public String recovered(String directory, int deltas) {
+
+        // append the message.
+        stringBuilder.append("The Stocks have been recovered from the ")
+                .append("autosave in: ").append(directory).append(" (")
+                .append(deltas).append(" delta")
+                .append((deltas == 1) ? "" : "s").append(" applied).");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
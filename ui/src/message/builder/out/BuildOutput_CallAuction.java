@@ -0,0 +1,57 @@
+package message.builder.out;
+
+import currency.Currency;
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_CallAuction extends BuildOutput {
+
+    public BuildOutput_CallAuction() {
+
+        // append the message.
+        stringBuilder.append("Call Auction: ");
+    }
+
+    public String started(String symbol) {
+
+        // append the message.
+        stringBuilder.append("'").append(symbol)
+                .append("' is now in a call auction. Orders are accumulated " +
+                        "without being matched, until the auction is " +
+                        "uncrossed.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String uncrossed(String symbol, long clearingPrice, long volume) {
+
+        // append the message.
+        stringBuilder.append("'").append(symbol)
+                .append("' was uncrossed at the clearing price of ")
+                .append(Currency.numberFormat.format(clearingPrice))
+                .append(", with an executed volume of ").append(volume)
+                .append(" stocks.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String noCross(String symbol) {
+
+        // append the message.
+        stringBuilder.append("'").append(symbol)
+                .append("' was uncrossed, but there were no matching Orders.");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
@@ -0,0 +1,46 @@
+package message.builder.out;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_Gateway extends BuildOutput {
+
+    public String listening(int port) {
+
+        // append the message.
+        stringBuilder.append("The order gateway is listening on port ")
+                .append(port).append(" of the loopback address.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String printClientReport(long orders, long acks, long rejects,
+                                    long fills, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+
+        // append the message.
+        stringBuilder.append("Gateway Client Report:")
+                .append("\n\t - Orders: ").append(orders)
+                .append(" (").append(acks).append(" acknowledged, ")
+                .append(rejects).append(" rejected)")
+                .append("\n\t - Fills: ").append(fills)
+                .append("\n\t - Elapsed: ")
+                .append(String.format("%.3f", seconds)).append(" s")
+                .append("\n\t - Throughput: ")
+                .append(String.format("%.0f",
+                        (seconds > 0) ? (orders / seconds) : 0))
+                .append(" orders/s");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
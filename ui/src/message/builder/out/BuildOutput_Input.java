@@ -42,4 +42,14 @@ public class BuildOutput_Input extends BuildOutput {
         // return the String.
         return getMessage();
     }
+
+    public String nextPage() {
+
+        // append the message.
+        stringBuilder.append("Enter 'n' for the next page, ")
+                .append("or anything else to stop: ");
+
+        // return the String.
+        return getMessage();
+    }
 }
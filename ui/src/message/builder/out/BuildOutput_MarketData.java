@@ -0,0 +1,42 @@
+package message.builder.out;
+
+import currency.Currency;
+import marketdata.BookDepth;
+import marketdata.PriceLevel;
+import message.builder.BuildMessage;
+import order.OrderDirection;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_MarketData extends BuildOutput {
+
+    public String printDepth(String symbol, BookDepth depth, int levels) {
+
+        // append the message.
+        stringBuilder.append("Market Depth of '").append(symbol).append("':");
+        for (OrderDirection direction : OrderDirection.values()) {
+            stringBuilder.append("\n\t - '").append(direction)
+                    .append("' Levels (").append(depth.getLevelCount(direction))
+                    .append(" in total):");
+            if (depth.getLevelCount(direction) == 0) {
+                stringBuilder.append("\n\t\t\tThere are no levels.");
+            }
+            for (PriceLevel i : depth.getLevels(direction, levels)) {
+                stringBuilder.append("\n\t\t\t")
+                        .append(Currency.numberFormat.format(i.getPrice()))
+                        .append(": quantity=").append(i.getQuantity())
+                        .append(", orders=").append(i.getOrderCount());
+            }
+        }
+
+        // return the String.
+        return getMessage();
+    }
+
+}
@@ -0,0 +1,38 @@
+package message.builder.out;
+
+import message.builder.BuildMessage;
+import metrics.EngineMetrics;
+import metrics.LatencyHistogram;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_Metrics extends BuildOutput {
+
+    public String printStatistics(EngineMetrics metrics) {
+
+        // append the message.
+        stringBuilder.append("Engine Statistics:");
+        stringBuilder.append("\n\t - Latencies:");
+        for (LatencyHistogram i : metrics.getHistograms()) {
+            stringBuilder.append("\n\t\t\t").append(i.toString());
+        }
+        stringBuilder.append("\n\t - Stocks:");
+        String[] stockStatistics = metrics.getStockStatistics();
+        if (stockStatistics.length == 0) {
+            stringBuilder.append("\n\t\t\tThere are no stocks.");
+        }
+        for (String i : stockStatistics) {
+            stringBuilder.append("\n\t\t\t").append(i);
+        }
+
+        // return the String.
+        return getMessage();
+    }
+
+}
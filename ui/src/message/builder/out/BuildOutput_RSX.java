@@ -0,0 +1,42 @@
+package message.builder.out;
+
+import message.builder.BuildMessage;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_RSX extends BuildOutput {
+
+    public BuildOutput_RSX() {
+
+        // append the message.
+        stringBuilder.append("Your '.rsx' file ");
+    }
+
+    public String loaded(String filePath, int stocks) {
+
+        // append the message.
+        stringBuilder.append("has been successfully loaded from: ")
+                .append(filePath).append(" (").append(stocks)
+                .append(" Stocks, each read on its first use).");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String saved(String filePath) {
+
+        // append the message.
+        stringBuilder.append("has been successfully saved to: ")
+                .append(filePath);
+
+        // return the String.
+        return getMessage();
+    }
+
+}
@@ -0,0 +1,47 @@
+package message.builder.out;
+
+import message.builder.BuildMessage;
+import metrics.LatencyHistogram;
+
+/**
+ * This class is a sub-class in the message building process.
+ * <p>Represents a part of an {@code Output} message.</p>
+ *
+ * @version 1.0
+ * @see BuildMessage
+ * @see BuildOutput
+ */
+public class BuildOutput_Replay extends BuildOutput {
+
+    public String printReport(long orders, long rejected, long trades,
+                              long elapsedNanos, LatencyHistogram latency) {
+        double seconds = elapsedNanos / 1e9;
+
+        // append the message.
+        stringBuilder.append("Replay Report:")
+                .append("\n\t - Orders: ").append(orders)
+                .append(" (").append(rejected).append(" rejected)")
+                .append("\n\t - Trades: ").append(trades)
+                .append("\n\t - Elapsed: ")
+                .append(String.format("%.3f", seconds)).append(" s")
+                .append("\n\t - Throughput: ")
+                .append(String.format("%.0f",
+                        (seconds > 0) ? (orders / seconds) : 0))
+                .append(" orders/s")
+                .append("\n\t - Latency: ").append(latency.toString());
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String match(int trades) {
+
+        // append the message.
+        stringBuilder.append("The replay matches the expected trades (")
+                .append(trades).append(" trades).");
+
+        // return the String.
+        return getMessage();
+    }
+
+}
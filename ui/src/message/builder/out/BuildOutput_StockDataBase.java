@@ -1,5 +1,6 @@
 package message.builder.out;
 
+import currency.Currency;
 import message.Message;
 import message.builder.BuildMessage;
 import message.builder.err.BuildError;
@@ -11,7 +12,7 @@ import transaction.Transaction;
  * This class is a sub-class in the message building process.
  * <p>Represents a part of an {@code Output} message.</p>
  *
- * @version 1.0
+ * @version 1.2
  * @see BuildMessage
  * @see BuildOutput
  */
@@ -30,6 +31,9 @@ public class BuildOutput_StockDataBase extends BuildOutput {
         } else if (typeOfCollection == TypeOfCollection.AWAITING_SELL_ORDERS) {
             stringBuilder.append("There are no " + "awaiting 'Sell' Orders" +
                     " for this stock right now.\n");
+        } else if (typeOfCollection == TypeOfCollection.AWAITING_STOP_ORDERS) {
+            stringBuilder.append("There are no " + "awaiting 'Stop' Orders" +
+                    " for this stock right now.\n");
         }
 
         // return the String.
@@ -77,12 +81,98 @@ public class BuildOutput_StockDataBase extends BuildOutput {
         return getMessage();
     }
 
+    public String printStopOrderPlaced() {
+
+        // append the message.
+        stringBuilder.append("The Stop Order is waiting for its stop price.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String printStopOrderTriggered(Order order) {
+
+        // append the message.
+        stringBuilder.append("The Stop Order was triggered:\n\t")
+                .append(order.toString());
+
+        // return the String.
+        return getMessage();
+    }
+
+    /**
+     * @param filledQuantity   the total quantity performed by the {@code MKT}
+     *                         {@link Order}.
+     * @param averagePrice     the average price of the performed quantity.
+     * @param unfilledQuantity the remainder of the {@code MKT} {@link Order}
+     *                         that was cancelled.
+     * @return message of the summary of a {@code MKT} {@link Order}.
+     */
+    public String printMKTOrderSummary(long filledQuantity,
+                                       double averagePrice,
+                                       long unfilledQuantity) {
+
+        // append the message.
+        stringBuilder.append("The 'MKT' Order performed ")
+                .append(filledQuantity).append(" stocks, at an average price of ")
+                .append(Currency.numberFormat.format(averagePrice))
+                .append(".");
+        if (unfilledQuantity > 0) {
+            stringBuilder.append(" The remainder of ").append(unfilledQuantity)
+                    .append(" stocks was cancelled.");
+        }
+
+        // return the String.
+        return getMessage();
+    }
+
+    /**
+     * @param quantity the quantity of the {@code FOK} {@link Order}.
+     * @return message of a {@code FOK} {@link Order} that could not be
+     * performed in its entirety, and was cancelled.
+     */
+    public String printFOKOrderCancelled(long quantity) {
+
+        // append the message.
+        stringBuilder.append("The 'FOK' Order of ").append(quantity)
+                .append(" stocks could not be performed in its entirety," +
+                        " and was cancelled.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    /**
+     * @param symbol the symbol of the {@link order.Order}s' stock.
+     * @param count  the number of expired {@link order.Order}s.
+     * @return message of awaiting {@link order.Order}s that expired, and
+     * were removed.
+     */
+    public String printOrdersExpired(String symbol, int count) {
+
+        // append the message.
+        stringBuilder.append(count).append(" awaiting Order(s) of '")
+                .append(symbol).append("' expired, and were removed.");
+
+        // return the String.
+        return getMessage();
+    }
+
+    public String printPage(int pageNumber) {
+
+        // append the message.
+        stringBuilder.append(" [Page ").append(pageNumber).append("]");
+
+        // return the String.
+        return getMessage();
+    }
+
     /**
      * Defines the message the method {@link #printEmpty(TypeOfCollection)}
      * prints.
      */
     public enum TypeOfCollection {
-        AWAITING_BUY_ORDERS, AWAITING_SELL_ORDERS,
+        AWAITING_BUY_ORDERS, AWAITING_SELL_ORDERS, AWAITING_STOP_ORDERS,
         SUCCESSFULLY_FINISHED_TRANSACTIONS
     }
 
@@ -6,18 +6,36 @@ import static message.print.MessagePrint.Stream.OUT;
 /**
  * This class bundles all program's prints to a {@link java.io.PrintStream} and
  * prints all the given messages.
+ * <p>The {@link Stream#OUT} messages may be suppressed by {@link
+ * #setQuiet(boolean)}, e.g. while replaying many orders at full speed.</p>
  *
- * @version 1.0
+ * @version 1.1
  */
 public class MessagePrint {
 
+    /**
+     * {@code true} if the {@link Stream#OUT} messages are suppressed.
+     */
+    private static volatile boolean quiet = false;
+
     /**
      * private Constructor, to prevent others to make instances of this class.
      */
     private MessagePrint() {}
 
+    public static boolean isQuiet() {
+        return quiet;
+    }
+
+    public static void setQuiet(boolean quiet) {
+        MessagePrint.quiet = quiet;
+    }
+
     public static void println(Stream stream, String message) {
         if (stream == OUT) {
+            if (quiet) {
+                return;
+            }
             System.out.println(message);
         } else if (stream == ERR) {
             System.err.println(message);
@@ -26,6 +44,9 @@ public class MessagePrint {
 
     public static void print(Stream stream, String message) {
         if (stream == OUT) {
+            if (quiet) {
+                return;
+            }
             System.out.print(message);
         } else if (stream == ERR) {
             System.err.print(message);